@@ -0,0 +1,232 @@
+package org.tduc.homeworkservice.analytics;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.tduc.homeworkservice.dto.response.GradeDistributionResponse;
+import org.tduc.homeworkservice.exception.AppException;
+import org.tduc.homeworkservice.exception.ErrorCode;
+import org.tduc.homeworkservice.model.Homework;
+import org.tduc.homeworkservice.repository.HomeworkRepository;
+import org.tduc.homeworkservice.repository.projection.GradebookColumnView;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Grade distributions per homework and per course, from a {@link GradeSketch} per homework kept in
+ * grade_distribution_bin: one counter row per occupied bin, never more than 1001 per homework.
+ * <p>
+ * Grade changes move a count from the old bin to the new one. The moves of a transaction are summed
+ * and written just before it commits, in (homework, bin) order so concurrent graders of the same
+ * homework cannot deadlock. The first change to a homework instead seeds its bins from the submission
+ * table, which then already holds the change; grade_distribution marks seeded homework. Homework not
+ * seeded yet is read with one grouped query over its submissions. Course answers merge the sketches
+ * of its homework, so their cost depends on the number of homework, not submissions. HomeworkService1
+ * moves the counts of seeded homework the same way when it grades or deletes submissions.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class GradeDistributionService {
+
+    private static final double[] PERCENTILES = {0.10, 0.25, 0.50, 0.75, 0.90};
+    private static final int MAX_BUCKETS = 100;
+
+    // Must match GradeSketch.binOf: the percentage in tenths, half up, clamped to 0..1000
+    private static final String BIN_SQL = "LEAST(1000, GREATEST(0, ROUND(s.percentage * 10)))";
+    private static final String SCORED_SQL =
+            "s.status = 'GRADED' AND s.score IS NOT NULL AND s.percentage IS NOT NULL";
+
+    private static final String CLAIM_SQL = "INSERT IGNORE INTO grade_distribution (homework_id) VALUES (?)";
+    private static final String SEED_SQL = "INSERT INTO grade_distribution_bin (homework_id, bin, count) "
+            + "SELECT s.homework_id, " + BIN_SQL + " AS bin, COUNT(*) FROM submission s "
+            + "WHERE s.homework_id = ? AND " + SCORED_SQL + " GROUP BY s.homework_id, bin";
+    private static final String DELTA_SQL = "INSERT INTO grade_distribution_bin (homework_id, bin, count) VALUES (?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE count = count + VALUES(count)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final HomeworkRepository homeworkRepository;
+
+    @Value("${app.grade-distribution.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Moves a submission's grade from one bin to another; -1 for "not counted" (ungraded, no score,
+     * new or deleted). Runs inside the caller's write transaction and is written when it commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(String homeworkId, int fromBin, int toBin) {
+        if (!enabled || fromBin == toBin) {
+            return;
+        }
+        Map<String, TreeMap<Integer, Long>> pending = pendingMoves();
+        TreeMap<Integer, Long> bins = pending.computeIfAbsent(homeworkId, id -> new TreeMap<>());
+        if (fromBin >= 0) {
+            bins.merge(fromBin, -1L, Long::sum);
+        }
+        if (toBin >= 0) {
+            bins.merge(toBin, 1L, Long::sum);
+        }
+    }
+
+    public GradeDistributionResponse homeworkDistribution(String homeworkId, int buckets) {
+        checkBuckets(buckets);
+        Homework homework = homeworkRepository.findById(homeworkId)
+                .orElseThrow(() -> new AppException(ErrorCode.HOMEWORK_NOT_FOUND));
+        GradeSketch sketch = sketchesFor(List.of(homeworkId)).get(homeworkId);
+        GradeDistributionResponse response = toResponse(sketch, buckets);
+        response.setHomeworkId(homeworkId);
+        response.setCourseId(homework.getCourseId());
+        response.setMaxScore(homework.getMaxScore());
+        return response;
+    }
+
+    public GradeDistributionResponse courseDistribution(String courseId, int buckets) {
+        checkBuckets(buckets);
+        List<String> homeworkIds = homeworkRepository.findGradebookColumns(courseId).stream()
+                .map(GradebookColumnView::homeworkId)
+                .toList();
+        GradeSketch merged = new GradeSketch();
+        sketchesFor(homeworkIds).values().forEach(merged::merge);
+        GradeDistributionResponse response = toResponse(merged, buckets);
+        response.setCourseId(courseId);
+        return response;
+    }
+
+    /**
+     * A sketch for every given homework, empty for homework without graded submissions.
+     */
+    public Map<String, GradeSketch> sketchesFor(Collection<String> homeworkIds) {
+        Map<String, GradeSketch> sketches = new HashMap<>();
+        for (String homeworkId : homeworkIds) {
+            sketches.put(homeworkId, new GradeSketch());
+        }
+        if (homeworkIds.isEmpty()) {
+            return sketches;
+        }
+        List<String> unseeded = new ArrayList<>(sketches.keySet());
+        if (enabled) {
+            List<String> seeded = jdbcTemplate.queryForList("SELECT homework_id FROM grade_distribution WHERE homework_id IN ("
+                    + placeholders(unseeded.size()) + ")", String.class, unseeded.toArray());
+            if (!seeded.isEmpty()) {
+                jdbcTemplate.query("SELECT homework_id, bin, count FROM grade_distribution_bin WHERE homework_id IN ("
+                        + placeholders(seeded.size()) + ") AND count <> 0", (RowCallbackHandler) rs -> {
+                    sketches.get(rs.getString(1)).add(rs.getInt(2), rs.getLong(3));
+                }, seeded.toArray());
+                unseeded.removeAll(Set.copyOf(seeded));
+            }
+        }
+        if (!unseeded.isEmpty()) {
+            jdbcTemplate.query("SELECT s.homework_id, " + BIN_SQL + " AS bin, COUNT(*) FROM submission s "
+                    + "WHERE s.homework_id IN (" + placeholders(unseeded.size()) + ") AND " + SCORED_SQL
+                    + " GROUP BY s.homework_id, bin", (RowCallbackHandler) rs -> {
+                sketches.get(rs.getString(1)).add(rs.getInt(2), rs.getLong(3));
+            }, unseeded.toArray());
+        }
+        return sketches;
+    }
+
+    private Map<String, TreeMap<Integer, Long>> pendingMoves() {
+        @SuppressWarnings("unchecked")
+        Map<String, TreeMap<Integer, Long>> pending =
+                (Map<String, TreeMap<Integer, Long>>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        Map<String, TreeMap<Integer, Long>> moves = new TreeMap<>();
+        TransactionSynchronizationManager.bindResource(this, moves);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                write(moves);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(GradeDistributionService.this);
+            }
+        });
+        return moves;
+    }
+
+    private void write(Map<String, TreeMap<Integer, Long>> moves) {
+        for (Map.Entry<String, TreeMap<Integer, Long>> entry : moves.entrySet()) {
+            String homeworkId = entry.getKey();
+            if (jdbcTemplate.update(CLAIM_SQL, homeworkId) == 1) {
+                // First change to this homework: count it from the submissions, this transaction's included
+                entityManager.flush();
+                int bins = jdbcTemplate.update(SEED_SQL, homeworkId);
+                log.debug("Grade distribution of homework {} seeded with {} bins", homeworkId, bins);
+                continue;
+            }
+            List<Object[]> deltas = new ArrayList<>();
+            entry.getValue().forEach((bin, delta) -> {
+                if (delta != 0) {
+                    deltas.add(new Object[]{homeworkId, bin, delta});
+                }
+            });
+            if (!deltas.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELTA_SQL, deltas);
+            }
+        }
+    }
+
+    private static GradeDistributionResponse toResponse(GradeSketch sketch, int buckets) {
+        Map<String, BigDecimal> percentiles = new LinkedHashMap<>();
+        for (double q : PERCENTILES) {
+            percentiles.put("p" + Math.round(q * 100), sketch.quantile(q));
+        }
+        long[] counts = sketch.histogram(buckets);
+        List<GradeDistributionResponse.Bucket> histogram = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            histogram.add(GradeDistributionResponse.Bucket.builder()
+                    .from(bound(i, buckets))
+                    .to(bound(i + 1, buckets))
+                    .count(counts[i])
+                    .build());
+        }
+        return GradeDistributionResponse.builder()
+                .count(sketch.count())
+                .mean(sketch.mean())
+                .min(sketch.min())
+                .median(sketch.quantile(0.5))
+                .max(sketch.max())
+                .percentiles(percentiles)
+                .histogram(histogram)
+                .build();
+    }
+
+    private static BigDecimal bound(int index, int buckets) {
+        return BigDecimal.valueOf(100L * index).divide(BigDecimal.valueOf(buckets), 2, RoundingMode.HALF_UP);
+    }
+
+    private static void checkBuckets(int buckets) {
+        if (buckets < 1 || buckets > MAX_BUCKETS) {
+            throw new AppException(ErrorCode.INVALID_REQUEST);
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,105 @@
+package org.tduc.homeworkservice.analytics;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Distribution of graded percentages (0-100) as counts at a fixed 0.1 point resolution: 1001 bins,
+ * 8 KB, whatever the number of submissions.
+ * <p>
+ * Grades are bounded and already rounded, so unlike t-digest or KLL this needs no compression:
+ * quantiles are exact up to the bin width (0.05 points), merging is adding counts with no loss, and
+ * counts can be taken back out when a grade changes or a submission is deleted. Fixed-bucket
+ * histograms are derived from the same bins.
+ */
+public final class GradeSketch {
+
+    public static final int BINS_PER_POINT = 10;
+    public static final int MAX_BIN = 100 * BINS_PER_POINT;
+
+    private final long[] counts = new long[MAX_BIN + 1];
+    private long total;
+
+    /**
+     * Bin of a percentage, half up; values above 100 (extra credit) count as 100.
+     */
+    public static int binOf(BigDecimal percentage) {
+        int bin = percentage.movePointRight(1).setScale(0, RoundingMode.HALF_UP).intValue();
+        return Math.max(0, Math.min(MAX_BIN, bin));
+    }
+
+    public static BigDecimal valueOf(int bin) {
+        return BigDecimal.valueOf(bin, 1);
+    }
+
+    public void add(int bin, long count) {
+        counts[bin] += count;
+        total += count;
+    }
+
+    public GradeSketch merge(GradeSketch other) {
+        for (int bin = 0; bin <= MAX_BIN; bin++) {
+            counts[bin] += other.counts[bin];
+        }
+        total += other.total;
+        return this;
+    }
+
+    public long count() {
+        return total;
+    }
+
+    /**
+     * Mean percentage to two decimals, null when empty.
+     */
+    public BigDecimal mean() {
+        if (total <= 0) {
+            return null;
+        }
+        long weighted = 0;
+        for (int bin = 0; bin <= MAX_BIN; bin++) {
+            weighted += bin * counts[bin];
+        }
+        return BigDecimal.valueOf(weighted).divide(BigDecimal.valueOf(total * BINS_PER_POINT), 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Nearest-rank quantile: the smallest value with at least q of all grades at or below it.
+     * Null when empty.
+     */
+    public BigDecimal quantile(double q) {
+        if (total <= 0) {
+            return null;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for (int bin = 0; bin <= MAX_BIN; bin++) {
+            seen += counts[bin];
+            if (seen >= rank) {
+                return valueOf(bin);
+            }
+        }
+        return valueOf(MAX_BIN);
+    }
+
+    public BigDecimal min() {
+        return quantile(0);
+    }
+
+    public BigDecimal max() {
+        return quantile(1);
+    }
+
+    /**
+     * Counts in equal-width buckets over 0-100; the last bucket includes 100.
+     */
+    public long[] histogram(int buckets) {
+        long[] histogram = new long[buckets];
+        for (int bin = 0; bin <= MAX_BIN; bin++) {
+            if (counts[bin] != 0) {
+                histogram[Math.min(buckets - 1, bin * buckets / MAX_BIN)] += counts[bin];
+            }
+        }
+        return histogram;
+    }
+}
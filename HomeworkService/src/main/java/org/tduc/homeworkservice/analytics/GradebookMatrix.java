@@ -0,0 +1,186 @@
+package org.tduc.homeworkservice.analytics;
+
+import org.tduc.homeworkservice.exception.AppException;
+import org.tduc.homeworkservice.exception.ErrorCode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A course gradebook as one dense row-major {@code float[]}: a row per student, a column per homework,
+ * NaN where the student has no scored attempt. Students get a row the first time they appear; the
+ * array doubles when it fills up. Totals and final grades are plain loops over the array, with no
+ * boxing or BigDecimal per cell.
+ */
+public final class GradebookMatrix {
+
+    private static final int INITIAL_ROWS = 64;
+
+    /**
+     * Which attempt fills a cell when a student has several scored ones.
+     */
+    public enum Attempt {
+        LATEST, BEST;
+
+        public static Attempt parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (RuntimeException e) {
+                throw new AppException(ErrorCode.INVALID_REQUEST);
+            }
+        }
+    }
+
+    /**
+     * How homework counts towards the final grade: by its max score, or each homework the same.
+     */
+    public enum Weighting {
+        POINTS, EQUAL;
+
+        public static Weighting parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (RuntimeException e) {
+                throw new AppException(ErrorCode.INVALID_REQUEST);
+            }
+        }
+    }
+
+    private final int columns;
+    private final Attempt attempt;
+    private final Map<String, Integer> rowIndex = new HashMap<>();
+    private final List<String> students = new ArrayList<>();
+    private float[] scores;
+    // Attempt number behind each cell, only kept for LATEST
+    private int[] attempts;
+
+    public GradebookMatrix(int columns, Attempt attempt) {
+        this.columns = columns;
+        this.attempt = attempt;
+        this.scores = new float[INITIAL_ROWS * columns];
+        Arrays.fill(scores, Float.NaN);
+        this.attempts = attempt == Attempt.LATEST ? new int[INITIAL_ROWS * columns] : null;
+    }
+
+    public void put(String studentId, int column, int attemptNumber, float score) {
+        int cell = row(studentId) * columns + column;
+        float current = scores[cell];
+        if (attempt == Attempt.BEST) {
+            if (Float.isNaN(current) || score > current) {
+                scores[cell] = score;
+            }
+        } else if (Float.isNaN(current) || attemptNumber > attempts[cell]) {
+            scores[cell] = score;
+            attempts[cell] = attemptNumber;
+        }
+    }
+
+    public int rows() {
+        return students.size();
+    }
+
+    public int columns() {
+        return columns;
+    }
+
+    public List<String> students() {
+        return students;
+    }
+
+    public float score(int row, int column) {
+        return scores[row * columns + column];
+    }
+
+    /**
+     * Sum of each student's scores; missing cells count as zero.
+     */
+    public float[] rowTotals() {
+        int rows = rows();
+        float[] totals = new float[rows];
+        for (int row = 0, cell = 0; row < rows; row++) {
+            float total = 0;
+            for (int end = cell + columns; cell < end; cell++) {
+                float score = scores[cell];
+                if (!Float.isNaN(score)) {
+                    total += score;
+                }
+            }
+            totals[row] = round2(total);
+        }
+        return totals;
+    }
+
+    /**
+     * Each student's weighted percentage over all columns, missing cells counting as zero, or NaN when
+     * nothing can be weighed (no column with a positive max score).
+     */
+    public float[] finalGrades(float[] maxScores, Weighting weighting) {
+        // Per column factor turning a score into its weighted share of 100
+        float[] factors = new float[columns];
+        float weights = 0;
+        for (int column = 0; column < columns; column++) {
+            if (maxScores[column] > 0) {
+                weights += weighting == Weighting.POINTS ? maxScores[column] : 1;
+            }
+        }
+        for (int column = 0; column < columns; column++) {
+            if (maxScores[column] > 0 && weights > 0) {
+                float weight = weighting == Weighting.POINTS ? maxScores[column] : 1;
+                factors[column] = 100f * weight / (maxScores[column] * weights);
+            }
+        }
+        int rows = rows();
+        float[] grades = new float[rows];
+        for (int row = 0, cell = 0; row < rows; row++) {
+            float grade = 0;
+            for (int column = 0; column < columns; column++, cell++) {
+                float score = scores[cell];
+                if (!Float.isNaN(score)) {
+                    grade += score * factors[column];
+                }
+            }
+            grades[row] = weights > 0 ? round2(grade) : Float.NaN;
+        }
+        return grades;
+    }
+
+    /**
+     * Row numbers in student id order.
+     */
+    public int[] sortedRows() {
+        Integer[] order = new Integer[rows()];
+        for (int row = 0; row < order.length; row++) {
+            order[row] = row;
+        }
+        Arrays.sort(order, (a, b) -> students.get(a).compareTo(students.get(b)));
+        return Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+    }
+
+    private int row(String studentId) {
+        Integer row = rowIndex.get(studentId);
+        if (row != null) {
+            return row;
+        }
+        int next = students.size();
+        if ((next + 1) * columns > scores.length) {
+            int capacity = Math.max(INITIAL_ROWS, next * 2) * columns;
+            int filled = scores.length;
+            scores = Arrays.copyOf(scores, capacity);
+            Arrays.fill(scores, filled, capacity, Float.NaN);
+            if (attempts != null) {
+                attempts = Arrays.copyOf(attempts, capacity);
+            }
+        }
+        rowIndex.put(studentId, next);
+        students.add(studentId);
+        return next;
+    }
+
+    private static float round2(float value) {
+        return Math.round(value * 100f) / 100f;
+    }
+}
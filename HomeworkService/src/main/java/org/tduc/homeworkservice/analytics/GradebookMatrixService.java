@@ -0,0 +1,98 @@
+package org.tduc.homeworkservice.analytics;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.tduc.homeworkservice.dto.response.GradebookMatrixResponse;
+import org.tduc.homeworkservice.repository.HomeworkRepository;
+import org.tduc.homeworkservice.repository.projection.GradebookColumnView;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the course gradebook matrix for the gradebook UI. Scored attempts of the course's homework
+ * are read with one projection query straight into a {@link GradebookMatrix}, without entities or a
+ * row object per attempt; the response is then sliced out column by column in student id order.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GradebookMatrixService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final HomeworkRepository homeworkRepository;
+
+    @Transactional(readOnly = true)
+    public GradebookMatrixResponse build(String courseId, GradebookMatrix.Attempt attempt,
+                                         GradebookMatrix.Weighting weighting) {
+        long started = System.currentTimeMillis();
+        List<GradebookColumnView> columns = homeworkRepository.findGradebookColumns(courseId);
+        Map<String, Integer> columnIndex = new HashMap<>(columns.size() * 2);
+        List<String> homeworkIds = new ArrayList<>(columns.size());
+        List<String> titles = new ArrayList<>(columns.size());
+        float[] maxScores = new float[columns.size()];
+        for (GradebookColumnView column : columns) {
+            maxScores[columnIndex.size()] = column.maxScore() == null ? 0 : column.maxScore().floatValue();
+            columnIndex.put(column.homeworkId(), columnIndex.size());
+            homeworkIds.add(column.homeworkId());
+            titles.add(column.title());
+        }
+
+        GradebookMatrix matrix = new GradebookMatrix(columns.size(), attempt);
+        if (!columns.isEmpty()) {
+            jdbcTemplate.query("SELECT s.student_id, s.homework_id, s.attempt_number, s.score FROM submission s "
+                    + "WHERE s.homework_id IN (" + placeholders(columns.size()) + ") AND s.score IS NOT NULL",
+                    (RowCallbackHandler) rs -> {
+                BigDecimal score = rs.getBigDecimal(4);
+                matrix.put(rs.getString(1), columnIndex.get(rs.getString(2)), rs.getInt(3), score.floatValue());
+            }, homeworkIds.toArray());
+        }
+
+        float[] totals = matrix.rowTotals();
+        float[] finalGrades = matrix.finalGrades(maxScores, weighting);
+        int[] order = matrix.sortedRows();
+        List<String> studentIds = new ArrayList<>(order.length);
+        float[] sortedTotals = new float[order.length];
+        float[] sortedGrades = new float[order.length];
+        for (int i = 0; i < order.length; i++) {
+            studentIds.add(matrix.students().get(order[i]));
+            sortedTotals[i] = totals[order[i]];
+            sortedGrades[i] = finalGrades[order[i]];
+        }
+        List<float[]> scores = new ArrayList<>(columns.size());
+        for (int column = 0; column < columns.size(); column++) {
+            float[] values = new float[order.length];
+            for (int i = 0; i < order.length; i++) {
+                values[i] = matrix.score(order[i], column);
+            }
+            scores.add(values);
+        }
+
+        log.info("Built gradebook matrix for course {}: students={}, homeworks={}, attempt={}, took={}ms",
+                courseId, order.length, columns.size(), attempt, System.currentTimeMillis() - started);
+        return GradebookMatrixResponse.builder()
+                .courseId(courseId)
+                .attempt(attempt.name())
+                .weighting(weighting.name())
+                .homeworkIds(homeworkIds)
+                .titles(titles)
+                .maxScores(maxScores)
+                .studentIds(studentIds)
+                .scores(scores)
+                .totals(sortedTotals)
+                .finalGrades(sortedGrades)
+                .build();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,129 @@
+package org.tduc.homeworkservice.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Second-level cache for Homework and HomeworkAttachment, plus the query cache, held in bounded
+ * Caffeine caches on the heap. Every region is created here with a size bound; Hibernate is told to
+ * fail rather than create an unbounded one. Other replicas' writes arrive through
+ * HomeworkEntityCacheSync; the TTL bounds staleness should such a message be missed.
+ * <p>
+ * Hit ratios are published as homework.cache.hit.ratio and homework.cache.requests, tagged by region.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String HOMEWORK_REGION = "homework";
+    public static final String ATTACHMENT_REGION = "homework-attachment";
+
+    @Value("${app.entity-cache.homework-max-entries:10000}")
+    private long homeworkMaxEntries;
+
+    @Value("${app.entity-cache.attachment-max-entries:20000}")
+    private long attachmentMaxEntries;
+
+    @Value("${app.entity-cache.query-max-entries:2000}")
+    private long queryMaxEntries;
+
+    @Value("${app.entity-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CacheManager manager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        create(manager, HOMEWORK_REGION, homeworkMaxEntries, ttlSeconds);
+        create(manager, ATTACHMENT_REGION, attachmentMaxEntries, ttlSeconds);
+        create(manager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, queryMaxEntries, ttlSeconds);
+        // One entry per table; must outlive every cached query result, so no expiry
+        create(manager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, 1000, 0);
+        return manager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            for (String region : List.of(HOMEWORK_REGION, ATTACHMENT_REGION)) {
+                bind(registry, region, statistics,
+                        s -> hits(s.getDomainDataRegionStatistics(region)),
+                        s -> misses(s.getDomainDataRegionStatistics(region)));
+            }
+            bind(registry, "query", statistics, Statistics::getQueryCacheHitCount, Statistics::getQueryCacheMissCount);
+        };
+    }
+
+    private static void bind(MeterRegistry registry, String region, Statistics statistics,
+                             ToDoubleFunction<Statistics> hits, ToDoubleFunction<Statistics> misses) {
+        Gauge.builder("homework.cache.hit.ratio", statistics, s -> {
+                    double hit = hits.applyAsDouble(s);
+                    double total = hit + misses.applyAsDouble(s);
+                    return total == 0 ? 0 : hit / total;
+                })
+                .tag("region", region)
+                .register(registry);
+        FunctionCounter.builder("homework.cache.requests", statistics, hits)
+                .tags("region", region, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("homework.cache.requests", statistics, misses)
+                .tags("region", region, "result", "miss")
+                .register(registry);
+    }
+
+    private static double hits(CacheRegionStatistics region) {
+        return region == null ? 0 : region.getHitCount();
+    }
+
+    private static double misses(CacheRegionStatistics region) {
+        return region == null ? 0 : region.getMissCount();
+    }
+
+    private static void create(CacheManager manager, String name, long maxEntries, long ttlSeconds) {
+        if (manager.getCache(name) != null) {
+            return;
+        }
+        CaffeineConfiguration<Object, Object> config = new CaffeineConfiguration<>();
+        config.setMaximumSize(OptionalLong.of(maxEntries));
+        if (ttlSeconds > 0) {
+            config.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        }
+        // Cached entries are Hibernate's disassembled state, never mutated: no need to copy them
+        config.setStoreByValue(false);
+        config.setStatisticsEnabled(true);
+        manager.createCache(name, config);
+    }
+}
@@ -0,0 +1,108 @@
+package org.tduc.homeworkservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.tduc.homeworkservice.datasource.ReadYourWritesWindow;
+import org.tduc.homeworkservice.datasource.ReplicaRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends @Transactional(readOnly = true) work to read replicas when app.read-replicas.enabled is set.
+ * The primary pool is still configured through spring.datasource (and spring.datasource.hikari);
+ * replicas share its driver and credentials unless overridden. Without the flag Boot's single
+ * datasource is used as before.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig implements WebMvcConfigurer {
+
+    @Value("${app.read-replicas.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${app.read-replicas.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${app.read-replicas.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${app.read-replicas.max-pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${app.read-replicas.connection-timeout-ms:2000}")
+    private long replicaConnectionTimeout;
+
+    @Value("${app.read-replicas.max-lag-seconds:0}")
+    private int maxLagSeconds;
+
+    @Value("${app.read-replicas.read-your-writes-ms:5000}")
+    private long readYourWritesMillis;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Bean
+    public ReadYourWritesWindow readYourWritesWindow() {
+        return new ReadYourWritesWindow(redisTemplate, readYourWritesMillis);
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties properties,
+                                                             ReadYourWritesWindow readYourWritesWindow) {
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setJdbcUrl(url.trim());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setConnectionTimeout(replicaConnectionTimeout);
+            replica.setReadOnly(true);
+            // Lets the application start while a replica is down; the health check picks it up later
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(new ReplicaRoutingDataSource.Replica(replica.getPoolName(), replica));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWritesWindow, maxLagSeconds);
+    }
+
+    /**
+     * The DataSource JPA, JdbcTemplate and the transaction manager use.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(readYourWritesWindow());
+    }
+}
@@ -0,0 +1,27 @@
+package org.tduc.homeworkservice.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.tduc.homeworkservice.service.HomeworkEntityCacheSync;
+import org.tduc.homeworkservice.service.StudentFeedCache;
+
+@Configuration
+public class RedisConfig {
+
+    /**
+     * Subscribes the student feed cache and the homework entity cache to invalidations broadcast by every replica
+     */
+    @Bean
+    public RedisMessageListenerContainer feedInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                  StudentFeedCache studentFeedCache,
+                                                                  HomeworkEntityCacheSync homeworkEntityCacheSync) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(studentFeedCache, new ChannelTopic(StudentFeedCache.CHANNEL));
+        container.addMessageListener(homeworkEntityCacheSync, new ChannelTopic(HomeworkEntityCacheSync.CHANNEL));
+        return container;
+    }
+}
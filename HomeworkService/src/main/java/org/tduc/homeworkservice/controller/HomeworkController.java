@@ -1,32 +1,29 @@
-    /**
-     * Get all homeworks for a student (active và không active)
-     */
-    @GetMapping("/student/{studentId}")
-    public ApiResponse<List<HomeworkResponse>> getHomeworksForStudent(@PathVariable String studentId) {
-        log.info("GET /api/homework/student/{} - Getting all homeworks for student", studentId);
-        List<HomeworkResponse> homeworks = homeworkService.getHomeworksForStudent(studentId);
-        return ApiResponse.<List<HomeworkResponse>>builder()
-            .code(HttpStatus.OK.value())
-            .message("All homeworks retrieved successfully")
-            .result(homeworks)
-            .build();
-    }
 package org.tduc.homeworkservice.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.tduc.homeworkservice.analytics.GradebookMatrix;
 import org.tduc.homeworkservice.dto.request.ApiResponse;
+import org.tduc.homeworkservice.dto.request.BulkStatusUpdateRequest;
 import org.tduc.homeworkservice.dto.request.HomeworkCreationRequest;
 import org.tduc.homeworkservice.dto.request.HomeworkUpdateRequest;
+import org.tduc.homeworkservice.dto.response.BulkJobResponse;
+import org.tduc.homeworkservice.dto.response.GradebookMatrixResponse;
 import org.tduc.homeworkservice.dto.response.HomeworkResponse;
 import org.tduc.homeworkservice.model.HomeworkStatus;
+import org.tduc.homeworkservice.service.GradebookExportService;
 import org.tduc.homeworkservice.service.HomeworkService;
 import org.tduc.homeworkservice.util.AuthContextUtil;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -145,11 +142,12 @@ public class HomeworkController {
     @GetMapping("/search")
     public ApiResponse<Page<HomeworkResponse>> searchHomeworks(
             @RequestParam String keyword,
+            @RequestParam(required = false) String courseId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         log.info("GET /api/homework/search - Searching homeworks with keyword: {}", keyword);
         
-        Page<HomeworkResponse> homeworks = homeworkService.searchHomeworks(keyword, page, size);
+        Page<HomeworkResponse> homeworks = homeworkService.searchHomeworks(keyword, courseId, page, size);
         
         return ApiResponse.<Page<HomeworkResponse>>builder()
             .code(HttpStatus.OK.value())
@@ -158,6 +156,20 @@ public class HomeworkController {
             .build();
     }
 
+    /**
+     * Get all homeworks for a student (active và không active)
+     */
+    @GetMapping("/student/{studentId}")
+    public ApiResponse<List<HomeworkResponse>> getHomeworksForStudent(@PathVariable String studentId) {
+        log.info("GET /api/homework/student/{} - Getting all homeworks for student", studentId);
+        List<HomeworkResponse> homeworks = homeworkService.getHomeworksForStudent(studentId);
+        return ApiResponse.<List<HomeworkResponse>>builder()
+            .code(HttpStatus.OK.value())
+            .message("All homeworks retrieved successfully")
+            .result(homeworks)
+            .build();
+    }
+
     /**
      * Get active homeworks for a student
      */
@@ -174,6 +186,46 @@ public class HomeworkController {
             .build();
     }
 
+    /**
+     * Get the course gradebook as columnar score arrays (attempt=latest or best, weighting=points or equal)
+     */
+    @GetMapping("/course/{courseId}/gradebook")
+    public ApiResponse<GradebookMatrixResponse> getGradebook(
+            @PathVariable String courseId,
+            @RequestParam(defaultValue = "latest") String attempt,
+            @RequestParam(defaultValue = "points") String weighting) {
+        log.info("GET /api/homework/course/{}/gradebook - Getting gradebook ({}, {})", courseId, attempt, weighting);
+        
+        GradebookMatrixResponse gradebook = homeworkService.getGradebook(courseId,
+            GradebookMatrix.Attempt.parse(attempt), GradebookMatrix.Weighting.parse(weighting));
+        
+        return ApiResponse.<GradebookMatrixResponse>builder()
+            .code(HttpStatus.OK.value())
+            .message("Gradebook retrieved successfully")
+            .result(gradebook)
+            .build();
+    }
+
+    /**
+     * Export the course gradebook, one row per student and one column per homework (format=csv or xlsx)
+     */
+    @GetMapping("/course/{courseId}/gradebook/export")
+    public void exportGradebook(
+            @PathVariable String courseId,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) throws IOException {
+        log.info("GET /api/homework/course/{}/gradebook/export - Exporting gradebook as {}", courseId, format);
+        
+        GradebookExportService.Format exportFormat = GradebookExportService.Format.parse(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+            .filename("gradebook-" + courseId + "." + exportFormat.getExtension(), StandardCharsets.UTF_8)
+            .build()
+            .toString());
+        
+        homeworkService.exportGradebook(courseId, exportFormat, response.getOutputStream());
+    }
+
     /**
      * Get overdue homeworks for a course
      */
@@ -223,19 +275,32 @@ public class HomeworkController {
     }
 
     /**
-     * Bulk update homework status
+     * Bulk update homework status (runs as a background job)
      */
     @PutMapping("/bulk/status")
-    public ApiResponse<Void> bulkUpdateStatus(
-            @RequestParam List<String> homeworkIds,
-            @RequestParam HomeworkStatus status) {
-        log.info("PUT /api/homework/bulk/status - Bulk updating {} homeworks to status {}", homeworkIds.size(), status);
+    public ApiResponse<BulkJobResponse> bulkUpdateStatus(@RequestBody @Valid BulkStatusUpdateRequest request) {
+        log.info("PUT /api/homework/bulk/status - Bulk updating {} homeworks to status {}", request.getHomeworkIds().size(), request.getStatus());
         
-        homeworkService.bulkUpdateStatus(homeworkIds, status);
+        BulkJobResponse job = homeworkService.bulkUpdateStatus(request);
         
-        return ApiResponse.<Void>builder()
+        return ApiResponse.<BulkJobResponse>builder()
+            .code(HttpStatus.ACCEPTED.value())
+            .message("Homework status update queued")
+            .result(job)
+            .build();
+    }
+
+    /**
+     * Progress of a bulk job (status update or grading)
+     */
+    @GetMapping("/bulk/jobs/{jobId}")
+    public ApiResponse<BulkJobResponse> getBulkJob(@PathVariable String jobId) {
+        log.info("GET /api/homework/bulk/jobs/{} - Getting bulk job progress", jobId);
+        
+        return ApiResponse.<BulkJobResponse>builder()
             .code(HttpStatus.OK.value())
-            .message("Homework status updated successfully")
+            .message("Bulk job retrieved successfully")
+            .result(homeworkService.getBulkJob(jobId))
             .build();
     }
 
@@ -7,8 +7,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.tduc.homeworkservice.dto.request.ApiResponse;
+import org.tduc.homeworkservice.dto.request.BulkGradingRequest;
 import org.tduc.homeworkservice.dto.request.SubmissionCreationRequest;
 import org.tduc.homeworkservice.dto.request.GradingRequest;
+import org.tduc.homeworkservice.dto.request.PeerReviewRequest;
+import org.tduc.homeworkservice.dto.response.BulkJobResponse;
+import org.tduc.homeworkservice.dto.response.CursorPage;
+import org.tduc.homeworkservice.dto.response.GradeDistributionResponse;
+import org.tduc.homeworkservice.dto.response.LatePenaltyRecomputeResponse;
+import org.tduc.homeworkservice.dto.response.PeerReviewAssignmentResponse;
+import org.tduc.homeworkservice.dto.response.PeerReviewSummaryResponse;
+import org.tduc.homeworkservice.dto.response.PeerReviewTaskResponse;
 import org.tduc.homeworkservice.dto.response.SubmissionResponse;
 import org.tduc.homeworkservice.model.SubmissionStatus;
 import org.tduc.homeworkservice.service.SubmissionService;
@@ -112,6 +121,48 @@ public class SubmissionController {
             .build();
     }
 
+    /**
+     * Get a homework's submissions by cursor; pass the returned nextCursor to get the following page
+     */
+    @GetMapping("/homework/{homeworkId}/cursor")
+    public ApiResponse<CursorPage<SubmissionResponse>> getSubmissionsByHomeworkAfter(
+            @PathVariable String homeworkId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.info("GET /api/submission/homework/{}/cursor - Getting submissions for homework", homeworkId);
+        
+        CursorPage<SubmissionResponse> submissions =
+            submissionService.getSubmissionsByHomeworkAfter(homeworkId, cursor, size, includeTotal);
+        
+        return ApiResponse.<CursorPage<SubmissionResponse>>builder()
+            .code(HttpStatus.OK.value())
+            .message("Homework submissions retrieved successfully")
+            .result(submissions)
+            .build();
+    }
+
+    /**
+     * Get a student's submissions by cursor
+     */
+    @GetMapping("/student/{studentId}/cursor")
+    public ApiResponse<CursorPage<SubmissionResponse>> getSubmissionsByStudentAfter(
+            @PathVariable String studentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.info("GET /api/submission/student/{}/cursor - Getting submissions for student", studentId);
+        
+        CursorPage<SubmissionResponse> submissions =
+            submissionService.getSubmissionsByStudentAfter(studentId, cursor, size, includeTotal);
+        
+        return ApiResponse.<CursorPage<SubmissionResponse>>builder()
+            .code(HttpStatus.OK.value())
+            .message("Student submissions retrieved successfully")
+            .result(submissions)
+            .build();
+    }
+
     /**
      * Get pending submissions for grading
      */
@@ -169,6 +220,42 @@ public class SubmissionController {
             .build();
     }
 
+    /**
+     * Get the grade distribution of a homework
+     */
+    @GetMapping("/homework/{homeworkId}/distribution")
+    public ApiResponse<GradeDistributionResponse> getGradeDistribution(
+            @PathVariable String homeworkId,
+            @RequestParam(defaultValue = "10") int buckets) {
+        log.info("GET /api/submission/homework/{}/distribution - Getting grade distribution", homeworkId);
+        
+        GradeDistributionResponse distribution = submissionService.getGradeDistribution(homeworkId, buckets);
+        
+        return ApiResponse.<GradeDistributionResponse>builder()
+            .code(HttpStatus.OK.value())
+            .message("Grade distribution retrieved successfully")
+            .result(distribution)
+            .build();
+    }
+
+    /**
+     * Get the grade distribution over all homework of a course
+     */
+    @GetMapping("/course/{courseId}/distribution")
+    public ApiResponse<GradeDistributionResponse> getCourseGradeDistribution(
+            @PathVariable String courseId,
+            @RequestParam(defaultValue = "10") int buckets) {
+        log.info("GET /api/submission/course/{}/distribution - Getting course grade distribution", courseId);
+        
+        GradeDistributionResponse distribution = submissionService.getCourseGradeDistribution(courseId, buckets);
+        
+        return ApiResponse.<GradeDistributionResponse>builder()
+            .code(HttpStatus.OK.value())
+            .message("Course grade distribution retrieved successfully")
+            .result(distribution)
+            .build();
+    }
+
     /**
      * Update submission status
      */
@@ -188,20 +275,119 @@ public class SubmissionController {
     }
 
     /**
-     * Bulk grade submissions
+     * Bulk grade submissions (runs as a background job; poll /api/homework/bulk/jobs/{jobId})
      */
     @PostMapping("/bulk/grade")
-    public ApiResponse<List<SubmissionResponse>> bulkGradeSubmissions(
-            @RequestParam List<String> submissionIds,
-            @RequestBody @Valid GradingRequest gradingTemplate) {
-        log.info("POST /api/submission/bulk/grade - Bulk grading {} submissions", submissionIds.size());
+    public ApiResponse<BulkJobResponse> bulkGradeSubmissions(@RequestBody @Valid BulkGradingRequest request) {
+        log.info("POST /api/submission/bulk/grade - Bulk grading {} submissions", request.getSubmissionIds().size());
         
-        List<SubmissionResponse> submissions = submissionService.bulkGradeSubmissions(submissionIds, gradingTemplate);
+        BulkJobResponse job = submissionService.bulkGradeSubmissions(request);
         
-        return ApiResponse.<List<SubmissionResponse>>builder()
+        return ApiResponse.<BulkJobResponse>builder()
+            .code(HttpStatus.ACCEPTED.value())
+            .message("Bulk grading queued")
+            .result(job)
+            .build();
+    }
+
+    /**
+     * Re-score a homework's late submissions after its late penalty policy changed
+     */
+    @PostMapping("/homework/{homeworkId}/late-penalty/recompute")
+    public ApiResponse<LatePenaltyRecomputeResponse> recomputeLatePenalties(@PathVariable String homeworkId) {
+        log.info("POST /api/submission/homework/{}/late-penalty/recompute - Recomputing late penalties", homeworkId);
+        
+        LatePenaltyRecomputeResponse result = submissionService.recomputeLatePenalties(homeworkId);
+        
+        return ApiResponse.<LatePenaltyRecomputeResponse>builder()
             .code(HttpStatus.OK.value())
-            .message("Submissions graded successfully")
-            .result(submissions)
+            .message("Late penalties recomputed successfully")
+            .result(result)
+            .build();
+    }
+
+    /**
+     * Recompute near-duplicate results for every submission of a homework
+     * (runs as a background job; poll /api/homework/bulk/jobs/{jobId})
+     */
+    @PostMapping("/homework/{homeworkId}/plagiarism/recheck")
+    public ApiResponse<BulkJobResponse> recheckPlagiarism(@PathVariable String homeworkId) {
+        log.info("POST /api/submission/homework/{}/plagiarism/recheck - Rechecking plagiarism", homeworkId);
+        
+        BulkJobResponse job = submissionService.recheckPlagiarism(homeworkId);
+        
+        return ApiResponse.<BulkJobResponse>builder()
+            .code(HttpStatus.ACCEPTED.value())
+            .message("Plagiarism recheck queued")
+            .result(job)
+            .build();
+    }
+
+    /**
+     * Assign peer reviewers for every submission of a homework
+     */
+    @PostMapping("/homework/{homeworkId}/peer-review/assign")
+    public ApiResponse<PeerReviewAssignmentResponse> assignPeerReviews(@PathVariable String homeworkId) {
+        log.info("POST /api/submission/homework/{}/peer-review/assign - Assigning peer reviews", homeworkId);
+        
+        PeerReviewAssignmentResponse result = submissionService.assignPeerReviews(homeworkId);
+        
+        return ApiResponse.<PeerReviewAssignmentResponse>builder()
+            .code(HttpStatus.OK.value())
+            .message("Peer reviews assigned successfully")
+            .result(result)
+            .build();
+    }
+
+    /**
+     * Get the submissions a student has to review for a homework
+     */
+    @GetMapping("/homework/{homeworkId}/peer-review/reviewer/{reviewerId}")
+    public ApiResponse<List<PeerReviewTaskResponse>> getPeerReviewTasks(
+            @PathVariable String homeworkId,
+            @PathVariable String reviewerId) {
+        log.info("GET /api/submission/homework/{}/peer-review/reviewer/{} - Getting peer review tasks", homeworkId, reviewerId);
+        
+        List<PeerReviewTaskResponse> result = submissionService.getPeerReviewTasks(homeworkId, reviewerId);
+        
+        return ApiResponse.<List<PeerReviewTaskResponse>>builder()
+            .code(HttpStatus.OK.value())
+            .message("Peer review tasks retrieved successfully")
+            .result(result)
+            .build();
+    }
+
+    /**
+     * Submit or revise a peer review of a submission
+     */
+    @PostMapping("/{id}/peer-review")
+    public ApiResponse<PeerReviewSummaryResponse> submitPeerReview(
+            @PathVariable String id,
+            @RequestBody @Valid PeerReviewRequest request) {
+        log.info("POST /api/submission/{}/peer-review - Submitting peer review", id);
+        
+        PeerReviewSummaryResponse result = submissionService.submitPeerReview(id, request);
+        
+        return ApiResponse.<PeerReviewSummaryResponse>builder()
+            .code(HttpStatus.OK.value())
+            .message("Peer review submitted successfully")
+            .result(result)
+            .build();
+    }
+
+    /**
+     * Get peer review totals of a submission
+     */
+    @GetMapping("/{id}/peer-review")
+    public ApiResponse<PeerReviewSummaryResponse> getPeerReviewSummary(@PathVariable String id) {
+        log.info("GET /api/submission/{}/peer-review - Getting peer review summary", id);
+        
+        PeerReviewSummaryResponse result = submissionService.getPeerReviewSummary(id);
+        
+        return ApiResponse.<PeerReviewSummaryResponse>builder()
+            .code(HttpStatus.OK.value())
+            .message("Peer review summary retrieved successfully")
+            .result(result)
             .build();
     }
 
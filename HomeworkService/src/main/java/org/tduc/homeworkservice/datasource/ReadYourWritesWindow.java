@@ -0,0 +1,115 @@
+package org.tduc.homeworkservice.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Keeps a user's reads on the primary while their own writes may not have reached the replicas yet.
+ * A mutating request (anything but GET, HEAD, OPTIONS) reads from the primary for its whole duration,
+ * and once it succeeds the caller's following requests do so for windowMillis from its end. This
+ * covers writes made on other threads too, such as batched submissions.
+ * <p>
+ * The window is a Redis key per user with windowMillis to live, so it holds whichever replica of the
+ * service the next request lands on. It is looked up at most once per request, on its first read-only
+ * transaction. If Redis cannot be reached, reads go to the primary.
+ */
+@Slf4j
+public class ReadYourWritesWindow implements HandlerInterceptor {
+
+    private static final String KEY_PREFIX = "homework:read-your-writes:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final long windowMillis;
+    private final ThreadLocal<RequestState> request = new ThreadLocal<>();
+
+    public ReadYourWritesWindow(StringRedisTemplate redisTemplate, long windowMillis) {
+        this.redisTemplate = redisTemplate;
+        this.windowMillis = windowMillis;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest httpRequest, HttpServletResponse response, Object handler) {
+        RequestState state = new RequestState();
+        state.writing = !isSafe(httpRequest.getMethod());
+        request.set(state);
+        if (state.writing) {
+            // Opened up front too: the response can reach the client before afterCompletion runs
+            markWrite();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest httpRequest, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RequestState state = request.get();
+        request.remove();
+        if (state != null && state.writing && ex == null && response.getStatus() < 400) {
+            markWrite();
+        }
+    }
+
+    /**
+     * Starts the window for the current user, e.g. after a write made outside a web request.
+     */
+    public void markWrite() {
+        String user = currentUser();
+        if (user == null || windowMillis <= 0) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + user, "1", Duration.ofMillis(windowMillis));
+        } catch (RuntimeException e) {
+            log.warn("Could not record read-your-writes window for {}: {}", user, e.getMessage());
+        }
+    }
+
+    public boolean requiresPrimary() {
+        RequestState state = request.get();
+        if (state == null) {
+            return lookup();
+        }
+        if (state.writing) {
+            return true;
+        }
+        if (state.pinned == null) {
+            state.pinned = lookup();
+        }
+        return state.pinned;
+    }
+
+    private boolean lookup() {
+        String user = currentUser();
+        if (user == null || windowMillis <= 0) {
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + user));
+        } catch (RuntimeException e) {
+            log.warn("Could not read read-your-writes window for {}, using the primary: {}", user, e.getMessage());
+            return true;
+        }
+    }
+
+    private static boolean isSafe(String method) {
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+
+    private static String currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth == null ? null : auth.getName();
+    }
+
+    private static final class RequestState {
+        boolean writing;
+        // Whether the user's window was open, once looked up
+        Boolean pinned;
+    }
+}
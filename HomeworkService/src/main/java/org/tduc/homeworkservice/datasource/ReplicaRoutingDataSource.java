@@ -0,0 +1,159 @@
+package org.tduc.homeworkservice.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out replica connections inside read-only transactions and primary connections otherwise.
+ * Replicas are taken round-robin, skipping those marked down by the health check or by a failed
+ * connect; with none available reads fall back to the primary. Reads of a user inside their
+ * {@link ReadYourWritesWindow} also stay on the primary.
+ * <p>
+ * The transaction's read-only flag is only known once it has begun, so this must sit behind a
+ * LazyConnectionDataSourceProxy, which fetches the connection on the first statement.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    public static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReadYourWritesWindow readYourWrites;
+    private final int maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * @param maxLagSeconds replicas further behind than this are skipped; 0 checks connectivity only
+     *                      (MySQL replicas report lag through SHOW REPLICA STATUS)
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, ReadYourWritesWindow readYourWrites,
+                                    int maxLagSeconds) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.readYourWrites = readYourWrites;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !readYourWrites.requiresPrimary()) {
+            Connection connection = replicaConnection();
+            if (connection != null) {
+                return connection;
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    private Connection replicaConnection() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                // Left out until the health check sees it back
+                replica.healthy = false;
+                log.warn("Read replica {} unavailable, reading elsewhere: {}", replica.name, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    @Scheduled(fixedDelayString = "${app.read-replicas.health-check-ms:5000}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean healthy = probe(replica);
+            if (healthy != replica.healthy) {
+                log.info("Read replica {} is {}", replica.name, healthy ? "back" : "down");
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    private boolean probe(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            if (!connection.isValid(2)) {
+                return false;
+            }
+            if (maxLagSeconds <= 0) {
+                return true;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+                if (!rs.next()) {
+                    return false;
+                }
+                // NULL while replication is stopped
+                long lag = rs.getLong("Seconds_Behind_Source");
+                return !rs.wasNull() && lag <= maxLagSeconds;
+            }
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Closes the replica pools; the primary belongs to whoever passed it in.
+     */
+    @Override
+    public void close() {
+        replicas.forEach(replica -> close(replica.dataSource));
+    }
+
+    private static void close(DataSource dataSource) {
+        if (dataSource instanceof Closeable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("Closing pool failed: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package org.tduc.homeworkservice.deadline;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.tduc.homeworkservice.event.HomeworkChangedEvent;
+import org.tduc.homeworkservice.event.HomeworkDeadlineEvent;
+import org.tduc.homeworkservice.model.Homework;
+import org.tduc.homeworkservice.model.HomeworkStatus;
+import org.tduc.homeworkservice.repository.HomeworkRepository;
+import org.tduc.homeworkservice.repository.projection.HomeworkDeadlineView;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires homework deadlines from an in-memory {@link TimingWheel}: DUE_SOON reminders, DUE,
+ * SUBMISSION_CLOSE (PUBLISHED to CLOSED) and GRADE_RELEASE (CLOSED or GRADING to COMPLETED).
+ * <p>
+ * The wheel only holds deadlines up to app.deadlines.horizon-hours ahead. It is filled at startup by
+ * an indexed range query, which also catches up on deadlines missed while the service was down.
+ * The range is extended from the same query as time moves on, so homework is never polled as a whole.
+ * Homework created or changed on this replica is rescheduled when its HomeworkChangedEvent commits.
+ * <p>
+ * Every replica may hold and fire the same deadline. At fire time the homework is re-read and the
+ * deadline dropped if it no longer matches (e.g. changed on the other replica). Then a row is inserted
+ * into homework_deadline_fired, and only the replica whose insert succeeds publishes and transitions.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeadlineEngine {
+
+    private static final List<HomeworkStatus> SCHEDULED_STATUSES =
+            List.of(HomeworkStatus.PUBLISHED, HomeworkStatus.CLOSED, HomeworkStatus.GRADING);
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final HomeworkRepository homeworkRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.deadlines.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.deadlines.tick-ms:1000}")
+    private long tickMillis = 1000;
+
+    @Value("${app.deadlines.horizon-hours:48}")
+    private long horizonHours = 48;
+
+    // How far back a restart looks for deadlines that passed while no replica was running
+    @Value("${app.deadlines.catch-up-hours:168}")
+    private long catchUpHours = 168;
+
+    @Value("${app.deadlines.reminder-lead-minutes:1440,60}")
+    private long[] reminderLeadMinutes = {1440, 60};
+
+    private TimingWheel<Deadline> wheel;
+    private final Map<String, List<TimingWheel.Timer<Deadline>>> timersByHomework = new HashMap<>();
+    // Deadlines firing at or before this instant are in the wheel
+    private LocalDateTime loadedUntil;
+    private ScheduledExecutorService ticker;
+
+    /**
+     * One deadline of one homework; {@code lead} is non-zero only for DUE_SOON.
+     */
+    record Deadline(String homeworkId, DeadlineKind kind, LocalDateTime deadline, Duration lead) {
+
+        LocalDateTime firesAt() {
+            return deadline.minus(lead);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (this) {
+            wheel = new TimingWheel<>(tickMillis, 64, 4, toMillis(now));
+            if (Duration.ofHours(horizonHours).toMillis() >= wheel.spanMillis()) {
+                throw new IllegalStateException("app.deadlines.horizon-hours exceeds the timing wheel span");
+            }
+        }
+        load(now.minusHours(catchUpHours), now.plusHours(horizonHours));
+        ticker = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("DeadlineWheel-"));
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        log.info("Deadline engine started with {} timers up to {}", pendingTimers(), loadedUntil);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * Pull the next stretch of deadlines into the wheel before the loaded range runs out.
+     */
+    @Scheduled(fixedDelayString = "${app.deadlines.extend-interval-ms:3600000}")
+    public void extend() {
+        LocalDateTime from;
+        synchronized (this) {
+            if (wheel == null) {
+                return;
+            }
+            from = loadedUntil;
+        }
+        load(from, LocalDateTime.now().plusHours(horizonHours));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHomeworkChanged(HomeworkChangedEvent event) {
+        synchronized (this) {
+            if (wheel == null) {
+                return;
+            }
+        }
+        Map<String, HomeworkDeadlineView> current = new HashMap<>();
+        homeworkRepository.findDeadlinesByIds(event.homeworkIds()).forEach(view -> current.put(view.id(), view));
+        List<Deadline> due = new ArrayList<>();
+        synchronized (this) {
+            for (String homeworkId : event.homeworkIds()) {
+                cancel(homeworkId);
+                HomeworkDeadlineView view = current.get(homeworkId);
+                if (view != null) {
+                    schedule(view, LocalDateTime.now(), loadedUntil, due);
+                }
+            }
+        }
+        due.forEach(this::fireQuietly);
+    }
+
+    synchronized int pendingTimers() {
+        return wheel == null ? 0 : wheel.size();
+    }
+
+    void tick() {
+        List<Deadline> expired = new ArrayList<>();
+        synchronized (this) {
+            wheel.advance(System.currentTimeMillis(), expired);
+            for (Deadline deadline : expired) {
+                List<TimingWheel.Timer<Deadline>> timers = timersByHomework.get(deadline.homeworkId());
+                if (timers != null) {
+                    timers.removeIf(timer -> timer.payload == deadline);
+                    if (timers.isEmpty()) {
+                        timersByHomework.remove(deadline.homeworkId());
+                    }
+                }
+            }
+        }
+        expired.forEach(this::fireQuietly);
+    }
+
+    private void fireQuietly(Deadline deadline) {
+        try {
+            fire(deadline);
+        } catch (RuntimeException e) {
+            // Not retried here; the catch-up load after a restart picks it up again
+            log.error("Firing {} for homework {} failed: {}", deadline.kind(), deadline.homeworkId(), e.getMessage(), e);
+        }
+    }
+
+    private void load(LocalDateTime from, LocalDateTime to) {
+        if (!to.isAfter(from)) {
+            return;
+        }
+        Duration maxLead = Duration.ofMinutes(Arrays.stream(reminderLeadMinutes).max().orElse(0));
+        List<HomeworkDeadlineView> views = homeworkRepository.findDeadlinesBetween(SCHEDULED_STATUSES, from, to, to.plus(maxLead));
+        List<Deadline> due = new ArrayList<>();
+        synchronized (this) {
+            LocalDateTime now = LocalDateTime.now();
+            for (HomeworkDeadlineView view : views) {
+                // Rescheduling the whole homework keeps timers from an earlier load from doubling up
+                cancel(view.id());
+                schedule(view, now, to, due);
+            }
+            loadedUntil = to;
+        }
+        due.forEach(this::fireQuietly);
+        log.debug("Loaded {} homework deadlines between {} and {}", views.size(), from, to);
+    }
+
+    // Caller holds the lock; deadlines already past go to `due` to be fired outside it
+    private void schedule(HomeworkDeadlineView view, LocalDateTime now, LocalDateTime until, List<Deadline> due) {
+        for (Deadline deadline : deadlinesOf(view, reminderLeadMinutes)) {
+            if (deadline.kind() == DeadlineKind.DUE_SOON && !deadline.deadline().isAfter(now)) {
+                // A reminder for something already due is noise
+                continue;
+            }
+            if (deadline.firesAt().isAfter(until) || deadline.firesAt().isBefore(now.minusHours(catchUpHours))) {
+                continue;
+            }
+            TimingWheel.Timer<Deadline> timer = wheel.schedule(toMillis(deadline.firesAt()), deadline);
+            if (timer == null) {
+                due.add(deadline);
+            } else {
+                timersByHomework.computeIfAbsent(view.id(), id -> new ArrayList<>()).add(timer);
+            }
+        }
+    }
+
+    private void cancel(String homeworkId) {
+        List<TimingWheel.Timer<Deadline>> timers = timersByHomework.remove(homeworkId);
+        if (timers != null) {
+            timers.forEach(wheel::cancel);
+        }
+    }
+
+    /**
+     * Act on a deadline unless it went stale or another replica already did.
+     */
+    void fire(Deadline deadline) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        // Also called from after-commit listeners, where joining the finished transaction would not write
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        tx.executeWithoutResult(status -> {
+            Homework homework = homeworkRepository.findById(deadline.homeworkId()).orElse(null);
+            if (homework == null || !deadlinesOf(view(homework), reminderLeadMinutes).contains(deadline)) {
+                log.debug("Dropping stale {} for homework {}", deadline.kind(), deadline.homeworkId());
+                return;
+            }
+            int claimed = jdbcTemplate.update("INSERT IGNORE INTO homework_deadline_fired "
+                            + "(homework_id, kind, deadline, lead_minutes, fired_at) VALUES (?, ?, ?, ?, ?)",
+                    deadline.homeworkId(), deadline.kind().name(), deadline.deadline(), deadline.lead().toMinutes(),
+                    LocalDateTime.now());
+            if (claimed == 0) {
+                return;
+            }
+            HomeworkStatus next = switch (deadline.kind()) {
+                case SUBMISSION_CLOSE -> homework.getStatus() == HomeworkStatus.PUBLISHED ? HomeworkStatus.CLOSED : null;
+                case GRADE_RELEASE -> homework.getStatus() == HomeworkStatus.CLOSED
+                        || homework.getStatus() == HomeworkStatus.GRADING ? HomeworkStatus.COMPLETED : null;
+                default -> null;
+            };
+            if (next != null) {
+                homework.setStatus(next);
+                homework.setUpdatedAt(LocalDateTime.now());
+                homeworkRepository.save(homework);
+                // Feeds, search index and this engine pick up the new status after commit
+                eventPublisher.publishEvent(HomeworkChangedEvent.of(homework));
+            }
+            eventPublisher.publishEvent(new HomeworkDeadlineEvent(homework.getId(), homework.getCourseId(),
+                    deadline.kind(), deadline.deadline(), deadline.lead()));
+            log.info("Homework {} {} at {}{}", homework.getId(), deadline.kind(), deadline.deadline(),
+                    next != null ? ", now " + next : "");
+        });
+    }
+
+    /**
+     * Every deadline a homework currently has, whatever its time.
+     */
+    static Set<Deadline> deadlinesOf(HomeworkDeadlineView view, long[] reminderLeadMinutes) {
+        Set<Deadline> deadlines = new HashSet<>();
+        if (view.status() == HomeworkStatus.PUBLISHED && view.dueDate() != null) {
+            for (long lead : reminderLeadMinutes) {
+                if (lead > 0) {
+                    deadlines.add(new Deadline(view.id(), DeadlineKind.DUE_SOON, view.dueDate(), Duration.ofMinutes(lead)));
+                }
+            }
+            deadlines.add(new Deadline(view.id(), DeadlineKind.DUE, view.dueDate(), Duration.ZERO));
+            LocalDateTime closesAt = view.submissionWindowEnd() != null ? view.submissionWindowEnd()
+                    : Boolean.TRUE.equals(view.allowLateSubmissions()) ? null : view.dueDate();
+            if (closesAt != null) {
+                deadlines.add(new Deadline(view.id(), DeadlineKind.SUBMISSION_CLOSE, closesAt, Duration.ZERO));
+            }
+        }
+        if (view.gradeReleaseDate() != null && SCHEDULED_STATUSES.contains(view.status())) {
+            deadlines.add(new Deadline(view.id(), DeadlineKind.GRADE_RELEASE, view.gradeReleaseDate(), Duration.ZERO));
+        }
+        return deadlines;
+    }
+
+    static HomeworkDeadlineView view(Homework homework) {
+        return new HomeworkDeadlineView(homework.getId(), homework.getCourseId(), homework.getStatus(), homework.getDueDate(),
+                homework.getSubmissionWindowEnd(), homework.getGradeReleaseDate(), homework.getAllowLateSubmissions());
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZONE).toInstant().toEpochMilli();
+    }
+}
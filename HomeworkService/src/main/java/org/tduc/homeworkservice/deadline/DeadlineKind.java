@@ -0,0 +1,12 @@
+package org.tduc.homeworkservice.deadline;
+
+public enum DeadlineKind {
+    // Reminder ahead of dueDate, once per configured lead time
+    DUE_SOON,
+    // dueDate passed
+    DUE,
+    // Submissions closed: submissionWindowEnd, or dueDate when late submissions are not allowed; PUBLISHED -> CLOSED
+    SUBMISSION_CLOSE,
+    // gradeReleaseDate reached; CLOSED or GRADING -> COMPLETED
+    GRADE_RELEASE
+}
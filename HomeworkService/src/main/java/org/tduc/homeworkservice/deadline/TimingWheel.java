@@ -0,0 +1,169 @@
+package org.tduc.homeworkservice.deadline;
+
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel. Level 0 has {@code wheelSize} slots of one tick each. Every higher level
+ * has the same number of slots, each as wide as the whole level below. Adding or cancelling a timer
+ * is O(1), and each tick touches one slot per level that rolls over. Timers fire at most one tick
+ * late and never early.
+ * <p>
+ * Not thread-safe; the owner serializes access.
+ */
+final class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long[] levelTicks;
+    private final Timer<T>[][] slots;
+    private final long spanMillis;
+    // Start of the level-0 slot being filled; everything before it has been fired
+    private long currentTime;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2 || levels < 1) {
+            throw new IllegalArgumentException("Invalid timing wheel dimensions");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.levelTicks = new long[levels];
+        long tick = tickMillis;
+        for (int level = 0; level < levels; level++) {
+            levelTicks[level] = tick;
+            tick = Math.multiplyExact(tick, wheelSize);
+        }
+        this.spanMillis = tick;
+        this.slots = new Timer[levels][wheelSize];
+        for (Timer<T>[] level : slots) {
+            for (int slot = 0; slot < wheelSize; slot++) {
+                level[slot] = Timer.sentinel();
+            }
+        }
+        this.currentTime = startMillis - Math.floorMod(startMillis, tickMillis);
+    }
+
+    /**
+     * How far ahead of the current time a timer can be scheduled.
+     */
+    long spanMillis() {
+        return spanMillis;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Schedule {@code payload} at {@code expirationMillis}. Returns null when that moment has already
+     * passed; the caller should act on it right away.
+     */
+    Timer<T> schedule(long expirationMillis, T payload) {
+        Timer<T> timer = new Timer<>(expirationMillis, payload);
+        return place(timer) ? timer : null;
+    }
+
+    void cancel(Timer<T> timer) {
+        if (timer != null && timer.unlink()) {
+            size--;
+        }
+    }
+
+    /**
+     * Move the wheel up to {@code nowMillis} and collect the payloads of every timer that expired.
+     */
+    void advance(long nowMillis, List<T> expired) {
+        while (currentTime + tickMillis <= nowMillis) {
+            Timer<T> firing = slots[0][slotOf(currentTime, 0)];
+            currentTime += tickMillis;
+            drain(firing, expired);
+            // Roll higher levels whose next slot starts now down into the finer levels, coarsest first
+            for (int level = levelTicks.length - 1; level > 0; level--) {
+                if (currentTime % levelTicks[level] == 0) {
+                    Timer<T> head = slots[level][slotOf(currentTime, level)];
+                    for (Timer<T> timer = head.next; timer != head; ) {
+                        Timer<T> next = timer.next;
+                        timer.unlink();
+                        size--;
+                        if (!place(timer)) {
+                            expired.add(timer.payload);
+                        }
+                        timer = next;
+                    }
+                }
+            }
+        }
+    }
+
+    private void drain(Timer<T> head, List<T> expired) {
+        for (Timer<T> timer = head.next; timer != head; ) {
+            Timer<T> next = timer.next;
+            timer.unlink();
+            size--;
+            expired.add(timer.payload);
+            timer = next;
+        }
+    }
+
+    private boolean place(Timer<T> timer) {
+        long expiration = timer.expirationMillis;
+        if (expiration < currentTime) {
+            return false;
+        }
+        for (int level = 0; level < levelTicks.length; level++) {
+            long tick = levelTicks[level];
+            long levelStart = currentTime - currentTime % tick;
+            if (expiration < levelStart + tick * wheelSize) {
+                slots[level][slotOf(expiration, level)].append(timer);
+                size++;
+                return true;
+            }
+        }
+        throw new IllegalArgumentException("Timer beyond the wheel's span of " + spanMillis + " ms");
+    }
+
+    private int slotOf(long millis, int level) {
+        return (int) ((millis / levelTicks[level]) % wheelSize);
+    }
+
+    /**
+     * A scheduled payload; doubles as a node in its slot's circular list.
+     */
+    static final class Timer<T> {
+        final long expirationMillis;
+        final T payload;
+        Timer<T> prev;
+        Timer<T> next;
+
+        private Timer(long expirationMillis, T payload) {
+            this.expirationMillis = expirationMillis;
+            this.payload = payload;
+        }
+
+        static <T> Timer<T> sentinel() {
+            Timer<T> head = new Timer<>(Long.MIN_VALUE, null);
+            head.prev = head;
+            head.next = head;
+            return head;
+        }
+
+        void append(Timer<T> timer) {
+            timer.prev = prev;
+            timer.next = this;
+            prev.next = timer;
+            prev = timer;
+        }
+
+        boolean unlink() {
+            if (next == null) {
+                return false;
+            }
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.tduc.homeworkservice.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BulkGradingRequest {
+
+    @NotEmpty(message = "Submission IDs are required")
+    List<String> submissionIds;
+
+    // Applied to every submission; its submissionId is ignored
+    @NotNull(message = "Grading template is required")
+    GradingRequest template;
+}
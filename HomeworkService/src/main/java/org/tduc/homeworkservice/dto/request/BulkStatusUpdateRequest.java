@@ -0,0 +1,23 @@
+package org.tduc.homeworkservice.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.tduc.homeworkservice.model.HomeworkStatus;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BulkStatusUpdateRequest {
+
+    @NotEmpty(message = "Homework IDs are required")
+    List<String> homeworkIds;
+
+    @NotNull(message = "Status is required")
+    HomeworkStatus status;
+}
@@ -0,0 +1,25 @@
+package org.tduc.homeworkservice.dto.request;
+
+import jakarta.validation.constraints.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class PeerReviewRequest {
+    
+    @NotBlank(message = "Reviewer ID is required")
+    String reviewerId;
+    
+    @NotNull(message = "Score is required")
+    @DecimalMin(value = "0.0", message = "Score must be non-negative")
+    BigDecimal score;
+    
+    @Size(max = 2000, message = "Feedback must not exceed 2000 characters")
+    String feedback;
+}
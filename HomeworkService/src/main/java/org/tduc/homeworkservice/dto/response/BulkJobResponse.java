@@ -0,0 +1,29 @@
+package org.tduc.homeworkservice.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BulkJobResponse {
+
+    String jobId;
+    String type;
+    // QUEUED, RUNNING, COMPLETED, COMPLETED_WITH_ERRORS or FAILED
+    String status;
+    int total;
+    int processed;
+    int succeeded;
+    int failed;
+    // First errors only, "<id>: <reason>"
+    List<String> errors;
+    LocalDateTime createdAt;
+    LocalDateTime startedAt;
+    LocalDateTime finishedAt;
+}
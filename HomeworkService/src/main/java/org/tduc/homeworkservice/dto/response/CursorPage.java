@@ -0,0 +1,24 @@
+package org.tduc.homeworkservice.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+/**
+ * One page of a keyset listing. Pass {@code nextCursor} back as {@code cursor} for the following page;
+ * it is null on the last page. {@code total} is only filled when requested.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CursorPage<T> {
+
+    List<T> content;
+    int size;
+    boolean hasNext;
+    String nextCursor;
+    Long total;
+}
@@ -0,0 +1,41 @@
+package org.tduc.homeworkservice.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class GradeDistributionResponse {
+
+    // Set for a homework distribution; a course distribution merges all of the course's homework
+    String homeworkId;
+    String courseId;
+    BigDecimal maxScore;
+
+    // Graded submissions with a score; all values below are percentages of the max score
+    long count;
+    BigDecimal mean;
+    BigDecimal min;
+    BigDecimal median;
+    BigDecimal max;
+    Map<String, BigDecimal> percentiles; // p10, p25, p50, p75, p90
+    List<Bucket> histogram;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Bucket {
+        BigDecimal from;
+        BigDecimal to;
+        long count;
+    }
+}
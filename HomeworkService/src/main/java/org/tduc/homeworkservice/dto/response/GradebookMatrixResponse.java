@@ -0,0 +1,41 @@
+package org.tduc.homeworkservice.dto.response;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.tduc.homeworkservice.json.NullableFloatArraySerializer;
+
+import java.util.List;
+
+/**
+ * Course gradebook in columnar form: every array is aligned with {@code studentIds} except the
+ * homework arrays, which are aligned with {@code homeworkIds}. Missing scores are null.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class GradebookMatrixResponse {
+
+    String courseId;
+    String attempt;   // LATEST or BEST
+    String weighting; // POINTS or EQUAL
+
+    // Homework columns, in due-date order
+    List<String> homeworkIds;
+    List<String> titles;
+    @JsonSerialize(using = NullableFloatArraySerializer.class)
+    float[] maxScores;
+
+    // Student rows, in student id order
+    List<String> studentIds;
+    // One array per homework, aligned with studentIds
+    @JsonSerialize(contentUsing = NullableFloatArraySerializer.class)
+    List<float[]> scores;
+    @JsonSerialize(using = NullableFloatArraySerializer.class)
+    float[] totals;
+    // Weighted percentage, missing scores counting as zero
+    @JsonSerialize(using = NullableFloatArraySerializer.class)
+    float[] finalGrades;
+}
@@ -0,0 +1,23 @@
+package org.tduc.homeworkservice.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class LatePenaltyRecomputeResponse {
+
+    String homeworkId;
+    boolean policyEnabled;
+    int lateSubmissions;
+    // Late submissions whose penalty, and score if graded, were recomputed
+    int rescored;
+    // Graded before the original score was kept, so the pre-penalty score is unknown
+    int skipped;
+    // Rolled back because their chunk failed
+    int failed;
+    long durationMillis;
+}
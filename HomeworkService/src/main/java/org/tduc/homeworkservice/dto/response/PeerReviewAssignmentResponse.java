@@ -0,0 +1,21 @@
+package org.tduc.homeworkservice.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class PeerReviewAssignmentResponse {
+
+    String homeworkId;
+    // Latest submission of each student; each one is reviewed and each author reviews
+    int submissions;
+    int reviewersPerSubmission;
+    long assignments;
+    // True when groups were too large to keep members from reviewing each other
+    boolean groupsRelaxed;
+    long durationMillis;
+}
@@ -0,0 +1,20 @@
+package org.tduc.homeworkservice.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class PeerReviewSummaryResponse {
+
+    String submissionId;
+    int assigned;
+    int reviews;
+    // Null until the first review arrives
+    BigDecimal averageScore;
+}
@@ -0,0 +1,21 @@
+package org.tduc.homeworkservice.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class PeerReviewTaskResponse {
+
+    String submissionId;
+    LocalDateTime assignedAt;
+    // Null while the review is outstanding
+    BigDecimal score;
+    LocalDateTime reviewedAt;
+}
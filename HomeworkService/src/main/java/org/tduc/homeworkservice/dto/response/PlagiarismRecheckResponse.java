@@ -0,0 +1,22 @@
+package org.tduc.homeworkservice.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class PlagiarismRecheckResponse {
+
+    String homeworkId;
+    int submissions;
+    // Submissions with any words to compare
+    int signed;
+    // Pairs sharing at least one LSH band, before the similarity check
+    long candidatePairs;
+    long matchedPairs;
+    int flaggedSubmissions;
+    long durationMillis;
+}
@@ -0,0 +1,36 @@
+package org.tduc.homeworkservice.event;
+
+import org.tduc.homeworkservice.model.Homework;
+import org.tduc.homeworkservice.service.HomeworkAssignmentService;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Published by HomeworkService after a homework is created, changed or deleted, naming the students
+ * whose feeds it appears in. {@code everyone} is set when any of the homework is assigned to the whole class.
+ */
+public record HomeworkChangedEvent(Set<String> homeworkIds, Set<String> courseIds, Set<String> studentIds, boolean everyone) {
+
+    public static HomeworkChangedEvent of(Homework homework) {
+        return of(Set.of(homework));
+    }
+
+    public static HomeworkChangedEvent of(Collection<Homework> homeworks) {
+        Set<String> homeworkIds = new LinkedHashSet<>();
+        Set<String> courseIds = new LinkedHashSet<>();
+        Set<String> studentIds = new LinkedHashSet<>();
+        boolean everyone = false;
+        for (Homework homework : homeworks) {
+            homeworkIds.add(homework.getId());
+            courseIds.add(homework.getCourseId());
+            var assigned = HomeworkAssignmentService.distinct(homework.getAssignedTo());
+            if (assigned.isEmpty()) {
+                everyone = true;
+            }
+            studentIds.addAll(assigned);
+        }
+        return new HomeworkChangedEvent(homeworkIds, courseIds, studentIds, everyone);
+    }
+}
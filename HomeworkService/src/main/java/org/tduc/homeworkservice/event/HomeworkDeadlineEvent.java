@@ -0,0 +1,13 @@
+package org.tduc.homeworkservice.event;
+
+import org.tduc.homeworkservice.deadline.DeadlineKind;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Published by the deadline engine once per deadline across all replicas, inside the transaction that
+ * records it; {@code lead} is how far ahead of {@code deadline} a DUE_SOON reminder fires, zero otherwise.
+ */
+public record HomeworkDeadlineEvent(String homeworkId, String courseId, DeadlineKind kind, LocalDateTime deadline, Duration lead) {
+}
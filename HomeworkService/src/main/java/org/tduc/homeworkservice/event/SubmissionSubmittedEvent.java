@@ -0,0 +1,8 @@
+package org.tduc.homeworkservice.event;
+
+/**
+ * Published by SubmissionService when a submission is handed in for a homework with plagiarism checking
+ * or auto-grading on; listeners filter on the flags.
+ */
+public record SubmissionSubmittedEvent(String submissionId, String homeworkId, boolean plagiarismCheck, boolean autoGrade) {
+}
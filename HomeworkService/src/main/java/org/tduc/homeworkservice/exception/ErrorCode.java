@@ -30,6 +30,8 @@ public enum ErrorCode {
     SUBMISSION_WINDOW_NOT_OPEN(2007, "Submission window is not yet open", HttpStatus.BAD_REQUEST),
     SUBMISSION_WINDOW_CLOSED(2008, "Submission window has closed", HttpStatus.BAD_REQUEST),
     EMPTY_SUBMISSION_CONTENT(2009, "Submission content cannot be empty", HttpStatus.BAD_REQUEST),
+    BULK_JOB_NOT_FOUND(2010, "Bulk job not found or expired", HttpStatus.NOT_FOUND),
+    BULK_JOB_REJECTED(2011, "Too many bulk jobs running, try again later", HttpStatus.SERVICE_UNAVAILABLE),
     
     // File related errors
     FILE_NOT_FOUND(3001, "File not found", HttpStatus.NOT_FOUND),
@@ -43,6 +45,8 @@ public enum ErrorCode {
     INVALID_SORT_PARAMETERS(4002, "Invalid sort parameters", HttpStatus.BAD_REQUEST),
     MISSING_REQUIRED_FIELD(4003, "Required field is missing", HttpStatus.BAD_REQUEST),
     INVALID_DATE_RANGE(4004, "Invalid date range", HttpStatus.BAD_REQUEST),
+    INVALID_EXPORT_FORMAT(4005, "Export format must be csv or xlsx", HttpStatus.BAD_REQUEST),
+    INVALID_CURSOR(4006, "Invalid or expired page cursor", HttpStatus.BAD_REQUEST),
     
     // Course and User related errors
     COURSE_NOT_FOUND(5001, "Course not found", HttpStatus.NOT_FOUND),
@@ -54,6 +58,9 @@ public enum ErrorCode {
     GRADING_RUBRIC_NOT_FOUND(6001, "Grading rubric not found", HttpStatus.NOT_FOUND),
     INVALID_RUBRIC_SCORES(6002, "Invalid rubric scores provided", HttpStatus.BAD_REQUEST),
     GRADE_RELEASE_NOT_ALLOWED(6003, "Grade release is not allowed yet", HttpStatus.BAD_REQUEST),
+    PEER_REVIEW_NOT_ENABLED(6004, "Peer review is not enabled for this homework", HttpStatus.BAD_REQUEST),
+    PEER_REVIEW_ALREADY_ASSIGNED(6005, "Peer reviewers have already been assigned for this homework", HttpStatus.CONFLICT),
+    PEER_REVIEW_NOT_ASSIGNED(6006, "Reviewer is not assigned to this submission", HttpStatus.FORBIDDEN),
     
     // Comment related errors
     COMMENT_NOT_FOUND(7001, "Comment not found", HttpStatus.NOT_FOUND),
@@ -0,0 +1,120 @@
+package org.tduc.homeworkservice.grading;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.tduc.homeworkservice.model.Homework;
+import org.tduc.homeworkservice.model.Submission;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * Exact-answer key. Rubric:
+ * <pre>
+ * {"type": "answer-key", "caseSensitive": false,
+ *  "answers": [{"question": "q1", "accept": ["42", "forty-two"], "points": 2}, ...]}
+ * </pre>
+ * The submission content is a JSON object of answers, e.g. {"q1": "42"}. Answers are compared after
+ * trimming and collapsing whitespace; numeric answers compare by value, so "0.50" matches "0.5".
+ */
+@Component
+@RequiredArgsConstructor
+public class AnswerKeyGrader implements AutoGrader {
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String type() {
+        return "answer-key";
+    }
+
+    @Override
+    public AutoGradeResult grade(Submission submission, Homework homework, JsonNode rubric) {
+        JsonNode answers = rubric.path("answers");
+        if (!answers.isArray() || answers.isEmpty()) {
+            throw new AutoGradingException("Answer key has no answers");
+        }
+        JsonNode sheet = answerSheet(submission.getContent());
+        boolean caseSensitive = rubric.path("caseSensitive").asBoolean(false);
+
+        BigDecimal earned = BigDecimal.ZERO;
+        BigDecimal possible = BigDecimal.ZERO;
+        int correct = 0;
+        ObjectNode scores = objectMapper.createObjectNode();
+        for (JsonNode item : answers) {
+            String question = item.path("question").asText(null);
+            if (question == null) {
+                throw new AutoGradingException("Answer key item without a question");
+            }
+            BigDecimal points = item.path("points").isNumber() ? item.path("points").decimalValue() : BigDecimal.ONE;
+            possible = possible.add(points);
+
+            JsonNode given = sheet.get(question);
+            boolean right = given != null && !given.isNull() && accepts(item.path("accept"), given.asText(), caseSensitive);
+            if (right) {
+                earned = earned.add(points);
+                correct++;
+            }
+            scores.put(question, right ? points : BigDecimal.ZERO);
+        }
+        String feedback = correct + " of " + answers.size() + " answers correct";
+        return new AutoGradeResult(earned, possible, feedback, scores.toString());
+    }
+
+    private JsonNode answerSheet(String content) {
+        if (content == null || content.isBlank()) {
+            throw new AutoGradingException("Submission has no answers");
+        }
+        try {
+            JsonNode sheet = objectMapper.readTree(content);
+            if (sheet.isObject()) {
+                return sheet;
+            }
+        } catch (JsonProcessingException e) {
+            // reported below
+        }
+        throw new AutoGradingException("Submission content is not a JSON object of answers");
+    }
+
+    private static boolean accepts(JsonNode accepted, String given, boolean caseSensitive) {
+        String answer = normalize(given, caseSensitive);
+        if (accepted.isValueNode()) {
+            return matches(normalize(accepted.asText(), caseSensitive), answer);
+        }
+        for (JsonNode option : accepted) {
+            if (matches(normalize(option.asText(), caseSensitive), answer)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(String expected, String answer) {
+        if (expected.equals(answer)) {
+            return true;
+        }
+        BigDecimal expectedNumber = number(expected);
+        BigDecimal answerNumber = expectedNumber == null ? null : number(answer);
+        return answerNumber != null && expectedNumber.compareTo(answerNumber) == 0;
+    }
+
+    private static BigDecimal number(String value) {
+        if (value.isEmpty() || value.length() > 40) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String normalize(String value, boolean caseSensitive) {
+        String trimmed = value.strip().replaceAll("\\s+", " ");
+        return caseSensitive ? trimmed : trimmed.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,20 @@
+package org.tduc.homeworkservice.grading;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Points earned out of the rubric's total, with feedback and per-item scores (JSON) for the submission.
+ */
+public record AutoGradeResult(BigDecimal earned, BigDecimal possible, String feedback, String rubricScores) {
+
+    /**
+     * Earned points rescaled to the homework's max score.
+     */
+    public BigDecimal scoreOutOf(BigDecimal maxScore) {
+        if (possible.signum() == 0) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+        return earned.multiply(maxScore).divide(possible, 2, RoundingMode.HALF_UP);
+    }
+}
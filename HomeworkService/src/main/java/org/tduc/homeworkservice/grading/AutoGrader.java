@@ -0,0 +1,23 @@
+package org.tduc.homeworkservice.grading;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.tduc.homeworkservice.model.Homework;
+import org.tduc.homeworkservice.model.Submission;
+
+/**
+ * Grades a submission against a homework's gradingRubric. The rubric's "type" field selects the
+ * grader; add one by declaring another AutoGrader bean.
+ */
+public interface AutoGrader {
+
+    /**
+     * Value of the rubric's "type" field this grader handles.
+     */
+    String type();
+
+    /**
+     * Throw {@link AutoGradingException} when the rubric or the submission cannot be graded;
+     * the job is failed without retrying.
+     */
+    AutoGradeResult grade(Submission submission, Homework homework, JsonNode rubric);
+}
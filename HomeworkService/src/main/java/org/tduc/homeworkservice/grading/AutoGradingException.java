@@ -0,0 +1,11 @@
+package org.tduc.homeworkservice.grading;
+
+/**
+ * The rubric or the submission cannot be auto-graded; retrying would not help.
+ */
+public class AutoGradingException extends RuntimeException {
+
+    public AutoGradingException(String message) {
+        super(message);
+    }
+}
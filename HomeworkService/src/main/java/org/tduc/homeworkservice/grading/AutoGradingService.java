@@ -0,0 +1,297 @@
+package org.tduc.homeworkservice.grading;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.tduc.homeworkservice.dto.request.GradingRequest;
+import org.tduc.homeworkservice.event.SubmissionSubmittedEvent;
+import org.tduc.homeworkservice.exception.AppException;
+import org.tduc.homeworkservice.model.AutoGradeJob;
+import org.tduc.homeworkservice.model.AutoGradeJobStatus;
+import org.tduc.homeworkservice.model.Homework;
+import org.tduc.homeworkservice.model.Submission;
+import org.tduc.homeworkservice.model.SubmissionStatus;
+import org.tduc.homeworkservice.repository.AutoGradeJobRepository;
+import org.tduc.homeworkservice.repository.HomeworkRepository;
+import org.tduc.homeworkservice.repository.SubmissionRepository;
+import org.tduc.homeworkservice.service.SubmissionService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Auto-grading for homework with autoGrade on.
+ * <p>
+ * A submission's job row (auto_grade_job) is written in the submission's own transaction. The
+ * dispatcher polls due jobs and claims at most as many as the worker pool has room for, so a burst
+ * of submissions waits in the table rather than in memory. Each job grades through
+ * {@link SubmissionService#gradeSubmission} and is marked DONE in the same transaction.
+ * <p>
+ * Failures are retried with exponential backoff up to app.auto-grade.max-attempts;
+ * {@link AutoGradingException} and AppException fail the job at once. Jobs left RUNNING by a crashed
+ * worker or instance go back to PENDING when their lease expires.
+ * <p>
+ * Metrics: autograde.jobs (counter by outcome), autograde.grading (timer), autograde.queue.lag
+ * (timer, enqueue to finish), gauges autograde.queue.pending, autograde.queue.oldest.seconds and
+ * autograde.workers.busy.
+ */
+@Service
+@Slf4j
+public class AutoGradingService {
+
+    static final String OUTCOME_GRADED = "graded";
+    static final String OUTCOME_SKIPPED = "skipped";
+    static final String OUTCOME_RETRIED = "retried";
+    static final String OUTCOME_FAILED = "failed";
+
+    private final AutoGradeJobRepository jobRepository;
+    private final SubmissionRepository submissionRepository;
+    private final HomeworkRepository homeworkRepository;
+    private final SubmissionService submissionService;
+    private final Map<String, AutoGrader> graders;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.auto-grade.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.auto-grade.workers:4}")
+    private int workerCount = 4;
+
+    @Value("${app.auto-grade.queue-capacity:100}")
+    private int queueCapacity = 100;
+
+    @Value("${app.auto-grade.max-attempts:5}")
+    private int maxAttempts = 5;
+
+    @Value("${app.auto-grade.backoff-ms:2000}")
+    private long backoffMillis = 2000;
+
+    @Value("${app.auto-grade.max-backoff-ms:600000}")
+    private long maxBackoffMillis = 600_000;
+
+    @Value("${app.auto-grade.lease-seconds:600}")
+    private long leaseSeconds = 600;
+
+    @Value("${app.auto-grade.graded-by:auto-grader}")
+    private String gradedBy = "auto-grader";
+
+    private ThreadPoolExecutor workers;
+    private Semaphore capacity;
+    private Timer gradingTimer;
+    private Timer lagTimer;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestDueSeconds = new AtomicLong();
+
+    public AutoGradingService(AutoGradeJobRepository jobRepository, SubmissionRepository submissionRepository,
+                              HomeworkRepository homeworkRepository, SubmissionService submissionService,
+                              List<AutoGrader> graders, ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.jobRepository = jobRepository;
+        this.submissionRepository = submissionRepository;
+        this.homeworkRepository = homeworkRepository;
+        this.submissionService = submissionService;
+        this.graders = graders.stream().collect(Collectors.toMap(AutoGrader::type, Function.identity()));
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("AutoGrade-"));
+        capacity = new Semaphore(workerCount + queueCapacity);
+        gradingTimer = meterRegistry.timer("autograde.grading");
+        lagTimer = meterRegistry.timer("autograde.queue.lag");
+        Gauge.builder("autograde.queue.pending", pending, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("autograde.queue.oldest.seconds", oldestDueSeconds, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("autograde.workers.busy", workers, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Unfinished jobs stay RUNNING and are picked up again once their lease expires
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true,
+            condition = "#event.autoGrade()")
+    public void enqueue(SubmissionSubmittedEvent event) {
+        jobRepository.save(AutoGradeJob.pending(event.submissionId(), event.homeworkId(), LocalDateTime.now()));
+    }
+
+    /**
+     * Claim due jobs up to the pool's free capacity and hand them to the workers.
+     */
+    @Scheduled(fixedDelayString = "${app.auto-grade.poll-interval-ms:1000}")
+    public void dispatch() {
+        if (!enabled) {
+            return;
+        }
+        int free = capacity.availablePermits();
+        if (free == 0) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<String> due = jobRepository.findDueIds(now, Limit.of(free));
+        for (String submissionId : due) {
+            if (!capacity.tryAcquire()) {
+                return;
+            }
+            Integer claimed = transactionTemplate.execute(status -> jobRepository.claim(submissionId, now));
+            if (claimed == null || claimed != 1) {
+                capacity.release();
+                continue;
+            }
+            workers.execute(() -> {
+                try {
+                    process(submissionId);
+                } finally {
+                    capacity.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * Requeue jobs whose worker died and refresh the backlog gauges.
+     */
+    @Scheduled(fixedDelayString = "${app.auto-grade.maintenance-interval-ms:15000}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Integer released = transactionTemplate.execute(status ->
+                jobRepository.releaseExpired(now.minusSeconds(leaseSeconds), now));
+        if (released != null && released > 0) {
+            log.warn("Requeued {} auto-grade jobs with an expired lease", released);
+        }
+        pending.set(jobRepository.countByStatus(AutoGradeJobStatus.PENDING));
+        LocalDateTime oldest = jobRepository.findOldestDue(now);
+        oldestDueSeconds.set(oldest == null ? 0 : Duration.between(oldest, now).toSeconds());
+    }
+
+    void process(String submissionId) {
+        long started = System.nanoTime();
+        String outcome;
+        try {
+            outcome = transactionTemplate.execute(status -> grade(submissionId));
+        } catch (RuntimeException e) {
+            outcome = fail(submissionId, e);
+        }
+        gradingTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        Counter.builder("autograde.jobs").tag("outcome", outcome).register(meterRegistry).increment();
+    }
+
+    private String grade(String submissionId) {
+        AutoGradeJob job = jobRepository.findById(submissionId).orElse(null);
+        if (job == null || job.getStatus() != AutoGradeJobStatus.RUNNING) {
+            // Lease expired and the job was handed out again
+            return OUTCOME_SKIPPED;
+        }
+        Submission submission = submissionRepository.findById(submissionId).orElse(null);
+        if (submission == null) {
+            finish(job, AutoGradeJobStatus.DONE, "Submission no longer exists");
+            return OUTCOME_SKIPPED;
+        }
+        if (submission.getStatus() == SubmissionStatus.GRADED || submission.getStatus() == SubmissionStatus.RETURNED) {
+            // A teacher graded it first; never overwrite a manual grade
+            finish(job, AutoGradeJobStatus.DONE, "Already graded by " + submission.getGradedBy());
+            return OUTCOME_SKIPPED;
+        }
+        Homework homework = homeworkRepository.findById(submission.getHomeworkId())
+                .orElseThrow(() -> new AutoGradingException("Homework not found"));
+        JsonNode rubric = rubric(homework);
+        AutoGrader grader = graders.get(rubric.path("type").asText());
+        if (grader == null) {
+            throw new AutoGradingException("No auto-grader for rubric type '" + rubric.path("type").asText() + "'");
+        }
+
+        AutoGradeResult result = grader.grade(submission, homework, rubric);
+        submissionService.gradeSubmission(submissionId, GradingRequest.builder()
+                .submissionId(submissionId)
+                .score(result.scoreOutOf(homework.getMaxScore()))
+                .feedback(result.feedback())
+                .rubricScores(result.rubricScores())
+                .gradedBy(gradedBy)
+                .build());
+        finish(job, AutoGradeJobStatus.DONE, null);
+        return OUTCOME_GRADED;
+    }
+
+    private String fail(String submissionId, RuntimeException e) {
+        boolean retryable = !(e instanceof AutoGradingException || e instanceof AppException);
+        String reason = e instanceof AppException appException ? appException.getErrorCode().getMessage() : e.getMessage();
+        String outcome = transactionTemplate.execute(status -> jobRepository.findById(submissionId)
+                .filter(job -> job.getStatus() == AutoGradeJobStatus.RUNNING)
+                .map(job -> {
+                    if (retryable && job.getAttempts() < maxAttempts) {
+                        job.setNextAttemptAt(LocalDateTime.now().plus(backoff(job.getAttempts())));
+                        finish(job, AutoGradeJobStatus.PENDING, reason);
+                        return OUTCOME_RETRIED;
+                    }
+                    finish(job, AutoGradeJobStatus.FAILED, reason);
+                    return OUTCOME_FAILED;
+                })
+                .orElse(OUTCOME_SKIPPED));
+        log.warn("Auto-grading submission {} {}: {}", submissionId, outcome, reason);
+        return outcome;
+    }
+
+    private void finish(AutoGradeJob job, AutoGradeJobStatus status, String note) {
+        LocalDateTime now = LocalDateTime.now();
+        job.setStatus(status);
+        job.setLockedAt(null);
+        job.setLastError(note == null || note.length() <= 1000 ? note : note.substring(0, 1000));
+        job.setUpdatedAt(now);
+        jobRepository.save(job);
+        if (status != AutoGradeJobStatus.PENDING) {
+            lagTimer.record(Duration.between(job.getCreatedAt(), now));
+        }
+    }
+
+    Duration backoff(int attempts) {
+        long delay = backoffMillis << Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(delay, maxBackoffMillis));
+    }
+
+    private JsonNode rubric(Homework homework) {
+        if (homework.getGradingRubric() == null || homework.getGradingRubric().isBlank()) {
+            throw new AutoGradingException("Homework has autoGrade on but no gradingRubric");
+        }
+        try {
+            return objectMapper.readTree(homework.getGradingRubric());
+        } catch (JsonProcessingException e) {
+            throw new AutoGradingException("gradingRubric is not valid JSON");
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.tduc.homeworkservice.grading;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.tduc.homeworkservice.model.Homework;
+import org.tduc.homeworkservice.model.Submission;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
+
+/**
+ * Keyword rubric for free-text answers. Rubric:
+ * <pre>
+ * {"type": "keywords",
+ *  "criteria": [{"name": "Definition", "points": 4, "keywords": ["chlorophyll", "light energy"], "minMatches": 2}, ...]}
+ * </pre>
+ * A criterion earns full points once minMatches (default 1) of its keywords or phrases occur as
+ * whole words in the content, and a proportional share below that.
+ */
+@Component
+@RequiredArgsConstructor
+public class KeywordRubricGrader implements AutoGrader {
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String type() {
+        return "keywords";
+    }
+
+    @Override
+    public AutoGradeResult grade(Submission submission, Homework homework, JsonNode rubric) {
+        JsonNode criteria = rubric.path("criteria");
+        if (!criteria.isArray() || criteria.isEmpty()) {
+            throw new AutoGradingException("Keyword rubric has no criteria");
+        }
+        String text = words(submission.getContent());
+
+        BigDecimal earned = BigDecimal.ZERO;
+        BigDecimal possible = BigDecimal.ZERO;
+        ObjectNode scores = objectMapper.createObjectNode();
+        StringBuilder feedback = new StringBuilder();
+        for (JsonNode criterion : criteria) {
+            String name = criterion.path("name").asText("Criterion " + (scores.size() + 1));
+            BigDecimal points = criterion.path("points").isNumber() ? criterion.path("points").decimalValue() : BigDecimal.ONE;
+            JsonNode keywords = criterion.path("keywords");
+            if (!keywords.isArray() || keywords.isEmpty()) {
+                throw new AutoGradingException("Criterion '" + name + "' has no keywords");
+            }
+            int required = Math.max(1, Math.min(criterion.path("minMatches").asInt(1), keywords.size()));
+            int found = 0;
+            for (JsonNode keyword : keywords) {
+                String phrase = words(keyword.asText());
+                if (!phrase.isBlank() && text.contains(phrase)) {
+                    found++;
+                }
+            }
+            BigDecimal score = found >= required ? points
+                    : points.multiply(BigDecimal.valueOf(found)).divide(BigDecimal.valueOf(required), 2, RoundingMode.HALF_UP);
+            earned = earned.add(score);
+            possible = possible.add(points);
+            scores.put(name, score);
+            if (!feedback.isEmpty()) {
+                feedback.append("; ");
+            }
+            feedback.append(name).append(": ").append(Math.min(found, required)).append('/').append(required).append(" keywords");
+        }
+        return new AutoGradeResult(earned, possible, feedback.toString(), scores.toString());
+    }
+
+    // Lower-cased words separated and surrounded by single spaces, so contains() matches whole words only
+    private static String words(String text) {
+        if (text == null) {
+            return " ";
+        }
+        StringBuilder out = new StringBuilder(text.length() + 2).append(' ');
+        boolean space = true;
+        for (int i = 0; i < text.length(); ) {
+            int cp = text.codePointAt(i);
+            if (Character.isLetterOrDigit(cp)) {
+                out.appendCodePoint(Character.toLowerCase(cp));
+                space = false;
+            } else if (!space) {
+                out.append(' ');
+                space = true;
+            }
+            i += Character.charCount(cp);
+        }
+        if (!space) {
+            out.append(' ');
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,76 @@
+package org.tduc.homeworkservice.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.util.List;
+
+/**
+ * Reads and writes one type stored in a JSON column. The ObjectReader and ObjectWriter are built once
+ * per type from a single shared mapper, so parsing a column costs no mapper setup or type lookup.
+ * Codecs are immutable and thread-safe; keep them in static finals.
+ */
+public final class JsonCodec<T> {
+
+    // Unknown properties are ignored so older or hand-edited documents still read
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    public static final JsonCodec<List<String>> STRING_LIST = of(new TypeReference<>() {
+    });
+    public static final JsonCodec<JsonNode> TREE = of(JsonNode.class);
+
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    private JsonCodec(ObjectReader reader, ObjectWriter writer) {
+        this.reader = reader;
+        this.writer = writer;
+    }
+
+    public static <T> JsonCodec<T> of(Class<T> type) {
+        return new JsonCodec<>(MAPPER.readerFor(type), MAPPER.writerFor(type));
+    }
+
+    public static <T> JsonCodec<T> of(TypeReference<T> type) {
+        return new JsonCodec<>(MAPPER.readerFor(type), MAPPER.writerFor(type));
+    }
+
+    /**
+     * The value of a JSON document, or null for a null or blank one.
+     *
+     * @throws IllegalArgumentException when the text is not valid JSON for this type
+     */
+    public T read(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            return reader.readValue(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unreadable JSON column value: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    public String write(T value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return writer.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Value cannot be written as JSON: " + e.getOriginalMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.tduc.homeworkservice.json;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rewrites list columns still holding the old comma-joined form (a JSON string such as "s1,s2", or
+ * any other non-array value) as JSON arrays, so StringListConverter can hand the stored text back
+ * unparsed. Walks each column in id order (keyset, no OFFSET) and updates each batch in its own
+ * transaction; running it again finds nothing left to do.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JsonListColumnMigration {
+
+    private static final String[][] COLUMNS = {
+            {"homework", "assigned_to"},
+            {"homework", "group_ids"},
+            {"homework", "allowed_file_types"},
+            {"homework", "attachments"},
+            {"homework", "tags"},
+            {"submission", "attachments"},
+    };
+
+    // JSON strings are unquoted so "s1,s2" splits like the legacy text it is; JSON null becomes NULL
+    private static final String SELECT_SQL = "SELECT id, CASE JSON_TYPE(%2$s) WHEN 'STRING' THEN JSON_UNQUOTE(%2$s) "
+            + "WHEN 'NULL' THEN NULL ELSE CAST(%2$s AS CHAR) END AS legacy FROM %1$s "
+            + "WHERE id > ? AND %2$s IS NOT NULL AND JSON_TYPE(%2$s) <> 'ARRAY' ORDER BY id LIMIT ?";
+
+    private static final String UPDATE_SQL = "UPDATE %1$s SET %2$s = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.json-columns.migrate-legacy:true}")
+    private boolean enabled;
+
+    @Value("${app.json-columns.migrate-batch-size:1000}")
+    private int batchSize;
+
+    @Async("taskExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long started = System.currentTimeMillis();
+            int rows = run();
+            log.info("JSON list column migration done: rows={}, took={}ms", rows, System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            // Unmigrated rows still read through the legacy parser; the next start retries
+            log.error("JSON list column migration failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return rows rewritten
+     */
+    int run() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        int rows = 0;
+        for (String[] column : COLUMNS) {
+            String select = String.format(SELECT_SQL, column[0], column[1]);
+            String update = String.format(UPDATE_SQL, column[0], column[1]);
+            String lastId = "";
+            while (true) {
+                List<Object[]> batch = new ArrayList<>();
+                List<String> ids = jdbcTemplate.query(select, (rs, rowNum) -> {
+                    String id = rs.getString("id");
+                    List<String> values = LazyStringList.parse(rs.getString("legacy"));
+                    batch.add(new Object[]{values.isEmpty() ? null : JsonCodec.STRING_LIST.write(values), id});
+                    return id;
+                }, lastId, batchSize);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                tx.executeWithoutResult(status -> jdbcTemplate.batchUpdate(update, batch));
+                rows += ids.size();
+                lastId = ids.get(ids.size() - 1);
+                if (ids.size() < batchSize) {
+                    break;
+                }
+            }
+        }
+        return rows;
+    }
+}
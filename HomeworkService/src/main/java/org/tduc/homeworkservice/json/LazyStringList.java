@@ -0,0 +1,86 @@
+package org.tduc.homeworkservice.json;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Unmodifiable list of strings backed by the column text it was loaded from, parsed on first access.
+ * Entities loaded only for other fields never pay for the parse, and saving an untouched list writes
+ * the original text back without serializing.
+ * <p>
+ * Reads JSON arrays and, for rows written before the columns held JSON, comma-joined text.
+ * Serializable so it can sit in the second-level cache as part of an entity's state.
+ */
+public final class LazyStringList extends AbstractList<String> implements RandomAccess, Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final String raw;
+    private volatile List<String> parsed;
+
+    LazyStringList(String raw) {
+        this.raw = raw;
+    }
+
+    /**
+     * The column text when it already is a JSON array and can be stored as is, otherwise null.
+     */
+    String jsonText() {
+        return isJsonArray(raw) ? raw : null;
+    }
+
+    boolean isParsed() {
+        return parsed != null;
+    }
+
+    @Override
+    public String get(int index) {
+        return values().get(index);
+    }
+
+    @Override
+    public int size() {
+        return values().size();
+    }
+
+    private List<String> values() {
+        List<String> values = parsed;
+        if (values == null) {
+            values = parse(raw);
+            parsed = values;
+        }
+        return values;
+    }
+
+    static List<String> parse(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return List.of();
+        }
+        if (isJsonArray(raw)) {
+            List<String> values = JsonCodec.STRING_LIST.read(raw);
+            return values == null ? List.of() : List.copyOf(values);
+        }
+        // Legacy comma-joined text; a lone JSON string ("\"s1\"") also ends up here
+        List<String> values = new ArrayList<>();
+        for (String part : raw.split(",")) {
+            String value = part.trim();
+            if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                value = value.substring(1, value.length() - 1).trim();
+            }
+            if (!value.isEmpty()) {
+                values.add(value);
+            }
+        }
+        return List.copyOf(values);
+    }
+
+    static boolean isJsonArray(String raw) {
+        String value = raw == null ? "" : raw.strip();
+        return value.startsWith("[") && value.endsWith("]");
+    }
+}
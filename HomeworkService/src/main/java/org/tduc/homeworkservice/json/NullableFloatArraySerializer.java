@@ -0,0 +1,31 @@
+package org.tduc.homeworkservice.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@code float[]} as a JSON number array with NaN as null, for dense arrays that mark
+ * missing values with NaN instead of boxing every element.
+ */
+public class NullableFloatArraySerializer extends StdSerializer<float[]> {
+
+    public NullableFloatArraySerializer() {
+        super(float[].class);
+    }
+
+    @Override
+    public void serialize(float[] values, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartArray(values, values.length);
+        for (float value : values) {
+            if (Float.isNaN(value)) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(value);
+            }
+        }
+        gen.writeEndArray();
+    }
+}
@@ -0,0 +1,36 @@
+package org.tduc.homeworkservice.json;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.hibernate.annotations.Immutable;
+
+import java.util.List;
+
+/**
+ * Maps a JSON array column to a List&lt;String&gt;. Loading wraps the text in a {@link LazyStringList}
+ * without parsing it; an empty list is stored as NULL, which the homework queries read as "not set".
+ * <p>
+ * Marked immutable so Hibernate neither copies nor parses the list to dirty-check it: replace the
+ * list through its setter instead of changing it in place.
+ */
+@Converter
+@Immutable
+public class StringListConverter implements AttributeConverter<List<String>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(List<String> values) {
+        if (values == null) {
+            return null;
+        }
+        if (values instanceof LazyStringList lazy && lazy.jsonText() != null) {
+            // Loaded as a JSON array and unchangeable since: write the same text back
+            return lazy.jsonText();
+        }
+        return values.isEmpty() ? null : JsonCodec.STRING_LIST.write(values);
+    }
+
+    @Override
+    public List<String> convertToEntityAttribute(String column) {
+        return column == null ? null : new LazyStringList(column);
+    }
+}
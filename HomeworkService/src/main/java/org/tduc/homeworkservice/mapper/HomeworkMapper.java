@@ -1,5 +1,6 @@
 package org.tduc.homeworkservice.mapper;
 
+import org.mapstruct.CollectionMappingStrategy;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
@@ -10,24 +11,23 @@ import org.tduc.homeworkservice.model.Homework;
 
 import java.util.List;
 
-@Mapper(componentModel = "spring", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+// TARGET_IMMUTABLE: update mappings replace list fields instead of clearing them, as lists loaded from columns are read-only
+@Mapper(componentModel = "spring", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE,
+        collectionMappingStrategy = CollectionMappingStrategy.TARGET_IMMUTABLE)
 public interface HomeworkMapper {
     
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "createdBy", ignore = true)
-    @Mapping(source = "assignedStudentIds", target = "assignedTo", qualifiedByName = "listToJson")
-    @Mapping(source = "groupIds", target = "groupIds", qualifiedByName = "listToJson")
-    @Mapping(source = "allowedFileTypes", target = "allowedFileTypes", qualifiedByName = "listToJson")
-    @Mapping(source = "tags", target = "tags", qualifiedByName = "listToJson")
+    @Mapping(source = "assignedStudentIds", target = "assignedTo")
     @Mapping(source = "latePenaltyConfig", target = "latePenalty")
     Homework toHomework(HomeworkCreationRequest request);
     
-    @Mapping(source = "assignedTo", target = "assignedStudentIds", qualifiedByName = "jsonToList")
-    @Mapping(source = "groupIds", target = "groupIds", qualifiedByName = "jsonToList")
-    @Mapping(source = "allowedFileTypes", target = "allowedFileTypes", qualifiedByName = "jsonToList")
-    @Mapping(source = "tags", target = "tags", qualifiedByName = "jsonToList")
+    @Mapping(source = "assignedTo", target = "assignedStudentIds", qualifiedByName = "orEmpty")
+    @Mapping(source = "groupIds", target = "groupIds", qualifiedByName = "orEmpty")
+    @Mapping(source = "allowedFileTypes", target = "allowedFileTypes", qualifiedByName = "orEmpty")
+    @Mapping(source = "tags", target = "tags", qualifiedByName = "orEmpty")
     @Mapping(source = "latePenalty", target = "latePenaltyConfig")
     @Mapping(target = "assignedGroupId", ignore = true)
     @Mapping(target = "totalSubmissions", ignore = true)
@@ -46,24 +46,11 @@ public interface HomeworkMapper {
     @Mapping(target = "assignedTo", ignore = true)
     @Mapping(target = "latePenalty", ignore = true)
     @Mapping(target = "attachments", ignore = true)
-    @Mapping(source = "allowedFileTypes", target = "allowedFileTypes", qualifiedByName = "listToJson")
-    @Mapping(source = "groupIds", target = "groupIds", qualifiedByName = "listToJson")
-    @Mapping(source = "tags", target = "tags", qualifiedByName = "listToJson")
     void updateHomeworkFromRequest(HomeworkCreationRequest request, @MappingTarget Homework homework);
     
-    @org.mapstruct.Named("listToJson")
-    default String listToJson(List<String> list) {
-        if (list == null || list.isEmpty()) {
-            return null;
-        }
-        return String.join(",", list);
+    // Column lists are handed over as they are: read-only, and parsed only when the response is written
+    @org.mapstruct.Named("orEmpty")
+    default List<String> orEmpty(List<String> list) {
+        return list == null ? List.of() : list;
     }
-    
-    @org.mapstruct.Named("jsonToList")
-    default List<String> jsonToList(String json) {
-        if (json == null || json.isEmpty()) {
-            return List.of();
-        }
-        return List.of(json.split(","));
-    }
-}
\ No newline at end of file
+}
@@ -32,7 +32,7 @@ public interface SubmissionMapper {
     @Mapping(target = "similarityScore", ignore = true)
     @Mapping(target = "peerReviewAssignments", ignore = true)
     @Mapping(target = "peerReviewScores", ignore = true)
-    @Mapping(source = "attachmentIds", target = "attachments", qualifiedByName = "listToJson")
+    @Mapping(source = "attachmentIds", target = "attachments")
     Submission toSubmission(SubmissionCreationRequest request);
     
     @Mapping(source = "homeworkId", target = "homeworkId")
@@ -60,20 +60,5 @@ public interface SubmissionMapper {
     @Mapping(target = "peerReviewAssignments", ignore = true)
     @Mapping(target = "peerReviewScores", ignore = true)
     void updateSubmissionFromRequest(SubmissionCreationRequest request, @MappingTarget Submission submission);
-    
-    @org.mapstruct.Named("listToJson")
-    default String listToJson(List<String> list) {
-        if (list == null || list.isEmpty()) {
-            return null;
-        }
-        return String.join(",", list);
-    }
-    
-    @org.mapstruct.Named("jsonToList")
-    default List<String> jsonToList(String json) {
-        if (json == null || json.isEmpty()) {
-            return List.of();
-        }
-        return List.of(json.split(","));
-    }
-}
\ No newline at end of file
+
+}
@@ -0,0 +1,8 @@
+package org.tduc.homeworkservice.model;
+
+public enum AssigneeType {
+    STUDENT,
+    GROUP,
+    // Homework with no explicit assignees is visible to every student
+    EVERYONE
+}
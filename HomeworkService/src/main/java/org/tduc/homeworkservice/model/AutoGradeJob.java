@@ -0,0 +1,64 @@
+package org.tduc.homeworkservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+/**
+ * Durable auto-grading work item, one per submission. Inserted in the submission's own transaction,
+ * so a committed submission always has its job; claimed by flipping PENDING to RUNNING, and a RUNNING
+ * job whose lease ran out (worker or instance died) goes back to PENDING.
+ */
+@Entity
+@Table(name = "auto_grade_job")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AutoGradeJob {
+
+    @Id
+    @Column(name = "submission_id", length = 36)
+    String submissionId;
+
+    @Column(name = "homework_id", nullable = false, length = 36)
+    String homeworkId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    AutoGradeJobStatus status;
+
+    @Column(nullable = false)
+    Integer attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    LocalDateTime nextAttemptAt;
+
+    @Column(name = "locked_at")
+    LocalDateTime lockedAt;
+
+    @Column(name = "last_error", length = 1000)
+    String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    LocalDateTime updatedAt;
+
+    public static AutoGradeJob pending(String submissionId, String homeworkId, LocalDateTime now) {
+        return AutoGradeJob.builder()
+                .submissionId(submissionId)
+                .homeworkId(homeworkId)
+                .status(AutoGradeJobStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
@@ -0,0 +1,8 @@
+package org.tduc.homeworkservice.model;
+
+public enum AutoGradeJobStatus {
+    PENDING,
+    RUNNING,
+    DONE,
+    FAILED
+}
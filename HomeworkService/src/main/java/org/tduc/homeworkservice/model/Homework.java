@@ -3,8 +3,11 @@ package org.tduc.homeworkservice.model;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.tduc.homeworkservice.json.StringListConverter;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -12,6 +15,8 @@ import java.util.List;
 
 @Entity
 @Table(name = "homework")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "homework")
 @Getter
 @Setter
 @Builder
@@ -36,9 +41,10 @@ public class Homework {
     @Column
     String classId;
     
-    // JSON array of student IDs or group ID
+    // JSON array of student IDs; NULL = everyone in the course
     @Column(columnDefinition = "JSON")
-    String assignedTo;
+    @Convert(converter = StringListConverter.class)
+    List<String> assignedTo;
     
     @Column(nullable = false)
     String createdBy;
@@ -104,7 +110,8 @@ public class Homework {
     
     // File upload configuration
     @Column(columnDefinition = "JSON")
-    String allowedFileTypes;
+    @Convert(converter = StringListConverter.class)
+    List<String> allowedFileTypes;
 
     @Column(name = "max_file_size_mb")
     Integer maxFileSizeMB;
@@ -129,7 +136,8 @@ public class Homework {
     Boolean groupAssignment = false;
     
     @Column(columnDefinition = "JSON")
-    String groupIds;
+    @Convert(converter = StringListConverter.class)
+    List<String> groupIds;
     
     @Column(nullable = false)
     @Builder.Default
@@ -140,33 +148,24 @@ public class Homework {
     String instructions;
     
     @Column(columnDefinition = "JSON")
-    String attachments;
+    @Convert(converter = StringListConverter.class)
+    List<String> attachments;
     
     @Column
     Integer estimatedDurationMinutes;
     
     @Column(columnDefinition = "JSON")
-    String tags;
+    @Convert(converter = StringListConverter.class)
+    List<String> tags;
     
     // No relationships - handle at application logic level
     
-    // Parse latePenalty JSON string to LatePenaltyConfig object
+    // Parse latePenalty JSON string to LatePenaltyConfig object; compiled and cached by LatePenaltyPolicy
     public LatePenaltyConfig getLatePenaltyConfig() {
-        // Return default penalty config if none is specified
-        if (latePenalty == null || latePenalty.isBlank()) {
-            return LatePenaltyConfig.builder()
-                    .enabled(false)
-                    .build();
-        }
-        
-        try {
-            com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
-            return objectMapper.readValue(latePenalty, LatePenaltyConfig.class);
-        } catch (Exception e) {
-            // Log error and return default
-            return LatePenaltyConfig.builder()
-                    .enabled(false)
-                    .build();
-        }
+        return getLatePenaltyPolicy().toConfig();
     }
-}
\ No newline at end of file
+    
+    public LatePenaltyPolicy getLatePenaltyPolicy() {
+        return LatePenaltyPolicy.of(latePenalty);
+    }
+}
@@ -0,0 +1,46 @@
+package org.tduc.homeworkservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per (homework, student or group) assignment, so student dashboards can use an index
+ * range scan instead of LIKE over Homework.assignedTo. The due date is copied here so
+ * "upcoming for this student" is answered from (assignee_id, due_date) alone.
+ */
+@Entity
+@Table(name = "homework_assignee",
+        indexes = @Index(name = "idx_homework_assignee_due", columnList = "assignee_id, due_date"),
+        // Leading homework_id column also serves lookups and deletes by homework
+        uniqueConstraints = @UniqueConstraint(name = "uk_homework_assignee", columnNames = {"homework_id", "assignee_type", "assignee_id"}))
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class HomeworkAssignee {
+
+    // Assignee id used for EVERYONE rows
+    public static final String EVERYONE_ID = "*";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+
+    @Column(name = "homework_id", nullable = false, length = 36)
+    String homeworkId;
+
+    @Column(name = "assignee_id", nullable = false, length = 36)
+    String assigneeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "assignee_type", nullable = false, length = 16)
+    AssigneeType assigneeType;
+
+    @Column(name = "due_date", nullable = false)
+    LocalDateTime dueDate;
+}
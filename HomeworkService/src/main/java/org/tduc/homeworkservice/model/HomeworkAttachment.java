@@ -3,6 +3,8 @@ package org.tduc.homeworkservice.model;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -10,6 +12,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "homework_attachment")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "homework-attachment")
 @Getter
 @Setter
 @Builder
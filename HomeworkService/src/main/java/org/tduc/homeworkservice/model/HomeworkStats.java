@@ -0,0 +1,49 @@
+package org.tduc.homeworkservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Running submission counters per homework, kept in the same transaction as every submission write
+ * when app.homework-stats.counters-enabled is on. Rows are seeded from the submission table the
+ * first time a homework's counters change.
+ */
+@Entity
+@Table(name = "homework_stats")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class HomeworkStats {
+
+    @Id
+    @Column(name = "homework_id", length = 36)
+    String homeworkId;
+
+    @Column(name = "total_submissions", nullable = false)
+    Long totalSubmissions;
+
+    @Column(name = "graded_submissions", nullable = false)
+    Long gradedSubmissions;
+
+    @Column(name = "pending_submissions", nullable = false)
+    Long pendingSubmissions;
+
+    @Column(name = "late_submissions", nullable = false)
+    Long lateSubmissions;
+
+    @Column(name = "scored_submissions", nullable = false)
+    Long scoredSubmissions;
+
+    @Column(name = "score_sum", nullable = false, precision = 14, scale = 2)
+    BigDecimal scoreSum;
+
+    @Column(name = "updated_at", nullable = false)
+    LocalDateTime updatedAt;
+}
@@ -12,6 +12,8 @@ import java.math.BigDecimal;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class LatePenaltyConfig {
     
+    // Rates and maxPenalty are fractions of the score (0.10 = 10%); see LatePenaltyPolicy
+    
     @Builder.Default
     Boolean enabled = false;
     
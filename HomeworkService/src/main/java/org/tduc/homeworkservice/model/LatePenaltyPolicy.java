@@ -0,0 +1,158 @@
+package org.tduc.homeworkservice.model;
+
+import org.tduc.homeworkservice.json.JsonCodec;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A homework's {@link LatePenaltyConfig} compiled once into integer rates, in millionths of the score.
+ * Compiled policies are immutable and cached by their JSON, so identical configs share one instance
+ * and an edited config simply compiles to a new entry.
+ * <p>
+ * Each started day, started hour and minute late adds its rate. The total is capped at maxPenalty.
+ * Nothing is deducted within the grace period; past it, lateness counts from the due date.
+ * Scores are worked in hundredths, so results match the DECIMAL(10,2) score column exactly.
+ */
+public final class LatePenaltyPolicy {
+
+    // Rates and penalties are fractions of the score in millionths
+    public static final long SCALE = 1_000_000L;
+
+    public static final LatePenaltyPolicy NONE = new LatePenaltyPolicy(false, 0, 0, 0, SCALE, 0);
+
+    private static final JsonCodec<LatePenaltyConfig> CONFIG = JsonCodec.of(LatePenaltyConfig.class);
+    private static final int MAX_CACHED = 1024;
+    private static final Map<String, LatePenaltyPolicy> CACHE = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+    private final long perDay;
+    private final long perHour;
+    private final long perMinute;
+    private final long maxPenalty;
+    private final int graceMinutes;
+
+    private LatePenaltyPolicy(boolean enabled, long perDay, long perHour, long perMinute, long maxPenalty, int graceMinutes) {
+        this.enabled = enabled;
+        this.perDay = perDay;
+        this.perHour = perHour;
+        this.perMinute = perMinute;
+        this.maxPenalty = maxPenalty;
+        this.graceMinutes = graceMinutes;
+    }
+
+    /**
+     * Policy for a homework's latePenalty JSON; blank or unreadable JSON means no penalty.
+     */
+    public static LatePenaltyPolicy of(String latePenaltyJson) {
+        if (latePenaltyJson == null || latePenaltyJson.isBlank()) {
+            return NONE;
+        }
+        LatePenaltyPolicy cached = CACHE.get(latePenaltyJson);
+        if (cached != null) {
+            return cached;
+        }
+        LatePenaltyPolicy policy;
+        try {
+            policy = compile(CONFIG.read(latePenaltyJson));
+        } catch (Exception e) {
+            policy = NONE;
+        }
+        // Configs are few and rarely change; dropping everything on overflow keeps this bounded without LRU upkeep
+        if (CACHE.size() >= MAX_CACHED) {
+            CACHE.clear();
+        }
+        CACHE.putIfAbsent(latePenaltyJson, policy);
+        return policy;
+    }
+
+    public static LatePenaltyPolicy compile(LatePenaltyConfig config) {
+        if (config == null || !Boolean.TRUE.equals(config.getEnabled())) {
+            return NONE;
+        }
+        long perDay = micros(config.getPercentagePerDay());
+        long perHour = micros(config.getPercentagePerHour());
+        long perMinute = micros(config.getPercentagePerMinute());
+        long max = config.getMaxPenalty() == null ? SCALE : micros(config.getMaxPenalty());
+        int grace = config.getGracePeriodMinutes() == null ? 0 : Math.max(0, config.getGracePeriodMinutes());
+        if (max == 0 || (perDay == 0 && perHour == 0 && perMinute == 0)) {
+            return NONE;
+        }
+        return new LatePenaltyPolicy(true, perDay, perHour, perMinute, max, grace);
+    }
+
+    /**
+     * Whole minutes past the due date, rounded up; 0 when on time.
+     */
+    public static int minutesLate(LocalDateTime dueDate, LocalDateTime submittedAt) {
+        if (dueDate == null || submittedAt == null || !submittedAt.isAfter(dueDate)) {
+            return 0;
+        }
+        long seconds = Duration.between(dueDate, submittedAt).getSeconds();
+        return (int) Math.min(Integer.MAX_VALUE, (seconds + 59) / 60);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Fraction of the score deducted, in millionths.
+     */
+    public long penaltyMicros(int minutesLate) {
+        if (!enabled || minutesLate <= graceMinutes) {
+            return 0;
+        }
+        long minutes = minutesLate;
+        long penalty = perDay * ((minutes + 1439) / 1440) + perHour * ((minutes + 59) / 60) + perMinute * minutes;
+        return Math.min(penalty, maxPenalty);
+    }
+
+    /**
+     * Deducted share as a percentage, e.g. 12.50, or null when nothing is deducted.
+     */
+    public static BigDecimal toPercent(long penaltyMicros) {
+        return penaltyMicros == 0 ? null : BigDecimal.valueOf(penaltyMicros, 4).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Score after deducting {@code penaltyMicros}, rounded half-up to hundredths.
+     */
+    public static BigDecimal apply(BigDecimal score, long penaltyMicros) {
+        if (score == null || penaltyMicros == 0) {
+            return score;
+        }
+        long hundredths = score.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+        long kept = (hundredths * (SCALE - penaltyMicros) + SCALE / 2) / SCALE;
+        return BigDecimal.valueOf(Math.max(kept, 0), 2);
+    }
+
+    /**
+     * Fresh config describing this policy, for callers that still read LatePenaltyConfig.
+     */
+    public LatePenaltyConfig toConfig() {
+        return LatePenaltyConfig.builder()
+                .enabled(enabled)
+                .percentagePerDay(BigDecimal.valueOf(perDay, 6))
+                .percentagePerHour(BigDecimal.valueOf(perHour, 6))
+                .percentagePerMinute(BigDecimal.valueOf(perMinute, 6))
+                .maxPenalty(BigDecimal.valueOf(maxPenalty, 6))
+                .gracePeriodMinutes(graceMinutes)
+                .build();
+    }
+
+    // Rates are fractions (0.10 = 10%), clamped to [0, 1]
+    private static long micros(BigDecimal fraction) {
+        if (fraction == null || fraction.signum() <= 0) {
+            return 0;
+        }
+        if (fraction.compareTo(BigDecimal.ONE) >= 0) {
+            return SCALE;
+        }
+        return fraction.movePointRight(6).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+}
@@ -0,0 +1,20 @@
+package org.tduc.homeworkservice.model;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class PeerReviewConfig {
+
+    // Stored as JSON in Homework.peerReviewConfig; see PeerReviewService
+
+    @Builder.Default
+    Integer reviewersPerSubmission = 3;
+
+    @Builder.Default
+    Boolean excludeGroupMembers = true; // Members of one group do not review each other
+}
@@ -5,6 +5,7 @@ import lombok.*;
 import lombok.experimental.FieldDefaults;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.tduc.homeworkservice.json.StringListConverter;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -37,7 +38,8 @@ public class Submission {
     String content;
     
     @Column(columnDefinition = "JSON")
-    String attachments;
+    @Convert(converter = StringListConverter.class)
+    List<String> attachments;
     
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -0,0 +1,309 @@
+package org.tduc.homeworkservice.peerreview;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.tduc.homeworkservice.dto.request.PeerReviewRequest;
+import org.tduc.homeworkservice.dto.response.PeerReviewAssignmentResponse;
+import org.tduc.homeworkservice.dto.response.PeerReviewSummaryResponse;
+import org.tduc.homeworkservice.dto.response.PeerReviewTaskResponse;
+import org.tduc.homeworkservice.event.HomeworkDeadlineEvent;
+import org.tduc.homeworkservice.exception.AppException;
+import org.tduc.homeworkservice.exception.ErrorCode;
+import org.tduc.homeworkservice.json.JsonCodec;
+import org.tduc.homeworkservice.model.Homework;
+import org.tduc.homeworkservice.model.PeerReviewConfig;
+import org.tduc.homeworkservice.repository.HomeworkRepository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Peer review for homework with peerReviewEnabled.
+ * <p>
+ * When submissions close (or on request) every student's latest submission gets
+ * reviewersPerSubmission reviewers from among the other submitters, balanced so each submitter
+ * reviews that many; see {@link ReviewAssigner}. Assignments go to peer_review_assignment and, as a
+ * JSON array of reviewer ids, to Submission.peerReviewAssignments, both as batched writes.
+ * <p>
+ * Submission.peerReviewScores holds {"assigned", "reviews", "total"}. Each review applies its delta
+ * to it in one UPDATE, so averages never need a pass over all reviews.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PeerReviewService {
+
+    private static final String UNITS_SQL = "SELECT id, student_id, group_id FROM submission "
+            + "WHERE homework_id = ? AND submitted_at IS NOT NULL ORDER BY student_id, attempt_number DESC";
+    private static final String SCORE_DELTA_SQL = "UPDATE submission SET peer_review_scores = JSON_SET("
+            + "COALESCE(peer_review_scores, JSON_OBJECT('assigned', 0)), "
+            + "'$.reviews', COALESCE(JSON_EXTRACT(peer_review_scores, '$.reviews'), 0) + ?, "
+            + "'$.total', CAST(COALESCE(JSON_EXTRACT(peer_review_scores, '$.total'), 0) + ? AS DECIMAL(12,2))) "
+            + "WHERE id = ?";
+
+    private static final JsonCodec<PeerReviewConfig> CONFIG = JsonCodec.of(PeerReviewConfig.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final HomeworkRepository homeworkRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.peer-review.write-chunk:1000}")
+    private int writeChunk = 1000;
+
+    // Submissions of one homework in index form: the latest per student
+    record Units(String[] submissionIds, String[] studentIds, int[] groupOf) {
+
+        int size() {
+            return submissionIds.length;
+        }
+    }
+
+    @Async("taskExecutor")
+    @TransactionalEventListener(condition = "#event.kind() == T(org.tduc.homeworkservice.deadline.DeadlineKind).SUBMISSION_CLOSE")
+    public void onSubmissionClose(HomeworkDeadlineEvent event) {
+        Homework homework = homeworkRepository.findById(event.homeworkId()).orElse(null);
+        if (homework == null || !Boolean.TRUE.equals(homework.getPeerReviewEnabled())) {
+            return;
+        }
+        try {
+            assign(event.homeworkId());
+        } catch (AppException e) {
+            log.debug("Peer review for homework {} not assigned: {}", event.homeworkId(), e.getErrorCode());
+        } catch (RuntimeException e) {
+            log.warn("Peer review assignment failed for homework {}: {}", event.homeworkId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Assign reviewers for every current submission of a homework, once.
+     */
+    public PeerReviewAssignmentResponse assign(String homeworkId) {
+        long started = System.currentTimeMillis();
+        Homework homework = homeworkRepository.findById(homeworkId)
+                .orElseThrow(() -> new AppException(ErrorCode.HOMEWORK_NOT_FOUND));
+        if (!Boolean.TRUE.equals(homework.getPeerReviewEnabled())) {
+            throw new AppException(ErrorCode.PEER_REVIEW_NOT_ENABLED);
+        }
+        PeerReviewConfig config = config(homework);
+
+        PeerReviewAssignmentResponse response = new TransactionTemplate(transactionManager).execute(status -> {
+            // Serializes a manual run against the deadline-triggered one
+            jdbcTemplate.queryForObject("SELECT id FROM homework WHERE id = ? FOR UPDATE", String.class, homeworkId);
+            Integer existing = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM peer_review_assignment WHERE homework_id = ?", Integer.class, homeworkId);
+            if (existing != null && existing > 0) {
+                throw new AppException(ErrorCode.PEER_REVIEW_ALREADY_ASSIGNED);
+            }
+            Units units = loadUnits(homeworkId);
+            ReviewAssigner.Assignment assignment = ReviewAssigner.assign(units.groupOf(),
+                    config.getReviewersPerSubmission(), Boolean.TRUE.equals(config.getExcludeGroupMembers()), new Random());
+            write(homeworkId, units, assignment, LocalDateTime.now());
+            return PeerReviewAssignmentResponse.builder()
+                    .homeworkId(homeworkId)
+                    .submissions(units.size())
+                    .reviewersPerSubmission(assignment.perSubmission())
+                    .assignments((long) units.size() * assignment.perSubmission())
+                    .groupsRelaxed(assignment.groupsRelaxed())
+                    .build();
+        });
+        response.setDurationMillis(System.currentTimeMillis() - started);
+        log.info("Assigned {} peer reviews for {} submissions of homework {} in {} ms{}", response.getAssignments(),
+                response.getSubmissions(), homeworkId, response.getDurationMillis(),
+                response.isGroupsRelaxed() ? " (group exclusion relaxed)" : "");
+        return response;
+    }
+
+    /**
+     * Record or revise a reviewer's score for a submission and fold it into the submission's totals.
+     */
+    public PeerReviewSummaryResponse submitReview(String submissionId, PeerReviewRequest request) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<BigDecimal[]> slot = jdbcTemplate.query("SELECT a.score, h.max_score FROM peer_review_assignment a "
+                            + "JOIN homework h ON h.id = a.homework_id WHERE a.submission_id = ? AND a.reviewer_id = ? FOR UPDATE OF a",
+                    (rs, rowNum) -> new BigDecimal[]{rs.getBigDecimal("score"), rs.getBigDecimal("max_score")},
+                    submissionId, request.getReviewerId());
+            if (slot.isEmpty()) {
+                throw new AppException(ErrorCode.PEER_REVIEW_NOT_ASSIGNED);
+            }
+            BigDecimal previous = slot.get(0)[0];
+            BigDecimal maxScore = slot.get(0)[1];
+            if (maxScore != null && request.getScore().compareTo(maxScore) > 0) {
+                throw new AppException(ErrorCode.INVALID_SCORE);
+            }
+            jdbcTemplate.update("UPDATE peer_review_assignment SET score = ?, feedback = ?, reviewed_at = ? "
+                            + "WHERE submission_id = ? AND reviewer_id = ?",
+                    request.getScore(), request.getFeedback(), LocalDateTime.now(), submissionId, request.getReviewerId());
+            jdbcTemplate.update(SCORE_DELTA_SQL, previous == null ? 1 : 0,
+                    previous == null ? request.getScore() : request.getScore().subtract(previous), submissionId);
+        });
+        return getSummary(submissionId);
+    }
+
+    public PeerReviewSummaryResponse getSummary(String submissionId) {
+        List<String> json = jdbcTemplate.queryForList("SELECT peer_review_scores FROM submission WHERE id = ?",
+                String.class, submissionId);
+        if (json.isEmpty()) {
+            throw new AppException(ErrorCode.SUBMISSION_NOT_FOUND);
+        }
+        return summary(submissionId, json.get(0));
+    }
+
+    public List<PeerReviewTaskResponse> getTasks(String homeworkId, String reviewerId) {
+        return jdbcTemplate.query("SELECT submission_id, assigned_at, score, reviewed_at FROM peer_review_assignment "
+                        + "WHERE homework_id = ? AND reviewer_id = ? ORDER BY submission_id",
+                (rs, rowNum) -> {
+                    Timestamp reviewedAt = rs.getTimestamp("reviewed_at");
+                    return PeerReviewTaskResponse.builder()
+                            .submissionId(rs.getString("submission_id"))
+                            .assignedAt(rs.getTimestamp("assigned_at").toLocalDateTime())
+                            .score(rs.getBigDecimal("score"))
+                            .reviewedAt(reviewedAt == null ? null : reviewedAt.toLocalDateTime())
+                            .build();
+                },
+                homeworkId, reviewerId);
+    }
+
+    PeerReviewConfig config(Homework homework) {
+        PeerReviewConfig config = null;
+        if (homework.getPeerReviewConfig() != null && !homework.getPeerReviewConfig().isBlank()) {
+            try {
+                config = CONFIG.read(homework.getPeerReviewConfig());
+            } catch (IllegalArgumentException e) {
+                log.warn("Unreadable peerReviewConfig on homework {}, using defaults", homework.getId());
+            }
+        }
+        PeerReviewConfig defaults = PeerReviewConfig.builder().build();
+        if (config == null) {
+            return defaults;
+        }
+        if (config.getReviewersPerSubmission() == null || config.getReviewersPerSubmission() < 1) {
+            config.setReviewersPerSubmission(defaults.getReviewersPerSubmission());
+        }
+        if (config.getExcludeGroupMembers() == null) {
+            config.setExcludeGroupMembers(defaults.getExcludeGroupMembers());
+        }
+        return config;
+    }
+
+    Units loadUnits(String homeworkId) {
+        List<String> submissionIds = new ArrayList<>();
+        List<String> studentIds = new ArrayList<>();
+        List<String> groupIds = new ArrayList<>();
+        jdbcTemplate.query(UNITS_SQL, (RowCallbackHandler) rs -> {
+            String studentId = rs.getString("student_id");
+            // Rows come latest attempt first per student
+            if (!studentIds.isEmpty() && studentIds.get(studentIds.size() - 1).equals(studentId)) {
+                return;
+            }
+            submissionIds.add(rs.getString("id"));
+            studentIds.add(studentId);
+            groupIds.add(rs.getString("group_id"));
+        }, homeworkId);
+
+        int n = submissionIds.size();
+        int[] groupOf = new int[n];
+        Map<String, Integer> groupIndex = new HashMap<>();
+        int groups = 0;
+        for (int i = 0; i < n; i++) {
+            String groupId = groupIds.get(i);
+            Integer index = groupId == null ? null : groupIndex.get(groupId);
+            if (index == null) {
+                // A student without a group is a group of one
+                index = groups++;
+                if (groupId != null) {
+                    groupIndex.put(groupId, index);
+                }
+            }
+            groupOf[i] = index;
+        }
+        return new Units(submissionIds.toArray(String[]::new), studentIds.toArray(String[]::new), groupOf);
+    }
+
+    private void write(String homeworkId, Units units, ReviewAssigner.Assignment assignment, LocalDateTime now) {
+        int n = units.size();
+        int k = assignment.perSubmission();
+        Timestamp assignedAt = Timestamp.valueOf(now);
+        for (int from = 0; from < n; from += writeChunk) {
+            int first = from;
+            int count = Math.min(writeChunk, n - from);
+            jdbcTemplate.batchUpdate("INSERT INTO peer_review_assignment (submission_id, reviewer_id, homework_id, assigned_at) "
+                    + "VALUES (?, ?, ?, ?)", new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    int submission = first + i / k;
+                    ps.setString(1, units.submissionIds()[submission]);
+                    ps.setString(2, units.studentIds()[assignment.reviewer(submission, i % k)]);
+                    ps.setString(3, homeworkId);
+                    ps.setTimestamp(4, assignedAt);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return count * k;
+                }
+            });
+            jdbcTemplate.batchUpdate("UPDATE submission SET peer_review_assignments = ?, "
+                    + "peer_review_scores = JSON_OBJECT('assigned', ?, 'reviews', 0, 'total', 0) WHERE id = ?",
+                    new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    int submission = first + i;
+                    List<String> reviewers = new ArrayList<>(k);
+                    for (int slot = 0; slot < k; slot++) {
+                        reviewers.add(units.studentIds()[assignment.reviewer(submission, slot)]);
+                    }
+                    ps.setString(1, toJson(reviewers));
+                    ps.setInt(2, k);
+                    ps.setString(3, units.submissionIds()[submission]);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return count;
+                }
+            });
+        }
+    }
+
+    private PeerReviewSummaryResponse summary(String submissionId, String json) {
+        PeerReviewSummaryResponse summary = PeerReviewSummaryResponse.builder().submissionId(submissionId).build();
+        if (json == null) {
+            return summary;
+        }
+        try {
+            JsonNode node = JsonCodec.TREE.read(json);
+            summary.setAssigned(node.path("assigned").asInt());
+            summary.setReviews(node.path("reviews").asInt());
+            if (summary.getReviews() > 0) {
+                summary.setAverageScore(node.path("total").decimalValue()
+                        .divide(BigDecimal.valueOf(summary.getReviews()), 2, RoundingMode.HALF_UP));
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("Unreadable peerReviewScores on submission {}", submissionId);
+        }
+        return summary;
+    }
+
+    private String toJson(List<String> reviewers) {
+        return JsonCodec.STRING_LIST.write(reviewers);
+    }
+}
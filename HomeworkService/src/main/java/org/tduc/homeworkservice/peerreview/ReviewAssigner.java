@@ -0,0 +1,93 @@
+package org.tduc.homeworkservice.peerreview;
+
+import java.util.Random;
+
+/**
+ * Assigns k reviewers to each of n submissions, the reviewers being the submissions' own authors.
+ * <p>
+ * Authors are laid out in one random order with each group's members next to each other. The
+ * reviewers of the submission at position p are the authors at p + d for k distinct offsets d. Each
+ * offset is a bijection, so every author reviews exactly k submissions and nobody reviews their own.
+ * Offsets between the largest group size g and n - g never land inside the same group. When k such
+ * offsets do not exist the group rule is dropped and offsets 1..k are used.
+ * <p>
+ * Everything is index arrays: O(n + n * k) time and memory, no maps or object graphs.
+ */
+public final class ReviewAssigner {
+
+    private ReviewAssigner() {
+    }
+
+    /**
+     * @param reviewers      for submission i, reviewer indexes at {@code i * perSubmission + j}
+     * @param perSubmission  k, lowered to n - 1 for tiny classes
+     * @param groupsRelaxed  whether group members may have been assigned to each other
+     */
+    public record Assignment(int[] reviewers, int perSubmission, boolean groupsRelaxed) {
+
+        public int reviewer(int submission, int slot) {
+            return reviewers[submission * perSubmission + slot];
+        }
+    }
+
+    /**
+     * @param groupOf       group index of each author in [0, n); authors without a group get their own index
+     * @param k             reviewers wanted per submission
+     * @param excludeGroups keep group members from reviewing each other when possible
+     */
+    public static Assignment assign(int[] groupOf, int k, boolean excludeGroups, Random random) {
+        int n = groupOf.length;
+        int perSubmission = Math.max(0, Math.min(k, n - 1));
+        if (perSubmission == 0) {
+            return new Assignment(new int[0], 0, false);
+        }
+
+        // Shuffle authors, then counting-sort them by a random rank of their group: members end up
+        // adjacent in random order and groups in random order
+        int[] shuffled = new int[n];
+        for (int i = 0; i < n; i++) {
+            int j = random.nextInt(i + 1);
+            shuffled[i] = shuffled[j];
+            shuffled[j] = i;
+        }
+        int[] rankOfGroup = new int[n];
+        for (int i = 0; i < n; i++) {
+            int j = random.nextInt(i + 1);
+            rankOfGroup[i] = rankOfGroup[j];
+            rankOfGroup[j] = i;
+        }
+        int[] start = new int[n + 1];
+        for (int author = 0; author < n; author++) {
+            start[rankOfGroup[groupOf[author]] + 1]++;
+        }
+        int largestGroup = 0;
+        for (int rank = 0; rank < n; rank++) {
+            largestGroup = Math.max(largestGroup, start[rank + 1]);
+            start[rank + 1] += start[rank];
+        }
+        int[] order = new int[n];
+        for (int author : shuffled) {
+            order[start[rankOfGroup[groupOf[author]]]++] = author;
+        }
+
+        int firstOffset = 1;
+        boolean groupsRelaxed = false;
+        if (excludeGroups && largestGroup > 1) {
+            if (n - 2 * largestGroup + 1 >= perSubmission) {
+                firstOffset = largestGroup;
+            } else {
+                groupsRelaxed = true;
+            }
+        }
+
+        int[] reviewers = new int[n * perSubmission];
+        for (int position = 0; position < n; position++) {
+            int base = order[position] * perSubmission;
+            for (int slot = 0; slot < perSubmission; slot++) {
+                int reviewerPosition = position + firstOffset + slot;
+                reviewers[base + slot] = order[reviewerPosition < n ? reviewerPosition : reviewerPosition - n];
+            }
+        }
+        return new Assignment(reviewers, perSubmission, groupsRelaxed);
+    }
+}
@@ -0,0 +1,164 @@
+package org.tduc.homeworkservice.plagiarism;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * LSH banding over MinHash signatures: a signature of {@code bands * rows} values is cut into bands,
+ * and two documents become a candidate pair when any band hashes equal. With s the true similarity
+ * a pair is found with probability 1 - (1 - s^rows)^bands, so near-duplicates are found without
+ * comparing every pair.
+ * <p>
+ * Batch mode keeps everything in primitive arrays: signatures sit back to back in one int[], each
+ * band is a sorted long[] of (band hash, doc) packed together, and pairs are packed longs.
+ */
+public final class LshIndex {
+
+    // Low bits of a packed band entry hold the doc index; the rest is the band hash
+    private static final int DOC_BITS = 24;
+    public static final int MAX_DOCS = 1 << DOC_BITS;
+
+    private final int bands;
+    private final int rows;
+
+    public LshIndex(int bands, int rows) {
+        if (bands <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("bands and rows must be positive");
+        }
+        this.bands = bands;
+        this.rows = rows;
+    }
+
+    public int signatureLength() {
+        return bands * rows;
+    }
+
+    /**
+     * Hash of one band; the band number is mixed in so equal values in different bands do not collide.
+     */
+    public long bandKey(int[] signatures, int offset, int band) {
+        long hash = (band + 1) * 0x9E3779B97F4A7C15L;
+        int from = offset + band * rows;
+        for (int i = 0; i < rows; i++) {
+            hash = (hash ^ (signatures[from + i] & 0xFFFFFFFFL)) * 0xBF58476D1CE4E5B9L;
+            hash ^= hash >>> 31;
+        }
+        return hash;
+    }
+
+    public long[] bandKeys(int[] signature) {
+        long[] keys = new long[bands];
+        for (int band = 0; band < bands; band++) {
+            keys[band] = bandKey(signature, 0, band);
+        }
+        return keys;
+    }
+
+    public static long pair(int first, int second) {
+        return first < second ? ((long) first << 32) | second : ((long) second << 32) | first;
+    }
+
+    public static int first(long pair) {
+        return (int) (pair >>> 32);
+    }
+
+    public static int second(long pair) {
+        return (int) pair;
+    }
+
+    /**
+     * Distinct candidate pairs, sorted, among docs {@code 0..count-1} whose {@code present} flag is set.
+     * Bands are bucketed in parallel on {@code pool}. A bucket larger than {@code maxBucket} (the same
+     * boilerplate handed in by everyone) only pairs its first {@code maxBucket} docs.
+     */
+    public long[] candidatePairs(int[] signatures, int count, boolean[] present, int maxBucket, ForkJoinPool pool) {
+        if (count > MAX_DOCS) {
+            throw new IllegalArgumentException("At most " + MAX_DOCS + " documents per batch");
+        }
+        List<RecursiveTask<long[]>> tasks = new ArrayList<>(bands);
+        for (int band = 0; band < bands; band++) {
+            int current = band;
+            RecursiveTask<long[]> task = new RecursiveTask<>() {
+                @Override
+                protected long[] compute() {
+                    return bandPairs(signatures, count, present, current, maxBucket);
+                }
+            };
+            pool.execute(task);
+            tasks.add(task);
+        }
+        int total = 0;
+        for (RecursiveTask<long[]> task : tasks) {
+            total += task.join().length;
+        }
+        long[] all = new long[total];
+        int at = 0;
+        for (RecursiveTask<long[]> task : tasks) {
+            long[] pairs = task.join();
+            System.arraycopy(pairs, 0, all, at, pairs.length);
+            at += pairs.length;
+        }
+        return sortedDistinct(all);
+    }
+
+    private long[] bandPairs(int[] signatures, int count, boolean[] present, int band, int maxBucket) {
+        int length = signatureLength();
+        long[] entries = new long[count];
+        int size = 0;
+        for (int doc = 0; doc < count; doc++) {
+            if (present[doc]) {
+                entries[size++] = (bandKey(signatures, doc * length, band) << DOC_BITS) | doc;
+            }
+        }
+        Arrays.sort(entries, 0, size);
+
+        LongList pairs = new LongList();
+        int start = 0;
+        while (start < size) {
+            long key = entries[start] >>> DOC_BITS;
+            int end = start + 1;
+            while (end < size && entries[end] >>> DOC_BITS == key) {
+                end++;
+            }
+            int limit = Math.min(end, start + maxBucket);
+            for (int i = start; i < limit; i++) {
+                int a = (int) (entries[i] & (MAX_DOCS - 1));
+                for (int j = i + 1; j < limit; j++) {
+                    pairs.add(pair(a, (int) (entries[j] & (MAX_DOCS - 1))));
+                }
+            }
+            start = end;
+        }
+        return pairs.toArray();
+    }
+
+    private static long[] sortedDistinct(long[] values) {
+        Arrays.sort(values);
+        int size = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (i == 0 || values[i] != values[i - 1]) {
+                values[size++] = values[i];
+            }
+        }
+        return Arrays.copyOf(values, size);
+    }
+
+    private static final class LongList {
+        long[] values = new long[16];
+        int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.tduc.homeworkservice.plagiarism;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash signatures over word shingles. Text is lower-cased and split on anything that is not a
+ * letter or digit, so punctuation and spacing changes do not hide a copy; every run of
+ * {@code shingleWords} consecutive words is one shingle. Two signatures agree in a position with
+ * probability equal to the Jaccard similarity of the shingle sets.
+ * <p>
+ * Tokens are hashed as they are read, without building strings. Each of the {@code numHashes}
+ * functions is a multiply-add over the 64-bit shingle hash, keeping the high 32 bits.
+ * The seed is fixed so stored signatures stay comparable across restarts.
+ */
+public final class MinHasher {
+
+    private static final long SEED = 0x5DEECE66DL;
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private final int numHashes;
+    private final int shingleWords;
+    private final long[] multipliers;
+    private final long[] addends;
+
+    public MinHasher(int numHashes, int shingleWords) {
+        if (numHashes <= 0 || shingleWords <= 0) {
+            throw new IllegalArgumentException("numHashes and shingleWords must be positive");
+        }
+        this.numHashes = numHashes;
+        this.shingleWords = shingleWords;
+        this.multipliers = new long[numHashes];
+        this.addends = new long[numHashes];
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < numHashes; i++) {
+            multipliers[i] = random.nextLong() | 1L;
+            addends[i] = random.nextLong();
+        }
+    }
+
+    public int numHashes() {
+        return numHashes;
+    }
+
+    /**
+     * Signature of {@code text}, or null when it has no words.
+     */
+    public int[] signature(String text) {
+        int[] signature = new int[numHashes];
+        return signature(text, signature, 0) ? signature : null;
+    }
+
+    /**
+     * Writes the signature into {@code out} from {@code offset}; false when the text has no words.
+     */
+    public boolean signature(String text, int[] out, int offset) {
+        Arrays.fill(out, offset, offset + numHashes, Integer.MAX_VALUE);
+        if (text == null || text.isEmpty()) {
+            return false;
+        }
+        long[] window = new long[shingleWords];
+        int words = 0;
+        long word = FNV_OFFSET;
+        boolean inWord = false;
+        int length = text.length();
+        for (int i = 0; i <= length; ) {
+            int cp = i < length ? text.codePointAt(i) : ' ';
+            if (Character.isLetterOrDigit(cp)) {
+                word = (word ^ Character.toLowerCase(cp)) * FNV_PRIME;
+                inWord = true;
+            } else if (inWord) {
+                window[words % shingleWords] = word;
+                words++;
+                if (words >= shingleWords) {
+                    update(out, offset, shingle(window, words));
+                }
+                word = FNV_OFFSET;
+                inWord = false;
+            }
+            i += i < length ? Character.charCount(cp) : 1;
+        }
+        if (words == 0) {
+            return false;
+        }
+        if (words < shingleWords) {
+            // Shorter than one shingle: the whole text is the only shingle
+            update(out, offset, shingle(window, words));
+        }
+        return true;
+    }
+
+    /**
+     * Share of positions where the two signatures agree: the estimated Jaccard similarity.
+     */
+    public static double similarity(int[] a, int aOffset, int[] b, int bOffset, int length) {
+        int same = 0;
+        for (int i = 0; i < length; i++) {
+            if (a[aOffset + i] == b[bOffset + i]) {
+                same++;
+            }
+        }
+        return (double) same / length;
+    }
+
+    private void update(int[] out, int offset, long shingle) {
+        for (int i = 0; i < numHashes; i++) {
+            int value = (int) ((multipliers[i] * shingle + addends[i]) >>> 32);
+            if (value < out[offset + i]) {
+                out[offset + i] = value;
+            }
+        }
+    }
+
+    // Order-sensitive combination of the last min(words, shingleWords) word hashes, oldest first
+    private long shingle(long[] window, int words) {
+        int count = Math.min(words, shingleWords);
+        long hash = FNV_OFFSET;
+        for (int j = 0; j < count; j++) {
+            hash = (hash ^ window[(words - count + j) % shingleWords]) * 0x9E3779B97F4A7C15L;
+            hash ^= hash >>> 29;
+        }
+        return hash;
+    }
+}
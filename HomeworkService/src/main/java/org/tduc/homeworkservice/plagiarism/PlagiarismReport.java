@@ -0,0 +1,15 @@
+package org.tduc.homeworkservice.plagiarism;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Stored as Submission.plagiarismResult. Similarities are estimated Jaccard similarities of the
+ * word shingles, as percentages; {@code matches} holds the closest other students' submissions, best first.
+ */
+public record PlagiarismReport(String engine, LocalDateTime checkedAt, BigDecimal threshold, String note, List<Match> matches) {
+
+    public record Match(String submissionId, String studentId, BigDecimal similarity) {
+    }
+}
@@ -0,0 +1,494 @@
+package org.tduc.homeworkservice.plagiarism;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.tduc.homeworkservice.dto.response.PlagiarismRecheckResponse;
+import org.tduc.homeworkservice.event.SubmissionSubmittedEvent;
+import org.tduc.homeworkservice.exception.AppException;
+import org.tduc.homeworkservice.exception.ErrorCode;
+import org.tduc.homeworkservice.model.Homework;
+import org.tduc.homeworkservice.model.Submission;
+import org.tduc.homeworkservice.repository.HomeworkRepository;
+import org.tduc.homeworkservice.repository.SubmissionRepository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * In-process near-duplicate detection for homework with plagiarism checking on and no external provider.
+ * <p>
+ * On submit (after commit, on the taskExecutor) the submission's MinHash signature and its LSH band keys
+ * are stored in submission_signature and submission_lsh_band. Earlier submissions sharing a band key are
+ * the only ones compared. Their estimated similarity fills plagiarismResult and similarityScore.
+ * Earlier submissions are not updated on submit.
+ * <p>
+ * {@link #recheckHomework} recomputes everything for one homework; it is queued as a bulk job, see
+ * {@code SubmissionService#recheckPlagiarism}. Content is streamed in chunks and
+ * signed on a fork/join pool into one int[]. Bands are bucketed in parallel and every submission gets a
+ * fresh symmetric result. Run it after changing the engine settings, which invalidate stored signatures.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlagiarismService {
+
+    public static final String PROVIDER = "INTERNAL";
+    private static final String ENGINE = "minhash-lsh";
+    private static final int READ_CHUNK = 512;
+    private static final int WRITE_CHUNK = 500;
+    // Size of submission_signature.signature (VARBINARY)
+    static final int MAX_SIGNATURE_BYTES = 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final HomeworkRepository homeworkRepository;
+    private final SubmissionRepository submissionRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.plagiarism.bands:32}")
+    private int bands;
+
+    @Value("${app.plagiarism.rows:4}")
+    private int rows;
+
+    @Value("${app.plagiarism.shingle-words:3}")
+    private int shingleWords;
+
+    // Estimated Jaccard similarity a pair must reach to be reported
+    @Value("${app.plagiarism.threshold:0.5}")
+    private double threshold;
+
+    @Value("${app.plagiarism.max-matches:5}")
+    private int maxMatches;
+
+    @Value("${app.plagiarism.max-bucket:1000}")
+    private int maxBucket;
+
+    // 0 = one worker per core
+    @Value("${app.plagiarism.parallelism:0}")
+    private int parallelism;
+
+    private MinHasher hasher;
+    private LshIndex lsh;
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void init() {
+        checkSignatureFits(bands, rows);
+        lsh = new LshIndex(bands, rows);
+        hasher = new MinHasher(lsh.signatureLength(), shingleWords);
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * True when this engine should check the homework's submissions.
+     */
+    public static boolean handles(Homework homework) {
+        String provider = homework.getPlagiarismProvider();
+        return Boolean.TRUE.equals(homework.getEnablePlagiarismCheck())
+            && (provider == null || provider.isBlank() || PROVIDER.equalsIgnoreCase(provider));
+    }
+
+    @Async("taskExecutor")
+    @TransactionalEventListener(fallbackExecution = true, condition = "#event.plagiarismCheck()")
+    public void onSubmitted(SubmissionSubmittedEvent event) {
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> check(event.submissionId()));
+        } catch (RuntimeException e) {
+            log.warn("Plagiarism check failed for submission {}: {}", event.submissionId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Sign one submission and compare it with the homework's earlier submissions that share a band.
+     */
+    public void check(String submissionId) {
+        Submission submission = submissionRepository.findById(submissionId).orElse(null);
+        if (submission == null) {
+            return;
+        }
+        int length = lsh.signatureLength();
+        int[] signature = hasher.signature(submission.getContent());
+        if (signature == null) {
+            writeResult(submissionId, report("No text to compare", List.of()), null);
+            return;
+        }
+
+        long[] keys = lsh.bandKeys(signature);
+        List<Object> args = new ArrayList<>(keys.length + 2);
+        args.add(submission.getHomeworkId());
+        for (long key : keys) {
+            args.add(key);
+        }
+        args.add(submissionId);
+        List<String> candidates = jdbcTemplate.queryForList(
+            "SELECT DISTINCT b.submission_id FROM submission_lsh_band b WHERE b.homework_id = ? AND b.band_key IN ("
+                + placeholders(keys.length) + ") AND b.submission_id <> ?",
+            String.class, args.toArray());
+
+        List<PlagiarismReport.Match> matches = new ArrayList<>();
+        for (int from = 0; from < candidates.size(); from += WRITE_CHUNK) {
+            List<String> chunk = candidates.subList(from, Math.min(from + WRITE_CHUNK, candidates.size()));
+            jdbcTemplate.query(
+                "SELECT submission_id, student_id, signature FROM submission_signature WHERE submission_id IN ("
+                    + placeholders(chunk.size()) + ")",
+                rs -> {
+                    int[] other = decode(rs.getBytes("signature"));
+                    if (other.length != length || Objects.equals(rs.getString("student_id"), submission.getStudentId())) {
+                        return;
+                    }
+                    double similarity = MinHasher.similarity(signature, 0, other, 0, length);
+                    if (similarity >= threshold) {
+                        matches.add(new PlagiarismReport.Match(rs.getString("submission_id"), rs.getString("student_id"),
+                            percent(similarity)));
+                    }
+                },
+                chunk.toArray());
+        }
+        matches.sort(Comparator.comparing(PlagiarismReport.Match::similarity).reversed());
+        List<PlagiarismReport.Match> top = matches.size() > maxMatches ? matches.subList(0, maxMatches) : matches;
+
+        jdbcTemplate.update("INSERT INTO submission_signature (submission_id, homework_id, student_id, signature) VALUES (?, ?, ?, ?) "
+                + "ON DUPLICATE KEY UPDATE signature = VALUES(signature)",
+            submissionId, submission.getHomeworkId(), submission.getStudentId(), encode(signature, 0, length));
+        jdbcTemplate.batchUpdate("INSERT IGNORE INTO submission_lsh_band (homework_id, band_key, submission_id) VALUES (?, ?, ?)",
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    ps.setString(1, submission.getHomeworkId());
+                    ps.setLong(2, keys[i]);
+                    ps.setString(3, submissionId);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return keys.length;
+                }
+            });
+        writeResult(submissionId, report(null, top), top.isEmpty() ? BigDecimal.ZERO.setScale(2) : top.get(0).similarity());
+    }
+
+    /**
+     * Re-sign every submission of a homework and recompute all results in one batch.
+     */
+    public PlagiarismRecheckResponse recheckHomework(String homeworkId) {
+        long started = System.currentTimeMillis();
+        if (!homeworkRepository.existsById(homeworkId)) {
+            throw new AppException(ErrorCode.HOMEWORK_NOT_FOUND);
+        }
+        Batch batch = readAndSign(homeworkId);
+        int n = batch.size;
+        int length = lsh.signatureLength();
+
+        long[] pairs = lsh.candidatePairs(batch.signatures, n, batch.present, maxBucket, pool);
+        // Best matches per submission, kept in flat arrays: slots [doc * maxMatches, (doc + 1) * maxMatches)
+        double[] topSimilarity = new double[n * maxMatches];
+        int[] topDoc = new int[n * maxMatches];
+        Arrays.fill(topSimilarity, -1);
+        long matched = 0;
+        for (long pair : pairs) {
+            int a = LshIndex.first(pair);
+            int b = LshIndex.second(pair);
+            if (batch.students.get(a).equals(batch.students.get(b))) {
+                continue;
+            }
+            double similarity = MinHasher.similarity(batch.signatures, a * length, batch.signatures, b * length, length);
+            if (similarity >= threshold) {
+                matched++;
+                offer(topSimilarity, topDoc, a, b, similarity);
+                offer(topSimilarity, topDoc, b, a, similarity);
+            }
+        }
+
+        int flagged = 0;
+        for (int doc = 0; doc < n; doc++) {
+            if (hasAny(topSimilarity, doc)) {
+                flagged++;
+            }
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> writeBatch(homeworkId, batch, topSimilarity, topDoc));
+
+        PlagiarismRecheckResponse response = PlagiarismRecheckResponse.builder()
+            .homeworkId(homeworkId)
+            .submissions(n)
+            .signed(batch.signed)
+            .candidatePairs(pairs.length)
+            .matchedPairs(matched)
+            .flaggedSubmissions(flagged)
+            .durationMillis(System.currentTimeMillis() - started)
+            .build();
+        log.info("Plagiarism recheck for homework {}: {}", homeworkId, response);
+        return response;
+    }
+
+    private Batch readAndSign(String homeworkId) {
+        Batch batch = new Batch(lsh.signatureLength());
+        List<String> contents = new ArrayList<>(READ_CHUNK);
+        // Row-by-row streaming from MySQL, so only one chunk of content is held at a time
+        JdbcTemplate streaming = new JdbcTemplate(Objects.requireNonNull(jdbcTemplate.getDataSource()));
+        streaming.setFetchSize(Integer.MIN_VALUE);
+        streaming.query("SELECT id, student_id, content FROM submission WHERE homework_id = ? ORDER BY id", rs -> {
+            batch.add(rs.getString("id"), rs.getString("student_id"));
+            contents.add(rs.getString("content"));
+            if (contents.size() == READ_CHUNK) {
+                sign(batch, contents);
+            }
+        }, homeworkId);
+        sign(batch, contents);
+        return batch;
+    }
+
+    // Signs the buffered contents, the last contents.size() docs of the batch, in parallel
+    private void sign(Batch batch, List<String> contents) {
+        if (contents.isEmpty()) {
+            return;
+        }
+        int base = batch.size - contents.size();
+        pool.invoke(new SignTask(batch, contents, base, 0, contents.size()));
+        for (int i = 0; i < contents.size(); i++) {
+            if (batch.present[base + i]) {
+                batch.signed++;
+            }
+        }
+        contents.clear();
+    }
+
+    private void writeBatch(String homeworkId, Batch batch, double[] topSimilarity, int[] topDoc) {
+        int length = lsh.signatureLength();
+        jdbcTemplate.update("DELETE FROM submission_lsh_band WHERE homework_id = ?", homeworkId);
+        jdbcTemplate.update("DELETE FROM submission_signature WHERE homework_id = ?", homeworkId);
+
+        int[] signedDocs = new int[batch.signed];
+        for (int doc = 0, at = 0; doc < batch.size; doc++) {
+            if (batch.present[doc]) {
+                signedDocs[at++] = doc;
+            }
+        }
+        for (int from = 0; from < signedDocs.length; from += WRITE_CHUNK) {
+            int start = from;
+            int count = Math.min(WRITE_CHUNK, signedDocs.length - from);
+            jdbcTemplate.batchUpdate("INSERT INTO submission_signature (submission_id, homework_id, student_id, signature) VALUES (?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        int doc = signedDocs[start + i];
+                        ps.setString(1, batch.ids.get(doc));
+                        ps.setString(2, homeworkId);
+                        ps.setString(3, batch.students.get(doc));
+                        ps.setBytes(4, encode(batch.signatures, doc * length, length));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return count;
+                    }
+                });
+            jdbcTemplate.batchUpdate("INSERT IGNORE INTO submission_lsh_band (homework_id, band_key, submission_id) VALUES (?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        int doc = signedDocs[start + i / bands];
+                        ps.setString(1, homeworkId);
+                        ps.setLong(2, lsh.bandKey(batch.signatures, doc * length, i % bands));
+                        ps.setString(3, batch.ids.get(doc));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return count * bands;
+                    }
+                });
+        }
+
+        for (int from = 0; from < batch.size; from += WRITE_CHUNK) {
+            int start = from;
+            int count = Math.min(WRITE_CHUNK, batch.size - from);
+            jdbcTemplate.batchUpdate("UPDATE submission SET plagiarism_result = ?, similarity_score = ? WHERE id = ?",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        int doc = start + i;
+                        List<PlagiarismReport.Match> matches = new ArrayList<>(maxMatches);
+                        for (int slot = doc * maxMatches; slot < (doc + 1) * maxMatches; slot++) {
+                            if (topSimilarity[slot] >= 0) {
+                                int other = topDoc[slot];
+                                matches.add(new PlagiarismReport.Match(batch.ids.get(other), batch.students.get(other),
+                                    percent(topSimilarity[slot])));
+                            }
+                        }
+                        matches.sort(Comparator.comparing(PlagiarismReport.Match::similarity).reversed());
+                        String note = batch.present[doc] ? null : "No text to compare";
+                        ps.setString(1, toJson(report(note, matches)));
+                        ps.setBigDecimal(2, !batch.present[doc] ? null
+                            : matches.isEmpty() ? BigDecimal.ZERO.setScale(2) : matches.get(0).similarity());
+                        ps.setString(3, batch.ids.get(doc));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return count;
+                    }
+                });
+        }
+    }
+
+    // Keep the maxMatches most similar docs for `doc`, replacing the weakest slot
+    private void offer(double[] topSimilarity, int[] topDoc, int doc, int other, double similarity) {
+        int base = doc * maxMatches;
+        int weakest = base;
+        for (int slot = base + 1; slot < base + maxMatches; slot++) {
+            if (topSimilarity[slot] < topSimilarity[weakest]) {
+                weakest = slot;
+            }
+        }
+        if (similarity > topSimilarity[weakest]) {
+            topSimilarity[weakest] = similarity;
+            topDoc[weakest] = other;
+        }
+    }
+
+    private boolean hasAny(double[] topSimilarity, int doc) {
+        for (int slot = doc * maxMatches; slot < (doc + 1) * maxMatches; slot++) {
+            if (topSimilarity[slot] >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeResult(String submissionId, PlagiarismReport report, BigDecimal similarityScore) {
+        jdbcTemplate.update("UPDATE submission SET plagiarism_result = ?, similarity_score = ? WHERE id = ?",
+            toJson(report), similarityScore, submissionId);
+    }
+
+    private PlagiarismReport report(String note, List<PlagiarismReport.Match> matches) {
+        return new PlagiarismReport(ENGINE, LocalDateTime.now(), percent(threshold), note, List.copyOf(matches));
+    }
+
+    private String toJson(PlagiarismReport report) {
+        try {
+            return objectMapper.writeValueAsString(report);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Plagiarism report not serializable", e);
+        }
+    }
+
+    private static BigDecimal percent(double fraction) {
+        return BigDecimal.valueOf(fraction * 100).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    // Fail at startup rather than on the first insert of a signature the column cannot hold
+    static void checkSignatureFits(int bands, int rows) {
+        long bytes = (long) bands * rows * Integer.BYTES;
+        if (bytes > MAX_SIGNATURE_BYTES) {
+            throw new IllegalStateException("app.plagiarism.bands x rows = " + (long) bands * rows
+                + " gives " + bytes + "-byte signatures; submission_signature holds at most "
+                + MAX_SIGNATURE_BYTES + " bytes (" + MAX_SIGNATURE_BYTES / Integer.BYTES + " values)");
+        }
+    }
+
+    static byte[] encode(int[] signatures, int offset, int length) {
+        ByteBuffer buffer = ByteBuffer.allocate(length * Integer.BYTES);
+        buffer.asIntBuffer().put(signatures, offset, length);
+        return buffer.array();
+    }
+
+    static int[] decode(byte[] bytes) {
+        int[] signature = new int[bytes.length / Integer.BYTES];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(signature);
+        return signature;
+    }
+
+    /**
+     * Submissions of one homework in read order; signatures back to back in one growing int[].
+     */
+    private static final class Batch {
+        final int length;
+        final List<String> ids = new ArrayList<>();
+        final List<String> students = new ArrayList<>();
+        int[] signatures;
+        boolean[] present;
+        int size;
+        int signed;
+
+        Batch(int length) {
+            this.length = length;
+            this.signatures = new int[READ_CHUNK * length];
+            this.present = new boolean[READ_CHUNK];
+        }
+
+        void add(String id, String studentId) {
+            if (size == present.length) {
+                present = Arrays.copyOf(present, size * 2);
+                signatures = Arrays.copyOf(signatures, size * 2 * length);
+            }
+            ids.add(id);
+            students.add(studentId);
+            size++;
+        }
+    }
+
+    private final class SignTask extends RecursiveAction {
+        private static final int THRESHOLD = 32;
+
+        private final Batch batch;
+        private final List<String> contents;
+        private final int base;
+        private final int from;
+        private final int to;
+
+        SignTask(Batch batch, List<String> contents, int base, int from, int to) {
+            this.batch = batch;
+            this.contents = contents;
+            this.base = base;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    int doc = base + i;
+                    batch.present[doc] = hasher.signature(contents.get(i), batch.signatures, doc * batch.length);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SignTask(batch, contents, base, from, mid), new SignTask(batch, contents, base, mid, to));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.tduc.homeworkservice.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.tduc.homeworkservice.model.AutoGradeJob;
+import org.tduc.homeworkservice.model.AutoGradeJobStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AutoGradeJobRepository extends JpaRepository<AutoGradeJob, String> {
+
+    // Oldest due first; served by idx_auto_grade_job_due
+    @Query("SELECT j.submissionId FROM AutoGradeJob j WHERE j.status = org.tduc.homeworkservice.model.AutoGradeJobStatus.PENDING "
+            + "AND j.nextAttemptAt <= :now ORDER BY j.nextAttemptAt, j.submissionId")
+    List<String> findDueIds(@Param("now") LocalDateTime now, Limit limit);
+
+    // 1 when this caller won the job; another worker or instance may have claimed it first
+    @Modifying
+    @Query("UPDATE AutoGradeJob j SET j.status = org.tduc.homeworkservice.model.AutoGradeJobStatus.RUNNING, "
+            + "j.attempts = j.attempts + 1, j.lockedAt = :now, j.updatedAt = :now "
+            + "WHERE j.submissionId = :id AND j.status = org.tduc.homeworkservice.model.AutoGradeJobStatus.PENDING")
+    int claim(@Param("id") String submissionId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE AutoGradeJob j SET j.status = org.tduc.homeworkservice.model.AutoGradeJobStatus.PENDING, "
+            + "j.lockedAt = NULL, j.nextAttemptAt = :now, j.updatedAt = :now "
+            + "WHERE j.status = org.tduc.homeworkservice.model.AutoGradeJobStatus.RUNNING AND j.lockedAt < :expiredBefore")
+    int releaseExpired(@Param("expiredBefore") LocalDateTime expiredBefore, @Param("now") LocalDateTime now);
+
+    long countByStatus(AutoGradeJobStatus status);
+
+    @Query("SELECT MIN(j.nextAttemptAt) FROM AutoGradeJob j WHERE j.status = org.tduc.homeworkservice.model.AutoGradeJobStatus.PENDING "
+            + "AND j.nextAttemptAt <= :now")
+    LocalDateTime findOldestDue(@Param("now") LocalDateTime now);
+}
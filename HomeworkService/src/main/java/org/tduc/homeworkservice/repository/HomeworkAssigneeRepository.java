@@ -0,0 +1,25 @@
+package org.tduc.homeworkservice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.tduc.homeworkservice.model.HomeworkAssignee;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface HomeworkAssigneeRepository extends JpaRepository<HomeworkAssignee, Long> {
+
+    List<HomeworkAssignee> findByHomeworkId(String homeworkId);
+
+    @Modifying
+    @Query("DELETE FROM HomeworkAssignee a WHERE a.homeworkId = :homeworkId")
+    int deleteByHomeworkId(@Param("homeworkId") String homeworkId);
+
+    @Modifying
+    @Query("UPDATE HomeworkAssignee a SET a.dueDate = :dueDate WHERE a.homeworkId = :homeworkId")
+    int updateDueDate(@Param("homeworkId") String homeworkId, @Param("dueDate") LocalDateTime dueDate);
+}
@@ -1,22 +1,31 @@
 package org.tduc.homeworkservice.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.tduc.homeworkservice.model.Homework;
 import org.tduc.homeworkservice.model.HomeworkStatus;
+import org.tduc.homeworkservice.repository.projection.CourseHomeworkStatsView;
+import org.tduc.homeworkservice.repository.projection.HomeworkDeadlineView;
+import org.tduc.homeworkservice.repository.projection.GradebookColumnView;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface HomeworkRepository extends JpaRepository<Homework, String> {
-        // Find all homeworks assigned to student (không filter active)
-        @Query("SELECT h FROM Homework h WHERE (h.assignedTo IS NULL OR h.assignedTo LIKE CONCAT('%', :studentId, '%')) ORDER BY h.dueDate ASC")
+        // Find all homeworks assigned to student (không filter active); LIKE scan, used until the assignee backfill finishes.
+        // Native: assignedTo is a converted list, which JPQL cannot LIKE
+        @Query(value = "SELECT h.* FROM homework h WHERE (h.assigned_to IS NULL OR h.assigned_to LIKE CONCAT('%', :studentId, '%')) ORDER BY h.due_date ASC",
+                nativeQuery = true)
         List<Homework> findAllHomeworksForStudent(@Param("studentId") String studentId);
     
     // Find homework by course
@@ -43,13 +52,36 @@ public interface HomeworkRepository extends JpaRepository<Homework, String> {
     @Query("SELECT h FROM Homework h WHERE h.courseId = :courseId AND h.dueDate BETWEEN :startDate AND :endDate ORDER BY h.dueDate ASC")
     List<Homework> findByCourseIdAndDueDateBetween(@Param("courseId") String courseId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
+    // Homework with a deadline in a range, for the deadline engine; MySQL answers the OR with an index merge
+    // over idx_homework_due_date, idx_homework_window_end and idx_homework_grade_release
+    @Query("SELECT new org.tduc.homeworkservice.repository.projection.HomeworkDeadlineView(h.id, h.courseId, h.status, "
+            + "h.dueDate, h.submissionWindowEnd, h.gradeReleaseDate, h.allowLateSubmissions) FROM Homework h "
+            + "WHERE h.status IN :statuses AND ((h.dueDate >= :from AND h.dueDate < :dueTo) "
+            + "OR (h.submissionWindowEnd >= :from AND h.submissionWindowEnd < :to) "
+            + "OR (h.gradeReleaseDate >= :from AND h.gradeReleaseDate < :to))")
+    List<HomeworkDeadlineView> findDeadlinesBetween(@Param("statuses") Collection<HomeworkStatus> statuses,
+                                                    @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                                    @Param("dueTo") LocalDateTime dueTo);
+
+    @Query("SELECT new org.tduc.homeworkservice.repository.projection.HomeworkDeadlineView(h.id, h.courseId, h.status, "
+            + "h.dueDate, h.submissionWindowEnd, h.gradeReleaseDate, h.allowLateSubmissions) FROM Homework h WHERE h.id IN :ids")
+    List<HomeworkDeadlineView> findDeadlinesByIds(@Param("ids") Collection<String> ids);
+    
     // Find overdue homework
     @Query("SELECT h FROM Homework h WHERE h.status = :status AND h.dueDate < :currentTime ORDER BY h.dueDate ASC")
     List<Homework> findOverdueHomework(@Param("status") HomeworkStatus status, @Param("currentTime") LocalDateTime currentTime);
     
-    // Find homework assigned to student
-    @Query("SELECT h FROM Homework h WHERE h.courseId = :courseId AND (h.assignedTo IS NULL OR h.assignedTo LIKE CONCAT('%', :studentId, '%'))")
-    List<Homework> findHomeworkAssignedToStudent(@Param("courseId") String courseId, @Param("studentId") String studentId);
+    // Find homework assigned to any of the given assignees (student id, group ids, "*") in a course
+    @Query("SELECT h FROM Homework h WHERE h.courseId = :courseId AND h.id IN (SELECT a.homeworkId FROM HomeworkAssignee a WHERE a.assigneeId IN :assigneeIds)")
+    List<Homework> findHomeworkAssignedTo(@Param("courseId") String courseId, @Param("assigneeIds") Collection<String> assigneeIds);
+
+    // Same as findAllHomeworksForStudent, through the homework_assignee index
+    @Query("SELECT h FROM Homework h WHERE h.id IN (SELECT a.homeworkId FROM HomeworkAssignee a WHERE a.assigneeId IN :assigneeIds) ORDER BY h.dueDate ASC")
+    List<Homework> findAllHomeworksForAssignees(@Param("assigneeIds") Collection<String> assigneeIds);
+
+    // Same as findActiveHomeworksForStudent; the due-date filter runs on the (assignee_id, due_date) index
+    @Query("SELECT h FROM Homework h WHERE h.status = 'PUBLISHED' AND h.id IN (SELECT a.homeworkId FROM HomeworkAssignee a WHERE a.assigneeId IN :assigneeIds AND a.dueDate > :currentTime) ORDER BY h.dueDate ASC")
+    List<Homework> findActiveHomeworksForAssignees(@Param("assigneeIds") Collection<String> assigneeIds, @Param("currentTime") LocalDateTime currentTime);
     
     // Count homework by status and course
     @Query("SELECT COUNT(h) FROM Homework h WHERE h.courseId = :courseId AND h.status = :status")
@@ -64,8 +96,9 @@ public interface HomeworkRepository extends JpaRepository<Homework, String> {
     // Count by creator
     Long countByCreatedBy(String createdBy);
     
-    // Find published homework
+    // Find published homework; result ids are query-cached until a homework write, rows come from the entity cache
     @Query("SELECT h FROM Homework h WHERE h.status = 'PUBLISHED' AND h.courseId = :courseId ORDER BY h.dueDate ASC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Homework> findPublishedHomeworkByCourse(@Param("courseId") String courseId);
     
     // Additional methods needed for compilation errors
@@ -74,14 +107,32 @@ public interface HomeworkRepository extends JpaRepository<Homework, String> {
     @Query("SELECT h FROM Homework h WHERE LOWER(h.title) LIKE LOWER(CONCAT('%', :title, '%')) OR LOWER(h.description) LIKE LOWER(CONCAT('%', :description, '%'))")
     Page<Homework> findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(@Param("title") String title, @Param("description") String description, Pageable pageable);
     
-    // Find active homeworks for student (published, not overdue, and assigned to the student or unassigned)
-    @Query("SELECT h FROM Homework h WHERE h.status = 'PUBLISHED' AND h.dueDate > :currentTime AND (h.assignedTo IS NULL OR h.assignedTo LIKE CONCAT('%', :studentId, '%')) ORDER BY h.dueDate ASC")
+    // Same wildcard scan, optionally limited to one course; the "like" search engine and short-keyword fallback
+    @Query("SELECT h FROM Homework h WHERE (:courseId IS NULL OR h.courseId = :courseId) AND (LOWER(h.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(h.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
+    Page<Homework> searchByKeyword(@Param("courseId") String courseId, @Param("keyword") String keyword, Pageable pageable);
+    
+    // Find active homeworks for student (published, not overdue, and assigned to the student or unassigned); LIKE scan, pre-backfill fallback
+    @Query(value = "SELECT h.* FROM homework h WHERE h.status = 'PUBLISHED' AND h.due_date > :currentTime AND (h.assigned_to IS NULL OR h.assigned_to LIKE CONCAT('%', :studentId, '%')) ORDER BY h.due_date ASC",
+            nativeQuery = true)
     List<Homework> findActiveHomeworksForStudent(@Param("studentId") String studentId, @Param("currentTime") LocalDateTime currentTime);
     
-    // Find overdue homeworks
-    @Query("SELECT h FROM Homework h WHERE h.courseId = :courseId AND h.status = 'PUBLISHED' AND h.dueDate < :currentTime")
+    // Find overdue homeworks; includes homework the deadline engine already CLOSED at its due date
+    @Query("SELECT h FROM Homework h WHERE h.courseId = :courseId AND h.status IN ('PUBLISHED', 'CLOSED') AND h.dueDate < :currentTime")
     List<Homework> findOverdueHomeworks(@Param("courseId") String courseId, @Param("currentTime") LocalDateTime currentTime);
     
     // Count by course ID
     Long countByCourseId(String courseId);
-}
\ No newline at end of file
+
+    // Course homework stats in one pass: total, published, draft and overdue (published or closed, past due)
+    @Query("SELECT new org.tduc.homeworkservice.repository.projection.CourseHomeworkStatsView(COUNT(h), "
+            + "COALESCE(SUM(CASE WHEN h.status = 'PUBLISHED' THEN 1 ELSE 0 END), 0), "
+            + "COALESCE(SUM(CASE WHEN h.status = 'DRAFT' THEN 1 ELSE 0 END), 0), "
+            + "COALESCE(SUM(CASE WHEN h.status IN ('PUBLISHED', 'CLOSED') AND h.dueDate < :currentTime THEN 1 ELSE 0 END), 0)) "
+            + "FROM Homework h WHERE h.courseId = :courseId")
+    CourseHomeworkStatsView aggregateStatsByCourse(@Param("courseId") String courseId, @Param("currentTime") LocalDateTime currentTime);
+    
+    // Gradebook columns for a course, in due-date order
+    @Query("SELECT new org.tduc.homeworkservice.repository.projection.GradebookColumnView(h.id, h.title, h.maxScore) "
+            + "FROM Homework h WHERE h.courseId = :courseId ORDER BY h.dueDate ASC, h.id ASC")
+    List<GradebookColumnView> findGradebookColumns(@Param("courseId") String courseId);
+}
@@ -0,0 +1,30 @@
+package org.tduc.homeworkservice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.tduc.homeworkservice.model.HomeworkStats;
+
+import java.math.BigDecimal;
+
+@Repository
+public interface HomeworkStatsRepository extends JpaRepository<HomeworkStats, String> {
+
+    // Seeds the row from the submission table (which, after the flush, already holds this change) or applies the delta
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO homework_stats (homework_id, total_submissions, graded_submissions, pending_submissions, "
+            + "late_submissions, scored_submissions, score_sum, updated_at) "
+            + "SELECT :homeworkId, COUNT(*), COALESCE(SUM(s.status = 'GRADED'), 0), COALESCE(SUM(s.status = 'SUBMITTED'), 0), "
+            + "COALESCE(SUM(s.is_late), 0), COALESCE(SUM(s.status = 'GRADED' AND s.score IS NOT NULL), 0), "
+            + "COALESCE(SUM(CASE WHEN s.status = 'GRADED' THEN s.score END), 0), NOW() "
+            + "FROM submission s WHERE s.homework_id = :homeworkId "
+            + "ON DUPLICATE KEY UPDATE total_submissions = total_submissions + :total, "
+            + "graded_submissions = graded_submissions + :graded, pending_submissions = pending_submissions + :pending, "
+            + "late_submissions = late_submissions + :late, scored_submissions = scored_submissions + :scored, "
+            + "score_sum = score_sum + :scoreSum, updated_at = NOW()", nativeQuery = true)
+    int applyDelta(@Param("homeworkId") String homeworkId, @Param("total") long total, @Param("graded") long graded,
+                   @Param("pending") long pending, @Param("late") long late, @Param("scored") long scored,
+                   @Param("scoreSum") BigDecimal scoreSum);
+}
@@ -1,18 +1,26 @@
 package org.tduc.homeworkservice.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.tduc.homeworkservice.model.Submission;
 import org.tduc.homeworkservice.model.SubmissionStatus;
+import org.tduc.homeworkservice.repository.projection.GradebookCellView;
+import org.tduc.homeworkservice.repository.projection.SubmissionStatsView;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SubmissionRepository extends JpaRepository<Submission, String> {
@@ -27,6 +35,30 @@ public interface SubmissionRepository extends JpaRepository<Submission, String>
     
     Page<Submission> findByStudentIdOrderBySubmittedAtDesc(String studentId, Pageable pageable);
     
+    // Keyset pages over (submitted_at, id), newest first; served by idx_submission_homework_submitted / idx_submission_student_submitted.
+    // Rows without submitted_at are never in these listings
+    @Query("SELECT s FROM Submission s WHERE s.homeworkId = :homeworkId AND s.submittedAt IS NOT NULL "
+            + "ORDER BY s.submittedAt DESC, s.id DESC")
+    List<Submission> findFirstPageByHomework(@Param("homeworkId") String homeworkId, Limit limit);
+    
+    @Query("SELECT s FROM Submission s WHERE s.homeworkId = :homeworkId AND (s.submittedAt < :submittedAt "
+            + "OR (s.submittedAt = :submittedAt AND s.id < :id)) ORDER BY s.submittedAt DESC, s.id DESC")
+    List<Submission> findPageByHomeworkAfter(@Param("homeworkId") String homeworkId, @Param("submittedAt") LocalDateTime submittedAt,
+                                             @Param("id") String id, Limit limit);
+    
+    @Query("SELECT s FROM Submission s WHERE s.studentId = :studentId AND s.submittedAt IS NOT NULL "
+            + "ORDER BY s.submittedAt DESC, s.id DESC")
+    List<Submission> findFirstPageByStudent(@Param("studentId") String studentId, Limit limit);
+    
+    @Query("SELECT s FROM Submission s WHERE s.studentId = :studentId AND (s.submittedAt < :submittedAt "
+            + "OR (s.submittedAt = :submittedAt AND s.id < :id)) ORDER BY s.submittedAt DESC, s.id DESC")
+    List<Submission> findPageByStudentAfter(@Param("studentId") String studentId, @Param("submittedAt") LocalDateTime submittedAt,
+                                            @Param("id") String id, Limit limit);
+    
+    long countByHomeworkIdAndSubmittedAtIsNotNull(String homeworkId);
+    
+    long countByStudentIdAndSubmittedAtIsNotNull(String studentId);
+    
     // Find submission by homework and student
     Optional<Submission> findByHomeworkIdAndStudentId(String homeworkId, String studentId);
     
@@ -54,6 +86,10 @@ public interface SubmissionRepository extends JpaRepository<Submission, String>
     @Query("SELECT s FROM Submission s WHERE s.homeworkId = :homeworkId AND s.isLate = true ORDER BY s.submittedAt DESC")
     List<Submission> findLateSubmissionsByHomework(@Param("homeworkId") String homeworkId);
     
+    // Ids only, for re-scoring late submissions in chunks
+    @Query("SELECT s.id FROM Submission s WHERE s.homeworkId = :homeworkId AND s.isLate = true ORDER BY s.id")
+    List<String> findLateSubmissionIdsByHomework(@Param("homeworkId") String homeworkId);
+    
     // Find submissions needing grading
     @Query("SELECT s FROM Submission s WHERE s.status = 'SUBMITTED' AND s.homeworkId = :homeworkId ORDER BY s.submittedAt ASC")
     List<Submission> findSubmissionsNeedingGrading(@Param("homeworkId") String homeworkId);
@@ -93,4 +129,23 @@ public interface SubmissionRepository extends JpaRepository<Submission, String>
     
     // Count submissions by homework ID and isLate flag
     Long countByHomeworkIdAndIsLate(String homeworkId, boolean isLate);
-}
\ No newline at end of file
+
+    // All submission stats for the given homeworks in one pass over the homework_id index
+    @Query("SELECT new org.tduc.homeworkservice.repository.projection.SubmissionStatsView(s.homeworkId, COUNT(s), "
+            + "SUM(CASE WHEN s.status = 'GRADED' THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN s.status = 'SUBMITTED' THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN s.isLate = true THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN s.status = 'GRADED' AND s.score IS NOT NULL THEN 1 ELSE 0 END), "
+            + "COALESCE(SUM(CASE WHEN s.status = 'GRADED' THEN s.score END), 0)) "
+            + "FROM Submission s WHERE s.homeworkId IN :homeworkIds GROUP BY s.homeworkId")
+    List<SubmissionStatsView> aggregateStatsByHomeworkIds(@Param("homeworkIds") Collection<String> homeworkIds);
+
+    // Forward-only read for the gradebook export, grouped by student then homework, latest attempt first.
+    // The MIN_VALUE fetch size makes MySQL Connector/J stream rows instead of buffering the result; consume inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT new org.tduc.homeworkservice.repository.projection.GradebookCellView(s.studentId, s.homeworkId, "
+            + "s.attemptNumber, s.status, s.score, s.isLate) "
+            + "FROM Submission s WHERE s.homeworkId IN (SELECT h.id FROM Homework h WHERE h.courseId = :courseId) "
+            + "ORDER BY s.studentId, s.homeworkId, s.attemptNumber DESC")
+    Stream<GradebookCellView> streamGradebookCells(@Param("courseId") String courseId);
+}
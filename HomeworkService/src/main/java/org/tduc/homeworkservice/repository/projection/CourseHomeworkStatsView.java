@@ -0,0 +1,7 @@
+package org.tduc.homeworkservice.repository.projection;
+
+/**
+ * Homework counts for one course; overdue means published or closed with the due date passed.
+ */
+public record CourseHomeworkStatsView(Long total, Long published, Long draft, Long overdue) {
+}
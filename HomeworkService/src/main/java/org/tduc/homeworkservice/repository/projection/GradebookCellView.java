@@ -0,0 +1,12 @@
+package org.tduc.homeworkservice.repository.projection;
+
+import org.tduc.homeworkservice.model.SubmissionStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * One submission attempt as read by the gradebook export stream.
+ */
+public record GradebookCellView(String studentId, String homeworkId, Integer attemptNumber, SubmissionStatus status,
+                                BigDecimal score, Boolean late) {
+}
@@ -0,0 +1,9 @@
+package org.tduc.homeworkservice.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * One homework column of a course gradebook, in due-date order.
+ */
+public record GradebookColumnView(String homeworkId, String title, BigDecimal maxScore) {
+}
@@ -0,0 +1,13 @@
+package org.tduc.homeworkservice.repository.projection;
+
+import org.tduc.homeworkservice.model.HomeworkStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * The homework columns the deadline engine schedules from.
+ */
+public record HomeworkDeadlineView(String id, String courseId, HomeworkStatus status, LocalDateTime dueDate,
+                                   LocalDateTime submissionWindowEnd, LocalDateTime gradeReleaseDate,
+                                   Boolean allowLateSubmissions) {
+}
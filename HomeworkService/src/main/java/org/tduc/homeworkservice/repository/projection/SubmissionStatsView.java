@@ -0,0 +1,23 @@
+package org.tduc.homeworkservice.repository.projection;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Submission counts for one homework, from a grouped aggregate or the homework_stats counters.
+ * {@code scored} counts graded rows that have a score, the divisor for the average.
+ */
+public record SubmissionStatsView(String homeworkId, Long total, Long graded, Long pending, Long late,
+                                  Long scored, BigDecimal scoreSum) {
+
+    public static SubmissionStatsView empty(String homeworkId) {
+        return new SubmissionStatsView(homeworkId, 0L, 0L, 0L, 0L, 0L, BigDecimal.ZERO);
+    }
+
+    public BigDecimal averageScore() {
+        if (scored == null || scored == 0 || scoreSum == null) {
+            return BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+        }
+        return scoreSum.divide(BigDecimal.valueOf(scored), 2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,156 @@
+package org.tduc.homeworkservice.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.tduc.homeworkservice.model.Homework;
+import org.tduc.homeworkservice.repository.HomeworkRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * MySQL FULLTEXT search over the homework_search table: one narrow row per homework holding the
+ * title and a body of description, instructions and tags. Rows are written in the same
+ * transaction as the homework (see {@link HomeworkSearchIndexer}), so InnoDB keeps the index current;
+ * older homework, and homework whose update was missed, is caught up by {@link HomeworkSearchBackfill}.
+ * <p>
+ * Keywords become a boolean-mode prefix query ("+alge* +home*"), so results narrow as the user types.
+ * Title hits weigh three times body hits. Pages are fetched with one extra row, and the count query
+ * only runs when the page is full. Queries made only of words FULLTEXT cannot index
+ * (shorter than innodb_ft_min_token_size, or stopwords) use the LIKE path instead.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.homework-search.engine", havingValue = "fulltext", matchIfMissing = true)
+public class FulltextHomeworkSearchIndex implements HomeworkSearchIndex {
+
+    // innodb_ft_min_token_size default
+    private static final int MIN_TOKEN = 3;
+    // InnoDB default stopword list; a required stopword would match nothing
+    private static final Set<String> STOPWORDS = Set.of("a", "about", "an", "are", "as", "at", "be", "by", "com",
+            "de", "en", "for", "from", "how", "i", "in", "is", "it", "la", "of", "on", "or", "that", "the", "this",
+            "to", "was", "what", "when", "where", "who", "will", "with", "und", "www");
+
+    private static final String MATCH_ALL = "MATCH(s.title, s.body) AGAINST(? IN BOOLEAN MODE)";
+    private static final String MATCH_TITLE = "MATCH(s.title) AGAINST(? IN BOOLEAN MODE)";
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO homework_search (homework_id, course_id, title, body, updated_at) VALUES (?, ?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE course_id = VALUES(course_id), title = VALUES(title), "
+                    + "body = VALUES(body), updated_at = VALUES(updated_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final HomeworkRepository homeworkRepository;
+
+    @Override
+    public Page<Homework> search(String keyword, String courseId, Pageable pageable) {
+        String query = booleanQuery(keyword);
+        if (query == null) {
+            return homeworkRepository.searchByKeyword(courseId, keyword.trim(),
+                    PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("createdAt").descending()));
+        }
+
+        String courseFilter = courseId == null ? "" : " AND s.course_id = ?";
+        // Placeholders in order: WHERE match, [course], ORDER BY title match, ORDER BY match, LIMIT, OFFSET
+        List<Object> args = new ArrayList<>();
+        args.add(query);
+        if (courseId != null) {
+            args.add(courseId);
+        }
+        args.addAll(List.of(query, query, pageable.getPageSize() + 1, pageable.getOffset()));
+        List<String> ids = jdbcTemplate.queryForList(
+                "SELECT s.homework_id FROM homework_search s WHERE " + MATCH_ALL + courseFilter
+                        + " ORDER BY " + MATCH_TITLE + " * 3 + " + MATCH_ALL + " DESC, s.updated_at DESC LIMIT ? OFFSET ?",
+                String.class, args.toArray());
+
+        boolean hasMore = ids.size() > pageable.getPageSize();
+        if (hasMore) {
+            ids = ids.subList(0, pageable.getPageSize());
+        }
+        long total;
+        if (!hasMore && (!ids.isEmpty() || pageable.getOffset() == 0)) {
+            total = pageable.getOffset() + ids.size();
+        } else {
+            Object[] countArgs = courseId == null ? new Object[]{query} : new Object[]{query, courseId};
+            Long count = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM homework_search s WHERE " + MATCH_ALL + courseFilter, Long.class, countArgs);
+            total = count == null ? 0 : count;
+        }
+
+        Map<String, Homework> byId = homeworkRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Homework::getId, Function.identity()));
+        List<Homework> ranked = ids.stream().map(byId::get).filter(h -> h != null).collect(Collectors.toList());
+        return new PageImpl<>(ranked, pageable, total);
+    }
+
+    @Override
+    public void index(Collection<Homework> homeworks) {
+        if (homeworks.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, homeworks, homeworks.size(), (ps, homework) -> {
+            ps.setString(1, homework.getId());
+            ps.setString(2, homework.getCourseId());
+            ps.setString(3, homework.getTitle());
+            ps.setString(4, document(homework));
+            LocalDateTime updatedAt = homework.getUpdatedAt() == null ? LocalDateTime.now() : homework.getUpdatedAt();
+            ps.setTimestamp(5, Timestamp.valueOf(updatedAt));
+        });
+    }
+
+    @Override
+    public void remove(Collection<String> homeworkIds) {
+        if (homeworkIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("DELETE FROM homework_search WHERE homework_id = ?", homeworkIds, homeworkIds.size(),
+                (ps, id) -> ps.setString(1, id));
+    }
+
+    static String document(Homework homework) {
+        StringJoiner body = new StringJoiner("\n");
+        if (homework.getDescription() != null) {
+            body.add(homework.getDescription());
+        }
+        if (homework.getInstructions() != null) {
+            body.add(homework.getInstructions());
+        }
+        if (homework.getTags() != null && !homework.getTags().isEmpty()) {
+            body.add(String.join(" ", homework.getTags()));
+        }
+        return body.toString();
+    }
+
+    /**
+     * "+term*" for every indexable word, or null when no word is indexable.
+     * Splitting on anything but letters and digits also strips boolean-mode operators from user input.
+     */
+    static String booleanQuery(String keyword) {
+        if (keyword == null) {
+            return null;
+        }
+        StringJoiner query = new StringJoiner(" ");
+        for (String term : keyword.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (term.length() >= MIN_TOKEN && !STOPWORDS.contains(term)) {
+                query.add("+" + term + "*");
+            }
+        }
+        return query.length() == 0 ? null : query.toString();
+    }
+}
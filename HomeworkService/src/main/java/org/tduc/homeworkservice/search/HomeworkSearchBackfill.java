@@ -0,0 +1,51 @@
+package org.tduc.homeworkservice.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Brings homework_search in line with homework at startup and then periodically: adds homework that
+ * has no row (written before homework_search existed) and rewrites rows older than their homework.
+ * Writes through this service and HomeworkService1 (replayed by HomeworkEntityCacheSync) are indexed
+ * as they happen; this catches whatever those miss, such as a HomeworkService1 message published
+ * while no replica was listening. Deleted homework loses its row through ON DELETE CASCADE.
+ * Kept apart from {@link FulltextHomeworkSearchIndex}: that bean is proxied through its interface.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "app.homework-search.engine", havingValue = "fulltext", matchIfMissing = true)
+public class HomeworkSearchBackfill {
+
+    // Same document as FulltextHomeworkSearchIndex.document(): description, instructions and tags with commas as spaces.
+    // Both columns are second-precision TIMESTAMPs written from the same value, so an indexed row is never older.
+    private static final String RECONCILE_SQL =
+            "INSERT INTO homework_search (homework_id, course_id, title, body, updated_at) "
+                    + "SELECT d.id, d.course_id, d.title, d.body, d.updated_at FROM ("
+                    + "SELECT h.id, h.course_id, h.title, "
+                    + "CONCAT_WS('\\n', h.description, h.instructions, REPLACE(CAST(h.tags AS CHAR), ',', ' ')) AS body, "
+                    + "COALESCE(h.updated_at, CURRENT_TIMESTAMP) AS updated_at "
+                    + "FROM homework h LEFT JOIN homework_search s ON s.homework_id = h.id "
+                    + "WHERE s.homework_id IS NULL OR s.updated_at < h.updated_at) d "
+                    + "ON DUPLICATE KEY UPDATE course_id = d.course_id, title = d.title, body = d.body, updated_at = d.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Scheduled(initialDelayString = "${app.homework-search.reconcile-initial-delay-ms:0}",
+            fixedDelayString = "${app.homework-search.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        try {
+            int written = jdbcTemplate.update(RECONCILE_SQL);
+            if (written > 0) {
+                // MySQL counts an updated row twice
+                log.info("Homework search index reconciled: {} rows affected", written);
+            }
+        } catch (RuntimeException e) {
+            log.error("Homework search reconcile failed: {}", e.getMessage(), e);
+        }
+    }
+}
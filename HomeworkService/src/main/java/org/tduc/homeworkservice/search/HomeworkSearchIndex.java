@@ -0,0 +1,27 @@
+package org.tduc.homeworkservice.search;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.tduc.homeworkservice.model.Homework;
+
+import java.util.Collection;
+
+/**
+ * Keyword search over homework title, description, instructions and tags.
+ * The engine is picked with app.homework-search.engine: "fulltext" (MySQL FULLTEXT, the default)
+ * or "like" (the old wildcard scan, kept for databases without FULLTEXT support).
+ */
+public interface HomeworkSearchIndex {
+
+    /**
+     * Best matches first; {@code courseId} may be null to search every course.
+     */
+    Page<Homework> search(String keyword, String courseId, Pageable pageable);
+
+    /**
+     * Add or refresh these homeworks; called inside the transaction that changed them.
+     */
+    void index(Collection<Homework> homeworks);
+
+    void remove(Collection<String> homeworkIds);
+}
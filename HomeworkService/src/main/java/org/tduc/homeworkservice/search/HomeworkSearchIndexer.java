@@ -0,0 +1,35 @@
+package org.tduc.homeworkservice.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.tduc.homeworkservice.event.HomeworkChangedEvent;
+import org.tduc.homeworkservice.model.Homework;
+import org.tduc.homeworkservice.repository.HomeworkRepository;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps the search index in step with homework writes. Runs just before commit so the index rows
+ * commit or roll back with the homework; ids that no longer load were deleted and are dropped.
+ */
+@Component
+@RequiredArgsConstructor
+public class HomeworkSearchIndexer {
+
+    private final HomeworkRepository homeworkRepository;
+    private final HomeworkSearchIndex searchIndex;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onHomeworkChanged(HomeworkChangedEvent event) {
+        // The query flushes pending changes first, so deletes in this transaction are already gone
+        List<Homework> current = homeworkRepository.findAllById(event.homeworkIds());
+        Set<String> removed = new LinkedHashSet<>(event.homeworkIds());
+        current.forEach(homework -> removed.remove(homework.getId()));
+        searchIndex.index(current);
+        searchIndex.remove(removed);
+    }
+}
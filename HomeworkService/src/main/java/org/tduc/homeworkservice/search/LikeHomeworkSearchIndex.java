@@ -0,0 +1,38 @@
+package org.tduc.homeworkservice.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.tduc.homeworkservice.model.Homework;
+import org.tduc.homeworkservice.repository.HomeworkRepository;
+
+import java.util.Collection;
+
+/**
+ * Wildcard LIKE over title and description, newest first. Needs no index to maintain.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.homework-search.engine", havingValue = "like")
+public class LikeHomeworkSearchIndex implements HomeworkSearchIndex {
+
+    private final HomeworkRepository homeworkRepository;
+
+    @Override
+    public Page<Homework> search(String keyword, String courseId, Pageable pageable) {
+        return homeworkRepository.searchByKeyword(courseId, keyword.trim(),
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("createdAt").descending()));
+    }
+
+    @Override
+    public void index(Collection<Homework> homeworks) {
+    }
+
+    @Override
+    public void remove(Collection<String> homeworkIds) {
+    }
+}
@@ -0,0 +1,297 @@
+package org.tduc.homeworkservice.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.tduc.homeworkservice.dto.request.GradingRequest;
+import org.tduc.homeworkservice.dto.response.BulkJobResponse;
+import org.tduc.homeworkservice.event.HomeworkChangedEvent;
+import org.tduc.homeworkservice.exception.AppException;
+import org.tduc.homeworkservice.exception.ErrorCode;
+import org.tduc.homeworkservice.model.Homework;
+import org.tduc.homeworkservice.model.HomeworkStatus;
+import org.tduc.homeworkservice.model.Submission;
+import org.tduc.homeworkservice.repository.HomeworkRepository;
+import org.tduc.homeworkservice.repository.SubmissionRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs bulk grading, bulk homework status changes and other long operations as background jobs on
+ * the taskExecutor.
+ * Ids are processed in chunks, each in its own transaction, so one bad chunk does not roll back
+ * the rest and the persistence context stays small; Hibernate batches each chunk's UPDATEs
+ * (hibernate.jdbc.batch_size, order_updates). The job is saved to {@link BulkJobStore} after every
+ * chunk, so progress can be polled through any replica.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkJobService {
+
+    public static final String TYPE_GRADING = "BULK_GRADING";
+    public static final String TYPE_HOMEWORK_STATUS = "BULK_HOMEWORK_STATUS";
+    public static final String TYPE_PLAGIARISM_RECHECK = "PLAGIARISM_RECHECK";
+
+    private final SubmissionRepository submissionRepository;
+    private final HomeworkRepository homeworkRepository;
+    private final HomeworkStatsService homeworkStatsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final Executor taskExecutor;
+    private final BulkJobStore bulkJobStore;
+
+    @Value("${app.bulk-jobs.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${app.bulk-jobs.max-errors:100}")
+    private int maxErrors;
+
+    public BulkJobResponse submitGrading(List<String> submissionIds, GradingRequest template) {
+        List<String> ids = distinct(submissionIds);
+        // Homework loaded once per distinct id for the whole job, not per submission
+        Map<String, Homework> homeworks = new HashMap<>();
+        return submit(TYPE_GRADING, ids, chunk -> gradeChunk(chunk, template, homeworks), true);
+    }
+
+    public BulkJobResponse submitStatusUpdate(List<String> homeworkIds, HomeworkStatus status) {
+        return submit(TYPE_HOMEWORK_STATUS, distinct(homeworkIds), chunk -> updateStatusChunk(chunk, status), true);
+    }
+
+    /**
+     * Runs one long operation on a single id as a job of total 1. The work runs outside any
+     * transaction and manages its own; if it throws, the job ends with its message as the error.
+     */
+    public BulkJobResponse submitTask(String type, String id, Consumer<String> work) {
+        return submit(type, List.of(id), chunk -> {
+            work.accept(id);
+            ChunkResult result = new ChunkResult(1);
+            result.succeeded = 1;
+            return result;
+        }, false);
+    }
+
+    public BulkJobResponse getJob(String jobId) {
+        BulkJobResponse job = bulkJobStore.find(jobId);
+        if (job == null) {
+            throw new AppException(ErrorCode.BULK_JOB_NOT_FOUND);
+        }
+        return job;
+    }
+
+    private BulkJobResponse submit(String type, List<String> ids, Function<List<String>, ChunkResult> chunkWork,
+                                   boolean transactional) {
+        Job job = new Job(UUID.randomUUID().toString(), type, ids.size(), maxErrors);
+        bulkJobStore.create(job.toResponse());
+        try {
+            taskExecutor.execute(() -> run(job, ids, chunkWork, transactional));
+        } catch (RejectedExecutionException e) {
+            bulkJobStore.delete(job.id);
+            throw new AppException(ErrorCode.BULK_JOB_REJECTED);
+        }
+        log.info("Queued {} job {} for {} ids", type, job.id, ids.size());
+        return job.toResponse();
+    }
+
+    private void run(Job job, List<String> ids, Function<List<String>, ChunkResult> chunkWork, boolean transactional) {
+        job.start();
+        bulkJobStore.save(job.toResponse());
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        try {
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<String> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                try {
+                    ChunkResult result = transactional ? tx.execute(status -> chunkWork.apply(chunk)) : chunkWork.apply(chunk);
+                    job.record(result);
+                } catch (RuntimeException e) {
+                    // The chunk rolled back as a whole
+                    log.warn("{} job {} chunk at {} failed: {}", job.type, job.id, from, e.getMessage());
+                    job.failChunk(chunk, e.getMessage());
+                }
+                bulkJobStore.save(job.toResponse());
+            }
+            job.finish(null);
+            log.info("{} job {} finished: succeeded={}, failed={}", job.type, job.id, job.succeeded, job.failed);
+        } catch (RuntimeException e) {
+            log.error("{} job {} aborted: {}", job.type, job.id, e.getMessage(), e);
+            job.finish(e.getMessage());
+        }
+        bulkJobStore.save(job.toResponse());
+    }
+
+    private ChunkResult gradeChunk(List<String> submissionIds, GradingRequest template, Map<String, Homework> homeworks) {
+        ChunkResult result = new ChunkResult(submissionIds.size());
+        Map<String, Submission> submissions = submissionRepository.findAllById(submissionIds).stream()
+                .collect(Collectors.toMap(Submission::getId, Function.identity()));
+
+        Set<String> missingHomeworks = submissions.values().stream()
+                .map(Submission::getHomeworkId)
+                .filter(id -> !homeworks.containsKey(id))
+                .collect(Collectors.toSet());
+        if (!missingHomeworks.isEmpty()) {
+            homeworkRepository.findAllById(missingHomeworks).forEach(h -> homeworks.put(h.getId(), h));
+        }
+
+        for (String id : submissionIds) {
+            Submission submission = submissions.get(id);
+            if (submission == null) {
+                result.fail(id, ErrorCode.SUBMISSION_NOT_FOUND.getMessage());
+                continue;
+            }
+            Homework homework = homeworks.get(submission.getHomeworkId());
+            if (homework == null) {
+                result.fail(id, ErrorCode.HOMEWORK_NOT_FOUND.getMessage());
+                continue;
+            }
+            HomeworkStatsService.Snapshot before = HomeworkStatsService.Snapshot.of(submission);
+            try {
+                SubmissionService.applyGrade(submission, homework, template);
+            } catch (AppException e) {
+                result.fail(id, e.getErrorCode().getMessage());
+                continue;
+            }
+            homeworkStatsService.recordChange(submission.getHomeworkId(), before, submission);
+            result.succeeded++;
+        }
+        // Managed entities: the flush writes the chunk as batched UPDATEs
+        entityManager.flush();
+        entityManager.clear();
+        return result;
+    }
+
+    private ChunkResult updateStatusChunk(List<String> homeworkIds, HomeworkStatus status) {
+        ChunkResult result = new ChunkResult(homeworkIds.size());
+        List<Homework> homeworks = homeworkRepository.findAllById(homeworkIds);
+        Set<String> found = new LinkedHashSet<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Homework homework : homeworks) {
+            homework.setStatus(status);
+            homework.setUpdatedAt(now);
+            found.add(homework.getId());
+        }
+        for (String id : homeworkIds) {
+            if (!found.contains(id)) {
+                result.fail(id, ErrorCode.HOMEWORK_NOT_FOUND.getMessage());
+            }
+        }
+        result.succeeded = found.size();
+        if (!homeworks.isEmpty()) {
+            // Delivered to the feed cache when this chunk commits
+            eventPublisher.publishEvent(HomeworkChangedEvent.of(homeworks));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return result;
+    }
+
+    private static List<String> distinct(List<String> ids) {
+        return new ArrayList<>(new LinkedHashSet<>(ids));
+    }
+
+    private static final class ChunkResult {
+        final int size;
+        int succeeded;
+        final List<String> errors = new ArrayList<>();
+
+        ChunkResult(int size) {
+            this.size = size;
+        }
+
+        void fail(String id, String reason) {
+            errors.add(id + ": " + reason);
+        }
+    }
+
+    private static final class Job {
+        final String id;
+        final String type;
+        final int total;
+        final int maxErrors;
+        final LocalDateTime createdAt = LocalDateTime.now();
+        String status = "QUEUED";
+        int processed;
+        int succeeded;
+        int failed;
+        final List<String> errors = new ArrayList<>();
+        LocalDateTime startedAt;
+        LocalDateTime finishedAt;
+
+        Job(String id, String type, int total, int maxErrors) {
+            this.id = id;
+            this.type = type;
+            this.total = total;
+            this.maxErrors = maxErrors;
+        }
+
+        synchronized void start() {
+            status = "RUNNING";
+            startedAt = LocalDateTime.now();
+        }
+
+        synchronized void record(ChunkResult result) {
+            processed += result.size;
+            succeeded += result.succeeded;
+            failed += result.errors.size();
+            addErrors(result.errors);
+        }
+
+        synchronized void failChunk(List<String> ids, String reason) {
+            processed += ids.size();
+            failed += ids.size();
+            addErrors(ids.stream().map(id -> id + ": " + reason).collect(Collectors.toList()));
+        }
+
+        synchronized void finish(String abortReason) {
+            finishedAt = LocalDateTime.now();
+            if (abortReason != null) {
+                status = "FAILED";
+                addErrors(List.of(abortReason));
+            } else {
+                status = failed == 0 ? "COMPLETED" : "COMPLETED_WITH_ERRORS";
+            }
+        }
+
+        synchronized BulkJobResponse toResponse() {
+            return BulkJobResponse.builder()
+                    .jobId(id)
+                    .type(type)
+                    .status(status)
+                    .total(total)
+                    .processed(processed)
+                    .succeeded(succeeded)
+                    .failed(failed)
+                    .errors(List.copyOf(errors))
+                    .createdAt(createdAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+
+        private void addErrors(List<String> more) {
+            for (String error : more) {
+                if (errors.size() >= maxErrors) {
+                    return;
+                }
+                errors.add(error);
+            }
+        }
+    }
+}
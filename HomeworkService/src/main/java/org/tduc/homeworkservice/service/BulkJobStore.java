@@ -0,0 +1,67 @@
+package org.tduc.homeworkservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.tduc.homeworkservice.dto.response.BulkJobResponse;
+import org.tduc.homeworkservice.json.JsonCodec;
+
+import java.time.Duration;
+
+/**
+ * Bulk job state in Redis, so a job can be polled through any replica and outlives a restart.
+ * The instance running a job is its only writer and saves the whole job after every chunk.
+ * Running jobs expire after app.bulk-jobs.running-ttl-hours, so a job whose instance died does not
+ * stay RUNNING forever; finished jobs after app.bulk-jobs.retention-minutes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BulkJobStore {
+
+    private static final String KEY_PREFIX = "homework:bulk-job:";
+    private static final JsonCodec<BulkJobResponse> CODEC = JsonCodec.of(BulkJobResponse.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${app.bulk-jobs.retention-minutes:60}")
+    private long retentionMinutes;
+
+    @Value("${app.bulk-jobs.running-ttl-hours:24}")
+    private long runningTtlHours;
+
+    /**
+     * Saves a job; failures propagate, so a job nobody could poll is never queued.
+     */
+    public void create(BulkJobResponse job) {
+        write(job);
+    }
+
+    /**
+     * Saves progress; a failed write is logged and the job keeps running, the next save catches up.
+     */
+    public void save(BulkJobResponse job) {
+        try {
+            write(job);
+        } catch (RuntimeException e) {
+            log.warn("Could not save bulk job {}: {}", job.getJobId(), e.getMessage());
+        }
+    }
+
+    public BulkJobResponse find(String jobId) {
+        return CODEC.read(redisTemplate.opsForValue().get(KEY_PREFIX + jobId));
+    }
+
+    public void delete(String jobId) {
+        redisTemplate.delete(KEY_PREFIX + jobId);
+    }
+
+    private void write(BulkJobResponse job) {
+        Duration ttl = job.getFinishedAt() == null
+                ? Duration.ofHours(runningTtlHours)
+                : Duration.ofMinutes(retentionMinutes);
+        redisTemplate.opsForValue().set(KEY_PREFIX + job.getJobId(), CODEC.write(job), ttl);
+    }
+}
@@ -0,0 +1,271 @@
+package org.tduc.homeworkservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.tduc.homeworkservice.exception.AppException;
+import org.tduc.homeworkservice.exception.ErrorCode;
+import org.tduc.homeworkservice.repository.HomeworkRepository;
+import org.tduc.homeworkservice.repository.SubmissionRepository;
+import org.tduc.homeworkservice.repository.projection.GradebookCellView;
+import org.tduc.homeworkservice.repository.projection.GradebookColumnView;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Writes a course gradebook (one row per student, one column per homework) straight to an output stream.
+ * Submissions come from a forward-only cursor ordered by student, so only the current student's row
+ * is held in memory; CSV goes through a small write buffer and XLSX through a streaming workbook
+ * that keeps a window of rows and spills the rest to a temp file.
+ * Each cell is the score of the student's latest scored attempt; blank when nothing is scored.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GradebookExportService {
+
+    // Rows kept in memory by the XLSX writer before it flushes to its temp file
+    private static final int XLSX_ROW_WINDOW = 200;
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (RuntimeException e) {
+                throw new AppException(ErrorCode.INVALID_EXPORT_FORMAT);
+            }
+        }
+    }
+
+    private final HomeworkRepository homeworkRepository;
+    private final SubmissionRepository submissionRepository;
+
+    @Transactional(readOnly = true)
+    public void export(String courseId, Format format, OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        List<GradebookColumnView> columns = homeworkRepository.findGradebookColumns(courseId);
+        Map<String, Integer> columnIndex = new HashMap<>(columns.size() * 2);
+        BigDecimal possible = BigDecimal.ZERO;
+        List<String> header = new ArrayList<>(columns.size() + 3);
+        header.add("Student ID");
+        for (GradebookColumnView column : columns) {
+            columnIndex.put(column.homeworkId(), columnIndex.size());
+            BigDecimal max = column.maxScore() == null ? BigDecimal.ZERO : column.maxScore();
+            possible = possible.add(max);
+            header.add(column.title() + " (" + max.stripTrailingZeros().toPlainString() + ")");
+        }
+        header.add("Total (" + possible.stripTrailingZeros().toPlainString() + ")");
+        header.add("Percentage");
+
+        int students = 0;
+        BigDecimal[] scores = new BigDecimal[columns.size()];
+        try (GradebookWriter writer = format == Format.XLSX ? new XlsxWriter(out) : new CsvWriter(out);
+             Stream<GradebookCellView> cells = submissionRepository.streamGradebookCells(courseId)) {
+            writer.header(header);
+            String student = null;
+            Iterator<GradebookCellView> it = cells.iterator();
+            while (it.hasNext()) {
+                GradebookCellView cell = it.next();
+                if (!cell.studentId().equals(student)) {
+                    if (student != null) {
+                        writeRow(writer, student, scores, possible);
+                        students++;
+                    }
+                    student = cell.studentId();
+                    Arrays.fill(scores, null);
+                }
+                Integer index = columnIndex.get(cell.homeworkId());
+                // Attempts arrive newest first, so the first scored one wins
+                if (index != null && scores[index] == null && cell.score() != null) {
+                    scores[index] = cell.score();
+                }
+            }
+            if (student != null) {
+                writeRow(writer, student, scores, possible);
+                students++;
+            }
+        }
+        log.info("Exported {} gradebook for course {}: students={}, homeworks={}, took={}ms",
+            format, courseId, students, columns.size(), System.currentTimeMillis() - started);
+    }
+
+    private static void writeRow(GradebookWriter writer, String studentId, BigDecimal[] scores, BigDecimal possible)
+            throws IOException {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal score : scores) {
+            if (score != null) {
+                total = total.add(score);
+            }
+        }
+        BigDecimal percentage = possible.signum() > 0
+            ? total.multiply(BigDecimal.valueOf(100)).divide(possible, 2, RoundingMode.HALF_UP)
+            : null;
+        writer.row(studentId, scores, total, percentage);
+    }
+
+    private interface GradebookWriter extends Closeable {
+
+        void header(List<String> titles) throws IOException;
+
+        void row(String studentId, BigDecimal[] scores, BigDecimal total, BigDecimal percentage) throws IOException;
+    }
+
+    private static final class CsvWriter implements GradebookWriter {
+
+        private final Writer writer;
+
+        CsvWriter(OutputStream out) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            // BOM so spreadsheet apps read UTF-8 names correctly
+            writer.write('\uFEFF');
+        }
+
+        @Override
+        public void header(List<String> titles) throws IOException {
+            for (int i = 0; i < titles.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(titles.get(i)));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void row(String studentId, BigDecimal[] scores, BigDecimal total, BigDecimal percentage) throws IOException {
+            writer.write(escape(studentId));
+            for (BigDecimal score : scores) {
+                writer.write(',');
+                if (score != null) {
+                    writer.write(score.toPlainString());
+                }
+            }
+            writer.write(',');
+            writer.write(total.toPlainString());
+            writer.write(',');
+            if (percentage != null) {
+                writer.write(percentage.toPlainString());
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Flush only; the servlet container owns the response stream
+            writer.flush();
+        }
+
+        // RFC 4180 quoting; a leading formula character is neutralised so titles cannot run as formulas
+        static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            String text = !value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                return '"' + text.replace("\"", "\"\"") + '"';
+            }
+            return text;
+        }
+    }
+
+    private static final class XlsxWriter implements GradebookWriter {
+
+        private final OutputStream out;
+        private final SXSSFWorkbook workbook;
+        private final SXSSFSheet sheet;
+        private final CellStyle headerStyle;
+        private int rowNumber;
+
+        XlsxWriter(OutputStream out) {
+            this.out = out;
+            this.workbook = new SXSSFWorkbook(XLSX_ROW_WINDOW);
+            workbook.setCompressTempFiles(true);
+            this.sheet = workbook.createSheet("Gradebook");
+            Font bold = workbook.createFont();
+            bold.setBold(true);
+            headerStyle = workbook.createCellStyle();
+            headerStyle.setFont(bold);
+        }
+
+        @Override
+        public void header(List<String> titles) {
+            Row row = sheet.createRow(rowNumber++);
+            for (int i = 0; i < titles.size(); i++) {
+                Cell cell = row.createCell(i);
+                cell.setCellValue(titles.get(i));
+                cell.setCellStyle(headerStyle);
+            }
+            sheet.createFreezePane(1, 1);
+        }
+
+        @Override
+        public void row(String studentId, BigDecimal[] scores, BigDecimal total, BigDecimal percentage) {
+            Row row = sheet.createRow(rowNumber++);
+            row.createCell(0).setCellValue(studentId);
+            int column = 1;
+            for (BigDecimal score : scores) {
+                if (score != null) {
+                    row.createCell(column).setCellValue(score.doubleValue());
+                }
+                column++;
+            }
+            row.createCell(column++).setCellValue(total.doubleValue());
+            if (percentage != null) {
+                row.createCell(column).setCellValue(percentage.doubleValue());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                workbook.write(out);
+                out.flush();
+            } finally {
+                // Also removes the temp files holding flushed rows
+                workbook.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.tduc.homeworkservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.tduc.homeworkservice.model.HomeworkAssignee;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills homework_assignee for homework created before the table existed.
+ * Walks homework in id order (keyset, no OFFSET), only picking rows that have no assignee rows yet,
+ * and inserts each batch in its own transaction. Homework saved meanwhile is synced by the service
+ * that saves it (HomeworkService1 keeps its rows through HomeworkAssigneeWriter); INSERT IGNORE skips
+ * rows that sync got to first.
+ * Student queries switch from the LIKE scans to the index once this completes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HomeworkAssigneeBackfill {
+
+    private static final String SELECT_SQL =
+            "SELECT h.id, h.assigned_to, h.group_ids, h.due_date FROM homework h "
+                    + "WHERE h.id > ? AND NOT EXISTS (SELECT 1 FROM homework_assignee a WHERE a.homework_id = h.id) "
+                    + "ORDER BY h.id LIMIT ?";
+
+    private static final String INSERT_SQL =
+            "INSERT IGNORE INTO homework_assignee (homework_id, assignee_id, assignee_type, due_date) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final HomeworkAssignmentService assignmentService;
+
+    @Value("${app.homework-assignees.backfill-enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.homework-assignees.backfill-batch-size:1000}")
+    private int batchSize;
+
+    @Async("taskExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!enabled) {
+            // Backfill switched off once it has completed everywhere: trust the table straight away
+            assignmentService.markIndexReady();
+            return;
+        }
+        try {
+            long started = System.currentTimeMillis();
+            int[] totals = run();
+            assignmentService.markIndexReady();
+            log.info("Homework assignee backfill done: homeworks={}, rows={}, took={}ms",
+                    totals[0], totals[1], System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            // Student queries keep using the LIKE scans; the next start retries where this stopped
+            log.error("Homework assignee backfill failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return {homeworks backfilled, assignee rows inserted}
+     */
+    int[] run() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        String lastId = "";
+        int homeworks = 0;
+        int rows = 0;
+        while (true) {
+            String after = lastId;
+            List<HomeworkAssignee> batch = new ArrayList<>();
+            List<String> ids = jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> {
+                String id = rs.getString("id");
+                Timestamp due = rs.getTimestamp("due_date");
+                batch.addAll(HomeworkAssignmentService.assigneesFor(id, rs.getString("assigned_to"),
+                        rs.getString("group_ids"), due == null ? null : due.toLocalDateTime()));
+                return id;
+            }, after, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            tx.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, row) -> {
+                ps.setString(1, row.getHomeworkId());
+                ps.setString(2, row.getAssigneeId());
+                ps.setString(3, row.getAssigneeType().name());
+                ps.setTimestamp(4, row.getDueDate() == null ? null : Timestamp.valueOf(row.getDueDate()));
+            }));
+            homeworks += ids.size();
+            rows += batch.size();
+            lastId = ids.get(ids.size() - 1);
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+        return new int[]{homeworks, rows};
+    }
+}
@@ -0,0 +1,149 @@
+package org.tduc.homeworkservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.tduc.homeworkservice.model.AssigneeType;
+import org.tduc.homeworkservice.model.Homework;
+import org.tduc.homeworkservice.model.HomeworkAssignee;
+import org.tduc.homeworkservice.repository.HomeworkAssigneeRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the homework_assignee rows that back the student homework queries.
+ * Rows are derived from Homework.assignedTo (student ids) and Homework.groupIds; homework without
+ * explicit students gets a single EVERYONE row, matching the old "assignedTo IS NULL" rule.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class HomeworkAssignmentService {
+
+    private final HomeworkAssigneeRepository assigneeRepository;
+
+    // Flipped by HomeworkAssigneeBackfill once every homework has rows; until then reads use the legacy LIKE queries
+    private volatile boolean indexReady;
+
+    /**
+     * Bring the rows for this homework in line with its assignedTo/groupIds and due date.
+     * Must run in the transaction that saves the homework.
+     */
+    public void sync(Homework homework) {
+        List<HomeworkAssignee> wanted = assigneesFor(homework.getId(), homework.getAssignedTo(), homework.getGroupIds(), homework.getDueDate());
+        List<HomeworkAssignee> existing = assigneeRepository.findByHomeworkId(homework.getId());
+        if (keys(existing).equals(keys(wanted))) {
+            // Same assignees: only the copied due date can be stale
+            boolean dueChanged = existing.stream().anyMatch(a -> !Objects.equals(a.getDueDate(), homework.getDueDate()));
+            if (dueChanged) {
+                assigneeRepository.updateDueDate(homework.getId(), homework.getDueDate());
+            }
+            return;
+        }
+        assigneeRepository.deleteByHomeworkId(homework.getId());
+        assigneeRepository.saveAll(wanted);
+        log.debug("Synced {} assignee rows for homework {}", wanted.size(), homework.getId());
+    }
+
+    public void delete(String homeworkId) {
+        assigneeRepository.deleteByHomeworkId(homeworkId);
+    }
+
+    /**
+     * Assignee ids a student's homework queries should match: the student and "everyone".
+     */
+    public List<String> principalIds(String studentId) {
+        return List.of(studentId, HomeworkAssignee.EVERYONE_ID);
+    }
+
+    public boolean isIndexReady() {
+        return indexReady;
+    }
+
+    void markIndexReady() {
+        indexReady = true;
+    }
+
+    /**
+     * Rows for raw assigned_to/group_ids column text, as read by the backfill.
+     */
+    public static List<HomeworkAssignee> assigneesFor(String homeworkId, String assignedTo, String groupIds, LocalDateTime dueDate) {
+        return assigneesFor(homeworkId, parseIds(assignedTo), parseIds(groupIds), dueDate);
+    }
+
+    public static List<HomeworkAssignee> assigneesFor(String homeworkId, List<String> assignedTo, List<String> groupIds,
+                                                      LocalDateTime dueDate) {
+        List<HomeworkAssignee> rows = new ArrayList<>();
+        Set<String> students = distinct(assignedTo);
+        if (students.isEmpty()) {
+            rows.add(row(homeworkId, HomeworkAssignee.EVERYONE_ID, AssigneeType.EVERYONE, dueDate));
+        }
+        for (String studentId : students) {
+            rows.add(row(homeworkId, studentId, AssigneeType.STUDENT, dueDate));
+        }
+        for (String groupId : distinct(groupIds)) {
+            rows.add(row(homeworkId, groupId, AssigneeType.GROUP, dueDate));
+        }
+        return rows;
+    }
+
+    /**
+     * Ids that are neither blank nor repeated, in their original order.
+     */
+    public static Set<String> distinct(List<String> ids) {
+        Set<String> distinct = new LinkedHashSet<>();
+        if (ids != null) {
+            for (String id : ids) {
+                if (id != null && !id.isBlank()) {
+                    distinct.add(id.trim());
+                }
+            }
+        }
+        return distinct;
+    }
+
+    /**
+     * Ids stored either as a JSON array or comma-joined (what HomeworkMapper wrote before the columns held JSON).
+     */
+    public static List<String> parseIds(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return List.of();
+        }
+        String value = raw.trim();
+        if (value.startsWith("[") && value.endsWith("]")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        Set<String> ids = new LinkedHashSet<>();
+        for (String part : value.split(",")) {
+            String id = part.trim();
+            if (id.length() >= 2 && id.startsWith("\"") && id.endsWith("\"")) {
+                id = id.substring(1, id.length() - 1).trim();
+            }
+            if (!id.isEmpty()) {
+                ids.add(id);
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+
+    private static HomeworkAssignee row(String homeworkId, String assigneeId, AssigneeType type, LocalDateTime dueDate) {
+        return HomeworkAssignee.builder()
+                .homeworkId(homeworkId)
+                .assigneeId(assigneeId)
+                .assigneeType(type)
+                .dueDate(dueDate)
+                .build();
+    }
+
+    private static Set<String> keys(List<HomeworkAssignee> rows) {
+        return rows.stream().map(a -> a.getAssigneeType() + ":" + a.getAssigneeId()).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,159 @@
+package org.tduc.homeworkservice.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.tduc.homeworkservice.event.HomeworkChangedEvent;
+import org.tduc.homeworkservice.model.Homework;
+import org.tduc.homeworkservice.model.HomeworkAttachment;
+import org.tduc.homeworkservice.repository.HomeworkRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps the Homework and HomeworkAttachment second-level cache coherent across replicas.
+ * <p>
+ * Hibernate already updates this replica's cache on commit. After each committed insert, update or
+ * delete of either entity the id is published on a Redis channel; every other replica evicts that
+ * entry and, for homework, the cached query results. HomeworkService1, which writes the same tables,
+ * publishes its writes on this channel too (its HomeworkEntityCachePublisher).
+ * <p>
+ * HomeworkService1 raises none of this service's {@link HomeworkChangedEvent}s, so its homework writes
+ * are replayed here as one: student feeds, the search index, submission rules and deadlines then
+ * follow them as they follow local writes. Every replica replays the message; the listeners are
+ * idempotent. A homework that no longer loads was deleted, and as its assignee rows went with it the
+ * event is raised for everyone.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HomeworkEntityCacheSync implements MessageListener, PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    public static final String CHANNEL = "homework:entity-cache:invalidate";
+    private static final String HOMEWORK = "homework";
+    private static final String ATTACHMENT = "attachment";
+    // Origin prefix of HomeworkService1's messages (see its HomeworkEntityCachePublisher)
+    static final String HOMEWORK_SERVICE1_ORIGIN = "homework-service1-";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final StringRedisTemplate redisTemplate;
+    private final HomeworkRepository homeworkRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Tells this replica's own messages apart
+    private final String origin = UUID.randomUUID().toString();
+
+    @Value("${app.entity-cache.broadcast-enabled:true}")
+    private boolean broadcastEnabled;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return type == Homework.class || type == HomeworkAttachment.class;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        publish(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    /**
+     * Evictions published by other replicas: {@code origin|homework|id} or {@code origin|attachment|id}.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length < 3 || origin.equals(parts[0])) {
+            return;
+        }
+        if (HOMEWORK.equals(parts[1])) {
+            Cache cache = entityManagerFactory.getCache();
+            cache.evict(Homework.class, parts[2]);
+            // Cached query results may list or miss this homework; only this region holds them
+            cache.unwrap(org.hibernate.Cache.class).evictDefaultQueryRegion();
+            if (parts[0].startsWith(HOMEWORK_SERVICE1_ORIGIN)) {
+                replay(parts[2]);
+            }
+        } else if (ATTACHMENT.equals(parts[1])) {
+            entityManagerFactory.getCache().evict(HomeworkAttachment.class, parts[2]);
+        }
+    }
+
+    private void replay(String homeworkId) {
+        try {
+            // Evicted above, so this reads the row HomeworkService1 committed
+            HomeworkChangedEvent event = homeworkRepository.findById(homeworkId)
+                    .map(HomeworkChangedEvent::of)
+                    .orElseGet(() -> new HomeworkChangedEvent(Set.of(homeworkId), Set.of(), Set.of(), true));
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            // Student feeds still expire within app.homework-feed.max-ttl-seconds; the search index reconciles
+            log.warn("HomeworkService1 change of homework {} not applied: {}", homeworkId, e.getMessage());
+        }
+    }
+
+    private void publish(Object entity, Object id) {
+        if (!broadcastEnabled || id == null) {
+            return;
+        }
+        String kind = entity instanceof HomeworkAttachment ? ATTACHMENT : HOMEWORK;
+        try {
+            redisTemplate.convertAndSend(CHANNEL, origin + "|" + kind + "|" + id);
+        } catch (RuntimeException e) {
+            // Other replicas catch up when the entry expires (app.entity-cache.ttl-seconds)
+            log.warn("Homework cache eviction of {} {} not broadcast: {}", kind, id, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.tduc.homeworkservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.tduc.homeworkservice.event.HomeworkChangedEvent;
+import org.tduc.homeworkservice.exception.AppException;
+import org.tduc.homeworkservice.exception.ErrorCode;
+import org.tduc.homeworkservice.repository.HomeworkRepository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived in-process cache of {@link SubmissionRules}, so a deadline burst does not read the same
+ * homework row for every submission. Entries are dropped when a HomeworkChangedEvent commits on this
+ * replica; changes made on another replica show up within app.submissions.rules-ttl-ms.
+ */
+@Component
+@RequiredArgsConstructor
+public class HomeworkRulesCache {
+
+    private final HomeworkRepository homeworkRepository;
+
+    @Value("${app.submissions.rules-ttl-ms:5000}")
+    private long ttlMillis = 5000;
+
+    @Value("${app.submissions.rules-max-entries:10000}")
+    private int maxEntries = 10000;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Bumped by every invalidation; a load that raced one is returned but not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private record Entry(SubmissionRules rules, long expiresAtMillis) {
+    }
+
+    public SubmissionRules get(String homeworkId) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(homeworkId);
+        if (entry != null && entry.expiresAtMillis() > now) {
+            return entry.rules();
+        }
+        long epoch = invalidations.get();
+        SubmissionRules rules = homeworkRepository.findById(homeworkId)
+                .map(SubmissionRules::of)
+                .orElseThrow(() -> new AppException(ErrorCode.HOMEWORK_NOT_FOUND));
+        if (invalidations.get() == epoch) {
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+            entries.put(homeworkId, new Entry(rules, now + ttlMillis));
+        }
+        return rules;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHomeworkChanged(HomeworkChangedEvent event) {
+        invalidations.incrementAndGet();
+        event.homeworkIds().forEach(entries::remove);
+    }
+}
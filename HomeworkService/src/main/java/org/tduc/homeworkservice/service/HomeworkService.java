@@ -1,27 +1,24 @@
-    /**
-     * Get all homeworks for a student (không filter active)
-     */
-    @Transactional(readOnly = true)
-    public List<HomeworkResponse> getHomeworksForStudent(String studentId) {
-        log.info("Getting all homeworks for student: {}", studentId);
-        List<Homework> homeworks = homeworkRepository.findAllHomeworksForStudent(studentId);
-        return homeworks.stream()
-            .map(homeworkMapper::toHomeworkResponse)
-            .collect(Collectors.toList());
-    }
 package org.tduc.homeworkservice.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.tduc.homeworkservice.analytics.GradebookMatrix;
+import org.tduc.homeworkservice.analytics.GradebookMatrixService;
+import org.tduc.homeworkservice.dto.request.BulkStatusUpdateRequest;
 import org.tduc.homeworkservice.dto.request.HomeworkCreationRequest;
 import org.tduc.homeworkservice.dto.request.HomeworkUpdateRequest;
+import org.tduc.homeworkservice.dto.response.BulkJobResponse;
+import org.tduc.homeworkservice.dto.response.GradebookMatrixResponse;
 import org.tduc.homeworkservice.dto.response.HomeworkResponse;
+import org.tduc.homeworkservice.event.HomeworkChangedEvent;
 import org.tduc.homeworkservice.exception.AppException;
 import org.tduc.homeworkservice.exception.ErrorCode;
 import org.tduc.homeworkservice.mapper.HomeworkMapper;
@@ -29,9 +26,16 @@ import org.tduc.homeworkservice.util.AuthContextUtil;
 import org.tduc.homeworkservice.model.*;
 import org.tduc.homeworkservice.repository.HomeworkRepository;
 import org.tduc.homeworkservice.repository.HomeworkAttachmentRepository;
+import org.tduc.homeworkservice.repository.projection.CourseHomeworkStatsView;
+import org.tduc.homeworkservice.repository.projection.SubmissionStatsView;
+import org.tduc.homeworkservice.search.HomeworkSearchIndex;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -44,6 +48,14 @@ public class HomeworkService {
     private final HomeworkAttachmentRepository attachmentRepository;
     private final HomeworkMapper homeworkMapper;
     private final AuthContextUtil authContextUtil;
+    private final HomeworkAssignmentService assignmentService;
+    private final StudentFeedCache feedCache;
+    private final HomeworkStatsService homeworkStatsService;
+    private final BulkJobService bulkJobService;
+    private final HomeworkSearchIndex searchIndex;
+    private final GradebookExportService gradebookExportService;
+    private final GradebookMatrixService gradebookMatrixService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Get all homeworks
@@ -96,6 +108,8 @@ public class HomeworkService {
         }
         
         Homework savedHomework = homeworkRepository.save(homework);
+        assignmentService.sync(savedHomework);
+        eventPublisher.publishEvent(HomeworkChangedEvent.of(savedHomework));
         log.info("Created homework with ID: {}", savedHomework.getId());
         
         return homeworkMapper.toHomeworkResponse(savedHomework);
@@ -157,10 +171,15 @@ public class HomeworkService {
         if (request.getEstimatedDurationMinutes() != null) {
             homework.setEstimatedDurationMinutes(request.getEstimatedDurationMinutes());
         }
+        if (request.getGroupIds() != null) {
+            homework.setGroupIds(new ArrayList<>(request.getGroupIds()));
+        }
         
         homework.setUpdatedAt(LocalDateTime.now());
         
         Homework savedHomework = homeworkRepository.save(homework);
+        assignmentService.sync(savedHomework);
+        eventPublisher.publishEvent(HomeworkChangedEvent.of(savedHomework));
         log.info("Updated homework with ID: {}", savedHomework.getId());
         
         return homeworkMapper.toHomeworkResponse(savedHomework);
@@ -189,7 +208,7 @@ public class HomeworkService {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
         Page<Homework> homeworks = homeworkRepository.findByCourseIdOrderByCreatedAtDesc(courseId, pageable);
         
-        return homeworks.map(homeworkMapper::toHomeworkResponse);
+        return withSubmissionStats(homeworks);
     }
 
     /**
@@ -202,23 +221,40 @@ public class HomeworkService {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
         Page<Homework> homeworks = homeworkRepository.findByCreatedByOrderByCreatedAtDesc(createdBy, pageable);
         
-        return homeworks.map(homeworkMapper::toHomeworkResponse);
+        return withSubmissionStats(homeworks);
     }
 
     /**
-     * Search homeworks by keyword
+     * Search homeworks by keyword, best matches first, optionally within one course
      */
     @Transactional(readOnly = true)
-    public Page<HomeworkResponse> searchHomeworks(String keyword, int page, int size) {
-        log.info("Searching homeworks with keyword: {}, page: {}, size: {}", keyword, page, size);
+    public Page<HomeworkResponse> searchHomeworks(String keyword, String courseId, int page, int size) {
+        log.info("Searching homeworks with keyword: {}, course: {}, page: {}, size: {}", keyword, courseId, page, size);
         
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<Homework> homeworks = homeworkRepository.findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
-            keyword, keyword, pageable);
+        Page<Homework> homeworks = searchIndex.search(keyword, courseId, PageRequest.of(page, size));
         
         return homeworks.map(homeworkMapper::toHomeworkResponse);
     }
 
+    /**
+     * Stream the course gradebook (students x homeworks) to the given output as CSV or XLSX
+     */
+    @Transactional(readOnly = true)
+    public void exportGradebook(String courseId, GradebookExportService.Format format, OutputStream out) throws IOException {
+        log.info("Exporting {} gradebook for course: {}", format, courseId);
+        gradebookExportService.export(courseId, format, out);
+    }
+
+    /**
+     * Get the course gradebook matrix (students x homeworks) with totals and weighted final grades
+     */
+    @Transactional(readOnly = true)
+    public GradebookMatrixResponse getGradebook(String courseId, GradebookMatrix.Attempt attempt,
+                                                GradebookMatrix.Weighting weighting) {
+        log.info("Getting gradebook for course: {}, attempt: {}, weighting: {}", courseId, attempt, weighting);
+        return gradebookMatrixService.build(courseId, attempt, weighting);
+    }
+
     /**
      * Delete homework and its associated data
      */
@@ -233,8 +269,10 @@ public class HomeworkService {
         
         // Delete associated attachments first
         attachmentRepository.deleteByHomeworkId(id);
+        assignmentService.delete(id);
         
         homeworkRepository.delete(homework);
+        eventPublisher.publishEvent(HomeworkChangedEvent.of(homework));
         log.info("Deleted homework with ID: {}", id);
     }
 
@@ -256,24 +294,46 @@ public class HomeworkService {
         homework.setUpdatedAt(LocalDateTime.now());
         
         Homework savedHomework = homeworkRepository.save(homework);
+        eventPublisher.publishEvent(HomeworkChangedEvent.of(savedHomework));
         log.info("Published homework with ID: {}", savedHomework.getId());
         
         return homeworkMapper.toHomeworkResponse(savedHomework);
     }
 
+    /**
+     * Get all homeworks for a student (không filter active)
+     */
+    // SUPPORTS: a cache hit should not open a transaction; the repository call runs in its own on a miss
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<HomeworkResponse> getHomeworksForStudent(String studentId) {
+        log.info("Getting all homeworks for student: {}", studentId);
+        return feedCache.get(StudentFeedCache.Feed.ALL, studentId, () -> {
+            List<Homework> homeworks = assignmentService.isIndexReady()
+                ? homeworkRepository.findAllHomeworksForAssignees(assignmentService.principalIds(studentId))
+                : homeworkRepository.findAllHomeworksForStudent(studentId);
+            return homeworks.stream()
+                .map(homeworkMapper::toHomeworkResponse)
+                .collect(Collectors.toList());
+        });
+    }
+
     /**
      * Get active homeworks for a student (published and not overdue)
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<HomeworkResponse> getActiveHomeworksForStudent(String studentId) {
         log.info("Getting active homeworks for student: {}", studentId);
         
-        LocalDateTime now = LocalDateTime.now();
-        List<Homework> homeworks = homeworkRepository.findActiveHomeworksForStudent(studentId, now);
-        
-        return homeworks.stream()
-            .map(homeworkMapper::toHomeworkResponse)
-            .collect(Collectors.toList());
+        // Cached until the earliest due date in the list passes
+        return feedCache.get(StudentFeedCache.Feed.ACTIVE, studentId, () -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Homework> homeworks = assignmentService.isIndexReady()
+                ? homeworkRepository.findActiveHomeworksForAssignees(assignmentService.principalIds(studentId), now)
+                : homeworkRepository.findActiveHomeworksForStudent(studentId, now);
+            return homeworks.stream()
+                .map(homeworkMapper::toHomeworkResponse)
+                .collect(Collectors.toList());
+        });
     }
 
     /**
@@ -298,35 +358,48 @@ public class HomeworkService {
     public HomeworkStatsResponse getHomeworkStats(String courseId) {
         log.info("Getting homework statistics for course: {}", courseId);
         
-        long totalHomeworks = homeworkRepository.countByCourseId(courseId);
-        long publishedHomeworks = homeworkRepository.countByCourseIdAndStatus(courseId, HomeworkStatus.PUBLISHED);
-        long draftHomeworks = homeworkRepository.countByCourseIdAndStatus(courseId, HomeworkStatus.DRAFT);
-        
-        LocalDateTime now = LocalDateTime.now();
-        long overdueHomeworks = homeworkRepository.findOverdueHomeworks(courseId, now).size();
+        CourseHomeworkStatsView stats = homeworkRepository.aggregateStatsByCourse(courseId, LocalDateTime.now());
         
         return HomeworkStatsResponse.builder()
-            .totalHomeworks(totalHomeworks)
-            .publishedHomeworks(publishedHomeworks)
-            .draftHomeworks(draftHomeworks)
-            .overdueHomeworks(overdueHomeworks)
+            .totalHomeworks(stats.total())
+            .publishedHomeworks(stats.published())
+            .draftHomeworks(stats.draft())
+            .overdueHomeworks(stats.overdue())
             .build();
     }
 
     /**
-     * Bulk update homework status
+     * Bulk update homework status as a background job; poll its progress with the returned job id
      */
-    public void bulkUpdateStatus(List<String> homeworkIds, HomeworkStatus status) {
-        log.info("Bulk updating status for {} homeworks to {}", homeworkIds.size(), status);
-        
-        List<Homework> homeworks = homeworkRepository.findAllById(homeworkIds);
-        homeworks.forEach(homework -> {
-            homework.setStatus(status);
-            homework.setUpdatedAt(LocalDateTime.now());
+    public BulkJobResponse bulkUpdateStatus(BulkStatusUpdateRequest request) {
+        log.info("Queueing bulk status update of {} homeworks to {}", request.getHomeworkIds().size(), request.getStatus());
+        return bulkJobService.submitStatusUpdate(request.getHomeworkIds(), request.getStatus());
+    }
+
+    /**
+     * Progress of a bulk grading or status job
+     */
+    public BulkJobResponse getBulkJob(String jobId) {
+        return bulkJobService.getJob(jobId);
+    }
+
+    /**
+     * Map a page of homework and fill the submission counts from one batched query over its ids
+     */
+    private Page<HomeworkResponse> withSubmissionStats(Page<Homework> homeworks) {
+        List<String> ids = homeworks.getContent().stream().map(Homework::getId).collect(Collectors.toList());
+        Map<String, SubmissionStatsView> stats = homeworkStatsService.statsFor(ids);
+        return homeworks.map(homework -> {
+            HomeworkResponse response = homeworkMapper.toHomeworkResponse(homework);
+            SubmissionStatsView view = stats.get(homework.getId());
+            if (view != null) {
+                response.setTotalSubmissions(view.total().intValue());
+                response.setGradedSubmissions(view.graded().intValue());
+                response.setPendingSubmissions(view.pending().intValue());
+                response.setAverageScore(view.averageScore());
+            }
+            return response;
         });
-        
-        homeworkRepository.saveAll(homeworks);
-        log.info("Bulk updated {} homeworks", homeworks.size());
     }
     
     // Inner class for statistics response
@@ -0,0 +1,142 @@
+package org.tduc.homeworkservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.tduc.homeworkservice.analytics.GradeDistributionService;
+import org.tduc.homeworkservice.analytics.GradeSketch;
+import org.tduc.homeworkservice.model.HomeworkStats;
+import org.tduc.homeworkservice.model.Submission;
+import org.tduc.homeworkservice.model.SubmissionStatus;
+import org.tduc.homeworkservice.repository.HomeworkStatsRepository;
+import org.tduc.homeworkservice.repository.SubmissionRepository;
+import org.tduc.homeworkservice.repository.projection.SubmissionStatsView;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Submission statistics per homework. Reads come from one grouped aggregate query, or, with
+ * app.homework-stats.counters-enabled, from the homework_stats counters that submission writes keep
+ * current in their own transaction. Homework without a counter row yet falls back to the aggregate.
+ * HomeworkService1 does not update the counters, so they stay off while it writes submissions.
+ * Every change is also passed on to the grade distribution sketches.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class HomeworkStatsService {
+
+    private final SubmissionRepository submissionRepository;
+    private final HomeworkStatsRepository homeworkStatsRepository;
+    private final GradeDistributionService gradeDistributionService;
+
+    @Value("${app.homework-stats.counters-enabled:false}")
+    private boolean countersEnabled;
+
+    /**
+     * The fields of a submission that the counters depend on, taken before it is changed.
+     */
+    public record Snapshot(SubmissionStatus status, boolean late, BigDecimal score, BigDecimal percentage) {
+
+        public static Snapshot of(Submission submission) {
+            return new Snapshot(submission.getStatus(), Boolean.TRUE.equals(submission.getIsLate()), submission.getScore(),
+                    submission.getPercentage());
+        }
+    }
+
+    public SubmissionStatsView statsFor(String homeworkId) {
+        return statsFor(List.of(homeworkId)).get(homeworkId);
+    }
+
+    /**
+     * Stats for every given homework, zeroes for homework without submissions.
+     */
+    public Map<String, SubmissionStatsView> statsFor(Collection<String> homeworkIds) {
+        Map<String, SubmissionStatsView> stats = new HashMap<>();
+        if (homeworkIds.isEmpty()) {
+            return stats;
+        }
+        List<String> missing = new ArrayList<>(homeworkIds);
+        if (countersEnabled) {
+            for (HomeworkStats row : homeworkStatsRepository.findAllById(homeworkIds)) {
+                stats.put(row.getHomeworkId(), toView(row));
+            }
+            missing.removeAll(stats.keySet());
+        }
+        if (!missing.isEmpty()) {
+            for (SubmissionStatsView view : submissionRepository.aggregateStatsByHomeworkIds(missing)) {
+                stats.put(view.homeworkId(), view);
+            }
+        }
+        for (String homeworkId : homeworkIds) {
+            stats.putIfAbsent(homeworkId, SubmissionStatsView.empty(homeworkId));
+        }
+        return stats;
+    }
+
+    /**
+     * Apply one submission change to the counters; {@code before} is null for a new submission and
+     * {@code after} null for a deleted one. Runs inside the caller's write transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(String homeworkId, Snapshot before, Submission after) {
+        Snapshot next = after == null ? null : Snapshot.of(after);
+        gradeDistributionService.recordChange(homeworkId, bin(before), bin(next));
+        if (!countersEnabled) {
+            return;
+        }
+        long total = count(next) - count(before);
+        long graded = graded(next) - graded(before);
+        long pending = pending(next) - pending(before);
+        long late = late(next) - late(before);
+        long scored = scored(next) - scored(before);
+        BigDecimal scoreSum = scoreContribution(next).subtract(scoreContribution(before));
+        if (total == 0 && graded == 0 && pending == 0 && late == 0 && scored == 0 && scoreSum.signum() == 0) {
+            return;
+        }
+        homeworkStatsRepository.applyDelta(homeworkId, total, graded, pending, late, scored, scoreSum);
+    }
+
+    private static SubmissionStatsView toView(HomeworkStats row) {
+        return new SubmissionStatsView(row.getHomeworkId(), row.getTotalSubmissions(), row.getGradedSubmissions(),
+                row.getPendingSubmissions(), row.getLateSubmissions(), row.getScoredSubmissions(), row.getScoreSum());
+    }
+
+    private static long count(Snapshot s) {
+        return s == null ? 0 : 1;
+    }
+
+    private static long graded(Snapshot s) {
+        return s != null && s.status() == SubmissionStatus.GRADED ? 1 : 0;
+    }
+
+    private static long pending(Snapshot s) {
+        return s != null && s.status() == SubmissionStatus.SUBMITTED ? 1 : 0;
+    }
+
+    private static long late(Snapshot s) {
+        return s != null && s.late() ? 1 : 0;
+    }
+
+    private static long scored(Snapshot s) {
+        return graded(s) == 1 && s.score() != null ? 1 : 0;
+    }
+
+    // Distribution bin of a counted grade, -1 when not counted
+    private static int bin(Snapshot s) {
+        return scored(s) == 1 && s.percentage() != null ? GradeSketch.binOf(s.percentage()) : -1;
+    }
+
+    private static BigDecimal scoreContribution(Snapshot s) {
+        return scored(s) == 1 ? s.score() : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,140 @@
+package org.tduc.homeworkservice.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.tduc.homeworkservice.dto.response.LatePenaltyRecomputeResponse;
+import org.tduc.homeworkservice.exception.AppException;
+import org.tduc.homeworkservice.exception.ErrorCode;
+import org.tduc.homeworkservice.model.Homework;
+import org.tduc.homeworkservice.model.LatePenaltyPolicy;
+import org.tduc.homeworkservice.model.Submission;
+import org.tduc.homeworkservice.repository.HomeworkRepository;
+import org.tduc.homeworkservice.repository.SubmissionRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Re-scores a homework's late submissions after its late-penalty policy changes.
+ * The policy is compiled once; late submission ids are split into chunks that a few workers on the
+ * taskExecutor pull from a shared queue, each chunk in its own transaction so a failure only rolls
+ * back that chunk. Graded submissions are re-scored from their original score.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LatePenaltyService {
+
+    private final SubmissionRepository submissionRepository;
+    private final HomeworkRepository homeworkRepository;
+    private final HomeworkStatsService homeworkStatsService;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final Executor taskExecutor;
+
+    @Value("${app.late-penalty.recompute-chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.late-penalty.recompute-parallelism:4}")
+    private int parallelism;
+
+    public LatePenaltyRecomputeResponse recompute(String homeworkId) {
+        long started = System.currentTimeMillis();
+        Homework homework = homeworkRepository.findById(homeworkId)
+            .orElseThrow(() -> new AppException(ErrorCode.HOMEWORK_NOT_FOUND));
+        LatePenaltyPolicy policy = homework.getLatePenaltyPolicy();
+        List<String> ids = submissionRepository.findLateSubmissionIdsByHomework(homeworkId);
+
+        Queue<List<String>> chunks = new ConcurrentLinkedQueue<>();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            chunks.add(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+        }
+        AtomicInteger rescored = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Runnable worker = () -> {
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            List<String> chunk;
+            while ((chunk = chunks.poll()) != null) {
+                List<String> current = chunk;
+                try {
+                    int[] counts = tx.execute(status -> rescoreChunk(current, homework, policy));
+                    rescored.addAndGet(counts[0]);
+                    skipped.addAndGet(counts[1]);
+                } catch (RuntimeException e) {
+                    log.warn("Late penalty recompute for homework {} failed on a chunk of {}: {}",
+                        homeworkId, current.size(), e.getMessage());
+                    failed.addAndGet(current.size());
+                }
+            }
+        };
+
+        int workers = Math.max(1, Math.min(parallelism, chunks.size()));
+        List<CompletableFuture<Void>> running = new ArrayList<>(workers);
+        for (int i = 0; i < workers - 1; i++) {
+            try {
+                running.add(CompletableFuture.runAsync(worker, taskExecutor));
+            } catch (RejectedExecutionException e) {
+                // Pool is busy: the calling thread takes the remaining chunks
+                break;
+            }
+        }
+        worker.run();
+        CompletableFuture.allOf(running.toArray(new CompletableFuture[0])).join();
+
+        LatePenaltyRecomputeResponse response = LatePenaltyRecomputeResponse.builder()
+            .homeworkId(homeworkId)
+            .policyEnabled(policy.isEnabled())
+            .lateSubmissions(ids.size())
+            .rescored(rescored.get())
+            .skipped(skipped.get())
+            .failed(failed.get())
+            .durationMillis(System.currentTimeMillis() - started)
+            .build();
+        log.info("Recomputed late penalties for homework {}: {}", homeworkId, response);
+        return response;
+    }
+
+    // Returns {rescored, skipped}
+    private int[] rescoreChunk(List<String> ids, Homework homework, LatePenaltyPolicy policy) {
+        int rescored = 0;
+        int skipped = 0;
+        List<Submission> submissions = submissionRepository.findAllById(ids);
+        List<HomeworkStatsService.Snapshot> before = new ArrayList<>(submissions.size());
+        for (Submission submission : submissions) {
+            before.add(HomeworkStatsService.Snapshot.of(submission));
+            if (submission.getOriginalScore() == null && submission.getScore() != null) {
+                // Graded before the original score was kept; the pre-penalty score is unknown
+                skipped++;
+                continue;
+            }
+            String letter = submission.getLetterGrade();
+            boolean derivedLetter = Objects.equals(letter, SubmissionService.letterGrade(submission.getPercentage()));
+            SubmissionService.rescore(submission, homework, submission.getOriginalScore(), policy);
+            if (!derivedLetter) {
+                // Keep a letter the grader set by hand
+                submission.setLetterGrade(letter);
+            }
+            rescored++;
+        }
+        // Stats after the row updates so this chunk only holds the counter row briefly
+        for (int i = 0; i < submissions.size(); i++) {
+            homeworkStatsService.recordChange(homework.getId(), before.get(i), submissions.get(i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return new int[]{rescored, skipped};
+    }
+}
@@ -0,0 +1,333 @@
+package org.tduc.homeworkservice.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.tduc.homeworkservice.dto.response.HomeworkResponse;
+import org.tduc.homeworkservice.event.HomeworkChangedEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Ready-to-serve per-student homework feeds, cached in process and in Redis so every replica shares them.
+ * <p>
+ * Entries are dropped after commit for exactly the students named by a {@link HomeworkChangedEvent};
+ * homework assigned to everyone bumps a shared generation that is part of every key instead. Other
+ * replicas learn about both through a pub/sub channel. Homework written through HomeworkService1 arrives
+ * as the same event, replayed by {@link HomeworkEntityCacheSync}. An active feed expires the moment its earliest
+ * due date passes, since that is when its content changes without any write.
+ * <p>
+ * Each student also has a generation counter in Redis, bumped before their feeds are deleted there.
+ * A load remembers the counter it started under and only writes its feed back if it is unchanged,
+ * so a feed loaded before another replica's invalidation cannot be cached after it.
+ * If Redis is unreachable the in-process tier keeps working on its own.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StudentFeedCache implements MessageListener {
+
+    public enum Feed { ALL, ACTIVE }
+
+    public static final String CHANNEL = "homework:feed:invalidate";
+    private static final String GENERATION_KEY = "homework:feed:generation";
+    private static final String EVERYONE_MESSAGE = "everyone:";
+    private static final String STUDENTS_MESSAGE = "students:";
+    private static final String STUDENT_GENERATION_PREFIX = "homework:feed:student-generation:";
+
+    // KEYS[1] = feed, KEYS[2] = student generation; ARGV = feed json, generation read before loading, ttlMs
+    private static final DefaultRedisScript<Long> WRITE_IF_CURRENT = new DefaultRedisScript<>(
+            "if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[2] then return 0 end "
+                    + "redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[3]) return 1",
+            Long.class);
+    // KEYS = student generations; ARGV[1] = ttl seconds
+    private static final DefaultRedisScript<Long> BUMP_STUDENTS = new DefaultRedisScript<>(
+            "for _, key in ipairs(KEYS) do redis.call('INCR', key) redis.call('EXPIRE', key, ARGV[1]) end "
+                    + "return #KEYS",
+            Long.class);
+    private static final TypeReference<List<HomeworkResponse>> FEED_TYPE = new TypeReference<>() {
+    };
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.homework-feed.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.homework-feed.redis-enabled:true}")
+    private boolean redisEnabled;
+
+    // Upper bound for feeds without a due date in sight, and for missed invalidations
+    @Value("${app.homework-feed.max-ttl-seconds:600}")
+    private long maxTtlSeconds;
+
+    @Value("${app.homework-feed.local-max-entries:10000}")
+    private int localMaxEntries;
+
+    private final Map<String, Entry> local = new ConcurrentHashMap<>();
+    // Bumped by every invalidation; a load that raced one is served but not cached
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong generation = new AtomicLong();
+
+    private record Entry(long generation, long expiresAtMillis, List<HomeworkResponse> feed) {
+    }
+
+    public List<HomeworkResponse> get(Feed feed, String studentId, Supplier<List<HomeworkResponse>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        long gen = generation.get();
+        String key = key(gen, feed, studentId);
+        long now = System.currentTimeMillis();
+
+        Entry entry = local.get(key);
+        if (entry != null && entry.expiresAtMillis() > now) {
+            return entry.feed();
+        }
+
+        List<HomeworkResponse> cached = readRedis(key);
+        if (cached != null) {
+            putLocal(key, new Entry(gen, expiresAt(feed, cached, now), cached));
+            return cached;
+        }
+
+        long epoch = invalidations.get();
+        String studentGen = readStudentGeneration(studentId);
+        List<HomeworkResponse> loaded = List.copyOf(loader.get());
+        if (invalidations.get() == epoch) {
+            long expiresAt = expiresAt(feed, loaded, now);
+            putLocal(key, new Entry(gen, expiresAt, loaded));
+            writeRedis(key, studentId, studentGen, loaded, expiresAt - now);
+        }
+        return loaded;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHomeworkChanged(HomeworkChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.everyone()) {
+            long next = nextGeneration();
+            dropGeneration(next);
+            publish(EVERYONE_MESSAGE + next);
+            log.debug("Homework feeds invalidated for everyone (homeworks={}, generation={})", event.homeworkIds(), next);
+        } else if (!event.studentIds().isEmpty()) {
+            dropStudents(event.studentIds());
+            deleteRedis(event.studentIds());
+            publish(STUDENTS_MESSAGE + String.join(",", event.studentIds()));
+            log.debug("Homework feeds invalidated for {} students (homeworks={})", event.studentIds().size(), event.homeworkIds());
+        }
+    }
+
+    /**
+     * Invalidations published by this and other replicas.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (body.startsWith(EVERYONE_MESSAGE)) {
+            long gen = Long.parseLong(body.substring(EVERYONE_MESSAGE.length()));
+            generation.accumulateAndGet(gen, Math::max);
+            dropGeneration(gen);
+        } else if (body.startsWith(STUDENTS_MESSAGE)) {
+            dropStudents(List.of(body.substring(STUDENTS_MESSAGE.length()).split(",")));
+        }
+    }
+
+    /**
+     * Picks up generation bumps whose pub/sub message was missed, and sweeps expired local entries.
+     */
+    @Scheduled(fixedDelayString = "${app.homework-feed.sync-interval-ms:5000}")
+    public void sync() {
+        if (!enabled) {
+            return;
+        }
+        if (redisEnabled) {
+            try {
+                String stored = redisTemplate.opsForValue().get(GENERATION_KEY);
+                if (stored != null && Long.parseLong(stored) > generation.get()) {
+                    long gen = generation.accumulateAndGet(Long.parseLong(stored), Math::max);
+                    dropGeneration(gen);
+                }
+            } catch (RuntimeException e) {
+                log.debug("Feed generation not read from Redis: {}", e.getMessage());
+            }
+        }
+        long now = System.currentTimeMillis();
+        local.values().removeIf(e -> e.expiresAtMillis() <= now);
+    }
+
+    // Earliest due date for the active feed: past it that homework must leave the list
+    private long expiresAt(Feed feed, List<HomeworkResponse> items, long now) {
+        long expiresAt = now + TimeUnit.SECONDS.toMillis(maxTtlSeconds);
+        if (feed == Feed.ACTIVE) {
+            ZoneId zone = ZoneId.systemDefault();
+            for (HomeworkResponse item : items) {
+                LocalDateTime due = item.getDueDate();
+                if (due != null) {
+                    expiresAt = Math.min(expiresAt, due.atZone(zone).toInstant().toEpochMilli());
+                }
+            }
+        }
+        return expiresAt;
+    }
+
+    private long nextGeneration() {
+        invalidations.incrementAndGet();
+        if (redisEnabled) {
+            try {
+                Long next = redisTemplate.opsForValue().increment(GENERATION_KEY);
+                if (next != null) {
+                    return generation.accumulateAndGet(next, Math::max);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Feed generation not bumped in Redis: {}", e.getMessage());
+            }
+        }
+        return generation.incrementAndGet();
+    }
+
+    private void dropGeneration(long current) {
+        invalidations.incrementAndGet();
+        local.values().removeIf(e -> e.generation() < current);
+    }
+
+    private void dropStudents(Collection<String> studentIds) {
+        invalidations.incrementAndGet();
+        for (String studentId : studentIds) {
+            for (Feed feed : Feed.values()) {
+                // Keys of older generations are already unreachable
+                local.remove(key(generation.get(), feed, studentId));
+            }
+        }
+    }
+
+    private void putLocal(String key, Entry entry) {
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            return;
+        }
+        if (local.size() >= localMaxEntries) {
+            evict();
+        }
+        local.put(key, entry);
+    }
+
+    // Expired entries first, then an arbitrary tenth; good enough for a bound that is rarely hit
+    private void evict() {
+        long now = System.currentTimeMillis();
+        local.values().removeIf(e -> e.expiresAtMillis() <= now);
+        int toDrop = local.size() - localMaxEntries + localMaxEntries / 10;
+        Iterator<String> keys = local.keySet().iterator();
+        while (toDrop-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private List<HomeworkResponse> readRedis(String key) {
+        if (!redisEnabled) {
+            return null;
+        }
+        try {
+            String json = redisTemplate.opsForValue().get(key);
+            return json == null ? null : List.copyOf(objectMapper.readValue(json, FEED_TYPE));
+        } catch (Exception e) {
+            log.debug("Feed {} not read from Redis: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    // "0" when the student was never invalidated; null when unknown, and then the load is not written back
+    private String readStudentGeneration(String studentId) {
+        if (!redisEnabled) {
+            return null;
+        }
+        try {
+            String stored = redisTemplate.opsForValue().get(STUDENT_GENERATION_PREFIX + studentId);
+            return stored == null ? "0" : stored;
+        } catch (RuntimeException e) {
+            log.debug("Feed generation of {} not read from Redis: {}", studentId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRedis(String key, String studentId, String studentGen, List<HomeworkResponse> feed,
+                            long ttlMillis) {
+        if (!redisEnabled || studentGen == null || ttlMillis <= 0) {
+            return;
+        }
+        try {
+            Long written = redisTemplate.execute(WRITE_IF_CURRENT,
+                    List.of(key, STUDENT_GENERATION_PREFIX + studentId),
+                    objectMapper.writeValueAsString(feed), studentGen, String.valueOf(ttlMillis));
+            if (written == null || written == 0) {
+                log.debug("Feed {} not written to Redis: invalidated while loading", key);
+            }
+        } catch (Exception e) {
+            log.debug("Feed {} not written to Redis: {}", key, e.getMessage());
+        }
+    }
+
+    private void deleteRedis(Collection<String> studentIds) {
+        if (!redisEnabled) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(studentIds.size() * 2);
+        List<String> studentGens = new ArrayList<>(studentIds.size());
+        long gen = generation.get();
+        for (String studentId : studentIds) {
+            studentGens.add(STUDENT_GENERATION_PREFIX + studentId);
+            for (Feed feed : Feed.values()) {
+                keys.add(key(gen, feed, studentId));
+            }
+        }
+        try {
+            // Before the delete, so loads still in flight on any replica fail their write-back.
+            // The counter only has to outlive those loads; maxTtlSeconds is far above any of them.
+            redisTemplate.execute(BUMP_STUDENTS, studentGens, String.valueOf(maxTtlSeconds));
+        } catch (RuntimeException e) {
+            log.warn("Feed generations of {} students not bumped in Redis: {}", studentIds.size(), e.getMessage());
+        }
+        try {
+            redisTemplate.delete(keys);
+        } catch (RuntimeException e) {
+            log.warn("Feeds of {} students not deleted from Redis: {}", studentIds.size(), e.getMessage());
+        }
+    }
+
+    private void publish(String message) {
+        if (!redisEnabled) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(CHANNEL, message);
+        } catch (RuntimeException e) {
+            log.warn("Feed invalidation not broadcast: {}", e.getMessage());
+        }
+    }
+
+    private static String key(long generation, Feed feed, String studentId) {
+        return "homework:feed:g" + generation + ":" + feed.name().toLowerCase() + ":" + studentId;
+    }
+}
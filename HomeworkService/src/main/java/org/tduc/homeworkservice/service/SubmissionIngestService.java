@@ -0,0 +1,308 @@
+package org.tduc.homeworkservice.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.tduc.homeworkservice.event.SubmissionSubmittedEvent;
+import org.tduc.homeworkservice.exception.AppException;
+import org.tduc.homeworkservice.exception.ErrorCode;
+import org.tduc.homeworkservice.model.Submission;
+import org.tduc.homeworkservice.repository.SubmissionRepository;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes new submissions and hands out their attempt numbers.
+ * <p>
+ * Attempt numbers come from submission_attempt_counter. The row for (homework, student) is upserted
+ * first and its lock is held to commit. Concurrent submits by one student therefore queue on that row
+ * instead of both reading "2 earlier attempts". Every upsert also raises the counter to the highest
+ * attempt already in the submission table, so rows written without the counter cannot make it hand
+ * out a taken number twice. The unique key on (homework_id, student_id, attempt_number) backs this up;
+ * a single submission that still hits it is retried once.
+ * <p>
+ * With app.submissions.batch-writes.enabled, request threads put submissions on a bounded queue. One
+ * writer thread commits them in groups of up to max-batch-size: one counter upsert per student, then
+ * the inserts as a single JDBC batch. If a group fails, each submission in it is retried on its own.
+ * When the queue is full the request writes directly. A submission is only reported saved after its
+ * transaction committed.
+ */
+@Service
+@Slf4j
+public class SubmissionIngestService {
+
+    private static final String RESERVE_SQL = "INSERT INTO submission_attempt_counter (homework_id, student_id, attempts) "
+            + "SELECT ?, ?, COALESCE(MAX(s.attempt_number), 0) + ? FROM submission s WHERE s.homework_id = ? AND s.student_id = ? "
+            + "ON DUPLICATE KEY UPDATE attempts = GREATEST(attempts, (SELECT COALESCE(MAX(m.attempt_number), 0) "
+            + "FROM submission m WHERE m.homework_id = ? AND m.student_id = ?)) + ?";
+    private static final String RELEASE_SQL =
+            "UPDATE submission_attempt_counter SET attempts = attempts - ? WHERE homework_id = ? AND student_id = ?";
+
+    private final SubmissionRepository submissionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final HomeworkStatsService homeworkStatsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.submissions.batch-writes.enabled:false}")
+    private boolean batchEnabled;
+
+    @Value("${app.submissions.batch-writes.max-batch-size:200}")
+    private int maxBatchSize = 200;
+
+    @Value("${app.submissions.batch-writes.max-wait-ms:5}")
+    private long maxWaitMillis = 5;
+
+    @Value("${app.submissions.batch-writes.queue-capacity:10000}")
+    private int queueCapacity = 10000;
+
+    private BlockingQueue<Pending> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    public SubmissionIngestService(SubmissionRepository submissionRepository, JdbcTemplate jdbcTemplate,
+                                   HomeworkStatsService homeworkStatsService, ApplicationEventPublisher eventPublisher,
+                                   PlatformTransactionManager transactionManager) {
+        this.submissionRepository = submissionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.homeworkStatsService = homeworkStatsService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    private static final class Pending {
+        final Submission submission;
+        final SubmissionRules rules;
+        final CompletableFuture<Submission> result = new CompletableFuture<>();
+        // Outcome of the latest attempt; turned into the result once its transaction commits
+        Submission saved;
+        ErrorCode rejected;
+
+        Pending(Submission submission, SubmissionRules rules) {
+            this.submission = submission;
+            this.rules = rules;
+        }
+    }
+
+    private record AttemptKey(String homeworkId, String studentId) implements Comparable<AttemptKey> {
+        @Override
+        public int compareTo(AttemptKey other) {
+            int byHomework = homeworkId.compareTo(other.homeworkId);
+            return byHomework != 0 ? byHomework : studentId.compareTo(other.studentId);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (!batchEnabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::runWriter, "SubmissionWriter");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            // The writer drains what is already queued before it exits
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    /**
+     * Assign the next attempt number and persist the submission, throwing RESUBMISSION_NOT_ALLOWED or
+     * MAX_ATTEMPTS_EXCEEDED when the student may not submit again. The submission must be otherwise complete.
+     */
+    public Submission ingest(Submission submission, SubmissionRules rules) {
+        Pending pending = new Pending(submission, rules);
+        if (!running || !queue.offer(pending)) {
+            write(List.of(pending));
+        }
+        try {
+            return pending.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void runWriter() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException | Error e) {
+                log.error("Submission writer failed on a batch of {}: {}", batch.size(), e.getMessage(), e);
+                batch.forEach(p -> p.result.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+        log.info("Submission writer stopped");
+    }
+
+    private void write(List<Pending> batch) {
+        write(batch, true);
+    }
+
+    private void write(List<Pending> batch, boolean retryDuplicate) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(batch));
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                // One bad row must not fail the others
+                log.warn("Submission batch of {} failed, writing one by one: {}", batch.size(), e.getMessage());
+                batch.forEach(p -> write(List.of(p)));
+            } else if (retryDuplicate && isDuplicateKey(e)) {
+                // Another writer took the number between our reservation and insert; the next reservation skips it
+                log.warn("Attempt number for homework {} student {} already taken, retrying: {}",
+                        batch.get(0).submission.getHomeworkId(), batch.get(0).submission.getStudentId(), e.getMessage());
+                write(batch, false);
+            } else {
+                batch.get(0).result.completeExceptionally(e);
+            }
+            return;
+        }
+        for (Pending p : batch) {
+            if (p.rejected != null) {
+                p.result.completeExceptionally(new AppException(p.rejected));
+            } else {
+                p.result.complete(p.saved);
+            }
+        }
+    }
+
+    private void insert(List<Pending> batch) {
+        // Sorted, so concurrent writers take the counter row locks in the same order
+        Map<AttemptKey, List<Pending>> byStudent = new TreeMap<>();
+        for (Pending p : batch) {
+            p.saved = null;
+            p.rejected = null;
+            // A retried submission must be persisted as new again
+            p.submission.setId(null);
+            byStudent.computeIfAbsent(new AttemptKey(p.submission.getHomeworkId(), p.submission.getStudentId()),
+                    key -> new ArrayList<>()).add(p);
+        }
+        List<Map.Entry<AttemptKey, List<Pending>>> students = new ArrayList<>(byStudent.entrySet());
+        jdbcTemplate.batchUpdate(RESERVE_SQL, students, students.size(), (ps, entry) -> {
+            AttemptKey key = entry.getKey();
+            int reserved = entry.getValue().size();
+            ps.setString(1, key.homeworkId());
+            ps.setString(2, key.studentId());
+            ps.setInt(3, reserved);
+            ps.setString(4, key.homeworkId());
+            ps.setString(5, key.studentId());
+            ps.setString(6, key.homeworkId());
+            ps.setString(7, key.studentId());
+            ps.setInt(8, reserved);
+        });
+        Map<AttemptKey, Integer> counters = readCounters(byStudent.keySet());
+
+        List<Object[]> releases = new ArrayList<>();
+        List<Pending> accepted = new ArrayList<>(batch.size());
+        for (Map.Entry<AttemptKey, List<Pending>> entry : students) {
+            List<Pending> pending = entry.getValue();
+            int previous = counters.get(entry.getKey()) - pending.size();
+            int taken = 0;
+            for (Pending p : pending) {
+                int attempt = previous + taken + 1;
+                p.rejected = p.rules.rejects(attempt);
+                if (p.rejected == null) {
+                    p.submission.setAttemptNumber(attempt);
+                    accepted.add(p);
+                    taken++;
+                }
+            }
+            if (taken < pending.size()) {
+                releases.add(new Object[]{pending.size() - taken, entry.getKey().homeworkId(), entry.getKey().studentId()});
+            }
+        }
+        if (!releases.isEmpty()) {
+            jdbcTemplate.batchUpdate(RELEASE_SQL, releases);
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        // New entities with app-generated UUIDs: the inserts go out as one JDBC batch at flush
+        List<Submission> saved = submissionRepository.saveAll(accepted.stream().map(p -> p.submission).toList());
+        for (int i = 0; i < accepted.size(); i++) {
+            Pending p = accepted.get(i);
+            p.saved = saved.get(i);
+            homeworkStatsService.recordChange(p.saved.getHomeworkId(), null, p.saved);
+            if (p.rules.plagiarismCheck() || p.rules.autoGrade()) {
+                // The auto-grade job is queued in this transaction; the plagiarism check runs after commit
+                eventPublisher.publishEvent(new SubmissionSubmittedEvent(p.saved.getId(), p.saved.getHomeworkId(),
+                        p.rules.plagiarismCheck(), p.rules.autoGrade()));
+            }
+        }
+    }
+
+    // Raised at commit from the flush, so it may arrive wrapped rather than translated
+    private static boolean isDuplicateKey(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof DuplicateKeyException || t instanceof SQLIntegrityConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Map<AttemptKey, Integer> readCounters(Set<AttemptKey> keys) {
+        List<Object> args = new ArrayList<>(keys.size() * 2);
+        for (AttemptKey key : keys) {
+            args.add(key.homeworkId());
+            args.add(key.studentId());
+        }
+        Map<AttemptKey, Integer> counters = new HashMap<>();
+        jdbcTemplate.query("SELECT homework_id, student_id, attempts FROM submission_attempt_counter WHERE (homework_id, student_id) IN ("
+                        + String.join(", ", Collections.nCopies(keys.size(), "(?, ?)")) + ")",
+                (RowCallbackHandler) rs -> {
+                    counters.put(new AttemptKey(rs.getString("homework_id"), rs.getString("student_id")), rs.getInt("attempts"));
+                }, args.toArray());
+        return counters;
+    }
+}
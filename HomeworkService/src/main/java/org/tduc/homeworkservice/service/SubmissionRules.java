@@ -0,0 +1,41 @@
+package org.tduc.homeworkservice.service;
+
+import org.tduc.homeworkservice.exception.ErrorCode;
+import org.tduc.homeworkservice.model.Homework;
+import org.tduc.homeworkservice.model.HomeworkStatus;
+import org.tduc.homeworkservice.model.LatePenaltyPolicy;
+import org.tduc.homeworkservice.plagiarism.PlagiarismService;
+
+import java.time.LocalDateTime;
+
+/**
+ * The part of a homework a new submission is validated and scored against, with the late-penalty
+ * policy already compiled. Immutable, so one instance is shared by every request in the cache window.
+ */
+public record SubmissionRules(String homeworkId, HomeworkStatus status, LocalDateTime dueDate,
+                              LocalDateTime submissionWindowStart, LocalDateTime submissionWindowEnd,
+                              boolean allowLateSubmissions, boolean resubmissionAllowed, Integer maxAttempts,
+                              LatePenaltyPolicy latePenaltyPolicy, boolean plagiarismCheck, boolean autoGrade) {
+
+    public static SubmissionRules of(Homework homework) {
+        return new SubmissionRules(homework.getId(), homework.getStatus(), homework.getDueDate(),
+                homework.getSubmissionWindowStart(), homework.getSubmissionWindowEnd(),
+                Boolean.TRUE.equals(homework.getAllowLateSubmissions()),
+                Boolean.TRUE.equals(homework.getResubmissionAllowed()), homework.getMaxAttempts(),
+                homework.getLatePenaltyPolicy(), PlagiarismService.handles(homework),
+                Boolean.TRUE.equals(homework.getAutoGrade()));
+    }
+
+    /**
+     * Why attempt number {@code attempt} may not be created, or null when it may.
+     */
+    public ErrorCode rejects(int attempt) {
+        if (attempt > 1 && !resubmissionAllowed) {
+            return ErrorCode.RESUBMISSION_NOT_ALLOWED;
+        }
+        if (maxAttempts != null && attempt > maxAttempts) {
+            return ErrorCode.MAX_ATTEMPTS_EXCEEDED;
+        }
+        return null;
+    }
+}
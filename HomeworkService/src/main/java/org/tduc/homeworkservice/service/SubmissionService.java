@@ -2,25 +2,43 @@ package org.tduc.homeworkservice.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.tduc.homeworkservice.analytics.GradeDistributionService;
 import org.tduc.homeworkservice.dto.request.SubmissionCreationRequest;
+import org.tduc.homeworkservice.dto.request.BulkGradingRequest;
 import org.tduc.homeworkservice.dto.request.GradingRequest;
+import org.tduc.homeworkservice.dto.request.PeerReviewRequest;
+import org.tduc.homeworkservice.dto.response.BulkJobResponse;
+import org.tduc.homeworkservice.dto.response.CursorPage;
+import org.tduc.homeworkservice.dto.response.GradeDistributionResponse;
+import org.tduc.homeworkservice.dto.response.LatePenaltyRecomputeResponse;
+import org.tduc.homeworkservice.dto.response.PeerReviewAssignmentResponse;
+import org.tduc.homeworkservice.dto.response.PeerReviewSummaryResponse;
+import org.tduc.homeworkservice.dto.response.PeerReviewTaskResponse;
 import org.tduc.homeworkservice.dto.response.SubmissionResponse;
 import org.tduc.homeworkservice.exception.AppException;
 import org.tduc.homeworkservice.exception.ErrorCode;
 import org.tduc.homeworkservice.mapper.SubmissionMapper;
+import org.tduc.homeworkservice.peerreview.PeerReviewService;
 import org.tduc.homeworkservice.model.*;
+import org.tduc.homeworkservice.plagiarism.PlagiarismService;
 import org.tduc.homeworkservice.repository.HomeworkRepository;
 import org.tduc.homeworkservice.repository.SubmissionRepository;
 import org.tduc.homeworkservice.repository.SubmissionFileRepository;
 import org.tduc.homeworkservice.repository.SubmissionCommentRepository;
+import org.tduc.homeworkservice.repository.projection.SubmissionStatsView;
+import org.tduc.homeworkservice.util.SubmissionCursor;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -37,68 +55,65 @@ public class SubmissionService {
     private final SubmissionFileRepository submissionFileRepository;
     private final SubmissionCommentRepository submissionCommentRepository;
     private final SubmissionMapper submissionMapper;
+    private final HomeworkStatsService homeworkStatsService;
+    private final BulkJobService bulkJobService;
+    private final LatePenaltyService latePenaltyService;
+    private final PlagiarismService plagiarismService;
+    private final HomeworkRulesCache homeworkRulesCache;
+    private final SubmissionIngestService submissionIngestService;
+    private final PeerReviewService peerReviewService;
+    private final GradeDistributionService gradeDistributionService;
+
+    @Value("${app.submissions.max-cursor-page-size:100}")
+    private int maxCursorPageSize = 100;
 
     /**
-     * Create a new submission for homework
+     * Create a new submission for homework.
+     * Runs without an outer transaction: the write, and with batch writes the wait for it, must not
+     * hold a pooled connection while a deadline burst queues up.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public SubmissionResponse createSubmission(SubmissionCreationRequest request) {
         log.info("Creating submission for homework: {} by student: {}", request.getHomeworkId(), request.getStudentId());
         
-        // Validate homework exists and is published
-        Homework homework = homeworkRepository.findById(request.getHomeworkId())
-            .orElseThrow(() -> new AppException(ErrorCode.HOMEWORK_NOT_FOUND));
+        // Validate homework exists and is published (cached briefly, every student hits the same homework at a deadline)
+        SubmissionRules rules = homeworkRulesCache.get(request.getHomeworkId());
         
-        if (homework.getStatus() != HomeworkStatus.PUBLISHED) {
+        if (rules.status() != HomeworkStatus.PUBLISHED) {
             throw new AppException(ErrorCode.HOMEWORK_NOT_PUBLISHED);
         }
         
         // Check submission window
         LocalDateTime now = LocalDateTime.now();
-        if (homework.getSubmissionWindowStart() != null && now.isBefore(homework.getSubmissionWindowStart())) {
+        if (rules.submissionWindowStart() != null && now.isBefore(rules.submissionWindowStart())) {
             throw new AppException(ErrorCode.SUBMISSION_WINDOW_NOT_OPEN);
         }
-        if (homework.getSubmissionWindowEnd() != null && now.isAfter(homework.getSubmissionWindowEnd())) {
+        if (rules.submissionWindowEnd() != null && now.isAfter(rules.submissionWindowEnd())) {
             throw new AppException(ErrorCode.SUBMISSION_WINDOW_CLOSED);
         }
         
         // Check if submission is before due date
-        boolean isLate = now.isAfter(homework.getDueDate());
+        boolean isLate = now.isAfter(rules.dueDate());
         
-        if (isLate && !homework.getAllowLateSubmissions()) {
+        if (isLate && !rules.allowLateSubmissions()) {
             throw new AppException(ErrorCode.LATE_SUBMISSION_NOT_ALLOWED);
         }
-        
-        // Check for existing submissions and resubmission policy
-        List<Submission> existingSubmissions = submissionRepository.findByHomeworkIdAndStudentIdOrderBySubmittedAtDesc(
-            request.getHomeworkId(), request.getStudentId());
-        
-        if (!existingSubmissions.isEmpty()) {
-            if (!homework.getResubmissionAllowed()) {
-                throw new AppException(ErrorCode.RESUBMISSION_NOT_ALLOWED);
-            }
-            
-            // Check max attempts
-            if (existingSubmissions.size() >= homework.getMaxAttempts()) {
-                throw new AppException(ErrorCode.MAX_ATTEMPTS_EXCEEDED);
-            }
-        }
 
         Submission submission = submissionMapper.toSubmission(request);
         submission.setSubmittedAt(now);
         submission.setIsLate(isLate);
         submission.setStatus(SubmissionStatus.SUBMITTED);
-        submission.setAttemptNumber(existingSubmissions.size() + 1);
-        
-        // Apply late penalty if applicable
-        if (isLate && homework.getLatePenaltyConfig().getEnabled()) {
-            submission.setLatePenaltyApplied(homework.getLatePenaltyConfig().getPercentagePerDay());
-            // Penalty calculation logic is implemented in applyLatePenalty method
-        } else {
-            submission.setLatePenaltyApplied(null);
-        }
         
-        Submission savedSubmission = submissionRepository.save(submission);
-        log.info("Created submission with ID: {}", savedSubmission.getId());
+        // Record how late it is and the share the homework's policy will deduct at grading time
+        int minutesLate = LatePenaltyPolicy.minutesLate(rules.dueDate(), now);
+        submission.setMinutesLate(isLate ? minutesLate : null);
+        submission.setLatePenaltyApplied(isLate
+            ? LatePenaltyPolicy.toPercent(rules.latePenaltyPolicy().penaltyMicros(minutesLate))
+            : null);
+        
+        // Attempt number, resubmission and max-attempt checks are settled atomically on write
+        Submission savedSubmission = submissionIngestService.ingest(submission, rules);
+        log.info("Created submission with ID: {} (attempt {})", savedSubmission.getId(), savedSubmission.getAttemptNumber());
         
         return submissionMapper.toSubmissionResponse(savedSubmission);
     }
@@ -115,37 +130,11 @@ public class SubmissionService {
         Homework homework = homeworkRepository.findById(submission.getHomeworkId())
             .orElseThrow(() -> new AppException(ErrorCode.HOMEWORK_NOT_FOUND));
         
-        // Validate score range
-        if (request.getScore().compareTo(BigDecimal.ZERO) < 0 || 
-            request.getScore().compareTo(homework.getMaxScore()) > 0) {
-            throw new AppException(ErrorCode.INVALID_SCORE);
-        }
-        
-        // Apply late penalty if applicable
-        BigDecimal finalScore = request.getScore();
-        if (submission.getIsLate() && submission.getLatePenaltyApplied() != null) {
-            // Apply late penalty using the stored penalty rate
-            finalScore = applyLatePenalty(finalScore, submission.getSubmittedAt(), homework.getDueDate());
-        }
-        
-        submission.setScore(finalScore);
-        submission.setOriginalScore(request.getScore());
-        submission.setFeedback(request.getFeedback());
-        submission.setGradedBy(request.getGradedBy());
-        submission.setGradedAt(LocalDateTime.now());
-        submission.setStatus(SubmissionStatus.GRADED);
-        
-        // Store rubric scores if provided
-        if (request.getRubricScores() != null) {
-            submission.setRubricScores(request.getRubricScores());
-        }
-        
-        // Store private notes if provided
-        if (request.getPrivateNotes() != null) {
-            submission.setPrivateNotes(request.getPrivateNotes());
-        }
+        HomeworkStatsService.Snapshot before = HomeworkStatsService.Snapshot.of(submission);
+        BigDecimal finalScore = applyGrade(submission, homework, request);
         
         Submission savedSubmission = submissionRepository.save(submission);
+        homeworkStatsService.recordChange(savedSubmission.getHomeworkId(), before, savedSubmission);
         log.info("Graded submission with ID: {} - Final Score: {}", savedSubmission.getId(), finalScore);
         
         return submissionMapper.toSubmissionResponse(savedSubmission);
@@ -170,7 +159,8 @@ public class SubmissionService {
     @Transactional(readOnly = true)
     public Page<SubmissionResponse> getSubmissionsByHomework(String homeworkId, int page, int size) {
         log.info("Getting submissions for homework: {}, page: {}, size: {}", homeworkId, page, size);
-        Pageable pageable = PageRequest.of(page, size, Sort.by("submittedAt").descending());
+        // id breaks submittedAt ties so rows do not shift between pages
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Order.desc("submittedAt"), Sort.Order.desc("id")));
         Page<Submission> submissions = submissionRepository.findByHomeworkIdOrderBySubmittedAtDesc(homeworkId, pageable);
         // Nếu không có submission nào thì trả về trang rỗng, không throw exception
         if (submissions == null || submissions.isEmpty()) {
@@ -186,12 +176,62 @@ public class SubmissionService {
     public Page<SubmissionResponse> getSubmissionsByStudent(String studentId, int page, int size) {
         log.info("Getting submissions for student: {}, page: {}, size: {}", studentId, page, size);
         
-        Pageable pageable = PageRequest.of(page, size, Sort.by("submittedAt").descending());
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Order.desc("submittedAt"), Sort.Order.desc("id")));
         Page<Submission> submissions = submissionRepository.findByStudentIdOrderBySubmittedAtDesc(studentId, pageable);
         
         return submissions.map(submissionMapper::toSubmissionResponse);
     }
 
+    /**
+     * Keyset page of a homework's submissions, newest first; no offset scan and no count unless asked
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<SubmissionResponse> getSubmissionsByHomeworkAfter(String homeworkId, String cursor, int size, boolean includeTotal) {
+        log.info("Getting submissions for homework: {} after cursor, size: {}", homeworkId, size);
+        SubmissionCursor after = SubmissionCursor.decode(cursor);
+        Limit limit = Limit.of(checkPageSize(size) + 1);
+        List<Submission> rows = after == null
+            ? submissionRepository.findFirstPageByHomework(homeworkId, limit)
+            : submissionRepository.findPageByHomeworkAfter(homeworkId, after.submittedAt(), after.id(), limit);
+        Long total = includeTotal ? submissionRepository.countByHomeworkIdAndSubmittedAtIsNotNull(homeworkId) : null;
+        return toCursorPage(rows, size, total);
+    }
+
+    /**
+     * Keyset page of a student's submissions, newest first
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<SubmissionResponse> getSubmissionsByStudentAfter(String studentId, String cursor, int size, boolean includeTotal) {
+        log.info("Getting submissions for student: {} after cursor, size: {}", studentId, size);
+        SubmissionCursor after = SubmissionCursor.decode(cursor);
+        Limit limit = Limit.of(checkPageSize(size) + 1);
+        List<Submission> rows = after == null
+            ? submissionRepository.findFirstPageByStudent(studentId, limit)
+            : submissionRepository.findPageByStudentAfter(studentId, after.submittedAt(), after.id(), limit);
+        Long total = includeTotal ? submissionRepository.countByStudentIdAndSubmittedAtIsNotNull(studentId) : null;
+        return toCursorPage(rows, size, total);
+    }
+
+    private int checkPageSize(int size) {
+        if (size <= 0 || size > maxCursorPageSize) {
+            throw new AppException(ErrorCode.INVALID_PAGE_PARAMETERS);
+        }
+        return size;
+    }
+
+    // Rows were fetched with one extra to learn whether another page exists
+    private CursorPage<SubmissionResponse> toCursorPage(List<Submission> rows, int size, Long total) {
+        boolean hasNext = rows.size() > size;
+        List<Submission> content = hasNext ? rows.subList(0, size) : rows;
+        return CursorPage.<SubmissionResponse>builder()
+            .content(content.stream().map(submissionMapper::toSubmissionResponse).collect(Collectors.toList()))
+            .size(content.size())
+            .hasNext(hasNext)
+            .nextCursor(hasNext ? SubmissionCursor.after(content.get(content.size() - 1)).encode() : null)
+            .total(total)
+            .build();
+    }
+
     /**
      * Get pending submissions for grading
      */
@@ -224,25 +264,15 @@ public class SubmissionService {
     public SubmissionStatsResponse getSubmissionStats(String homeworkId) {
         log.info("Getting submission statistics for homework: {}", homeworkId);
         
-        long totalSubmissions = submissionRepository.countByHomeworkId(homeworkId);
-        long gradedSubmissions = submissionRepository.countByHomeworkIdAndStatus(homeworkId, SubmissionStatus.GRADED);
-        long pendingSubmissions = submissionRepository.countByHomeworkIdAndStatus(homeworkId, SubmissionStatus.SUBMITTED);
-        long lateSubmissions = submissionRepository.countByHomeworkIdAndIsLate(homeworkId, true);
-        
-        // Calculate average score for graded submissions
-        List<Submission> gradedSubmissionsList = submissionRepository.findByHomeworkIdAndStatus(homeworkId, SubmissionStatus.GRADED);
-        BigDecimal averageScore = gradedSubmissionsList.stream()
-            .filter(s -> s.getScore() != null)
-            .map(Submission::getScore)
-            .reduce(BigDecimal.ZERO, BigDecimal::add)
-            .divide(BigDecimal.valueOf(Math.max(gradedSubmissionsList.size(), 1)), 2, BigDecimal.ROUND_HALF_UP);
+        // One grouped aggregate (or the counter row); the average divides by graded rows that have a score
+        SubmissionStatsView stats = homeworkStatsService.statsFor(homeworkId);
         
         return SubmissionStatsResponse.builder()
-            .totalSubmissions(totalSubmissions)
-            .gradedSubmissions(gradedSubmissions)
-            .pendingSubmissions(pendingSubmissions)
-            .lateSubmissions(lateSubmissions)
-            .averageScore(averageScore)
+            .totalSubmissions(stats.total())
+            .gradedSubmissions(stats.graded())
+            .pendingSubmissions(stats.pending())
+            .lateSubmissions(stats.late())
+            .averageScore(stats.averageScore())
             .build();
     }
 
@@ -260,6 +290,7 @@ public class SubmissionService {
         submissionCommentRepository.deleteBySubmissionId(id);
         
         submissionRepository.delete(submission);
+        homeworkStatsService.recordChange(submission.getHomeworkId(), HomeworkStatsService.Snapshot.of(submission), null);
         log.info("Deleted submission with ID: {}", id);
     }
 
@@ -272,70 +303,174 @@ public class SubmissionService {
         Submission submission = submissionRepository.findById(submissionId)
             .orElseThrow(() -> new AppException(ErrorCode.SUBMISSION_NOT_FOUND));
         
+        HomeworkStatsService.Snapshot before = HomeworkStatsService.Snapshot.of(submission);
         submission.setStatus(status);
         submission.setUpdatedAt(LocalDateTime.now());
         
         Submission savedSubmission = submissionRepository.save(submission);
+        homeworkStatsService.recordChange(savedSubmission.getHomeworkId(), before, savedSubmission);
         
         return submissionMapper.toSubmissionResponse(savedSubmission);
     }
 
     /**
-     * Bulk grade submissions
+     * Queue a bulk grading job; poll its progress with the returned job id
      */
-    public List<SubmissionResponse> bulkGradeSubmissions(List<String> submissionIds, GradingRequest gradingTemplate) {
-        log.info("Bulk grading {} submissions", submissionIds.size());
-        
-        List<Submission> submissions = submissionRepository.findAllById(submissionIds);
-        
-        submissions.forEach(submission -> {
-            Homework homework = homeworkRepository.findById(submission.getHomeworkId())
-                .orElseThrow(() -> new AppException(ErrorCode.HOMEWORK_NOT_FOUND));
-            
-            // Apply the same grading template to all submissions
-            BigDecimal finalScore = gradingTemplate.getScore();
-            if (submission.getIsLate() && submission.getLatePenaltyApplied() != null) {
-                finalScore = applyLatePenalty(finalScore, submission.getSubmittedAt(), homework.getDueDate());
-            }
-            
-            submission.setScore(finalScore);
-            submission.setOriginalScore(gradingTemplate.getScore());
-            submission.setFeedback(gradingTemplate.getFeedback());
-            submission.setGradedBy(gradingTemplate.getGradedBy());
-            submission.setGradedAt(LocalDateTime.now());
-            submission.setStatus(SubmissionStatus.GRADED);
-        });
-        
-        List<Submission> savedSubmissions = submissionRepository.saveAll(submissions);
-        
-        return savedSubmissions.stream()
-            .map(submissionMapper::toSubmissionResponse)
-            .collect(Collectors.toList());
+    public BulkJobResponse bulkGradeSubmissions(BulkGradingRequest request) {
+        log.info("Queueing bulk grading of {} submissions", request.getSubmissionIds().size());
+        return bulkJobService.submitGrading(request.getSubmissionIds(), request.getTemplate());
+    }
+
+    /**
+     * Re-score all late submissions of a homework with its current late-penalty policy.
+     * Runs without an outer transaction; each chunk commits on its own.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public LatePenaltyRecomputeResponse recomputeLatePenalties(String homeworkId) {
+        log.info("Recomputing late penalties for homework: {}", homeworkId);
+        return latePenaltyService.recompute(homeworkId);
+    }
+
+    /**
+     * Queue a re-run of near-duplicate detection over all submissions of a homework; poll its progress
+     * with the returned job id. The job runs without an outer transaction; results are written in one
+     * transaction at the end.
+     */
+    public BulkJobResponse recheckPlagiarism(String homeworkId) {
+        log.info("Queueing plagiarism recheck for homework: {}", homeworkId);
+        if (!homeworkRepository.existsById(homeworkId)) {
+            throw new AppException(ErrorCode.HOMEWORK_NOT_FOUND);
+        }
+        return bulkJobService.submitTask(BulkJobService.TYPE_PLAGIARISM_RECHECK, homeworkId,
+            plagiarismService::recheckHomework);
+    }
+
+    /**
+     * Assign peer reviewers for a homework now instead of waiting for submissions to close.
+     * Runs without an outer transaction; assignments are written in one transaction.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PeerReviewAssignmentResponse assignPeerReviews(String homeworkId) {
+        log.info("Assigning peer reviews for homework: {}", homeworkId);
+        return peerReviewService.assign(homeworkId);
+    }
+
+    /**
+     * Record a peer review of a submission
+     */
+    public PeerReviewSummaryResponse submitPeerReview(String submissionId, PeerReviewRequest request) {
+        log.info("Peer review of submission: {} by reviewer: {}", submissionId, request.getReviewerId());
+        return peerReviewService.submitReview(submissionId, request);
+    }
+
+    /**
+     * Peer review totals of a submission
+     */
+    @Transactional(readOnly = true)
+    public PeerReviewSummaryResponse getPeerReviewSummary(String submissionId) {
+        return peerReviewService.getSummary(submissionId);
+    }
+
+    /**
+     * Submissions a student has to review for a homework
+     */
+    @Transactional(readOnly = true)
+    public List<PeerReviewTaskResponse> getPeerReviewTasks(String homeworkId, String reviewerId) {
+        return peerReviewService.getTasks(homeworkId, reviewerId);
+    }
+
+    /**
+     * Mean, percentiles and histogram of a homework's grades, as percentages of its max score
+     */
+    @Transactional(readOnly = true)
+    public GradeDistributionResponse getGradeDistribution(String homeworkId, int buckets) {
+        return gradeDistributionService.homeworkDistribution(homeworkId, buckets);
+    }
+
+    /**
+     * Grade distribution over every homework of a course
+     */
+    @Transactional(readOnly = true)
+    public GradeDistributionResponse getCourseGradeDistribution(String courseId, int buckets) {
+        return gradeDistributionService.courseDistribution(courseId, buckets);
     }
 
     /**
-     * Apply late penalty to score
+     * Validate the score against the homework and write the grade onto the submission.
+     * Shared with bulk grading jobs, so it only touches its arguments.
      */
-    private BigDecimal applyLatePenalty(BigDecimal originalScore, LocalDateTime submittedAt, LocalDateTime dueDate) {
-        // Example penalty: 10% per day late
-        long daysLate = java.time.temporal.ChronoUnit.DAYS.between(dueDate.toLocalDate(), submittedAt.toLocalDate());
-        if (daysLate <= 0) {
-            return originalScore;
+    static BigDecimal applyGrade(Submission submission, Homework homework, GradingRequest request) {
+        // Validate score range
+        if (request.getScore() == null || request.getScore().compareTo(BigDecimal.ZERO) < 0 || 
+            request.getScore().compareTo(homework.getMaxScore()) > 0) {
+            throw new AppException(ErrorCode.INVALID_SCORE);
         }
         
-        BigDecimal penaltyPercentage = BigDecimal.valueOf(0.10); // 10% per day
-        BigDecimal totalPenalty = penaltyPercentage.multiply(BigDecimal.valueOf(daysLate));
+        BigDecimal finalScore = rescore(submission, homework, request.getScore(), homework.getLatePenaltyPolicy());
+        if (request.getLetterGrade() != null) {
+            submission.setLetterGrade(request.getLetterGrade());
+        }
+        
+        submission.setOriginalScore(request.getScore());
+        submission.setFeedback(request.getFeedback());
+        submission.setGradedBy(request.getGradedBy());
+        submission.setGradedAt(LocalDateTime.now());
+        submission.setStatus(SubmissionStatus.GRADED);
         
-        // Cap penalty at 50%
-        if (totalPenalty.compareTo(BigDecimal.valueOf(0.50)) > 0) {
-            totalPenalty = BigDecimal.valueOf(0.50);
+        // Store rubric scores if provided
+        if (request.getRubricScores() != null) {
+            submission.setRubricScores(request.getRubricScores());
         }
         
-        BigDecimal penaltyAmount = originalScore.multiply(totalPenalty);
-        BigDecimal finalScore = originalScore.subtract(penaltyAmount);
+        // Store private notes if provided
+        if (request.getPrivateNotes() != null) {
+            submission.setPrivateNotes(request.getPrivateNotes());
+        }
+        return finalScore;
+    }
+
+    /**
+     * Score the submission from its pre-penalty score: deduct the late penalty, then set score,
+     * percentage, derived letter grade, minutes late and the applied penalty.
+     * Also used to re-score graded submissions after the homework's policy changes.
+     */
+    static BigDecimal rescore(Submission submission, Homework homework, BigDecimal originalScore, LatePenaltyPolicy policy) {
+        long penalty = 0;
+        if (Boolean.TRUE.equals(submission.getIsLate())) {
+            int minutesLate = submission.getMinutesLate() != null
+                ? submission.getMinutesLate()
+                : LatePenaltyPolicy.minutesLate(homework.getDueDate(), submission.getSubmittedAt());
+            submission.setMinutesLate(minutesLate);
+            penalty = policy.penaltyMicros(minutesLate);
+        }
+        BigDecimal finalScore = LatePenaltyPolicy.apply(originalScore, penalty);
+        submission.setLatePenaltyApplied(LatePenaltyPolicy.toPercent(penalty));
+        submission.setScore(finalScore);
         
-        // Ensure score doesn't go below 0
-        return finalScore.max(BigDecimal.ZERO);
+        BigDecimal percentage = null;
+        if (finalScore != null && homework.getMaxScore() != null && homework.getMaxScore().signum() > 0) {
+            percentage = finalScore.multiply(BigDecimal.valueOf(100)).divide(homework.getMaxScore(), 2, RoundingMode.HALF_UP);
+        }
+        submission.setPercentage(percentage);
+        submission.setLetterGrade(letterGrade(percentage));
+        return finalScore;
+    }
+
+    static String letterGrade(BigDecimal percentage) {
+        if (percentage == null) {
+            return null;
+        }
+        double value = percentage.doubleValue();
+        if (value >= 90) {
+            return "A";
+        } else if (value >= 80) {
+            return "B";
+        } else if (value >= 70) {
+            return "C";
+        } else if (value >= 60) {
+            return "D";
+        }
+        return "F";
     }
     
     // Inner class for statistics response
@@ -0,0 +1,50 @@
+package org.tduc.homeworkservice.util;
+
+import org.tduc.homeworkservice.exception.AppException;
+import org.tduc.homeworkservice.exception.ErrorCode;
+import org.tduc.homeworkservice.model.Submission;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Position in a (submitted_at DESC, id DESC) listing: the last row of the previous page.
+ * Encoded as an opaque URL-safe token so clients do not depend on its layout.
+ */
+public record SubmissionCursor(LocalDateTime submittedAt, String id) {
+
+    private static final String VERSION = "s1";
+
+    public static SubmissionCursor after(Submission submission) {
+        return new SubmissionCursor(submission.getSubmittedAt(), submission.getId());
+    }
+
+    public String encode() {
+        long micros = submittedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + submittedAt.getNano() / 1_000;
+        String raw = VERSION + "|" + micros + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Null for a blank token (first page); INVALID_CURSOR for anything this class did not produce.
+     */
+    public static SubmissionCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 3);
+            if (parts.length != 3 || !VERSION.equals(parts[0]) || parts[2].isEmpty()) {
+                throw new AppException(ErrorCode.INVALID_CURSOR);
+            }
+            long micros = Long.parseLong(parts[1]);
+            LocalDateTime submittedAt = LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                    (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+            return new SubmissionCursor(submittedAt, parts[2]);
+        } catch (IllegalArgumentException | java.time.DateTimeException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+}
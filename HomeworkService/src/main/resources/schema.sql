@@ -2,9 +2,20 @@
 -- This schema is more closely aligned with our entity classes
 
 -- Drop tables if they exist to recreate
+DROP TABLE IF EXISTS grade_distribution_bin;
+DROP TABLE IF EXISTS grade_distribution;
+DROP TABLE IF EXISTS peer_review_assignment;
+DROP TABLE IF EXISTS submission_attempt_counter;
+DROP TABLE IF EXISTS homework_deadline_fired;
+DROP TABLE IF EXISTS auto_grade_job;
+DROP TABLE IF EXISTS submission_lsh_band;
+DROP TABLE IF EXISTS submission_signature;
 DROP TABLE IF EXISTS submission_comment;
 DROP TABLE IF EXISTS submission_file;
 DROP TABLE IF EXISTS submission;
+DROP TABLE IF EXISTS homework_stats;
+DROP TABLE IF EXISTS homework_search;
+DROP TABLE IF EXISTS homework_assignee;
 DROP TABLE IF EXISTS homework_attachment;
 DROP TABLE IF EXISTS homework;
 
@@ -45,7 +56,49 @@ CREATE TABLE IF NOT EXISTS homework (
     instructions TEXT,
     attachments JSON,
     estimated_duration_minutes INT,
-    tags JSON
+    tags JSON,
+    -- Deadline engine range loads
+    INDEX idx_homework_due_date (due_date),
+    INDEX idx_homework_window_end (submission_window_end),
+    INDEX idx_homework_grade_release (grade_release_date)
+);
+
+-- Homework assignees: one row per assigned student or group ('*' = everyone), replaces LIKE over assigned_to
+CREATE TABLE IF NOT EXISTS homework_assignee (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    homework_id VARCHAR(36) NOT NULL,
+    assignee_id VARCHAR(36) NOT NULL,
+    assignee_type VARCHAR(16) NOT NULL,
+    due_date DATETIME NOT NULL,
+    UNIQUE KEY uk_homework_assignee (homework_id, assignee_type, assignee_id),
+    INDEX idx_homework_assignee_due (assignee_id, due_date),
+    FOREIGN KEY (homework_id) REFERENCES homework(id) ON DELETE CASCADE
+);
+
+-- Search documents: title plus description, instructions and tags, kept in the homework write transaction
+CREATE TABLE IF NOT EXISTS homework_search (
+    homework_id VARCHAR(36) PRIMARY KEY,
+    course_id VARCHAR(36) NOT NULL,
+    title VARCHAR(500) NOT NULL,
+    body MEDIUMTEXT,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_homework_search_course (course_id),
+    FULLTEXT INDEX ft_homework_search_title (title),
+    FULLTEXT INDEX ft_homework_search_all (title, body),
+    FOREIGN KEY (homework_id) REFERENCES homework(id) ON DELETE CASCADE
+);
+
+-- Per-homework submission counters (optional, app.homework-stats.counters-enabled)
+CREATE TABLE IF NOT EXISTS homework_stats (
+    homework_id VARCHAR(36) PRIMARY KEY,
+    total_submissions BIGINT NOT NULL DEFAULT 0,
+    graded_submissions BIGINT NOT NULL DEFAULT 0,
+    pending_submissions BIGINT NOT NULL DEFAULT 0,
+    late_submissions BIGINT NOT NULL DEFAULT 0,
+    scored_submissions BIGINT NOT NULL DEFAULT 0,
+    score_sum DECIMAL(14,2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (homework_id) REFERENCES homework(id) ON DELETE CASCADE
 );
 
 -- Homework attachments table
@@ -91,6 +144,11 @@ CREATE TABLE IF NOT EXISTS submission (
     original_score DECIMAL(10,2),
     rubric_scores JSON,
     private_notes TEXT,
+    -- Keyset listings newest first: (submitted_at, id) within a homework or a student
+    INDEX idx_submission_homework_submitted (homework_id, submitted_at, id),
+    INDEX idx_submission_student_submitted (student_id, submitted_at, id),
+    -- Two concurrent submits can never end up as the same attempt
+    UNIQUE KEY uk_submission_attempt (homework_id, student_id, attempt_number),
     FOREIGN KEY (homework_id) REFERENCES homework(id) ON DELETE CASCADE
 );
 
@@ -116,4 +174,91 @@ CREATE TABLE IF NOT EXISTS submission_comment (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     is_private BOOLEAN DEFAULT FALSE,
     FOREIGN KEY (submission_id) REFERENCES submission(id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+-- MinHash signatures of submission text (in-process plagiarism engine)
+CREATE TABLE IF NOT EXISTS submission_signature (
+    submission_id VARCHAR(36) PRIMARY KEY,
+    homework_id VARCHAR(36) NOT NULL,
+    student_id VARCHAR(36) NOT NULL,
+    signature VARBINARY(1024) NOT NULL,
+    INDEX idx_submission_signature_homework (homework_id),
+    FOREIGN KEY (submission_id) REFERENCES submission(id) ON DELETE CASCADE
+);
+
+-- LSH band keys: submissions sharing a key within a homework are candidate near-duplicates
+CREATE TABLE IF NOT EXISTS submission_lsh_band (
+    homework_id VARCHAR(36) NOT NULL,
+    band_key BIGINT NOT NULL,
+    submission_id VARCHAR(36) NOT NULL,
+    PRIMARY KEY (homework_id, band_key, submission_id),
+    INDEX idx_submission_lsh_band_submission (submission_id),
+    FOREIGN KEY (submission_id) REFERENCES submission(id) ON DELETE CASCADE
+);
+
+-- Auto-grading work queue, one job per submission to autoGrade homework
+CREATE TABLE IF NOT EXISTS auto_grade_job (
+    submission_id VARCHAR(36) PRIMARY KEY,
+    homework_id VARCHAR(36) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(6) NOT NULL,
+    locked_at DATETIME(6),
+    last_error VARCHAR(1000),
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    INDEX idx_auto_grade_job_due (status, next_attempt_at),
+    FOREIGN KEY (submission_id) REFERENCES submission(id) ON DELETE CASCADE
+);
+
+-- Deadlines already acted on; the first replica to insert a row fires it
+CREATE TABLE IF NOT EXISTS homework_deadline_fired (
+    homework_id VARCHAR(36) NOT NULL,
+    kind VARCHAR(32) NOT NULL,
+    deadline DATETIME(6) NOT NULL,
+    lead_minutes INT NOT NULL DEFAULT 0,
+    fired_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (homework_id, kind, deadline, lead_minutes),
+    FOREIGN KEY (homework_id) REFERENCES homework(id) ON DELETE CASCADE
+);
+
+-- Last attempt number handed out per student and homework; its row lock serializes one student's submits
+CREATE TABLE IF NOT EXISTS submission_attempt_counter (
+    homework_id VARCHAR(36) NOT NULL,
+    student_id VARCHAR(36) NOT NULL,
+    attempts INT NOT NULL,
+    PRIMARY KEY (homework_id, student_id),
+    FOREIGN KEY (homework_id) REFERENCES homework(id) ON DELETE CASCADE
+);
+
+-- One row per (reviewed submission, reviewer); score stays NULL until the review arrives
+CREATE TABLE IF NOT EXISTS peer_review_assignment (
+    submission_id VARCHAR(36) NOT NULL,
+    reviewer_id VARCHAR(36) NOT NULL,
+    homework_id VARCHAR(36) NOT NULL,
+    assigned_at DATETIME(6) NOT NULL,
+    score DECIMAL(10,2),
+    feedback TEXT,
+    reviewed_at DATETIME(6),
+    PRIMARY KEY (submission_id, reviewer_id),
+    -- A reviewer's queue within one homework
+    INDEX idx_peer_review_reviewer (homework_id, reviewer_id),
+    FOREIGN KEY (submission_id) REFERENCES submission(id) ON DELETE CASCADE,
+    FOREIGN KEY (homework_id) REFERENCES homework(id) ON DELETE CASCADE
+);
+
+-- Homework whose grade distribution bins are kept current; inserted by the grade change that seeds them
+CREATE TABLE IF NOT EXISTS grade_distribution (
+    homework_id VARCHAR(36) PRIMARY KEY,
+    seeded_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (homework_id) REFERENCES homework(id) ON DELETE CASCADE
+);
+
+-- Graded submissions per homework and percentage bin (tenths of a point, 0-1000); see GradeSketch
+CREATE TABLE IF NOT EXISTS grade_distribution_bin (
+    homework_id VARCHAR(36) NOT NULL,
+    bin SMALLINT NOT NULL,
+    count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (homework_id, bin),
+    FOREIGN KEY (homework_id) REFERENCES homework(id) ON DELETE CASCADE
+);
@@ -0,0 +1,76 @@
+package org.tduc.homeworkservice.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradeSketchTest {
+
+    @Test
+    void binOf_roundsToTenthsAndClamps() {
+        assertThat(GradeSketch.binOf(new BigDecimal("82.45"))).isEqualTo(825);
+        assertThat(GradeSketch.binOf(new BigDecimal("82.44"))).isEqualTo(824);
+        assertThat(GradeSketch.binOf(new BigDecimal("112.00"))).isEqualTo(GradeSketch.MAX_BIN);
+        assertThat(GradeSketch.binOf(BigDecimal.ZERO)).isZero();
+    }
+
+    @Test
+    void quantiles_useNearestRank() {
+        GradeSketch sketch = sketchOf("10", "20", "30", "40", "50", "60", "70", "80", "90", "100");
+
+        assertThat(sketch.count()).isEqualTo(10);
+        assertThat(sketch.min()).isEqualByComparingTo("10");
+        assertThat(sketch.quantile(0.5)).isEqualByComparingTo("50");
+        assertThat(sketch.quantile(0.9)).isEqualByComparingTo("90");
+        assertThat(sketch.max()).isEqualByComparingTo("100");
+        assertThat(sketch.mean()).isEqualByComparingTo("55.00");
+    }
+
+    @Test
+    void merge_equalsSketchOfAllGrades() {
+        GradeSketch merged = sketchOf("12.5", "40", "99.9").merge(sketchOf("40", "73.3"));
+        GradeSketch all = sketchOf("12.5", "40", "99.9", "40", "73.3");
+
+        assertThat(merged.count()).isEqualTo(all.count());
+        assertThat(merged.mean()).isEqualByComparingTo(all.mean());
+        for (double q = 0; q <= 1; q += 0.05) {
+            assertThat(merged.quantile(q)).isEqualByComparingTo(all.quantile(q));
+        }
+    }
+
+    @Test
+    void add_negativeCount_takesARegradedGradeBackOut() {
+        GradeSketch sketch = sketchOf("50", "60");
+        sketch.add(GradeSketch.binOf(new BigDecimal("50")), -1);
+        sketch.add(GradeSketch.binOf(new BigDecimal("95")), 1);
+
+        assertThat(sketch.min()).isEqualByComparingTo("60");
+        assertThat(sketch.max()).isEqualByComparingTo("95");
+    }
+
+    @Test
+    void histogram_putsHundredInLastBucket() {
+        long[] histogram = sketchOf("0", "9.9", "10", "55", "100").histogram(10);
+
+        assertThat(histogram).containsExactly(2, 1, 0, 0, 0, 1, 0, 0, 0, 1);
+    }
+
+    @Test
+    void emptySketch_hasNoStatistics() {
+        GradeSketch sketch = new GradeSketch();
+
+        assertThat(sketch.mean()).isNull();
+        assertThat(sketch.quantile(0.5)).isNull();
+        assertThat(sketch.histogram(4)).containsOnly(0);
+    }
+
+    private static GradeSketch sketchOf(String... percentages) {
+        GradeSketch sketch = new GradeSketch();
+        for (String percentage : percentages) {
+            sketch.add(GradeSketch.binOf(new BigDecimal(percentage)), 1);
+        }
+        return sketch;
+    }
+}
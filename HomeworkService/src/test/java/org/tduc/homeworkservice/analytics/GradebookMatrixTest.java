@@ -0,0 +1,89 @@
+package org.tduc.homeworkservice.analytics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.tduc.homeworkservice.dto.response.GradebookMatrixResponse;
+import org.tduc.homeworkservice.exception.AppException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GradebookMatrixTest {
+
+    @Test
+    void put_latest_keepsHighestAttemptWhateverTheOrder() {
+        GradebookMatrix matrix = new GradebookMatrix(2, GradebookMatrix.Attempt.LATEST);
+        matrix.put("alice", 0, 2, 6f);
+        matrix.put("alice", 0, 1, 9f);
+        matrix.put("alice", 0, 3, 7f);
+
+        assertThat(matrix.score(0, 0)).isEqualTo(7f);
+        assertThat(matrix.score(0, 1)).isNaN();
+    }
+
+    @Test
+    void put_best_keepsHighestScore() {
+        GradebookMatrix matrix = new GradebookMatrix(1, GradebookMatrix.Attempt.BEST);
+        matrix.put("alice", 0, 1, 9f);
+        matrix.put("alice", 0, 2, 6f);
+
+        assertThat(matrix.score(0, 0)).isEqualTo(9f);
+    }
+
+    @Test
+    void put_manyStudents_growsMatrixAndKeepsCells() {
+        GradebookMatrix matrix = new GradebookMatrix(3, GradebookMatrix.Attempt.LATEST);
+        for (int student = 0; student < 1000; student++) {
+            matrix.put("s" + student, student % 3, 1, student);
+        }
+
+        assertThat(matrix.rows()).isEqualTo(1000);
+        assertThat(matrix.score(999, 0)).isEqualTo(999f);
+        assertThat(matrix.score(999, 1)).isNaN();
+    }
+
+    @Test
+    void totalsAndFinalGrades_countMissingAsZero() {
+        GradebookMatrix matrix = new GradebookMatrix(2, GradebookMatrix.Attempt.LATEST);
+        matrix.put("alice", 0, 1, 8f);
+        matrix.put("alice", 1, 1, 15f);
+        matrix.put("bob", 1, 1, 20f);
+        float[] maxScores = {10f, 20f};
+
+        assertThat(matrix.rowTotals()).containsExactly(23f, 20f);
+        // Same percentages as the CSV export: 23/30 and 20/30
+        assertThat(matrix.finalGrades(maxScores, GradebookMatrix.Weighting.POINTS)).containsExactly(76.67f, 66.67f);
+        // (80% + 75%) / 2 and (0% + 100%) / 2
+        assertThat(matrix.finalGrades(maxScores, GradebookMatrix.Weighting.EQUAL)).containsExactly(77.5f, 50f);
+    }
+
+    @Test
+    void sortedRows_ordersByStudentId() {
+        GradebookMatrix matrix = new GradebookMatrix(1, GradebookMatrix.Attempt.LATEST);
+        matrix.put("carol", 0, 1, 1f);
+        matrix.put("alice", 0, 1, 2f);
+        matrix.put("bob", 0, 1, 3f);
+
+        assertThat(matrix.sortedRows()).containsExactly(1, 2, 0);
+    }
+
+    @Test
+    void parse_unknownValue_throws() {
+        assertThat(GradebookMatrix.Attempt.parse(" best ")).isEqualTo(GradebookMatrix.Attempt.BEST);
+        assertThatThrownBy(() -> GradebookMatrix.Weighting.parse("curve")).isInstanceOf(AppException.class);
+    }
+
+    @Test
+    void response_writesMissingScoresAsNull() throws Exception {
+        GradebookMatrixResponse response = GradebookMatrixResponse.builder()
+                .studentIds(List.of("alice", "bob"))
+                .scores(List.of(new float[]{8f, Float.NaN}))
+                .build();
+
+        String json = new ObjectMapper().writeValueAsString(response);
+
+        assertThat(json).contains("\"scores\":[[8.0,null]]");
+    }
+}
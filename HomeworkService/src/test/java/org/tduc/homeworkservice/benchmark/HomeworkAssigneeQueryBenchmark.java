@@ -0,0 +1,161 @@
+package org.tduc.homeworkservice.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the legacy LIKE-over-assigned_to student query with the homework_assignee index query
+ * on 100k homework rows. Needs a scratch MySQL database with schema.sql applied, e.g.
+ * HOMEWORK_BENCH_DB_URL=jdbc:mysql://localhost:3306/homework_bench?user=root&password=...
+ * It empties homework and homework_assignee before seeding.
+ */
+@EnabledIfEnvironmentVariable(named = "HOMEWORK_BENCH_DB_URL", matches = ".+")
+class HomeworkAssigneeQueryBenchmark {
+
+    private static final int HOMEWORKS = 100_000;
+    private static final int STUDENTS = 5_000;
+    private static final int STUDENTS_PER_HOMEWORK = 30;
+    private static final int RUNS = 50;
+
+    private static final String LIKE_SQL =
+            "SELECT h.id FROM homework h WHERE h.status = 'PUBLISHED' AND h.due_date > ? "
+                    + "AND (h.assigned_to IS NULL OR h.assigned_to LIKE CONCAT('%', ?, '%')) ORDER BY h.due_date";
+
+    private static final String INDEX_SQL =
+            "SELECT h.id FROM homework h WHERE h.status = 'PUBLISHED' AND h.id IN "
+                    + "(SELECT a.homework_id FROM homework_assignee a WHERE a.assignee_id IN (?, '*') AND a.due_date > ?) "
+                    + "ORDER BY h.due_date";
+
+    @Test
+    void likeScanVersusAssigneeIndex() throws Exception {
+        try (Connection connection = DriverManager.getConnection(System.getenv("HOMEWORK_BENCH_DB_URL"))) {
+            seed(connection);
+            LocalDateTime now = LocalDateTime.now();
+            Random random = new Random(7);
+
+            long likeNanos = 0;
+            long indexNanos = 0;
+            for (int i = 0; i < RUNS; i++) {
+                String student = studentId(random.nextInt(STUDENTS));
+                long started = System.nanoTime();
+                int likeRows = count(connection, LIKE_SQL, Timestamp.valueOf(now), student);
+                likeNanos += System.nanoTime() - started;
+
+                started = System.nanoTime();
+                int indexRows = count(connection, INDEX_SQL, student, Timestamp.valueOf(now));
+                indexNanos += System.nanoTime() - started;
+
+                // Ids are fixed width, so LIKE has no false positives here and both must agree
+                assertThat(indexRows).isEqualTo(likeRows);
+            }
+            System.out.printf("homeworks=%d runs=%d LIKE avg=%.2fms assignee-index avg=%.2fms%n",
+                    HOMEWORKS, RUNS, likeNanos / 1e6 / RUNS, indexNanos / 1e6 / RUNS);
+            explain(connection, INDEX_SQL, studentId(1), Timestamp.valueOf(now));
+        }
+    }
+
+    private static void seed(Connection connection) throws Exception {
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM homework_assignee");
+            statement.execute("DELETE FROM homework");
+        }
+        Random random = new Random(42);
+        LocalDateTime base = LocalDateTime.now().minusDays(30);
+        try (PreparedStatement homework = connection.prepareStatement(
+                "INSERT INTO homework (id, title, course_id, assigned_to, created_by, due_date, max_score, submission_type, status) "
+                        + "VALUES (?, ?, ?, ?, 'bench', ?, 10, 'FILE_UPLOAD', 'PUBLISHED')");
+             PreparedStatement assignee = connection.prepareStatement(
+                     "INSERT INTO homework_assignee (homework_id, assignee_id, assignee_type, due_date) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < HOMEWORKS; i++) {
+                String id = UUID.randomUUID().toString();
+                Timestamp due = Timestamp.valueOf(base.plusMinutes(random.nextInt(90 * 24 * 60)));
+                // One in ten homework is for the whole class
+                List<String> students = new ArrayList<>();
+                if (random.nextInt(10) != 0) {
+                    for (int s = 0; s < STUDENTS_PER_HOMEWORK; s++) {
+                        students.add(studentId(random.nextInt(STUDENTS)));
+                    }
+                }
+                homework.setString(1, id);
+                homework.setString(2, "Homework " + i);
+                homework.setString(3, "course-" + (i % 200));
+                homework.setString(4, students.isEmpty() ? null : "[\"" + String.join("\",\"", students) + "\"]");
+                homework.setTimestamp(5, due);
+                homework.addBatch();
+                if (students.isEmpty()) {
+                    addAssignee(assignee, id, "*", "EVERYONE", due);
+                }
+                for (String student : students.stream().distinct().toList()) {
+                    addAssignee(assignee, id, student, "STUDENT", due);
+                }
+                if (i % 1000 == 999) {
+                    homework.executeBatch();
+                    assignee.executeBatch();
+                    connection.commit();
+                }
+            }
+            homework.executeBatch();
+            assignee.executeBatch();
+            connection.commit();
+        }
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE TABLE homework, homework_assignee");
+        }
+    }
+
+    private static void addAssignee(PreparedStatement assignee, String homeworkId, String assigneeId, String type,
+                                    Timestamp due) throws Exception {
+        assignee.setString(1, homeworkId);
+        assignee.setString(2, assigneeId);
+        assignee.setString(3, type);
+        assignee.setTimestamp(4, due);
+        assignee.addBatch();
+    }
+
+    private static int count(Connection connection, String sql, Object first, Object second) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setObject(1, first);
+            statement.setObject(2, second);
+            int rows = 0;
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    rows++;
+                }
+            }
+            return rows;
+        }
+    }
+
+    private static void explain(Connection connection, String sql, Object first, Object second) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            statement.setObject(1, first);
+            statement.setObject(2, second);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    System.out.printf("EXPLAIN table=%s type=%s key=%s rows=%s%n",
+                            rs.getString("table"), rs.getString("type"), rs.getString("key"), rs.getString("rows"));
+                }
+            }
+        }
+    }
+
+    private static String studentId(int n) {
+        return String.format("student-%05d", n);
+    }
+}
@@ -0,0 +1,145 @@
+package org.tduc.homeworkservice.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the legacy double-wildcard LIKE search with the homework_search FULLTEXT query on 100k
+ * homework rows, first page of 20, across the whole catalogue and within one course. Needs a scratch
+ * MySQL database with schema.sql applied, e.g.
+ * HOMEWORK_BENCH_DB_URL=jdbc:mysql://localhost:3306/homework_bench?user=root&password=...
+ * It empties homework and homework_search before seeding.
+ */
+@EnabledIfEnvironmentVariable(named = "HOMEWORK_BENCH_DB_URL", matches = ".+")
+class HomeworkSearchBenchmark {
+
+    private static final int HOMEWORKS = 100_000;
+    private static final int COURSES = 200;
+    private static final int RUNS = 50;
+    private static final List<String> WORDS = List.of("algebra", "geometry", "calculus", "essay", "chemistry",
+            "physics", "history", "poetry", "vectors", "matrices", "derivatives", "integrals", "grammar",
+            "vocabulary", "programming", "recursion", "database", "network", "biology", "genetics");
+
+    private static final String LIKE_SQL =
+            "SELECT h.id FROM homework h WHERE (? IS NULL OR h.course_id = ?) AND (LOWER(h.title) LIKE CONCAT('%', ?, '%') "
+                    + "OR LOWER(h.description) LIKE CONCAT('%', ?, '%')) ORDER BY h.created_at DESC LIMIT 20";
+
+    private static final String FULLTEXT_SQL =
+            "SELECT s.homework_id FROM homework_search s WHERE MATCH(s.title, s.body) AGAINST(? IN BOOLEAN MODE) "
+                    + "AND (? IS NULL OR s.course_id = ?) ORDER BY MATCH(s.title) AGAINST(? IN BOOLEAN MODE) * 3 "
+                    + "+ MATCH(s.title, s.body) AGAINST(? IN BOOLEAN MODE) DESC, s.updated_at DESC LIMIT 21";
+
+    @Test
+    void likeScanVersusFulltext() throws Exception {
+        try (Connection connection = DriverManager.getConnection(System.getenv("HOMEWORK_BENCH_DB_URL"))) {
+            seed(connection);
+            Random random = new Random(7);
+            for (boolean scoped : new boolean[]{false, true}) {
+                long likeNanos = 0;
+                long fulltextNanos = 0;
+                for (int i = 0; i < RUNS; i++) {
+                    String word = WORDS.get(random.nextInt(WORDS.size()));
+                    String course = scoped ? "course-" + random.nextInt(COURSES) : null;
+
+                    long started = System.nanoTime();
+                    int likeRows = rows(connection, LIKE_SQL, course, course, word, word);
+                    likeNanos += System.nanoTime() - started;
+
+                    String query = "+" + word + "*";
+                    started = System.nanoTime();
+                    int fulltextRows = rows(connection, FULLTEXT_SQL, query, course, course, query, query);
+                    fulltextNanos += System.nanoTime() - started;
+
+                    // Every seeded word appears in some title, so both sides fill the page or agree on fewer
+                    assertThat(Math.min(fulltextRows, 20)).isEqualTo(likeRows);
+                }
+                System.out.printf("homeworks=%d scoped=%s runs=%d LIKE avg=%.2fms FULLTEXT avg=%.2fms%n",
+                        HOMEWORKS, scoped, RUNS, likeNanos / 1e6 / RUNS, fulltextNanos / 1e6 / RUNS);
+            }
+        }
+    }
+
+    private static void seed(Connection connection) throws Exception {
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM homework_search");
+            statement.execute("DELETE FROM homework");
+        }
+        Random random = new Random(42);
+        LocalDateTime base = LocalDateTime.now().minusDays(30);
+        try (PreparedStatement homework = connection.prepareStatement(
+                "INSERT INTO homework (id, title, description, course_id, created_by, due_date, max_score, submission_type, status) "
+                        + "VALUES (?, ?, ?, ?, 'bench', ?, 10, 'FILE_UPLOAD', 'PUBLISHED')");
+             PreparedStatement search = connection.prepareStatement(
+                     "INSERT INTO homework_search (homework_id, course_id, title, body) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < HOMEWORKS; i++) {
+                String id = UUID.randomUUID().toString();
+                String course = "course-" + (i % COURSES);
+                String title = "Week " + (i % 15) + " " + word(random) + " " + word(random);
+                StringBuilder description = new StringBuilder();
+                for (int w = 0; w < 40; w++) {
+                    description.append(word(random)).append(w % 8 == 7 ? ". " : " ");
+                }
+                homework.setString(1, id);
+                homework.setString(2, title);
+                homework.setString(3, description.toString());
+                homework.setString(4, course);
+                homework.setTimestamp(5, Timestamp.valueOf(base.plusMinutes(random.nextInt(90 * 24 * 60))));
+                homework.addBatch();
+                search.setString(1, id);
+                search.setString(2, course);
+                search.setString(3, title);
+                search.setString(4, description.toString());
+                search.addBatch();
+                if (i % 1000 == 999) {
+                    homework.executeBatch();
+                    search.executeBatch();
+                    connection.commit();
+                }
+            }
+            homework.executeBatch();
+            search.executeBatch();
+            connection.commit();
+        }
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            // Fold the FULLTEXT insert cache into the index so timings reflect steady state
+            statement.execute("SET GLOBAL innodb_optimize_fulltext_only = ON");
+            statement.execute("OPTIMIZE TABLE homework_search");
+            statement.execute("SET GLOBAL innodb_optimize_fulltext_only = OFF");
+            statement.execute("ANALYZE TABLE homework, homework_search");
+        }
+    }
+
+    private static String word(Random random) {
+        return WORDS.get(random.nextInt(WORDS.size()));
+    }
+
+    private static int rows(Connection connection, String sql, Object... args) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            int rows = 0;
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    rows++;
+                }
+            }
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.tduc.homeworkservice.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.tduc.homeworkservice.peerreview.ReviewAssigner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Peer review assignment for 10k submissions, 3 reviewers each, a third of the class in groups of
+ * three: index-array offsets versus picking the least-loaded eligible reviewers per submission from
+ * maps of student ids. Pure CPU, no database. Run with HOMEWORK_BENCH=true.
+ */
+@EnabledIfEnvironmentVariable(named = "HOMEWORK_BENCH", matches = "true")
+class PeerReviewAssignerBenchmark {
+
+    private static final int SUBMISSIONS = 10_000;
+    private static final int REVIEWERS = 3;
+    private static final int RUNS = 20;
+
+    @Test
+    void offsetsVersusLeastLoadedGreedy() {
+        int[] groupOf = new int[SUBMISSIONS];
+        int group = 0;
+        for (int i = 0; i < SUBMISSIONS; i++) {
+            // Every third of the class works in groups of three, the rest alone
+            groupOf[i] = i < SUBMISSIONS / 3 && i % 3 != 0 ? group - 1 : group++;
+        }
+
+        Random random = new Random(5);
+        ReviewAssigner.Assignment assignment = null;
+        long started = System.nanoTime();
+        for (int run = 0; run < RUNS; run++) {
+            assignment = ReviewAssigner.assign(groupOf, REVIEWERS, true, random);
+        }
+        double offsetsMillis = (System.nanoTime() - started) / 1e6 / RUNS;
+        assertThat(assignment.groupsRelaxed()).isFalse();
+
+        started = System.nanoTime();
+        Map<String, List<String>> greedy = greedy(groupOf, random);
+        double greedyMillis = (System.nanoTime() - started) / 1e6;
+        assertThat(greedy).hasSize(SUBMISSIONS);
+
+        System.out.printf("submissions=%d reviewers=%d offsets avg=%.2fms greedy=%.0fms%n",
+                SUBMISSIONS, REVIEWERS, offsetsMillis, greedyMillis);
+    }
+
+    /**
+     * The straightforward way: for each submission scan every student for the least-loaded eligible ones.
+     */
+    private static Map<String, List<String>> greedy(int[] groupOf, Random random) {
+        List<String> students = new ArrayList<>();
+        Map<String, String> groups = new HashMap<>();
+        Map<String, Integer> load = new HashMap<>();
+        for (int i = 0; i < groupOf.length; i++) {
+            String student = "student-" + i;
+            students.add(student);
+            groups.put(student, "group-" + groupOf[i]);
+            load.put(student, 0);
+        }
+        Collections.shuffle(students, random);
+        Map<String, List<String>> reviewers = new HashMap<>();
+        for (String author : students) {
+            List<String> picked = new ArrayList<>(REVIEWERS);
+            for (int slot = 0; slot < REVIEWERS; slot++) {
+                String best = null;
+                for (String candidate : students) {
+                    if (!groups.get(candidate).equals(groups.get(author)) && !picked.contains(candidate)
+                            && (best == null || load.get(candidate) < load.get(best))) {
+                        best = candidate;
+                    }
+                }
+                picked.add(best);
+                load.merge(best, 1, Integer::sum);
+            }
+            reviewers.put(author, picked);
+        }
+        return reviewers;
+    }
+}
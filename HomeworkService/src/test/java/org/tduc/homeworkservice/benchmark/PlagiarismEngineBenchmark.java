@@ -0,0 +1,111 @@
+package org.tduc.homeworkservice.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.tduc.homeworkservice.plagiarism.LshIndex;
+import org.tduc.homeworkservice.plagiarism.MinHasher;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Near-duplicate detection over 10k synthetic submissions of ~300 words, 2% of them lightly edited
+ * copies of another: LSH candidate pairs versus comparing every pair of signatures. Pure CPU, no
+ * database. Run with HOMEWORK_BENCH=true.
+ */
+@EnabledIfEnvironmentVariable(named = "HOMEWORK_BENCH", matches = "true")
+class PlagiarismEngineBenchmark {
+
+    private static final int SUBMISSIONS = 10_000;
+    private static final int WORDS = 300;
+    private static final int VOCABULARY = 5_000;
+    private static final double THRESHOLD = 0.5;
+
+    @Test
+    void lshVersusBruteForce() {
+        Random random = new Random(11);
+        String[] texts = new String[SUBMISSIONS];
+        Set<Long> planted = new HashSet<>();
+        for (int i = 0; i < SUBMISSIONS; i++) {
+            if (i > 0 && random.nextInt(50) == 0) {
+                int source = random.nextInt(i);
+                texts[i] = edit(texts[source], random);
+                planted.add(LshIndex.pair(source, i));
+            } else {
+                texts[i] = text(random);
+            }
+        }
+
+        LshIndex lsh = new LshIndex(32, 4);
+        MinHasher hasher = new MinHasher(lsh.signatureLength(), 3);
+        int length = lsh.signatureLength();
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            long started = System.nanoTime();
+            int[] signatures = new int[SUBMISSIONS * length];
+            boolean[] present = new boolean[SUBMISSIONS];
+            pool.submit(() -> IntStream.range(0, SUBMISSIONS).parallel()
+                    .forEach(i -> present[i] = hasher.signature(texts[i], signatures, i * length))).join();
+            long signNanos = System.nanoTime() - started;
+
+            started = System.nanoTime();
+            long[] candidates = lsh.candidatePairs(signatures, SUBMISSIONS, present, 1000, pool);
+            Set<Long> lshMatches = new HashSet<>();
+            for (long pair : candidates) {
+                if (MinHasher.similarity(signatures, LshIndex.first(pair) * length,
+                        signatures, LshIndex.second(pair) * length, length) >= THRESHOLD) {
+                    lshMatches.add(pair);
+                }
+            }
+            long lshNanos = System.nanoTime() - started;
+
+            started = System.nanoTime();
+            Set<Long> bruteMatches = new HashSet<>();
+            for (int a = 0; a < SUBMISSIONS; a++) {
+                for (int b = a + 1; b < SUBMISSIONS; b++) {
+                    if (MinHasher.similarity(signatures, a * length, signatures, b * length, length) >= THRESHOLD) {
+                        bruteMatches.add(LshIndex.pair(a, b));
+                    }
+                }
+            }
+            long bruteNanos = System.nanoTime() - started;
+
+            long recalled = bruteMatches.stream().filter(lshMatches::contains).count();
+            System.out.printf("signing %d submissions: %d ms%n", SUBMISSIONS, signNanos / 1_000_000);
+            System.out.printf("lsh: %d candidates, %d matches in %d ms%n",
+                    candidates.length, lshMatches.size(), lshNanos / 1_000_000);
+            System.out.printf("brute force: %d matches in %d ms (recall %.3f, planted %d)%n",
+                    bruteMatches.size(), bruteNanos / 1_000_000,
+                    bruteMatches.isEmpty() ? 1.0 : (double) recalled / bruteMatches.size(), planted.size());
+
+            assertThat(lshMatches).isSubsetOf(bruteMatches);
+            assertThat((double) recalled / bruteMatches.size()).isGreaterThan(0.95);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static String text(Random random) {
+        StringBuilder text = new StringBuilder(WORDS * 7);
+        for (int i = 0; i < WORDS; i++) {
+            text.append('w').append(random.nextInt(VOCABULARY)).append(' ');
+        }
+        return text.toString();
+    }
+
+    // Replaces about 5% of the words
+    private static String edit(String source, Random random) {
+        String[] words = source.split(" ");
+        for (int i = 0; i < words.length; i++) {
+            if (random.nextInt(20) == 0) {
+                words[i] = "w" + random.nextInt(VOCABULARY);
+            }
+        }
+        return String.join(" ", words);
+    }
+}
@@ -0,0 +1,278 @@
+package org.tduc.homeworkservice.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 5,000 students submit one homework in its final minute, a tenth of them twice at the same moment.
+ * Compares the legacy read-then-insert attempt numbering, the submission_attempt_counter row with one
+ * transaction per submit, and the counter row with a single writer committing batches of up to 200.
+ * Needs a scratch MySQL database with schema.sql applied, e.g.
+ * HOMEWORK_BENCH_DB_URL=jdbc:mysql://localhost:3306/homework_bench?user=root&password=...&rewriteBatchedStatements=true
+ * It deletes the bench homework and its submissions before each run.
+ */
+@EnabledIfEnvironmentVariable(named = "HOMEWORK_BENCH_DB_URL", matches = ".+")
+class SubmissionSurgeBenchmark {
+
+    private static final String HOMEWORK_ID = "bench-surge-homework";
+    private static final int STUDENTS = 5_000;
+    private static final int DOUBLE_SUBMITTERS = STUDENTS / 10;
+    private static final int REQUEST_THREADS = 64;
+    private static final int MAX_BATCH = 200;
+
+    private static final String INSERT_SQL = "INSERT INTO submission (id, homework_id, student_id, content, status, "
+            + "submitted_at, attempt_number, is_late) VALUES (?, ?, ?, 'answer', 'SUBMITTED', ?, ?, FALSE)";
+    private static final String RESERVE_SQL = "INSERT INTO submission_attempt_counter (homework_id, student_id, attempts) "
+            + "SELECT ?, ?, COALESCE(MAX(s.attempt_number), 0) + ? FROM submission s WHERE s.homework_id = ? AND s.student_id = ? "
+            + "ON DUPLICATE KEY UPDATE attempts = attempts + ?";
+
+    private final String url = System.getenv("HOMEWORK_BENCH_DB_URL");
+
+    @Test
+    void legacyVersusCounterRowVersusBatched() throws Exception {
+        List<String> submits = submits();
+
+        reset();
+        Result legacy = run(submits, this::legacySubmit);
+        reset();
+        Result counter = run(submits, student -> counterSubmit(List.of(student)));
+        reset();
+        Result batched = runBatched(submits);
+
+        for (Result result : List.of(counter, batched)) {
+            // Every submit lands, with attempts 1..n per student and no gaps
+            assertThat(result.failures).isZero();
+            assertThat(count("SELECT COUNT(*) FROM submission WHERE homework_id = '" + HOMEWORK_ID + "'"))
+                    .isEqualTo(submits.size());
+        }
+        report("legacy", legacy);
+        report("counter", counter);
+        report("batched", batched);
+    }
+
+    private interface Submit {
+        void submit(String studentId) throws Exception;
+    }
+
+    private record Result(int failures, long elapsedNanos, long[] latencies) {
+    }
+
+    private static List<String> submits() {
+        List<String> submits = new ArrayList<>(STUDENTS + DOUBLE_SUBMITTERS);
+        for (int i = 0; i < STUDENTS; i++) {
+            submits.add("student-" + i);
+        }
+        for (int i = 0; i < DOUBLE_SUBMITTERS; i++) {
+            submits.add("student-" + i * 10);
+        }
+        Collections.shuffle(submits, new Random(11));
+        return submits;
+    }
+
+    private Result run(List<String> submits, Submit submit) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(REQUEST_THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger failures = new AtomicInteger();
+        long[] latencies = new long[submits.size()];
+        List<Future<?>> futures = new ArrayList<>(submits.size());
+        for (int i = 0; i < submits.size(); i++) {
+            int index = i;
+            futures.add(pool.submit(() -> {
+                start.await();
+                long started = System.nanoTime();
+                try {
+                    submit.submit(submits.get(index));
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                }
+                latencies[index] = System.nanoTime() - started;
+                return null;
+            }));
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - started;
+        pool.shutdown();
+        return new Result(failures.get(), elapsed, latencies);
+    }
+
+    private Result runBatched(List<String> submits) throws Exception {
+        BlockingQueue<Object[]> queue = new LinkedBlockingQueue<>();
+        Thread writer = new Thread(() -> {
+            List<Object[]> batch = new ArrayList<>(MAX_BATCH);
+            try {
+                while (true) {
+                    Object[] first = queue.take();
+                    if (first.length == 0) {
+                        return;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH - 1);
+                    List<String> students = new ArrayList<>(batch.size());
+                    for (Object[] pending : batch) {
+                        students.add((String) pending[0]);
+                    }
+                    try {
+                        counterSubmit(students);
+                        batch.forEach(pending -> ((CompletableFuture<?>) pending[1]).complete(null));
+                    } catch (Exception e) {
+                        batch.forEach(pending -> ((CompletableFuture<?>) pending[1]).completeExceptionally(e));
+                    }
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "bench-writer");
+        writer.start();
+        Result result = run(submits, student -> {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            queue.put(new Object[]{student, done});
+            done.get();
+        });
+        queue.put(new Object[0]);
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        return result;
+    }
+
+    /**
+     * The pre-counter createSubmission: count earlier attempts, insert the next one.
+     */
+    private void legacySubmit(String studentId) throws Exception {
+        try (Connection connection = DriverManager.getConnection(url)) {
+            connection.setAutoCommit(false);
+            int previous;
+            try (PreparedStatement select = connection.prepareStatement(
+                    "SELECT COUNT(*) FROM submission WHERE homework_id = ? AND student_id = ?")) {
+                select.setString(1, HOMEWORK_ID);
+                select.setString(2, studentId);
+                try (ResultSet rs = select.executeQuery()) {
+                    rs.next();
+                    previous = rs.getInt(1);
+                }
+            }
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+                bindInsert(insert, studentId, previous + 1);
+                insert.executeUpdate();
+                connection.commit();
+            } catch (SQLIntegrityConstraintViolationException e) {
+                // Lost the race to a concurrent submit by the same student
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * What SubmissionIngestService does for one group: reserve per student, read back, batch insert.
+     */
+    private void counterSubmit(List<String> studentIds) throws Exception {
+        List<String> sorted = new ArrayList<>(studentIds);
+        Collections.sort(sorted);
+        try (Connection connection = DriverManager.getConnection(url)) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement reserve = connection.prepareStatement(RESERVE_SQL);
+                 PreparedStatement read = connection.prepareStatement(
+                         "SELECT attempts FROM submission_attempt_counter WHERE homework_id = ? AND student_id = ?");
+                 PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+                List<String> distinct = sorted.stream().distinct().toList();
+                for (String studentId : distinct) {
+                    int reserved = Collections.frequency(sorted, studentId);
+                    reserve.setString(1, HOMEWORK_ID);
+                    reserve.setString(2, studentId);
+                    reserve.setInt(3, reserved);
+                    reserve.setString(4, HOMEWORK_ID);
+                    reserve.setString(5, studentId);
+                    reserve.setInt(6, reserved);
+                    reserve.addBatch();
+                }
+                reserve.executeBatch();
+                for (String studentId : distinct) {
+                    int reserved = Collections.frequency(sorted, studentId);
+                    read.setString(1, HOMEWORK_ID);
+                    read.setString(2, studentId);
+                    int last;
+                    try (ResultSet rs = read.executeQuery()) {
+                        rs.next();
+                        last = rs.getInt(1);
+                    }
+                    for (int attempt = last - reserved + 1; attempt <= last; attempt++) {
+                        bindInsert(insert, studentId, attempt);
+                        insert.addBatch();
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+            } catch (Exception e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static void bindInsert(PreparedStatement insert, String studentId, int attempt) throws Exception {
+        insert.setString(1, UUID.randomUUID().toString());
+        insert.setString(2, HOMEWORK_ID);
+        insert.setString(3, studentId);
+        insert.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+        insert.setInt(5, attempt);
+    }
+
+    private void reset() throws Exception {
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            // Cascades to the homework's submissions and attempt counters
+            statement.execute("DELETE FROM homework WHERE id = '" + HOMEWORK_ID + "'");
+            statement.execute("INSERT INTO homework (id, title, course_id, created_by, due_date, max_score, submission_type, "
+                    + "status, resubmission_allowed) VALUES ('" + HOMEWORK_ID + "', 'Surge', 'bench', 'bench', "
+                    + "NOW() + INTERVAL 1 MINUTE, 10, 'TEXT', 'PUBLISHED', TRUE)");
+        }
+    }
+
+    private int count(String sql) throws Exception {
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static void report(String name, Result result) {
+        long[] sorted = result.latencies.clone();
+        Arrays.sort(sorted);
+        double seconds = result.elapsedNanos / 1e9;
+        System.out.printf("%-8s submits=%d failed=%d elapsed=%.2fs throughput=%.0f/s p50=%.1fms p99=%.1fms%n",
+                name, sorted.length, result.failures, seconds, sorted.length / seconds,
+                sorted[sorted.length / 2] / 1e6, sorted[(int) (sorted.length * 0.99)] / 1e6);
+    }
+}
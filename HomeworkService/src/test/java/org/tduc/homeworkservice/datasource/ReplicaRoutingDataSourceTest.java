@@ -0,0 +1,150 @@
+package org.tduc.homeworkservice.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+    @Mock
+    private DataSource replicaA;
+    @Mock
+    private DataSource replicaB;
+    @Mock
+    private Connection primaryConnection;
+    @Mock
+    private Connection connectionA;
+    @Mock
+    private Connection connectionB;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private ReadYourWritesWindow window;
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        window = new ReadYourWritesWindow(redisTemplate, 60_000);
+        dataSource = new ReplicaRoutingDataSource(primary, List.of(
+                new ReplicaRoutingDataSource.Replica("a", replicaA),
+                new ReplicaRoutingDataSource.Replica("b", replicaB)), window, 0);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("student-1", null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getConnection_readWrite_usesPrimary() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void getConnection_readOnly_roundRobinsReplicas() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replicaA.getConnection()).thenReturn(connectionA);
+        when(replicaB.getConnection()).thenReturn(connectionB);
+
+        assertThat(List.of(dataSource.getConnection(), dataSource.getConnection(), dataSource.getConnection()))
+                .containsExactly(connectionA, connectionB, connectionA);
+    }
+
+    @Test
+    void getConnection_replicaDown_skipsItAndFallsBackToPrimary() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replicaA.getConnection()).thenThrow(new SQLException("refused"));
+        when(replicaB.getConnection()).thenThrow(new SQLException("refused"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(dataSource.getReplicas()).noneMatch(ReplicaRoutingDataSource.Replica::isHealthy);
+    }
+
+    @Test
+    void checkHealth_replicaBack_isUsedAgain() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replicaA.getConnection()).thenThrow(new SQLException("refused")).thenReturn(connectionA);
+        when(replicaB.getConnection()).thenThrow(new SQLException("refused"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        dataSource.getConnection();
+
+        when(connectionA.isValid(2)).thenReturn(true);
+        dataSource.checkHealth();
+
+        assertThat(dataSource.getReplicas().get(0).isHealthy()).isTrue();
+        assertThat(dataSource.getReplicas().get(1).isHealthy()).isFalse();
+    }
+
+    @Test
+    void getConnection_afterOwnWriteRequest_readsPrimaryWithinWindow() throws SQLException {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        MockHttpServletRequest post = new MockHttpServletRequest("POST", "/submissions");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        window.preHandle(post, response, null);
+        window.afterCompletion(post, response, null, null);
+        verify(valueOperations, times(2)).set("homework:read-your-writes:student-1", "1", Duration.ofMillis(60_000));
+
+        // The window is shared through Redis, so this holds on any instance
+        when(redisTemplate.hasKey("homework:read-your-writes:student-1")).thenReturn(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+
+        // Other users still read from replicas
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("student-2", null, List.of()));
+        when(redisTemplate.hasKey("homework:read-your-writes:student-2")).thenReturn(false);
+        when(replicaA.getConnection()).thenReturn(connectionA);
+        assertThat(dataSource.getConnection()).isSameAs(connectionA);
+    }
+
+    @Test
+    void getConnection_readRequest_looksUpWindowOnce() throws SQLException {
+        MockHttpServletRequest get = new MockHttpServletRequest("GET", "/homework");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        window.preHandle(get, response, null);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replicaA.getConnection()).thenReturn(connectionA);
+        when(replicaB.getConnection()).thenReturn(connectionB);
+
+        dataSource.getConnection();
+        dataSource.getConnection();
+        window.afterCompletion(get, response, null, null);
+
+        verify(redisTemplate, times(1)).hasKey("homework:read-your-writes:student-1");
+        verify(redisTemplate, never()).opsForValue();
+    }
+}
@@ -0,0 +1,101 @@
+package org.tduc.homeworkservice.deadline;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.tduc.homeworkservice.event.HomeworkChangedEvent;
+import org.tduc.homeworkservice.event.HomeworkDeadlineEvent;
+import org.tduc.homeworkservice.model.Homework;
+import org.tduc.homeworkservice.model.HomeworkStatus;
+import org.tduc.homeworkservice.repository.HomeworkRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeadlineEngineTest {
+
+    private static final LocalDateTime DUE = LocalDateTime.of(2025, 5, 1, 23, 59);
+
+    @Mock
+    private HomeworkRepository homeworkRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private DeadlineEngine engine;
+
+    private Homework homework;
+
+    @BeforeEach
+    void setUp() {
+        homework = Homework.builder().id("hw-1").courseId("course-1").status(HomeworkStatus.PUBLISHED)
+                .dueDate(DUE).allowLateSubmissions(false).build();
+    }
+
+    @Test
+    void deadlinesOf_closesAtDueDateUnlessLateSubmissionsAllowed() {
+        assertThat(DeadlineEngine.deadlinesOf(DeadlineEngine.view(homework), new long[]{60}))
+                .extracting(DeadlineEngine.Deadline::kind)
+                .containsExactlyInAnyOrder(DeadlineKind.DUE_SOON, DeadlineKind.DUE, DeadlineKind.SUBMISSION_CLOSE);
+
+        homework.setAllowLateSubmissions(true);
+        assertThat(DeadlineEngine.deadlinesOf(DeadlineEngine.view(homework), new long[]{60}))
+                .extracting(DeadlineEngine.Deadline::kind)
+                .doesNotContain(DeadlineKind.SUBMISSION_CLOSE);
+    }
+
+    @Test
+    void fire_submissionClose_closesHomeworkOnceClaimed() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(homeworkRepository.findById("hw-1")).thenReturn(Optional.of(homework));
+        when(jdbcTemplate.update(anyString(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        engine.fire(new DeadlineEngine.Deadline("hw-1", DeadlineKind.SUBMISSION_CLOSE, DUE, Duration.ZERO));
+
+        assertThat(homework.getStatus()).isEqualTo(HomeworkStatus.CLOSED);
+        verify(homeworkRepository).save(homework);
+        verify(eventPublisher).publishEvent(any(HomeworkChangedEvent.class));
+        verify(eventPublisher).publishEvent(new HomeworkDeadlineEvent("hw-1", "course-1", DeadlineKind.SUBMISSION_CLOSE, DUE, Duration.ZERO));
+    }
+
+    @Test
+    void fire_claimedByOtherReplica_doesNothing() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(homeworkRepository.findById("hw-1")).thenReturn(Optional.of(homework));
+        when(jdbcTemplate.update(anyString(), any(), any(), any(), any(), any())).thenReturn(0);
+
+        engine.fire(new DeadlineEngine.Deadline("hw-1", DeadlineKind.SUBMISSION_CLOSE, DUE, Duration.ZERO));
+
+        assertThat(homework.getStatus()).isEqualTo(HomeworkStatus.PUBLISHED);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void fire_staleDeadline_isDropped() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        homework.setDueDate(DUE.plusDays(2));
+        when(homeworkRepository.findById("hw-1")).thenReturn(Optional.of(homework));
+
+        engine.fire(new DeadlineEngine.Deadline("hw-1", DeadlineKind.DUE, DUE, Duration.ZERO));
+
+        verifyNoInteractions(jdbcTemplate, eventPublisher);
+    }
+}
@@ -0,0 +1,54 @@
+package org.tduc.homeworkservice.deadline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    @Test
+    void firesEachTimerWithinOneTickAfterExpiry_acrossLevels() {
+        // 10 ms ticks, 8 slots, 3 levels: spans of 80 ms, 640 ms and 5120 ms
+        TimingWheel<Long> wheel = new TimingWheel<>(10, 8, 3, 1_000);
+        Random random = new Random(3);
+        List<Long> expirations = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            long expiration = 1_000 + random.nextInt(4_500);
+            expirations.add(expiration);
+            assertThat(wheel.schedule(expiration, expiration)).isNotNull();
+        }
+
+        List<Long> fired = new ArrayList<>();
+        for (long now = 1_000; now <= 6_100; now += 10) {
+            List<Long> batch = new ArrayList<>();
+            wheel.advance(now, batch);
+            for (long expiration : batch) {
+                assertThat(expiration).isLessThanOrEqualTo(now).isGreaterThan(now - 20);
+            }
+            fired.addAll(batch);
+        }
+
+        assertThat(fired).containsExactlyInAnyOrderElementsOf(expirations);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cancelledTimerNeverFires_andPastTimerIsRejected() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 3, 0);
+        TimingWheel.Timer<String> kept = wheel.schedule(300, "kept");
+        TimingWheel.Timer<String> cancelled = wheel.schedule(300, "cancelled");
+        wheel.cancel(cancelled);
+        wheel.cancel(cancelled);
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(1_000, fired);
+
+        assertThat(kept).isNotNull();
+        assertThat(fired).containsExactly("kept");
+        assertThat(wheel.schedule(500, "late")).isNull();
+    }
+}
@@ -0,0 +1,60 @@
+package org.tduc.homeworkservice.grading;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.tduc.homeworkservice.model.Homework;
+import org.tduc.homeworkservice.model.Submission;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AutoGradersTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Homework homework = Homework.builder().id("hw-1").maxScore(new BigDecimal("10")).build();
+
+    @Test
+    void answerKey_comparesNormalizedAndNumericAnswers() throws Exception {
+        JsonNode rubric = objectMapper.readTree("{\"type\":\"answer-key\",\"answers\":["
+                + "{\"question\":\"q1\",\"accept\":[\"0.5\"],\"points\":2},"
+                + "{\"question\":\"q2\",\"accept\":\"Paris\",\"points\":1},"
+                + "{\"question\":\"q3\",\"accept\":\"blue\",\"points\":1}]}");
+        Submission submission = Submission.builder().content("{\"q1\":\"0.50\",\"q2\":\"  paris \",\"q3\":\"red\"}").build();
+
+        AutoGradeResult result = new AnswerKeyGrader(objectMapper).grade(submission, homework, rubric);
+
+        assertThat(result.earned()).isEqualByComparingTo("3");
+        assertThat(result.possible()).isEqualByComparingTo("4");
+        assertThat(result.scoreOutOf(homework.getMaxScore())).isEqualByComparingTo("7.50");
+        assertThat(result.feedback()).isEqualTo("2 of 3 answers correct");
+        assertThat(result.rubricScores()).contains("\"q3\":0");
+    }
+
+    @Test
+    void answerKey_contentNotJson_isNotRetryable() throws Exception {
+        JsonNode rubric = objectMapper.readTree("{\"type\":\"answer-key\",\"answers\":[{\"question\":\"q1\",\"accept\":\"a\"}]}");
+
+        assertThatThrownBy(() -> new AnswerKeyGrader(objectMapper)
+                .grade(Submission.builder().content("my answer is a").build(), homework, rubric))
+                .isInstanceOf(AutoGradingException.class);
+    }
+
+    @Test
+    void keywords_awardsFullAndPartialCriteriaOnWholeWords() throws Exception {
+        JsonNode rubric = objectMapper.readTree("{\"type\":\"keywords\",\"criteria\":["
+                + "{\"name\":\"Process\",\"points\":4,\"keywords\":[\"chlorophyll\",\"light energy\"],\"minMatches\":2},"
+                + "{\"name\":\"Products\",\"points\":2,\"keywords\":[\"oxygen\",\"glucose\"],\"minMatches\":2}]}");
+        Submission submission = Submission.builder()
+                .content("Chlorophyll absorbs LIGHT energy; the plant releases oxygen. Glucoses are not a word match.")
+                .build();
+
+        AutoGradeResult result = new KeywordRubricGrader(objectMapper).grade(submission, homework, rubric);
+
+        assertThat(result.earned()).isEqualByComparingTo("5");
+        assertThat(result.possible()).isEqualByComparingTo("6");
+        assertThat(result.feedback()).isEqualTo("Process: 2/2 keywords; Products: 1/2 keywords");
+    }
+}
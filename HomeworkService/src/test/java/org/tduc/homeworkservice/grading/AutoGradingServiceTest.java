@@ -0,0 +1,129 @@
+package org.tduc.homeworkservice.grading;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.tduc.homeworkservice.dto.request.GradingRequest;
+import org.tduc.homeworkservice.model.AutoGradeJob;
+import org.tduc.homeworkservice.model.AutoGradeJobStatus;
+import org.tduc.homeworkservice.model.Homework;
+import org.tduc.homeworkservice.model.Submission;
+import org.tduc.homeworkservice.model.SubmissionStatus;
+import org.tduc.homeworkservice.repository.AutoGradeJobRepository;
+import org.tduc.homeworkservice.repository.HomeworkRepository;
+import org.tduc.homeworkservice.repository.SubmissionRepository;
+import org.tduc.homeworkservice.service.SubmissionService;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AutoGradingService job processing, run on the calling thread.
+ */
+@ExtendWith(MockitoExtension.class)
+class AutoGradingServiceTest {
+
+    private static final String RUBRIC = "{\"type\":\"answer-key\",\"answers\":[{\"question\":\"q1\",\"accept\":\"4\",\"points\":1}]}";
+
+    @Mock
+    private AutoGradeJobRepository jobRepository;
+    @Mock
+    private SubmissionRepository submissionRepository;
+    @Mock
+    private HomeworkRepository homeworkRepository;
+    @Mock
+    private SubmissionService submissionService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AutoGradingService service;
+    private AutoGradeJob job;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        service = new AutoGradingService(jobRepository, submissionRepository, homeworkRepository, submissionService,
+                List.of(new AnswerKeyGrader(objectMapper)), objectMapper, transactionManager, meterRegistry);
+        service.init();
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        job = AutoGradeJob.pending("sub-1", "hw-1", LocalDateTime.now());
+        job.setStatus(AutoGradeJobStatus.RUNNING);
+        job.setAttempts(1);
+        when(jobRepository.findById("sub-1")).thenReturn(Optional.of(job));
+    }
+
+    @Test
+    void process_gradesThroughSubmissionServiceAndCompletesJob() {
+        when(submissionRepository.findById("sub-1")).thenReturn(Optional.of(submission("{\"q1\":\"4\"}")));
+        when(homeworkRepository.findById("hw-1")).thenReturn(Optional.of(homework(RUBRIC)));
+
+        service.process("sub-1");
+
+        ArgumentCaptor<GradingRequest> request = ArgumentCaptor.forClass(GradingRequest.class);
+        verify(submissionService).gradeSubmission(eq("sub-1"), request.capture());
+        assertThat(request.getValue().getScore()).isEqualByComparingTo("20.00");
+        assertThat(request.getValue().getGradedBy()).isEqualTo("auto-grader");
+        assertThat(job.getStatus()).isEqualTo(AutoGradeJobStatus.DONE);
+        assertThat(meterRegistry.counter("autograde.jobs", "outcome", "graded").count()).isEqualTo(1);
+    }
+
+    @Test
+    void process_transientFailure_isRetriedWithBackoff() {
+        when(submissionRepository.findById("sub-1")).thenThrow(new IllegalStateException("connection reset"));
+
+        service.process("sub-1");
+
+        assertThat(job.getStatus()).isEqualTo(AutoGradeJobStatus.PENDING);
+        assertThat(job.getNextAttemptAt()).isAfter(LocalDateTime.now());
+        assertThat(job.getLastError()).isEqualTo("connection reset");
+        assertThat(service.backoff(3)).isEqualTo(Duration.ofMillis(8000));
+    }
+
+    @Test
+    void process_unknownRubricType_failsWithoutRetry() {
+        when(submissionRepository.findById("sub-1")).thenReturn(Optional.of(submission("{}")));
+        when(homeworkRepository.findById("hw-1")).thenReturn(Optional.of(homework("{\"type\":\"essay-ai\"}")));
+
+        service.process("sub-1");
+
+        assertThat(job.getStatus()).isEqualTo(AutoGradeJobStatus.FAILED);
+        verify(submissionService, never()).gradeSubmission(any(), any());
+    }
+
+    @Test
+    void process_alreadyGradedByTeacher_isLeftAlone() {
+        Submission graded = submission("{}");
+        graded.setStatus(SubmissionStatus.GRADED);
+        when(submissionRepository.findById("sub-1")).thenReturn(Optional.of(graded));
+
+        service.process("sub-1");
+
+        assertThat(job.getStatus()).isEqualTo(AutoGradeJobStatus.DONE);
+        verify(submissionService, never()).gradeSubmission(any(), any());
+    }
+
+    private static Submission submission(String content) {
+        return Submission.builder().id("sub-1").homeworkId("hw-1").content(content).status(SubmissionStatus.SUBMITTED).build();
+    }
+
+    private static Homework homework(String rubric) {
+        return Homework.builder().id("hw-1").maxScore(new BigDecimal("20")).autoGrade(true).gradingRubric(rubric).build();
+    }
+}
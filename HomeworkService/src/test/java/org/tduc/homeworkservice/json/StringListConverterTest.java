@@ -0,0 +1,53 @@
+package org.tduc.homeworkservice.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StringListConverterTest {
+
+    private final StringListConverter converter = new StringListConverter();
+
+    @Test
+    void convertToEntityAttribute_parsesOnFirstAccessOnly() {
+        List<String> values = converter.convertToEntityAttribute("[\"s1\", \"s2\"]");
+
+        assertThat(((LazyStringList) values).isParsed()).isFalse();
+        assertThat(values).containsExactly("s1", "s2");
+        assertThat(((LazyStringList) values).isParsed()).isTrue();
+    }
+
+    @Test
+    void convertToDatabaseColumn_untouchedJsonList_writesOriginalText() {
+        String column = "[\"s1\", \"s2\"]";
+        List<String> values = converter.convertToEntityAttribute(column);
+
+        assertThat(converter.convertToDatabaseColumn(values)).isSameAs(column);
+        assertThat(((LazyStringList) values).isParsed()).isFalse();
+    }
+
+    @Test
+    void convertToEntityAttribute_legacyCommaText_parses() {
+        assertThat(converter.convertToEntityAttribute("s1, s2,,\"s3\"")).containsExactly("s1", "s2", "s3");
+        // Legacy text is written back as a JSON array
+        assertThat(converter.convertToDatabaseColumn(converter.convertToEntityAttribute("s1,s2")))
+                .isEqualTo("[\"s1\",\"s2\"]");
+    }
+
+    @Test
+    void convertToDatabaseColumn_emptyOrNull_isNull() {
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        assertThat(converter.convertToDatabaseColumn(List.of())).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+    }
+
+    @Test
+    void loadedList_isUnmodifiable() {
+        List<String> values = converter.convertToEntityAttribute("[\"s1\"]");
+
+        assertThatThrownBy(() -> values.add("s2")).isInstanceOf(UnsupportedOperationException.class);
+    }
+}
@@ -0,0 +1,61 @@
+package org.tduc.homeworkservice.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatePenaltyPolicyTest {
+
+    @Test
+    void of_blankOrInvalidJson_isNoPenalty() {
+        assertThat(LatePenaltyPolicy.of(null)).isSameAs(LatePenaltyPolicy.NONE);
+        assertThat(LatePenaltyPolicy.of("not json")).isSameAs(LatePenaltyPolicy.NONE);
+        assertThat(LatePenaltyPolicy.of("{\"enabled\":false,\"percentagePerDay\":0.1}")).isSameAs(LatePenaltyPolicy.NONE);
+    }
+
+    @Test
+    void of_sameJson_returnsCachedPolicy() {
+        String json = "{\"enabled\":true,\"percentagePerDay\":0.1}";
+        assertThat(LatePenaltyPolicy.of(json)).isSameAs(LatePenaltyPolicy.of(json));
+    }
+
+    @Test
+    void penaltyMicros_countsStartedDaysAndHoursAndCaps() {
+        LatePenaltyPolicy policy = LatePenaltyPolicy.of(
+                "{\"enabled\":true,\"percentagePerDay\":0.10,\"percentagePerHour\":0.01,\"maxPenalty\":0.5}");
+
+        // 61 minutes: one started day (10%) and two started hours (2%)
+        assertThat(policy.penaltyMicros(61)).isEqualTo(120_000);
+        // 3 days: 30% + 72%, capped at 50%
+        assertThat(policy.penaltyMicros(3 * 1440)).isEqualTo(500_000);
+    }
+
+    @Test
+    void penaltyMicros_nothingInsideGracePeriod() {
+        LatePenaltyPolicy policy = LatePenaltyPolicy.of(
+                "{\"enabled\":true,\"percentagePerMinute\":0.001,\"gracePeriodMinutes\":15}");
+
+        assertThat(policy.penaltyMicros(15)).isZero();
+        // Past the grace period lateness counts from the due date
+        assertThat(policy.penaltyMicros(16)).isEqualTo(16_000);
+    }
+
+    @Test
+    void apply_roundsToHundredths() {
+        assertThat(LatePenaltyPolicy.apply(new BigDecimal("87.35"), 125_000)).isEqualByComparingTo("76.43");
+        assertThat(LatePenaltyPolicy.apply(new BigDecimal("10"), LatePenaltyPolicy.SCALE)).isEqualByComparingTo("0");
+        assertThat(LatePenaltyPolicy.toPercent(125_000)).isEqualByComparingTo("12.50");
+        assertThat(LatePenaltyPolicy.toPercent(0)).isNull();
+    }
+
+    @Test
+    void minutesLate_roundsUpPartialMinutes() {
+        LocalDateTime due = LocalDateTime.of(2025, 1, 1, 12, 0);
+        assertThat(LatePenaltyPolicy.minutesLate(due, due)).isZero();
+        assertThat(LatePenaltyPolicy.minutesLate(due, due.plusSeconds(1))).isEqualTo(1);
+        assertThat(LatePenaltyPolicy.minutesLate(due, due.plusHours(2))).isEqualTo(120);
+    }
+}
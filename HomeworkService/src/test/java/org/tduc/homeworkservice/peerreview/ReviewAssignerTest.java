@@ -0,0 +1,94 @@
+package org.tduc.homeworkservice.peerreview;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReviewAssignerTest {
+
+    @Test
+    void assign_balancedWithoutSelfOrGroupReviews() {
+        Random random = new Random(3);
+        for (int run = 0; run < 200; run++) {
+            int n = 2 + random.nextInt(300);
+            int[] groupOf = randomGroups(n, 1 + random.nextInt(4), random);
+            int k = 1 + random.nextInt(4);
+
+            ReviewAssigner.Assignment assignment = ReviewAssigner.assign(groupOf, k, true, random);
+
+            assertThat(assignment.perSubmission()).isEqualTo(Math.min(k, n - 1));
+            int[] sizes = new int[n];
+            int largest = 0;
+            for (int group : groupOf) {
+                largest = Math.max(largest, ++sizes[group]);
+            }
+            // The group rule only gives way when no k offsets clear the largest group
+            assertThat(assignment.groupsRelaxed()).isEqualTo(largest > 1 && n - 2 * largest + 1 < assignment.perSubmission());
+            assertValid(assignment, groupOf, n);
+        }
+    }
+
+    @Test
+    void assign_groupTooLarge_relaxesGroupRule() {
+        // Six of eight authors in one group leave no offset that avoids it
+        int[] groupOf = {0, 0, 0, 0, 0, 0, 1, 2};
+
+        ReviewAssigner.Assignment assignment = ReviewAssigner.assign(groupOf, 2, true, new Random(1));
+
+        assertThat(assignment.groupsRelaxed()).isTrue();
+        int[] load = new int[groupOf.length];
+        for (int submission = 0; submission < groupOf.length; submission++) {
+            for (int slot = 0; slot < 2; slot++) {
+                int reviewer = assignment.reviewer(submission, slot);
+                assertThat(reviewer).isNotEqualTo(submission);
+                load[reviewer]++;
+            }
+        }
+        assertThat(load).containsOnly(2);
+    }
+
+    @Test
+    void assign_singleSubmission_assignsNobody() {
+        ReviewAssigner.Assignment assignment = ReviewAssigner.assign(new int[]{0}, 3, true, new Random(1));
+
+        assertThat(assignment.perSubmission()).isZero();
+        assertThat(assignment.reviewers()).isEmpty();
+    }
+
+    private static void assertValid(ReviewAssigner.Assignment assignment, int[] groupOf, int n) {
+        int k = assignment.perSubmission();
+        int[] load = new int[n];
+        for (int submission = 0; submission < n; submission++) {
+            Set<Integer> reviewers = new HashSet<>();
+            for (int slot = 0; slot < k; slot++) {
+                int reviewer = assignment.reviewer(submission, slot);
+                assertThat(reviewer).isNotEqualTo(submission);
+                if (!assignment.groupsRelaxed()) {
+                    assertThat(groupOf[reviewer]).isNotEqualTo(groupOf[submission]);
+                }
+                reviewers.add(reviewer);
+                load[reviewer]++;
+            }
+            assertThat(reviewers).hasSize(k);
+        }
+        assertThat(load).containsOnly(k);
+    }
+
+    // Groups of up to maxGroup members, numbered 0.. in order of appearance
+    private static int[] randomGroups(int n, int maxGroup, Random random) {
+        int[] groupOf = new int[n];
+        int group = 0;
+        for (int i = 0; i < n; ) {
+            int size = Math.min(n - i, 1 + random.nextInt(maxGroup));
+            for (int member = 0; member < size; member++) {
+                groupOf[i++] = group;
+            }
+            group++;
+        }
+        return groupOf;
+    }
+}
@@ -0,0 +1,71 @@
+package org.tduc.homeworkservice.plagiarism;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MinHashLshTest {
+
+    private static final String ESSAY = "The French Revolution began in 1789 when financial crisis and food shortages "
+            + "pushed the Third Estate to form the National Assembly, which abolished feudal privileges and "
+            + "issued the Declaration of the Rights of Man and of the Citizen before the monarchy collapsed";
+
+    private final LshIndex lsh = new LshIndex(32, 4);
+    private final MinHasher hasher = new MinHasher(lsh.signatureLength(), 3);
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void signature_ignoresCaseAndPunctuation() {
+        int[] a = hasher.signature(ESSAY);
+        int[] b = hasher.signature(ESSAY.toUpperCase().replace(" ", ",  "));
+
+        assertThat(MinHasher.similarity(a, 0, b, 0, a.length)).isEqualTo(1.0);
+        assertThat(hasher.signature("  ...  ")).isNull();
+    }
+
+    @Test
+    void candidatePairs_findsNearDuplicateButNotUnrelatedText() {
+        String copy = ESSAY.replace("financial crisis", "a financial crisis");
+        String unrelated = "Photosynthesis converts light energy into chemical energy stored in glucose, "
+                + "using carbon dioxide and water and releasing oxygen through the stomata of the leaf";
+        int length = lsh.signatureLength();
+        int[] signatures = new int[3 * length];
+        boolean[] present = new boolean[3];
+        present[0] = hasher.signature(ESSAY, signatures, 0);
+        present[1] = hasher.signature(unrelated, signatures, length);
+        present[2] = hasher.signature(copy, signatures, 2 * length);
+
+        long[] pairs = lsh.candidatePairs(signatures, 3, present, 1000, pool);
+
+        assertThat(pairs).containsExactly(LshIndex.pair(0, 2));
+        assertThat(MinHasher.similarity(signatures, 0, signatures, 2 * length, length)).isGreaterThan(0.7);
+        assertThat(MinHasher.similarity(signatures, 0, signatures, length, length)).isLessThan(0.1);
+    }
+
+    @Test
+    void candidatePairs_skipsDocsWithoutText() {
+        int length = lsh.signatureLength();
+        int[] signatures = new int[2 * length];
+        boolean[] present = {hasher.signature(ESSAY, signatures, 0), false};
+
+        assertThat(lsh.candidatePairs(signatures, 2, present, 1000, pool)).isEmpty();
+    }
+
+    @Test
+    void checkSignatureFits_rejectsSignaturesLargerThanColumn() {
+        assertThatCode(() -> PlagiarismService.checkSignatureFits(64, 4)).doesNotThrowAnyException();
+        assertThatThrownBy(() -> PlagiarismService.checkSignatureFits(64, 5))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("1280-byte");
+    }
+}
@@ -0,0 +1,85 @@
+package org.tduc.homeworkservice.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.tduc.homeworkservice.model.Homework;
+import org.tduc.homeworkservice.repository.HomeworkRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FulltextHomeworkSearchIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private HomeworkRepository homeworkRepository;
+
+    @InjectMocks
+    private FulltextHomeworkSearchIndex searchIndex;
+
+    @Test
+    void booleanQuery_requiresEveryIndexableWordAsPrefix() {
+        assertThat(FulltextHomeworkSearchIndex.booleanQuery("Linear Algebra"))
+                .isEqualTo("+linear* +algebra*");
+        // Operators in user input are treated as separators, short words and stopwords are dropped
+        assertThat(FulltextHomeworkSearchIndex.booleanQuery("the -essay* on \"WW2\" (draft)"))
+                .isEqualTo("+essay* +ww2* +draft*");
+        assertThat(FulltextHomeworkSearchIndex.booleanQuery("Giải tích"))
+                .isEqualTo("+giải* +tích*");
+    }
+
+    @Test
+    void booleanQuery_nullWhenNothingIsIndexable() {
+        assertThat(FulltextHomeworkSearchIndex.booleanQuery("ab of")).isNull();
+        assertThat(FulltextHomeworkSearchIndex.booleanQuery("  ")).isNull();
+    }
+
+    @Test
+    void document_joinsDescriptionInstructionsAndTags() {
+        Homework homework = Homework.builder()
+                .description("Solve the exercises")
+                .instructions("Show your work")
+                .tags(List.of("math", "algebra"))
+                .build();
+
+        assertThat(FulltextHomeworkSearchIndex.document(homework))
+                .isEqualTo("Solve the exercises\nShow your work\nmath algebra");
+    }
+
+    @Test
+    void search_shortKeywordFallsBackToLike() {
+        Page<Homework> page = new PageImpl<>(List.of());
+        when(homeworkRepository.searchByKeyword(eq("course-1"), eq("ab"), any(Pageable.class))).thenReturn(page);
+
+        assertThat(searchIndex.search(" ab ", "course-1", PageRequest.of(0, 10))).isSameAs(page);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void search_returnsHomeworkInRankOrderAndSkipsCountOnPartialPage() {
+        Homework first = Homework.builder().id("hw-2").build();
+        Homework second = Homework.builder().id("hw-1").build();
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class)))
+                .thenReturn(List.of("hw-2", "hw-1"));
+        when(homeworkRepository.findAllById(List.of("hw-2", "hw-1"))).thenReturn(List.of(second, first));
+
+        Page<Homework> result = searchIndex.search("algebra", null, PageRequest.of(0, 10));
+
+        assertThat(result.getContent()).containsExactly(first, second);
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class), any(Object[].class));
+    }
+}
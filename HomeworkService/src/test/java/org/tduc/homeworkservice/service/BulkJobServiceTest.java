@@ -0,0 +1,150 @@
+package org.tduc.homeworkservice.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.tduc.homeworkservice.dto.request.GradingRequest;
+import org.tduc.homeworkservice.dto.response.BulkJobResponse;
+import org.tduc.homeworkservice.exception.AppException;
+import org.tduc.homeworkservice.exception.ErrorCode;
+import org.tduc.homeworkservice.model.Homework;
+import org.tduc.homeworkservice.model.Submission;
+import org.tduc.homeworkservice.model.SubmissionStatus;
+import org.tduc.homeworkservice.repository.HomeworkRepository;
+import org.tduc.homeworkservice.repository.SubmissionRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BulkJobService, run on the calling thread.
+ */
+@ExtendWith(MockitoExtension.class)
+class BulkJobServiceTest {
+
+    @Mock
+    private SubmissionRepository submissionRepository;
+    @Mock
+    private HomeworkRepository homeworkRepository;
+    @Mock
+    private HomeworkStatsService homeworkStatsService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private BulkJobStore bulkJobStore;
+
+    private BulkJobService bulkJobService;
+
+    @BeforeEach
+    void setUp() {
+        bulkJobService = new BulkJobService(submissionRepository, homeworkRepository, homeworkStatsService,
+                eventPublisher, transactionManager, entityManager, Runnable::run, bulkJobStore);
+        ReflectionTestUtils.setField(bulkJobService, "chunkSize", 2);
+        ReflectionTestUtils.setField(bulkJobService, "maxErrors", 10);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    void submitGrading_gradesInChunksAndLoadsHomeworkOnce() {
+        Homework homework = Homework.builder().id("hw-1").maxScore(BigDecimal.TEN).build();
+        when(submissionRepository.findAllById(List.of("s1", "s2")))
+                .thenReturn(List.of(submission("s1"), submission("s2")));
+        when(submissionRepository.findAllById(List.of("s3")))
+                .thenReturn(List.of(submission("s3")));
+        when(homeworkRepository.findAllById(anyCollection())).thenReturn(List.of(homework));
+
+        BulkJobResponse queued = bulkJobService.submitGrading(List.of("s1", "s2", "s3", "s1"), template("8"));
+        BulkJobResponse job = lastSaved(queued.getJobId());
+
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        assertThat(job.getTotal()).isEqualTo(3);
+        assertThat(job.getSucceeded()).isEqualTo(3);
+        verify(homeworkRepository, times(1)).findAllById(anyCollection());
+        verify(entityManager, times(2)).flush();
+    }
+
+    @Test
+    void submitGrading_reportsMissingAndInvalidRows() {
+        Homework homework = Homework.builder().id("hw-1").maxScore(BigDecimal.ONE).build();
+        when(submissionRepository.findAllById(List.of("s1", "missing")))
+                .thenReturn(List.of(submission("s1")));
+        when(homeworkRepository.findAllById(anyCollection())).thenReturn(List.of(homework));
+
+        BulkJobResponse queued = bulkJobService.submitGrading(List.of("s1", "missing"), template("5"));
+        BulkJobResponse job = lastSaved(queued.getJobId());
+
+        assertThat(job.getStatus()).isEqualTo("COMPLETED_WITH_ERRORS");
+        assertThat(job.getFailed()).isEqualTo(2);
+        assertThat(job.getErrors()).hasSize(2);
+    }
+
+    @Test
+    void submitTask_runsOnceOutsideTransaction() {
+        List<String> seen = new ArrayList<>();
+
+        BulkJobResponse queued = bulkJobService.submitTask(BulkJobService.TYPE_PLAGIARISM_RECHECK, "hw-1", seen::add);
+        BulkJobResponse job = lastSaved(queued.getJobId());
+
+        assertThat(seen).containsExactly("hw-1");
+        assertThat(job.getType()).isEqualTo(BulkJobService.TYPE_PLAGIARISM_RECHECK);
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        assertThat(job.getSucceeded()).isEqualTo(1);
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    @Test
+    void submitTask_failureEndsJobWithError() {
+        BulkJobResponse queued = bulkJobService.submitTask(BulkJobService.TYPE_PLAGIARISM_RECHECK, "hw-1", id -> {
+            throw new IllegalStateException("boom");
+        });
+        BulkJobResponse job = lastSaved(queued.getJobId());
+
+        assertThat(job.getStatus()).isEqualTo("COMPLETED_WITH_ERRORS");
+        assertThat(job.getErrors()).containsExactly("hw-1: boom");
+    }
+
+    @Test
+    void getJob_readsStoreAndRejectsUnknownIds() {
+        BulkJobResponse stored = BulkJobResponse.builder().jobId("job-1").status("RUNNING").build();
+        when(bulkJobStore.find("job-1")).thenReturn(stored);
+
+        assertThat(bulkJobService.getJob("job-1")).isSameAs(stored);
+        assertThatThrownBy(() -> bulkJobService.getJob("job-2"))
+                .isInstanceOf(AppException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.BULK_JOB_NOT_FOUND);
+    }
+
+    // The job as any replica would read it after the run: the last state saved to the store
+    private BulkJobResponse lastSaved(String jobId) {
+        verify(bulkJobStore).create(argThat(job -> job.getJobId().equals(jobId)));
+        ArgumentCaptor<BulkJobResponse> saved = ArgumentCaptor.forClass(BulkJobResponse.class);
+        verify(bulkJobStore, atLeastOnce()).save(saved.capture());
+        return saved.getAllValues().get(saved.getAllValues().size() - 1);
+    }
+
+    private static Submission submission(String id) {
+        return Submission.builder().id(id).homeworkId("hw-1").status(SubmissionStatus.SUBMITTED).isLate(false).build();
+    }
+
+    private static GradingRequest template(String score) {
+        return GradingRequest.builder().score(new BigDecimal(score)).gradedBy("teacher-1").build();
+    }
+}
@@ -0,0 +1,69 @@
+package org.tduc.homeworkservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.tduc.homeworkservice.exception.AppException;
+import org.tduc.homeworkservice.exception.ErrorCode;
+import org.tduc.homeworkservice.model.SubmissionStatus;
+import org.tduc.homeworkservice.repository.HomeworkRepository;
+import org.tduc.homeworkservice.repository.SubmissionRepository;
+import org.tduc.homeworkservice.repository.projection.GradebookCellView;
+import org.tduc.homeworkservice.repository.projection.GradebookColumnView;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GradebookExportServiceTest {
+
+    @Mock
+    private HomeworkRepository homeworkRepository;
+    @Mock
+    private SubmissionRepository submissionRepository;
+
+    @InjectMocks
+    private GradebookExportService gradebookExportService;
+
+    @Test
+    void export_csv_pivotsOneRowPerStudentWithLatestScoredAttempt() throws Exception {
+        when(homeworkRepository.findGradebookColumns("course-1")).thenReturn(List.of(
+                new GradebookColumnView("hw-1", "Essay, part 1", new BigDecimal("10.00")),
+                new GradebookColumnView("hw-2", "Quiz", new BigDecimal("20.00"))));
+        when(submissionRepository.streamGradebookCells("course-1")).thenReturn(Stream.of(
+                cell("alice", "hw-1", 2, null, SubmissionStatus.SUBMITTED),
+                cell("alice", "hw-1", 1, "8.00", SubmissionStatus.GRADED),
+                cell("alice", "hw-2", 1, "15.00", SubmissionStatus.GRADED),
+                cell("bob", "hw-2", 1, "20.00", SubmissionStatus.GRADED)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        gradebookExportService.export("course-1", GradebookExportService.Format.CSV, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8).substring(1);
+        assertThat(csv.split("\r\n")).containsExactly(
+                "Student ID,\"Essay, part 1 (10)\",Quiz (20),Total (30),Percentage",
+                "alice,8.00,15.00,23.00,76.67",
+                "bob,,20.00,20.00,66.67");
+    }
+
+    @Test
+    void parse_unknownFormat_throws() {
+        assertThat(GradebookExportService.Format.parse("XLSX")).isEqualTo(GradebookExportService.Format.XLSX);
+        assertThatThrownBy(() -> GradebookExportService.Format.parse("pdf"))
+                .isInstanceOf(AppException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.INVALID_EXPORT_FORMAT);
+    }
+
+    private static GradebookCellView cell(String student, String homework, int attempt, String score, SubmissionStatus status) {
+        return new GradebookCellView(student, homework, attempt, status, score == null ? null : new BigDecimal(score), false);
+    }
+}
@@ -0,0 +1,80 @@
+package org.tduc.homeworkservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.tduc.homeworkservice.model.AssigneeType;
+import org.tduc.homeworkservice.model.Homework;
+import org.tduc.homeworkservice.model.HomeworkAssignee;
+import org.tduc.homeworkservice.repository.HomeworkAssigneeRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for HomeworkAssignmentService.
+ */
+@ExtendWith(MockitoExtension.class)
+class HomeworkAssignmentServiceTest {
+
+    @Mock
+    private HomeworkAssigneeRepository assigneeRepository;
+
+    @InjectMocks
+    private HomeworkAssignmentService assignmentService;
+
+    @Test
+    void parseIds_acceptsCommaJoinedAndJsonArrays() {
+        assertThat(HomeworkAssignmentService.parseIds("s1,s2, s1")).containsExactly("s1", "s2");
+        assertThat(HomeworkAssignmentService.parseIds("[\"s1\", \"s2\"]")).containsExactly("s1", "s2");
+        assertThat(HomeworkAssignmentService.parseIds(null)).isEmpty();
+        assertThat(HomeworkAssignmentService.parseIds("[]")).isEmpty();
+    }
+
+    @Test
+    void assigneesFor_unassignedHomework_getsEveryoneRowPlusGroups() {
+        LocalDateTime due = LocalDateTime.now().plusDays(1);
+
+        List<HomeworkAssignee> rows = HomeworkAssignmentService.assigneesFor("hw-1", null, "g1", due);
+
+        assertThat(rows).extracting(HomeworkAssignee::getAssigneeType)
+                .containsExactly(AssigneeType.EVERYONE, AssigneeType.GROUP);
+        assertThat(rows).extracting(HomeworkAssignee::getAssigneeId)
+                .containsExactly(HomeworkAssignee.EVERYONE_ID, "g1");
+    }
+
+    @Test
+    void sync_sameAssignees_onlyMovesDueDate() {
+        LocalDateTime oldDue = LocalDateTime.now().plusDays(1);
+        LocalDateTime newDue = oldDue.plusDays(3);
+        Homework homework = Homework.builder().id("hw-1").assignedTo(List.of("s1", "s2")).dueDate(newDue).build();
+        when(assigneeRepository.findByHomeworkId("hw-1"))
+                .thenReturn(HomeworkAssignmentService.assigneesFor("hw-1", "s2,s1", null, oldDue));
+
+        assignmentService.sync(homework);
+
+        verify(assigneeRepository).updateDueDate("hw-1", newDue);
+        verify(assigneeRepository, never()).deleteByHomeworkId(any());
+        verify(assigneeRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void sync_changedAssignees_replacesRows() {
+        LocalDateTime due = LocalDateTime.now().plusDays(1);
+        Homework homework = Homework.builder().id("hw-1").assignedTo(List.of("s1", "s3")).dueDate(due).build();
+        when(assigneeRepository.findByHomeworkId("hw-1"))
+                .thenReturn(HomeworkAssignmentService.assigneesFor("hw-1", "s1,s2", null, due));
+
+        assignmentService.sync(homework);
+
+        verify(assigneeRepository).deleteByHomeworkId("hw-1");
+        verify(assigneeRepository).saveAll(anyList());
+    }
+}
@@ -0,0 +1,132 @@
+package org.tduc.homeworkservice.service;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.tduc.homeworkservice.event.HomeworkChangedEvent;
+import org.tduc.homeworkservice.model.Homework;
+import org.tduc.homeworkservice.model.HomeworkAttachment;
+import org.tduc.homeworkservice.repository.HomeworkRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HomeworkEntityCacheSyncTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private HomeworkRepository homeworkRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private Cache cache;
+
+    @InjectMocks
+    private HomeworkEntityCacheSync cacheSync;
+
+    @Test
+    void onPostUpdate_publishesHomeworkId() {
+        ReflectionTestUtils.setField(cacheSync, "broadcastEnabled", true);
+
+        cacheSync.onPostUpdate(updateOf(new Homework(), "hw-1"));
+
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(HomeworkEntityCacheSync.CHANNEL), message.capture());
+        assertThat(message.getValue()).endsWith("|homework|hw-1");
+    }
+
+    @Test
+    void onMessage_ownMessage_isIgnored() {
+        ReflectionTestUtils.setField(cacheSync, "broadcastEnabled", true);
+        cacheSync.onPostUpdate(updateOf(new HomeworkAttachment(), "att-1"));
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(HomeworkEntityCacheSync.CHANNEL), message.capture());
+
+        cacheSync.onMessage(message(message.getValue()), null);
+
+        verify(entityManagerFactory, never()).getCache();
+    }
+
+    @Test
+    void onMessage_otherReplicaHomework_evictsEntityAndQueryResults() {
+        org.hibernate.Cache hibernateCache = mock(org.hibernate.Cache.class);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        when(cache.unwrap(org.hibernate.Cache.class)).thenReturn(hibernateCache);
+
+        cacheSync.onMessage(message("other-replica|homework|hw-1"), null);
+
+        verify(cache).evict(Homework.class, "hw-1");
+        verify(hibernateCache).evictDefaultQueryRegion();
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void onMessage_homeworkService1Write_replaysAsHomeworkChange() {
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        when(cache.unwrap(org.hibernate.Cache.class)).thenReturn(mock(org.hibernate.Cache.class));
+        Homework homework = Homework.builder().id("hw-1").courseId("c1").assignedTo(List.of("s1", "s2")).build();
+        when(homeworkRepository.findById("hw-1")).thenReturn(Optional.of(homework));
+
+        cacheSync.onMessage(message(HomeworkEntityCacheSync.HOMEWORK_SERVICE1_ORIGIN + "x|homework|hw-1"), null);
+
+        verify(eventPublisher).publishEvent(new HomeworkChangedEvent(Set.of("hw-1"), Set.of("c1"), Set.of("s1", "s2"), false));
+    }
+
+    @Test
+    void onMessage_homeworkService1Delete_replaysForEveryone() {
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        when(cache.unwrap(org.hibernate.Cache.class)).thenReturn(mock(org.hibernate.Cache.class));
+        when(homeworkRepository.findById("hw-1")).thenReturn(Optional.empty());
+
+        cacheSync.onMessage(message(HomeworkEntityCacheSync.HOMEWORK_SERVICE1_ORIGIN + "x|homework|hw-1"), null);
+
+        verify(eventPublisher).publishEvent(new HomeworkChangedEvent(Set.of("hw-1"), Set.of(), Set.of(), true));
+    }
+
+    @Test
+    void onMessage_otherReplicaAttachment_evictsAttachmentOnly() {
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+
+        cacheSync.onMessage(message("other-replica|attachment|att-1"), null);
+
+        verify(cache).evict(HomeworkAttachment.class, "att-1");
+        verify(cache, never()).unwrap(any());
+    }
+
+    private static PostUpdateEvent updateOf(Object entity, String id) {
+        PostUpdateEvent event = mock(PostUpdateEvent.class);
+        when(event.getEntity()).thenReturn(entity);
+        when(event.getId()).thenReturn(id);
+        return event;
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(HomeworkEntityCacheSync.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -7,9 +7,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.tduc.homeworkservice.analytics.GradebookMatrixService;
 import org.tduc.homeworkservice.dto.request.HomeworkCreationRequest;
 import org.tduc.homeworkservice.dto.request.HomeworkUpdateRequest;
 import org.tduc.homeworkservice.dto.response.HomeworkResponse;
+import org.tduc.homeworkservice.event.HomeworkChangedEvent;
 import org.tduc.homeworkservice.exception.AppException;
 import org.tduc.homeworkservice.exception.ErrorCode;
 import org.tduc.homeworkservice.mapper.HomeworkMapper;
@@ -17,9 +23,14 @@ import org.tduc.homeworkservice.model.Homework;
 import org.tduc.homeworkservice.model.HomeworkStatus;
 import org.tduc.homeworkservice.repository.HomeworkAttachmentRepository;
 import org.tduc.homeworkservice.repository.HomeworkRepository;
+import org.tduc.homeworkservice.repository.projection.SubmissionStatsView;
+import org.tduc.homeworkservice.search.HomeworkSearchIndex;
 import org.tduc.homeworkservice.util.AuthContextUtil;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -41,6 +52,22 @@ class HomeworkServiceTest {
     private HomeworkMapper homeworkMapper;
     @Mock
     private AuthContextUtil authContextUtil;
+    @Mock
+    private HomeworkAssignmentService assignmentService;
+    @Mock
+    private StudentFeedCache feedCache;
+    @Mock
+    private HomeworkStatsService homeworkStatsService;
+    @Mock
+    private BulkJobService bulkJobService;
+    @Mock
+    private HomeworkSearchIndex searchIndex;
+    @Mock
+    private GradebookExportService gradebookExportService;
+    @Mock
+    private GradebookMatrixService gradebookMatrixService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private HomeworkService homeworkService;
@@ -72,6 +99,8 @@ class HomeworkServiceTest {
 
         assertThat(resp).isNotNull();
         verify(homeworkRepository).save(any(Homework.class));
+        verify(assignmentService).sync(saved);
+        verify(eventPublisher).publishEvent(any(HomeworkChangedEvent.class));
         verify(homeworkMapper).toHomeworkResponse(saved);
     }
 
@@ -121,5 +150,24 @@ class HomeworkServiceTest {
                 .isInstanceOf(AppException.class)
                 .hasFieldOrPropertyWithValue("errorCode", ErrorCode.HOMEWORK_NOT_FOUND);
     }
+
+    @Test
+    void getHomeworksByCourse_fillsSubmissionStatsFromOneBatchedQuery() {
+        Homework hw1 = Homework.builder().id("hw-1").build();
+        Homework hw2 = Homework.builder().id("hw-2").build();
+        when(homeworkRepository.findByCourseIdOrderByCreatedAtDesc(eq("course-1"), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(hw1, hw2)));
+        when(homeworkMapper.toHomeworkResponse(any(Homework.class))).thenAnswer(inv -> new HomeworkResponse());
+        when(homeworkStatsService.statsFor(List.of("hw-1", "hw-2"))).thenReturn(Map.of(
+                "hw-1", new SubmissionStatsView("hw-1", 3L, 2L, 1L, 0L, 2L, new BigDecimal("15.00")),
+                "hw-2", SubmissionStatsView.empty("hw-2")));
+
+        Page<HomeworkResponse> page = homeworkService.getHomeworksByCourse("course-1", 0, 10);
+
+        assertThat(page.getContent().get(0).getTotalSubmissions()).isEqualTo(3);
+        assertThat(page.getContent().get(0).getAverageScore()).isEqualByComparingTo("7.50");
+        assertThat(page.getContent().get(1).getTotalSubmissions()).isZero();
+        verify(homeworkStatsService, times(1)).statsFor(anyCollection());
+    }
 }
 // ...existing code...
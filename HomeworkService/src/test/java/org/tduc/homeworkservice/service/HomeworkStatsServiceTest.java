@@ -0,0 +1,92 @@
+package org.tduc.homeworkservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.tduc.homeworkservice.analytics.GradeDistributionService;
+import org.tduc.homeworkservice.model.Submission;
+import org.tduc.homeworkservice.model.SubmissionStatus;
+import org.tduc.homeworkservice.repository.HomeworkStatsRepository;
+import org.tduc.homeworkservice.repository.SubmissionRepository;
+import org.tduc.homeworkservice.repository.projection.SubmissionStatsView;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for HomeworkStatsService.
+ */
+@ExtendWith(MockitoExtension.class)
+class HomeworkStatsServiceTest {
+
+    @Mock
+    private SubmissionRepository submissionRepository;
+    @Mock
+    private HomeworkStatsRepository homeworkStatsRepository;
+    @Mock
+    private GradeDistributionService gradeDistributionService;
+
+    @InjectMocks
+    private HomeworkStatsService homeworkStatsService;
+
+    @Test
+    void averageScore_dividesByScoredRowsOnly() {
+        SubmissionStatsView view = new SubmissionStatsView("hw-1", 5L, 3L, 2L, 0L, 2L, new BigDecimal("17.00"));
+
+        assertThat(view.averageScore()).isEqualByComparingTo("8.50");
+    }
+
+    @Test
+    void statsFor_fillsZeroesForHomeworkWithoutSubmissions() {
+        SubmissionStatsView hw1 = new SubmissionStatsView("hw-1", 2L, 1L, 1L, 0L, 1L, BigDecimal.TEN);
+        when(submissionRepository.aggregateStatsByHomeworkIds(anyCollection())).thenReturn(List.of(hw1));
+
+        Map<String, SubmissionStatsView> stats = homeworkStatsService.statsFor(List.of("hw-1", "hw-2"));
+
+        assertThat(stats.get("hw-1")).isEqualTo(hw1);
+        assertThat(stats.get("hw-2").total()).isZero();
+        verifyNoInteractions(homeworkStatsRepository);
+    }
+
+    @Test
+    void recordChange_grading_movesSubmissionFromPendingToGraded() {
+        ReflectionTestUtils.setField(homeworkStatsService, "countersEnabled", true);
+        Submission submission = Submission.builder().homeworkId("hw-1").status(SubmissionStatus.SUBMITTED).isLate(true).build();
+        HomeworkStatsService.Snapshot before = HomeworkStatsService.Snapshot.of(submission);
+        submission.setStatus(SubmissionStatus.GRADED);
+        submission.setScore(new BigDecimal("7.50"));
+
+        homeworkStatsService.recordChange("hw-1", before, submission);
+
+        verify(homeworkStatsRepository).applyDelta(eq("hw-1"), eq(0L), eq(1L), eq(-1L), eq(0L), eq(1L),
+                argThat(sum -> sum.compareTo(new BigDecimal("7.50")) == 0));
+    }
+
+    @Test
+    void recordChange_regrade_movesGradeBetweenDistributionBins() {
+        Submission submission = Submission.builder().homeworkId("hw-1").status(SubmissionStatus.GRADED)
+                .score(new BigDecimal("7.50")).percentage(new BigDecimal("75.00")).build();
+        HomeworkStatsService.Snapshot before = HomeworkStatsService.Snapshot.of(submission);
+        submission.setScore(new BigDecimal("8.25"));
+        submission.setPercentage(new BigDecimal("82.50"));
+
+        homeworkStatsService.recordChange("hw-1", before, submission);
+
+        verify(gradeDistributionService).recordChange("hw-1", 750, 825);
+    }
+
+    @Test
+    void recordChange_countersDisabled_doesNothing() {
+        homeworkStatsService.recordChange("hw-1", null, Submission.builder().homeworkId("hw-1").build());
+
+        verifyNoInteractions(homeworkStatsRepository);
+    }
+}
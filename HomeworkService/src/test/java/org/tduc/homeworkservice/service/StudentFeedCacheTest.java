@@ -0,0 +1,147 @@
+package org.tduc.homeworkservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.tduc.homeworkservice.dto.response.HomeworkResponse;
+import org.tduc.homeworkservice.event.HomeworkChangedEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for StudentFeedCache, mostly the in-process tier.
+ */
+@ExtendWith(MockitoExtension.class)
+class StudentFeedCacheTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private StudentFeedCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new StudentFeedCache(redisTemplate, new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "redisEnabled", false);
+        ReflectionTestUtils.setField(cache, "maxTtlSeconds", 600L);
+        ReflectionTestUtils.setField(cache, "localMaxEntries", 100);
+    }
+
+    @Test
+    void get_secondCallServedFromCache() {
+        cache.get(StudentFeedCache.Feed.ALL, "s1", feed(LocalDateTime.now().plusDays(1)));
+        cache.get(StudentFeedCache.Feed.ALL, "s1", feed(LocalDateTime.now().plusDays(1)));
+
+        assertThat(loads).hasValue(1);
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void activeFeed_expiresWhenEarliestDueDatePasses() {
+        cache.get(StudentFeedCache.Feed.ACTIVE, "s1", feed(LocalDateTime.now().minusSeconds(1)));
+        cache.get(StudentFeedCache.Feed.ACTIVE, "s1", feed(LocalDateTime.now().plusDays(1)));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void studentEvent_dropsOnlyThoseStudents() {
+        cache.get(StudentFeedCache.Feed.ALL, "s1", feed(LocalDateTime.now().plusDays(1)));
+        cache.get(StudentFeedCache.Feed.ALL, "s2", feed(LocalDateTime.now().plusDays(1)));
+
+        cache.onHomeworkChanged(new HomeworkChangedEvent(Set.of("hw-1"), Set.of("c1"), Set.of("s1"), false));
+        cache.get(StudentFeedCache.Feed.ALL, "s1", feed(LocalDateTime.now().plusDays(1)));
+        cache.get(StudentFeedCache.Feed.ALL, "s2", feed(LocalDateTime.now().plusDays(1)));
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void everyoneEvent_dropsAllFeeds() {
+        cache.get(StudentFeedCache.Feed.ALL, "s1", feed(LocalDateTime.now().plusDays(1)));
+        cache.get(StudentFeedCache.Feed.ACTIVE, "s2", feed(LocalDateTime.now().plusDays(1)));
+
+        cache.onHomeworkChanged(new HomeworkChangedEvent(Set.of("hw-1"), Set.of("c1"), Set.of(), true));
+        cache.get(StudentFeedCache.Feed.ALL, "s1", feed(LocalDateTime.now().plusDays(1)));
+        cache.get(StudentFeedCache.Feed.ACTIVE, "s2", feed(LocalDateTime.now().plusDays(1)));
+
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void redisWrite_passesStudentGenerationReadBeforeLoading() {
+        ValueOperations<String, String> values = enableRedis();
+        when(values.get("homework:feed:student-generation:s1")).thenReturn("4");
+
+        cache.get(StudentFeedCache.Feed.ALL, "s1", feed(LocalDateTime.now().plusDays(1)));
+
+        verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of("homework:feed:g0:all:s1", "homework:feed:student-generation:s1")),
+                anyString(), eq("4"), anyString());
+    }
+
+    @Test
+    void redisWrite_skippedWhenStudentGenerationUnreadable() {
+        ValueOperations<String, String> values = enableRedis();
+        when(values.get("homework:feed:student-generation:s1")).thenThrow(new IllegalStateException("down"));
+
+        cache.get(StudentFeedCache.Feed.ALL, "s1", feed(LocalDateTime.now().plusDays(1)));
+
+        assertThat(loads).hasValue(1);
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+    }
+
+    @Test
+    void studentEvent_bumpsGenerationsBeforeDeletingFeeds() {
+        enableRedis();
+
+        cache.onHomeworkChanged(new HomeworkChangedEvent(Set.of("hw-1"), Set.of("c1"), Set.of("s1"), false));
+
+        InOrder order = inOrder(redisTemplate);
+        order.verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of("homework:feed:student-generation:s1")), eq("600"));
+        order.verify(redisTemplate).delete(List.of("homework:feed:g0:all:s1", "homework:feed:g0:active:s1"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ValueOperations<String, String> enableRedis() {
+        ReflectionTestUtils.setField(cache, "redisEnabled", true);
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(values);
+        return values;
+    }
+
+    private Supplier<List<HomeworkResponse>> feed(LocalDateTime dueDate) {
+        return () -> {
+            loads.incrementAndGet();
+            return List.of(HomeworkResponse.builder().id("hw-1").dueDate(dueDate).build());
+        };
+    }
+}
@@ -0,0 +1,143 @@
+package org.tduc.homeworkservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.tduc.homeworkservice.event.SubmissionSubmittedEvent;
+import org.tduc.homeworkservice.exception.AppException;
+import org.tduc.homeworkservice.exception.ErrorCode;
+import org.tduc.homeworkservice.model.HomeworkStatus;
+import org.tduc.homeworkservice.model.LatePenaltyPolicy;
+import org.tduc.homeworkservice.model.Submission;
+import org.tduc.homeworkservice.repository.SubmissionRepository;
+
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SubmissionIngestService with batch writes off, so every submit is written directly.
+ */
+@ExtendWith(MockitoExtension.class)
+class SubmissionIngestServiceTest {
+
+    @Mock
+    private SubmissionRepository submissionRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private HomeworkStatsService homeworkStatsService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SubmissionIngestService ingestService;
+
+    @BeforeEach
+    void setUp() {
+        ingestService = new SubmissionIngestService(submissionRepository, jdbcTemplate, homeworkStatsService,
+                eventPublisher, transactionManager);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    void ingest_takesAttemptNumberFromCounterAndPublishes() throws Exception {
+        counterAfterReserve(3);
+        when(submissionRepository.saveAll(anyList())).thenAnswer(i -> {
+            List<Submission> batch = i.getArgument(0);
+            batch.forEach(s -> s.setId("sub-1"));
+            return batch;
+        });
+
+        Submission saved = ingestService.ingest(submission(), rules(true, 5));
+
+        assertThat(saved.getId()).isEqualTo("sub-1");
+        assertThat(saved.getAttemptNumber()).isEqualTo(3);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        verify(homeworkStatsService).recordChange("hw-1", null, saved);
+        verify(eventPublisher).publishEvent(new SubmissionSubmittedEvent("sub-1", "hw-1", true, false));
+    }
+
+    @Test
+    void ingest_overMaxAttempts_releasesReservationAndThrows() throws Exception {
+        counterAfterReserve(3);
+
+        assertThatThrownBy(() -> ingestService.ingest(submission(), rules(true, 2)))
+                .isInstanceOf(AppException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.MAX_ATTEMPTS_EXCEEDED);
+
+        verify(jdbcTemplate).batchUpdate(contains("attempts = attempts - ?"),
+                argThat((List<Object[]> args) -> args.size() == 1 && args.get(0)[0].equals(1)
+                        && args.get(0)[1].equals("hw-1") && args.get(0)[2].equals("student-1")));
+        verify(submissionRepository, never()).saveAll(anyList());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void ingest_resubmissionNotAllowed_rejectsSecondAttempt() throws Exception {
+        counterAfterReserve(2);
+
+        assertThatThrownBy(() -> ingestService.ingest(submission(), rules(false, null)))
+                .isInstanceOf(AppException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.RESUBMISSION_NOT_ALLOWED);
+        verify(submissionRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void ingest_attemptNumberTakenMeanwhile_retriesOnce() throws Exception {
+        counterAfterReserve(2);
+        when(submissionRepository.saveAll(anyList()))
+                .thenThrow(new DuplicateKeyException("uk_submission_attempt"))
+                .thenAnswer(i -> i.getArgument(0));
+
+        Submission saved = ingestService.ingest(submission(), rules(true, 5));
+
+        assertThat(saved.getAttemptNumber()).isEqualTo(2);
+        verify(submissionRepository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    void reserve_raisesCounterToHighestExistingAttempt() throws Exception {
+        counterAfterReserve(1);
+        when(submissionRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
+
+        ingestService.ingest(submission(), rules(true, 5));
+
+        verify(jdbcTemplate).batchUpdate(contains("GREATEST(attempts, (SELECT COALESCE(MAX(m.attempt_number), 0)"),
+                anyList(), eq(1), any());
+    }
+
+    private void counterAfterReserve(int attempts) throws Exception {
+        ResultSet row = mock(ResultSet.class);
+        when(row.getString("homework_id")).thenReturn("hw-1");
+        when(row.getString("student_id")).thenReturn("student-1");
+        when(row.getInt("attempts")).thenReturn(attempts);
+        doAnswer(i -> {
+            i.<RowCallbackHandler>getArgument(1).processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+    }
+
+    private static Submission submission() {
+        return Submission.builder().homeworkId("hw-1").studentId("student-1").submittedAt(LocalDateTime.now()).build();
+    }
+
+    private static SubmissionRules rules(boolean resubmissionAllowed, Integer maxAttempts) {
+        return new SubmissionRules("hw-1", HomeworkStatus.PUBLISHED, LocalDateTime.now().plusDays(1), null, null,
+                false, resubmissionAllowed, maxAttempts, LatePenaltyPolicy.NONE, true, false);
+    }
+}
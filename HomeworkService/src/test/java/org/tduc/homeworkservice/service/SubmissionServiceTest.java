@@ -6,8 +6,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.tduc.homeworkservice.analytics.GradeDistributionService;
 import org.tduc.homeworkservice.dto.request.GradingRequest;
 import org.tduc.homeworkservice.dto.request.SubmissionCreationRequest;
+import org.tduc.homeworkservice.dto.response.CursorPage;
 import org.tduc.homeworkservice.dto.response.SubmissionResponse;
 import org.tduc.homeworkservice.exception.AppException;
 import org.tduc.homeworkservice.exception.ErrorCode;
@@ -15,19 +18,23 @@ import org.tduc.homeworkservice.mapper.SubmissionMapper;
 import org.tduc.homeworkservice.model.Homework;
 import org.tduc.homeworkservice.model.HomeworkStatus;
 import org.tduc.homeworkservice.model.Submission;
+import org.tduc.homeworkservice.peerreview.PeerReviewService;
+import org.tduc.homeworkservice.plagiarism.PlagiarismService;
 import org.tduc.homeworkservice.repository.HomeworkRepository;
 import org.tduc.homeworkservice.repository.SubmissionFileRepository;
 import org.tduc.homeworkservice.repository.SubmissionRepository;
 import org.tduc.homeworkservice.repository.SubmissionCommentRepository;
+import org.tduc.homeworkservice.util.SubmissionCursor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -43,6 +50,22 @@ class SubmissionServiceTest {
     private HomeworkRepository homeworkRepository;
     @Mock
     private SubmissionMapper submissionMapper;
+    @Mock
+    private HomeworkStatsService homeworkStatsService;
+    @Mock
+    private BulkJobService bulkJobService;
+    @Mock
+    private LatePenaltyService latePenaltyService;
+    @Mock
+    private PlagiarismService plagiarismService;
+    @Mock
+    private HomeworkRulesCache homeworkRulesCache;
+    @Mock
+    private SubmissionIngestService submissionIngestService;
+    @Mock
+    private PeerReviewService peerReviewService;
+    @Mock
+    private GradeDistributionService gradeDistributionService;
 
     @InjectMocks
     private SubmissionService submissionService;
@@ -65,6 +88,7 @@ class SubmissionServiceTest {
         hw.setAllowLateSubmissions(true);
         hw.setResubmissionAllowed(true);
         hw.setMaxAttempts(3);
+        SubmissionRules rules = SubmissionRules.of(hw);
 
         Submission mapped = new Submission();
         mapped.setHomeworkId("hw-1");
@@ -78,18 +102,35 @@ class SubmissionServiceTest {
         SubmissionResponse expectedResponse = new SubmissionResponse();
         expectedResponse.setId("sub-1");
 
-        when(homeworkRepository.findById("hw-1")).thenReturn(Optional.of(hw));
-        when(submissionRepository.findByHomeworkIdAndStudentIdOrderBySubmittedAtDesc("hw-1", "student-1"))
-                .thenReturn(Collections.emptyList());
+        when(homeworkRulesCache.get("hw-1")).thenReturn(rules);
         when(submissionMapper.toSubmission(creationRequest)).thenReturn(mapped);
-        when(submissionRepository.save(mapped)).thenReturn(saved);
+        when(submissionIngestService.ingest(mapped, rules)).thenReturn(saved);
         when(submissionMapper.toSubmissionResponse(saved)).thenReturn(expectedResponse);
 
         SubmissionResponse resp = submissionService.createSubmission(creationRequest);
 
         assertThat(resp).isNotNull();
         assertThat(resp.getId()).isEqualTo("sub-1");
-        verify(submissionRepository).save(mapped);
+        assertThat(mapped.getIsLate()).isFalse();
+        assertThat(mapped.getSubmittedAt()).isNotNull();
+        verify(submissionIngestService).ingest(mapped, rules);
+        verifyNoInteractions(homeworkRepository, submissionRepository);
+    }
+
+    @Test
+    void createSubmission_lateNotAllowed_throwsBeforeWriting() {
+        Homework hw = new Homework();
+        hw.setId("hw-1");
+        hw.setStatus(HomeworkStatus.PUBLISHED);
+        hw.setDueDate(LocalDateTime.now().minusMinutes(5));
+        hw.setAllowLateSubmissions(false);
+
+        when(homeworkRulesCache.get("hw-1")).thenReturn(SubmissionRules.of(hw));
+
+        assertThatThrownBy(() -> submissionService.createSubmission(creationRequest))
+                .isInstanceOf(AppException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.LATE_SUBMISSION_NOT_ALLOWED);
+        verifyNoInteractions(submissionIngestService);
     }
 
     @Test
@@ -98,7 +139,7 @@ class SubmissionServiceTest {
         hw.setId("hw-1");
         hw.setStatus(HomeworkStatus.DRAFT);
 
-        when(homeworkRepository.findById("hw-1")).thenReturn(Optional.of(hw));
+        when(homeworkRulesCache.get("hw-1")).thenReturn(SubmissionRules.of(hw));
 
         assertThatThrownBy(() -> submissionService.createSubmission(creationRequest))
                 .isInstanceOf(AppException.class)
@@ -144,6 +185,74 @@ class SubmissionServiceTest {
         verify(submissionRepository).save(any(Submission.class));
     }
 
+    @Test
+    void gradeSubmission_lateWithPolicy_deductsAndSetsPercentageAndLetter() {
+        LocalDateTime due = LocalDateTime.now().minusDays(2);
+        Submission submission = new Submission();
+        submission.setId("sub-1");
+        submission.setHomeworkId("hw-1");
+        submission.setIsLate(true);
+        submission.setSubmittedAt(due.plusMinutes(90));
+
+        Homework hw = new Homework();
+        hw.setId("hw-1");
+        hw.setMaxScore(new BigDecimal("50"));
+        hw.setDueDate(due);
+        hw.setLatePenalty("{\"enabled\":true,\"percentagePerHour\":0.05,\"maxPenalty\":0.5}");
+
+        GradingRequest grading = new GradingRequest();
+        grading.setScore(new BigDecimal("40"));
+        grading.setGradedBy("teacher-1");
+
+        when(submissionRepository.findById("sub-1")).thenReturn(Optional.of(submission));
+        when(homeworkRepository.findById("hw-1")).thenReturn(Optional.of(hw));
+        when(submissionRepository.save(any(Submission.class))).thenAnswer(i -> i.getArgument(0));
+
+        submissionService.gradeSubmission("sub-1", grading);
+
+        // 90 minutes late = two started hours = 10%
+        assertThat(submission.getMinutesLate()).isEqualTo(90);
+        assertThat(submission.getLatePenaltyApplied()).isEqualByComparingTo("10.00");
+        assertThat(submission.getScore()).isEqualByComparingTo("36.00");
+        assertThat(submission.getOriginalScore()).isEqualByComparingTo("40");
+        assertThat(submission.getPercentage()).isEqualByComparingTo("72.00");
+        assertThat(submission.getLetterGrade()).isEqualTo("C");
+    }
+
+    @Test
+    void getSubmissionsByHomeworkAfter_returnsCursorForNextPage() {
+        LocalDateTime at = LocalDateTime.of(2025, 3, 1, 10, 0);
+        Submission first = Submission.builder().id("sub-3").homeworkId("hw-1").submittedAt(at).build();
+        Submission second = Submission.builder().id("sub-2").homeworkId("hw-1").submittedAt(at).build();
+        Submission extra = Submission.builder().id("sub-1").homeworkId("hw-1").submittedAt(at.minusHours(1)).build();
+        when(submissionRepository.findFirstPageByHomework(eq("hw-1"), any(Limit.class)))
+                .thenReturn(List.of(first, second, extra));
+        when(submissionMapper.toSubmissionResponse(any(Submission.class))).thenReturn(new SubmissionResponse());
+
+        CursorPage<SubmissionResponse> page = submissionService.getSubmissionsByHomeworkAfter("hw-1", null, 2, false);
+
+        assertThat(page.getSize()).isEqualTo(2);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(page.getTotal()).isNull();
+        SubmissionCursor cursor = SubmissionCursor.decode(page.getNextCursor());
+        assertThat(cursor).isEqualTo(new SubmissionCursor(at, "sub-2"));
+
+        when(submissionRepository.findPageByHomeworkAfter(eq("hw-1"), eq(at), eq("sub-2"), any(Limit.class)))
+                .thenReturn(List.of(extra));
+        CursorPage<SubmissionResponse> last = submissionService.getSubmissionsByHomeworkAfter("hw-1", page.getNextCursor(), 2, false);
+
+        assertThat(last.isHasNext()).isFalse();
+        assertThat(last.getNextCursor()).isNull();
+        verify(submissionRepository, never()).countByHomeworkIdAndSubmittedAtIsNotNull(any());
+    }
+
+    @Test
+    void getSubmissionsByHomeworkAfter_tamperedCursor_throws() {
+        assertThatThrownBy(() -> submissionService.getSubmissionsByHomeworkAfter("hw-1", "bm90LWEtY3Vyc29y", 10, false))
+                .isInstanceOf(AppException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.INVALID_CURSOR);
+    }
+
     @Test
     void getSubmission_notFound_throws() {
         when(submissionRepository.findById("missing")).thenReturn(Optional.empty());
@@ -0,0 +1,92 @@
+package org.tduc.homeworkservice1.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.tduc.homeworkservice1.model.Submission;
+import org.tduc.homeworkservice1.model.SubmissionStatus;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps HomeworkService's grade distribution (grade_distribution_bin) in step with submissions graded,
+ * regraded or deleted here. It counts each GRADED submission with a score and a percentage once, in the
+ * bin of its percentage in tenths; a change moves that count from the old bin to the new one.
+ * Homework HomeworkService has not seeded yet (no grade_distribution row) is left alone: seeding counts
+ * the submission table, changes made here included.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GradeDistributionBins {
+
+    // Same bounds as HomeworkService's GradeSketch
+    private static final int MAX_BIN = 1000;
+
+    // Writes nothing unless the homework is seeded
+    private static final String DELTA_SQL = "INSERT INTO grade_distribution_bin (homework_id, bin, count) "
+        + "SELECT d.homework_id, ?, ? FROM grade_distribution d WHERE d.homework_id = ? "
+        + "ON DUPLICATE KEY UPDATE count = grade_distribution_bin.count + ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Bin the submission is counted in, -1 when it is not counted.
+     */
+    public static int binOf(Submission submission) {
+        if (submission == null || submission.getStatus() != SubmissionStatus.GRADED
+            || submission.getScore() == null || submission.getPercentage() == null) {
+            return -1;
+        }
+        int bin = submission.getPercentage().movePointRight(1).setScale(0, RoundingMode.HALF_UP).intValue();
+        return Math.max(0, Math.min(MAX_BIN, bin));
+    }
+
+    /**
+     * Adds one submission's move to {@code moves}, keyed by homework and bin.
+     */
+    public static void move(Map<String, TreeMap<Integer, Long>> moves, String homeworkId, int fromBin, int toBin) {
+        if (fromBin == toBin) {
+            return;
+        }
+        TreeMap<Integer, Long> bins = moves.computeIfAbsent(homeworkId, id -> new TreeMap<>());
+        if (fromBin >= 0) {
+            bins.merge(fromBin, -1L, Long::sum);
+        }
+        if (toBin >= 0) {
+            bins.merge(toBin, 1L, Long::sum);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(String homeworkId, int fromBin, int toBin) {
+        Map<String, TreeMap<Integer, Long>> moves = new TreeMap<>();
+        move(moves, homeworkId, fromBin, toBin);
+        write(moves);
+    }
+
+    /**
+     * Applies the moves in the caller's transaction. Rows are written in (homework, bin) order, the
+     * order HomeworkService writes them in, so graders on both services cannot deadlock each other.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void write(Map<String, TreeMap<Integer, Long>> moves) {
+        List<Object[]> deltas = new ArrayList<>();
+        new TreeMap<>(moves).forEach((homeworkId, bins) -> bins.forEach((bin, delta) -> {
+            if (delta != 0) {
+                deltas.add(new Object[]{bin, delta, homeworkId, delta});
+            }
+        }));
+        if (!deltas.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELTA_SQL, deltas);
+            log.debug("Moved grade distribution counts in {} bins", deltas.size());
+        }
+    }
+}
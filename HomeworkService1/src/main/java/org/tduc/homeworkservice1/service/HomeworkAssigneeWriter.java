@@ -0,0 +1,80 @@
+package org.tduc.homeworkservice1.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.tduc.homeworkservice1.model.Homework;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps homework_assignee in step with homework written here. HomeworkService answers student homework
+ * lists from that table (one row per assigned student or group, '*' for everyone, with the due date
+ * copied), so homework created or edited through this service must get the same rows it would.
+ * Rows go away with the homework through the foreign key's ON DELETE CASCADE.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HomeworkAssigneeWriter {
+
+    private static final String EVERYONE_ID = "*";
+    private static final String INSERT_SQL =
+        "INSERT INTO homework_assignee (homework_id, assignee_id, assignee_type, due_date) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Replace the homework's rows with ones derived from its assignedTo, groupIds and due date.
+     * Must run in the transaction that saves the homework, after the homework row is written.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void sync(Homework homework) {
+        List<Object[]> rows = new ArrayList<>();
+        Timestamp due = homework.getDueDate() == null ? null : Timestamp.valueOf(homework.getDueDate());
+        List<String> students = parseIds(homework.getAssignedTo());
+        if (students.isEmpty()) {
+            rows.add(new Object[]{homework.getId(), EVERYONE_ID, "EVERYONE", due});
+        }
+        for (String studentId : students) {
+            rows.add(new Object[]{homework.getId(), studentId, "STUDENT", due});
+        }
+        for (String groupId : parseIds(homework.getGroupIds())) {
+            rows.add(new Object[]{homework.getId(), groupId, "GROUP", due});
+        }
+        jdbcTemplate.update("DELETE FROM homework_assignee WHERE homework_id = ?", homework.getId());
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        log.debug("Synced {} assignee rows for homework {}", rows.size(), homework.getId());
+    }
+
+    /**
+     * Ids stored either as a JSON array or comma-joined, without blanks or repeats.
+     */
+    static List<String> parseIds(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return List.of();
+        }
+        String value = raw.trim();
+        if (value.startsWith("[") && value.endsWith("]")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        Set<String> ids = new LinkedHashSet<>();
+        for (String part : value.split(",")) {
+            String id = part.trim();
+            if (id.length() >= 2 && id.startsWith("\"") && id.endsWith("\"")) {
+                id = id.substring(1, id.length() - 1).trim();
+            }
+            if (!id.isEmpty()) {
+                ids.add(id);
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+}
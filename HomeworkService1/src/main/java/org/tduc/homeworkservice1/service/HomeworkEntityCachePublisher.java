@@ -0,0 +1,103 @@
+package org.tduc.homeworkservice1.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.tduc.homeworkservice1.model.Homework;
+import org.tduc.homeworkservice1.model.HomeworkAttachment;
+
+import java.util.UUID;
+
+/**
+ * Publishes committed Homework and HomeworkAttachment writes on the channel HomeworkService listens
+ * to for second-level cache evictions ({@code origin|homework|id} or {@code origin|attachment|id}).
+ * Both services write homework_db, so without this HomeworkService would serve rows changed here
+ * from its cache until they expire. This service keeps no such cache and so does not subscribe.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HomeworkEntityCachePublisher implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    public static final String CHANNEL = "homework:entity-cache:invalidate";
+    private static final String HOMEWORK = "homework";
+    private static final String ATTACHMENT = "attachment";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final StringRedisTemplate redisTemplate;
+
+    private final String origin = "homework-service1-" + UUID.randomUUID();
+
+    @Value("${app.entity-cache.broadcast-enabled:true}")
+    private boolean broadcastEnabled;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return type == Homework.class || type == HomeworkAttachment.class;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        publish(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void publish(Object entity, Object id) {
+        if (!broadcastEnabled || id == null) {
+            return;
+        }
+        String kind = entity instanceof HomeworkAttachment ? ATTACHMENT : HOMEWORK;
+        try {
+            redisTemplate.convertAndSend(CHANNEL, origin + "|" + kind + "|" + id);
+        } catch (RuntimeException e) {
+            // HomeworkService catches up when the entry expires (its app.entity-cache.ttl-seconds)
+            log.warn("Homework cache eviction of {} {} not published: {}", kind, id, e.getMessage());
+        }
+    }
+}
@@ -33,6 +33,7 @@ public class HomeworkService {
     private final HomeworkAttachmentRepository attachmentRepository;
     private final HomeworkMapper homeworkMapper;
     private final AuthContextUtil authContextUtil;
+    private final HomeworkAssigneeWriter assigneeWriter;
 
     /**
      * Get all homeworks
@@ -85,6 +86,9 @@ public class HomeworkService {
         }
         
         Homework savedHomework = homeworkRepository.save(homework);
+        // The assignee rows reference the homework row, so it must be written first
+        homeworkRepository.flush();
+        assigneeWriter.sync(savedHomework);
         log.info("Created homework with ID: {}", savedHomework.getId());
         
         return homeworkMapper.toHomeworkResponse(savedHomework);
@@ -150,6 +154,10 @@ public class HomeworkService {
         homework.setUpdatedAt(LocalDateTime.now());
         
         Homework savedHomework = homeworkRepository.save(homework);
+        if (request.getDueDate() != null) {
+            // The due date is copied into the assignee rows
+            assigneeWriter.sync(savedHomework);
+        }
         log.info("Updated homework with ID: {}", savedHomework.getId());
         
         return homeworkMapper.toHomeworkResponse(savedHomework);
@@ -0,0 +1,38 @@
+package org.tduc.homeworkservice1.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Hands out attempt numbers from submission_attempt_counter, the table HomeworkService reserves them
+ * from as well. Both services insert into the same submission table, so both must take numbers here:
+ * the counter row stays locked until the caller's transaction ends, and the upsert raises it to the
+ * highest attempt already stored, so neither side reuses a number the other has written.
+ */
+@Component
+@RequiredArgsConstructor
+public class SubmissionAttemptCounter {
+
+    // Same statement as HomeworkService's SubmissionIngestService
+    private static final String RESERVE_SQL = "INSERT INTO submission_attempt_counter (homework_id, student_id, attempts) "
+            + "SELECT ?, ?, COALESCE(MAX(s.attempt_number), 0) + 1 FROM submission s WHERE s.homework_id = ? AND s.student_id = ? "
+            + "ON DUPLICATE KEY UPDATE attempts = GREATEST(attempts, (SELECT COALESCE(MAX(m.attempt_number), 0) "
+            + "FROM submission m WHERE m.homework_id = ? AND m.student_id = ?)) + 1";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reserves the student's next attempt number; it is released again if the transaction rolls back.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int reserve(String homeworkId, String studentId) {
+        jdbcTemplate.update(RESERVE_SQL, homeworkId, studentId, homeworkId, studentId, homeworkId, studentId);
+        Integer attempts = jdbcTemplate.queryForObject(
+            "SELECT attempts FROM submission_attempt_counter WHERE homework_id = ? AND student_id = ?",
+            Integer.class, homeworkId, studentId);
+        return attempts == null ? 1 : attempts;
+    }
+}
@@ -23,7 +23,9 @@ import org.tduc.homeworkservice1.repository.SubmissionCommentRepository;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,6 +39,8 @@ public class SubmissionService {
     private final SubmissionFileRepository submissionFileRepository;
     private final SubmissionCommentRepository submissionCommentRepository;
     private final SubmissionMapper submissionMapper;
+    private final SubmissionAttemptCounter submissionAttemptCounter;
+    private final GradeDistributionBins gradeDistributionBins;
 
     /**
      * Create a new submission for homework
@@ -87,7 +91,8 @@ public class SubmissionService {
         submission.setSubmittedAt(now);
         submission.setIsLate(isLate);
         submission.setStatus(SubmissionStatus.SUBMITTED);
-        submission.setAttemptNumber(existingSubmissions.size() + 1);
+        // From the counter shared with HomeworkService, not the list size: both services insert attempts
+        submission.setAttemptNumber(submissionAttemptCounter.reserve(request.getHomeworkId(), request.getStudentId()));
         
         // Apply late penalty if applicable
         if (isLate && homework.getLatePenaltyConfig().getEnabled()) {
@@ -128,6 +133,7 @@ public class SubmissionService {
             finalScore = applyLatePenalty(finalScore, submission.getSubmittedAt(), homework.getDueDate());
         }
         
+        int binBefore = GradeDistributionBins.binOf(submission);
         submission.setScore(finalScore);
         submission.setOriginalScore(request.getScore());
         submission.setFeedback(request.getFeedback());
@@ -146,6 +152,7 @@ public class SubmissionService {
         }
         
         Submission savedSubmission = submissionRepository.save(submission);
+        gradeDistributionBins.recordChange(savedSubmission.getHomeworkId(), binBefore, GradeDistributionBins.binOf(savedSubmission));
         log.info("Graded submission with ID: {} - Final Score: {}", savedSubmission.getId(), finalScore);
         
         return submissionMapper.toSubmissionResponse(savedSubmission);
@@ -258,6 +265,7 @@ public class SubmissionService {
         submissionCommentRepository.deleteBySubmissionId(id);
         
         submissionRepository.delete(submission);
+        gradeDistributionBins.recordChange(submission.getHomeworkId(), GradeDistributionBins.binOf(submission), -1);
         log.info("Deleted submission with ID: {}", id);
     }
 
@@ -270,10 +278,12 @@ public class SubmissionService {
         Submission submission = submissionRepository.findById(submissionId)
             .orElseThrow(() -> new AppException(ErrorCode.SUBMISSION_NOT_FOUND));
         
+        int binBefore = GradeDistributionBins.binOf(submission);
         submission.setStatus(status);
         submission.setUpdatedAt(LocalDateTime.now());
         
         Submission savedSubmission = submissionRepository.save(submission);
+        gradeDistributionBins.recordChange(savedSubmission.getHomeworkId(), binBefore, GradeDistributionBins.binOf(savedSubmission));
         
         return submissionMapper.toSubmissionResponse(savedSubmission);
     }
@@ -285,6 +295,7 @@ public class SubmissionService {
         log.info("Bulk grading {} submissions", submissionIds.size());
         
         List<Submission> submissions = submissionRepository.findAllById(submissionIds);
+        Map<String, TreeMap<Integer, Long>> binMoves = new TreeMap<>();
         
         submissions.forEach(submission -> {
             Homework homework = homeworkRepository.findById(submission.getHomeworkId())
@@ -296,15 +307,18 @@ public class SubmissionService {
                 finalScore = applyLatePenalty(finalScore, submission.getSubmittedAt(), homework.getDueDate());
             }
             
+            int binBefore = GradeDistributionBins.binOf(submission);
             submission.setScore(finalScore);
             submission.setOriginalScore(gradingTemplate.getScore());
             submission.setFeedback(gradingTemplate.getFeedback());
             submission.setGradedBy(gradingTemplate.getGradedBy());
             submission.setGradedAt(LocalDateTime.now());
             submission.setStatus(SubmissionStatus.GRADED);
+            GradeDistributionBins.move(binMoves, submission.getHomeworkId(), binBefore, GradeDistributionBins.binOf(submission));
         });
         
         List<Submission> savedSubmissions = submissionRepository.saveAll(submissions);
+        gradeDistributionBins.write(binMoves);
         
         return savedSubmissions.stream()
             .map(submissionMapper::toSubmissionResponse)
@@ -0,0 +1,74 @@
+package org.tduc.homeworkservice1.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.tduc.homeworkservice1.model.Submission;
+import org.tduc.homeworkservice1.model.SubmissionStatus;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for GradeDistributionBins (HomeworkService1).
+ */
+@ExtendWith(MockitoExtension.class)
+class GradeDistributionBinsTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private GradeDistributionBins bins;
+
+    @Test
+    void binOf_countsOnlyScoredGradedSubmissions() {
+        assertThat(GradeDistributionBins.binOf(submission(SubmissionStatus.GRADED, "7", "72.45"))).isEqualTo(725);
+        assertThat(GradeDistributionBins.binOf(submission(SubmissionStatus.GRADED, "11", "110.00"))).isEqualTo(1000);
+        assertThat(GradeDistributionBins.binOf(submission(SubmissionStatus.SUBMITTED, "7", "72.45"))).isEqualTo(-1);
+        assertThat(GradeDistributionBins.binOf(submission(SubmissionStatus.GRADED, null, "72.45"))).isEqualTo(-1);
+        assertThat(GradeDistributionBins.binOf(submission(SubmissionStatus.GRADED, "7", null))).isEqualTo(-1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void write_sendsNetMovesInHomeworkAndBinOrder() {
+        Map<String, TreeMap<Integer, Long>> moves = new TreeMap<>();
+        GradeDistributionBins.move(moves, "hw-2", 800, 500);
+        GradeDistributionBins.move(moves, "hw-1", -1, 900);
+        GradeDistributionBins.move(moves, "hw-2", 500, 800);
+        GradeDistributionBins.move(moves, "hw-2", 700, -1);
+
+        bins.write(moves);
+
+        ArgumentCaptor<List<Object[]>> deltas = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), deltas.capture());
+        assertThat(deltas.getValue()).extracting(d -> d[2] + ":" + d[0] + ":" + d[1])
+                .containsExactly("hw-1:900:1", "hw-2:700:-1");
+    }
+
+    @Test
+    void recordChange_unchangedBin_writesNothing() {
+        bins.recordChange("hw-1", 850, 850);
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private static Submission submission(SubmissionStatus status, String score, String percentage) {
+        Submission submission = new Submission();
+        submission.setStatus(status);
+        submission.setScore(score == null ? null : new BigDecimal(score));
+        submission.setPercentage(percentage == null ? null : new BigDecimal(percentage));
+        return submission;
+    }
+}
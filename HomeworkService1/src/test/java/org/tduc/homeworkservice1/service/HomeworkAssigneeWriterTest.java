@@ -0,0 +1,69 @@
+package org.tduc.homeworkservice1.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.tduc.homeworkservice1.model.Homework;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for HomeworkAssigneeWriter (HomeworkService1).
+ */
+@ExtendWith(MockitoExtension.class)
+class HomeworkAssigneeWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private HomeworkAssigneeWriter writer;
+
+    @Test
+    void sync_replacesRowsWithStudentsAndGroups() {
+        Homework homework = homework("[\"s1\", \"s2\", \"s1\"]", "g1");
+
+        writer.sync(homework);
+
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).update("DELETE FROM homework_assignee WHERE homework_id = ?", "hw-1");
+        List<Object[]> rows = insertedRows(order);
+        assertThat(rows).extracting(r -> r[1] + ":" + r[2]).containsExactly("s1:STUDENT", "s2:STUDENT", "g1:GROUP");
+    }
+
+    @Test
+    void sync_noStudents_writesEveryoneRow() {
+        writer.sync(homework(null, "[]"));
+
+        List<Object[]> rows = insertedRows(inOrder(jdbcTemplate));
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0)[1]).isEqualTo("*");
+        assertThat(rows.get(0)[2]).isEqualTo("EVERYONE");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> insertedRows(InOrder order) {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        order.verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        return rows.getValue();
+    }
+
+    private static Homework homework(String assignedTo, String groupIds) {
+        Homework homework = new Homework();
+        homework.setId("hw-1");
+        homework.setAssignedTo(assignedTo);
+        homework.setGroupIds(groupIds);
+        homework.setDueDate(LocalDateTime.now().plusDays(1));
+        return homework;
+    }
+}
@@ -0,0 +1,74 @@
+package org.tduc.homeworkservice1.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.tduc.homeworkservice1.model.Homework;
+import org.tduc.homeworkservice1.model.HomeworkAttachment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HomeworkEntityCachePublisherTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @InjectMocks
+    private HomeworkEntityCachePublisher publisher;
+
+    @Test
+    void onPostUpdate_homework_publishesInHomeworkServiceFormat() {
+        ReflectionTestUtils.setField(publisher, "broadcastEnabled", true);
+        PostUpdateEvent event = mock(PostUpdateEvent.class);
+        when(event.getEntity()).thenReturn(new Homework());
+        when(event.getId()).thenReturn("hw-1");
+
+        publisher.onPostUpdate(event);
+
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(HomeworkEntityCachePublisher.CHANNEL), message.capture());
+        assertThat(message.getValue()).startsWith("homework-service1-").endsWith("|homework|hw-1");
+    }
+
+    @Test
+    void onPostDelete_attachment_publishesAttachmentId() {
+        ReflectionTestUtils.setField(publisher, "broadcastEnabled", true);
+        PostDeleteEvent event = mock(PostDeleteEvent.class);
+        when(event.getEntity()).thenReturn(new HomeworkAttachment());
+        when(event.getId()).thenReturn("att-1");
+
+        publisher.onPostDelete(event);
+
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(HomeworkEntityCachePublisher.CHANNEL), message.capture());
+        assertThat(message.getValue()).endsWith("|attachment|att-1");
+    }
+
+    @Test
+    void publish_disabled_sendsNothing() {
+        PostUpdateEvent event = mock(PostUpdateEvent.class);
+        when(event.getEntity()).thenReturn(new Homework());
+        when(event.getId()).thenReturn("hw-1");
+
+        publisher.onPostUpdate(event);
+
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+}
@@ -40,6 +40,8 @@ class HomeworkServiceTest {
     private HomeworkMapper homeworkMapper;
     @Mock
     private AuthContextUtil authContextUtil;
+    @Mock
+    private HomeworkAssigneeWriter assigneeWriter;
 
     @InjectMocks
     private org.tduc.homeworkservice1.service.HomeworkService homeworkService;
@@ -71,6 +73,7 @@ class HomeworkServiceTest {
 
         assertThat(resp).isNotNull();
         verify(homeworkRepository).save(any(Homework.class));
+        verify(assigneeWriter).sync(saved);
         verify(homeworkMapper).toHomeworkResponse(saved);
     }
 
@@ -15,7 +15,10 @@ import org.tduc.homeworkservice1.mapper.SubmissionMapper;
 import org.tduc.homeworkservice1.model.Homework;
 import org.tduc.homeworkservice1.model.HomeworkStatus;
 import org.tduc.homeworkservice1.model.Submission;
+import org.tduc.homeworkservice1.model.SubmissionStatus;
 import org.tduc.homeworkservice1.repository.HomeworkRepository;
+import org.tduc.homeworkservice1.repository.SubmissionCommentRepository;
+import org.tduc.homeworkservice1.repository.SubmissionFileRepository;
 import org.tduc.homeworkservice1.repository.SubmissionRepository;
 
 import java.math.BigDecimal;
@@ -40,7 +43,15 @@ class SubmissionServiceTest {
     @Mock
     private HomeworkRepository homeworkRepository;
     @Mock
+    private SubmissionFileRepository submissionFileRepository;
+    @Mock
+    private SubmissionCommentRepository submissionCommentRepository;
+    @Mock
     private SubmissionMapper submissionMapper;
+    @Mock
+    private SubmissionAttemptCounter submissionAttemptCounter;
+    @Mock
+    private GradeDistributionBins gradeDistributionBins;
 
     @InjectMocks
     private org.tduc.homeworkservice1.service.SubmissionService submissionService;
@@ -80,6 +91,7 @@ class SubmissionServiceTest {
         when(submissionRepository.findByHomeworkIdAndStudentIdOrderBySubmittedAtDesc("hw-1", "student-1"))
                 .thenReturn(Collections.emptyList());
         when(submissionMapper.toSubmission(creationRequest)).thenReturn(mapped);
+        when(submissionAttemptCounter.reserve("hw-1", "student-1")).thenReturn(4);
         when(submissionRepository.save(mapped)).thenReturn(saved);
         when(submissionMapper.toSubmissionResponse(saved)).thenReturn(expectedResponse);
 
@@ -87,6 +99,8 @@ class SubmissionServiceTest {
 
         assertThat(resp).isNotNull();
         assertThat(resp.getId()).isEqualTo("sub-1");
+        // Taken from the shared counter, which may be ahead of this student's rows
+        assertThat(mapped.getAttemptNumber()).isEqualTo(4);
         verify(submissionRepository).save(mapped);
     }
 
@@ -140,6 +154,25 @@ class SubmissionServiceTest {
         // Final score should be less than or equal to original because of penalty
         assertThat(resp.getScore()).isLessThanOrEqualTo(grading.getScore());
         verify(submissionRepository).save(any(Submission.class));
+        // Had no percentage, so it is still not counted in the distribution
+        verify(gradeDistributionBins).recordChange("hw-1", -1, -1);
+    }
+
+    @Test
+    void deleteSubmission_gradedSubmission_takesItOutOfItsBin() {
+        Submission submission = new Submission();
+        submission.setId("sub-1");
+        submission.setHomeworkId("hw-1");
+        submission.setStatus(SubmissionStatus.GRADED);
+        submission.setScore(new BigDecimal("8.5"));
+        submission.setPercentage(new BigDecimal("85.00"));
+
+        when(submissionRepository.findById("sub-1")).thenReturn(Optional.of(submission));
+
+        submissionService.deleteSubmission("sub-1");
+
+        verify(submissionRepository).delete(submission);
+        verify(gradeDistributionBins).recordChange("hw-1", 850, -1);
     }
 
     @Test
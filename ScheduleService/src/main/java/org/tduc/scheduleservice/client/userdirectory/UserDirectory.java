@@ -0,0 +1,109 @@
+package org.tduc.scheduleservice.client.userdirectory;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory replica of the UserService user directory.
+ * Reads are lock-free from any thread; writes come from a single {@link UserDirectoryClient} follower.
+ * Every entry remembers the outbox eventId that produced it, so re-delivered or older events are ignored,
+ * and deletes leave a tombstone so a re-delivered update cannot bring the user back.
+ */
+public class UserDirectory {
+
+    // entry == null marks a deleted user
+    private record Slot(UserDirectoryEntry entry, long eventId) {
+    }
+
+    private record State(Map<String, Slot> byId, Map<String, String> idByUsername) {
+        static State empty() {
+            return new State(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+    }
+
+    public static final String USER_CREATED = "UserCreated";
+    public static final String USER_UPDATED = "UserUpdated";
+    public static final String USER_DELETED = "UserDeleted";
+
+    private volatile State state = State.empty();
+    private volatile boolean ready;
+
+    public Optional<UserDirectoryEntry> findById(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Slot slot = state.byId().get(id);
+        return slot == null ? Optional.empty() : Optional.ofNullable(slot.entry());
+    }
+
+    public Optional<UserDirectoryEntry> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        State current = state;
+        String id = current.idByUsername().get(normalize(username));
+        if (id == null) {
+            return Optional.empty();
+        }
+        Slot slot = current.byId().get(id);
+        return slot == null ? Optional.empty() : Optional.ofNullable(slot.entry());
+    }
+
+    /**
+     * True once a snapshot has been loaded; before that every lookup misses.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return state.idByUsername().size();
+    }
+
+    /**
+     * Replace the whole replica with a snapshot. Snapshot entries carry eventId 0,
+     * so any stream event replayed after it wins.
+     */
+    void load(Collection<UserDirectoryEntry> entries) {
+        State next = State.empty();
+        for (UserDirectoryEntry entry : entries) {
+            next.byId().put(entry.id(), new Slot(entry, 0L));
+            if (entry.username() != null) {
+                next.idByUsername().put(normalize(entry.username()), entry.id());
+            }
+        }
+        state = next;
+        ready = true;
+    }
+
+    /**
+     * Apply one stream event.
+     *
+     * @return false if the event was older than (or the same as) what the replica already holds
+     */
+    boolean apply(long eventId, String type, String userId, UserDirectoryEntry entry) {
+        State current = state;
+        Slot previous = current.byId().get(userId);
+        if (previous != null && previous.eventId() >= eventId) {
+            return false;
+        }
+        UserDirectoryEntry next = USER_DELETED.equals(type) ? null : entry;
+        current.byId().put(userId, new Slot(next, eventId));
+
+        String oldUsername = previous == null || previous.entry() == null ? null : previous.entry().username();
+        if (oldUsername != null) {
+            current.idByUsername().remove(normalize(oldUsername), userId);
+        }
+        if (next != null && next.username() != null) {
+            current.idByUsername().put(normalize(next.username()), userId);
+        }
+        return true;
+    }
+
+    private static String normalize(String username) {
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,214 @@
+package org.tduc.scheduleservice.client.userdirectory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a {@link UserDirectory} in sync with UserService.
+ * On start it loads {@code GET /api/users/directory/snapshot}, then follows the user event stream
+ * from the offset the snapshot was taken at. If the stream has been trimmed past our position
+ * (we were down or too slow) it bootstraps again from a fresh snapshot.
+ */
+public class UserDirectoryClient {
+
+    private static final Logger log = LoggerFactory.getLogger(UserDirectoryClient.class);
+
+    private static final String EMPTY_STREAM = "0-0";
+
+    private final UserDirectory directory;
+    private final RestTemplate restTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String snapshotUrl;
+    private final String serviceName;
+
+    private Duration blockTimeout = Duration.ofSeconds(2);
+    private int readBatchSize = 500;
+    private Duration retryBackoff = Duration.ofSeconds(5);
+
+    private volatile boolean running;
+    private Thread follower;
+
+    private String streamKey;
+    private volatile String offset;
+
+    private final AtomicLong appliedEvents = new AtomicLong();
+    private final AtomicLong skippedEvents = new AtomicLong();
+    private final AtomicLong bootstraps = new AtomicLong();
+
+    public UserDirectoryClient(UserDirectory directory, RestTemplate restTemplate, StringRedisTemplate redisTemplate,
+                               ObjectMapper objectMapper, String userServiceUrl, String serviceName) {
+        this.directory = directory;
+        this.restTemplate = restTemplate;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.snapshotUrl = userServiceUrl + "/api/users/directory/snapshot";
+        this.serviceName = serviceName;
+    }
+
+    public void setBlockTimeout(Duration blockTimeout) {
+        this.blockTimeout = blockTimeout;
+    }
+
+    public void setReadBatchSize(int readBatchSize) {
+        this.readBatchSize = readBatchSize;
+    }
+
+    public void setRetryBackoff(Duration retryBackoff) {
+        this.retryBackoff = retryBackoff;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        follower = new Thread(this::follow, "user-directory-follower");
+        follower.setDaemon(true);
+        follower.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (follower != null) {
+            follower.interrupt();
+            follower = null;
+        }
+    }
+
+    public String getOffset() {
+        return offset;
+    }
+
+    public long getAppliedEvents() {
+        return appliedEvents.get();
+    }
+
+    public long getSkippedEvents() {
+        return skippedEvents.get();
+    }
+
+    public long getBootstraps() {
+        return bootstraps.get();
+    }
+
+    private void follow() {
+        boolean verifyPosition = true;
+        while (running) {
+            try {
+                if (offset == null) {
+                    bootstrap();
+                    verifyPosition = true;
+                }
+                if (verifyPosition) {
+                    if (!positionStillInStream()) {
+                        log.warn("User stream trimmed past offset {}, reloading snapshot", offset);
+                        offset = null;
+                        continue;
+                    }
+                    verifyPosition = false;
+                }
+                readOnce();
+            } catch (RuntimeException e) {
+                if (!running) {
+                    break;
+                }
+                // After any failure re-check the position: entries may have been trimmed while we were away
+                verifyPosition = true;
+                log.warn("User directory sync failed ({}), retrying in {}s", e.getMessage(), retryBackoff.toSeconds());
+                sleep(retryBackoff);
+            }
+        }
+    }
+
+    private void bootstrap() {
+        HttpHeaders headers = new HttpHeaders();
+        // Internal call: identify as this service through the same headers the gateway sets
+        headers.set("X-User-Username", serviceName);
+        headers.set("X-User-Role", "SERVICE");
+        JsonNode body = restTemplate.exchange(snapshotUrl, HttpMethod.GET, new HttpEntity<>(headers), JsonNode.class).getBody();
+        JsonNode result = body == null ? null : body.get("result");
+        if (result == null || result.isNull()) {
+            throw new IllegalStateException("Empty user directory snapshot");
+        }
+        List<UserDirectoryEntry> entries = new ArrayList<>(result.path("size").asInt(16));
+        for (JsonNode user : result.path("users")) {
+            entries.add(objectMapper.convertValue(user, UserDirectoryEntry.class));
+        }
+        directory.load(entries);
+        streamKey = result.path("streamKey").asText();
+        offset = result.path("streamOffset").asText(EMPTY_STREAM);
+        bootstraps.incrementAndGet();
+        log.info("User directory loaded: users={}, stream={}, offset={}", entries.size(), streamKey, offset);
+    }
+
+    // Trimming only removes the head of the stream, so if our last entry is still there nothing after it is lost
+    private boolean positionStillInStream() {
+        if (EMPTY_STREAM.equals(offset)) {
+            return true;
+        }
+        List<MapRecord<String, Object, Object>> entry = redisTemplate.opsForStream()
+                .range(streamKey, Range.closed(offset, offset), Limit.limit().count(1));
+        return entry != null && !entry.isEmpty();
+    }
+
+    private void readOnce() {
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(
+                StreamReadOptions.empty().count(readBatchSize).block(blockTimeout),
+                StreamOffset.create(streamKey, ReadOffset.from(offset)));
+        if (records == null) {
+            return;
+        }
+        for (MapRecord<String, Object, Object> record : records) {
+            applyRecord(record.getValue());
+            offset = record.getId().getValue();
+        }
+    }
+
+    private void applyRecord(Map<Object, Object> fields) {
+        long eventId = Long.parseLong(String.valueOf(fields.get("eventId")));
+        String type = String.valueOf(fields.get("type"));
+        String userId = String.valueOf(fields.get("userId"));
+        UserDirectoryEntry entry;
+        try {
+            entry = objectMapper.readValue(String.valueOf(fields.get("payload")), UserDirectoryEntry.class);
+        } catch (Exception e) {
+            // Skip rather than retry forever on an entry that will never parse
+            log.error("Skipping unreadable user event {}: {}", eventId, e.getMessage());
+            skippedEvents.incrementAndGet();
+            return;
+        }
+        if (directory.apply(eventId, type, userId, entry)) {
+            appliedEvents.incrementAndGet();
+        } else {
+            skippedEvents.incrementAndGet();
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package org.tduc.scheduleservice.client.userdirectory;
+
+/**
+ * One user as replicated from UserService: the fields carried by the snapshot and the user event stream.
+ */
+public record UserDirectoryEntry(String id, String username, String fullName, String role) {
+}
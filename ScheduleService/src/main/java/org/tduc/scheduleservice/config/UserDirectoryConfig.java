@@ -0,0 +1,34 @@
+package org.tduc.scheduleservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.web.client.RestTemplate;
+import org.tduc.scheduleservice.client.userdirectory.UserDirectory;
+import org.tduc.scheduleservice.client.userdirectory.UserDirectoryClient;
+
+/**
+ * Local replica of the UserService directory, fed by the user event stream.
+ */
+@Configuration
+@ConditionalOnProperty(name = "services.user-directory.enabled", havingValue = "true", matchIfMissing = true)
+public class UserDirectoryConfig {
+
+    @Bean
+    public UserDirectory userDirectory() {
+        return new UserDirectory();
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public UserDirectoryClient userDirectoryClient(UserDirectory userDirectory,
+                                                   RestTemplate restTemplate,
+                                                   StringRedisTemplate stringRedisTemplate,
+                                                   ObjectMapper objectMapper,
+                                                   @Value("${services.user-service.url:https://localhost:8080}") String userServiceUrl,
+                                                   @Value("${spring.application.name:ScheduleService}") String serviceName) {
+        return new UserDirectoryClient(userDirectory, restTemplate, stringRedisTemplate, objectMapper, userServiceUrl, serviceName);
+    }
+}
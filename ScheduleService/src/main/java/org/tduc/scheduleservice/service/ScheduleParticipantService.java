@@ -5,6 +5,8 @@ import org.springframework.stereotype.Service;
 import org.tduc.scheduleservice.dto.request.ScheduleParticipantCreationRequest;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.client.RestTemplate;
+import org.tduc.scheduleservice.client.userdirectory.UserDirectory;
+import org.tduc.scheduleservice.client.userdirectory.UserDirectoryEntry;
 import org.tduc.scheduleservice.exception.AppException;
 import org.tduc.scheduleservice.exception.ErrorCode;
 import org.tduc.scheduleservice.mapper.ScheduleMapper;
@@ -33,6 +35,9 @@ public class ScheduleParticipantService {
     private ScheduleMapper scheduleMapper;
     @Autowired
     private RestTemplate restTemplate;
+    // Replica of the user directory; absent when services.user-directory.enabled=false
+    @Autowired(required = false)
+    private UserDirectory userDirectory;
 
     @Value("${services.user-service.url:https://localhost:8080}")
     private String userServiceUrl;
@@ -43,7 +48,14 @@ public class ScheduleParticipantService {
         if (provided != null && !provided.isBlank()) {
             // Simple UUID v4 pattern check; if it doesn't match, attempt to resolve via UserService
             String uuidRegex = "^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$";
-            if (!provided.matches(uuidRegex)) {
+            Optional<UserDirectoryEntry> known = !provided.matches(uuidRegex) && userDirectory != null
+                    ? userDirectory.findByUsername(provided)
+                    : Optional.empty();
+            if (known.isPresent()) {
+                // Resolved locally from the replicated directory, no round trip to UserService
+                request.setUserId(known.get().id());
+                provided = request.getUserId();
+            } else if (!provided.matches(uuidRegex)) {
                 try {
                     // Call UserService profile endpoint to get actual id. Use Authorization header if available.
                     String url = userServiceUrl + "/api/users/profile/" + java.net.URLEncoder.encode(provided, java.nio.charset.StandardCharsets.UTF_8);
@@ -0,0 +1,63 @@
+package org.tduc.scheduleservice.client.userdirectory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the replicated user directory (no Redis, no Spring context).
+ */
+class UserDirectoryTest {
+
+    private UserDirectory directory;
+
+    @BeforeEach
+    void setUp() {
+        directory = new UserDirectory();
+        directory.load(List.of(new UserDirectoryEntry("u-1", "Alice", "Alice A", "STUDENT")));
+    }
+
+    @Test
+    void load_indexesByIdAndCaseInsensitiveUsername() {
+        assertThat(directory.isReady()).isTrue();
+        assertThat(directory.findById("u-1")).map(UserDirectoryEntry::fullName).contains("Alice A");
+        assertThat(directory.findByUsername(" alice ")).map(UserDirectoryEntry::id).contains("u-1");
+    }
+
+    @Test
+    void apply_renameMovesUsernameIndex() {
+        boolean applied = directory.apply(5, UserDirectory.USER_UPDATED, "u-1",
+                new UserDirectoryEntry("u-1", "alice2", "Alice A", "TEACHER"));
+
+        assertThat(applied).isTrue();
+        assertThat(directory.findByUsername("alice")).isEmpty();
+        assertThat(directory.findByUsername("alice2")).map(UserDirectoryEntry::role).contains("TEACHER");
+    }
+
+    @Test
+    void apply_ignoresRedeliveredAndOlderEvents() {
+        directory.apply(7, UserDirectory.USER_UPDATED, "u-1", new UserDirectoryEntry("u-1", "alice", "New Name", "STUDENT"));
+
+        assertThat(directory.apply(7, UserDirectory.USER_UPDATED, "u-1",
+                new UserDirectoryEntry("u-1", "alice", "New Name", "STUDENT"))).isFalse();
+        assertThat(directory.apply(6, UserDirectory.USER_UPDATED, "u-1",
+                new UserDirectoryEntry("u-1", "alice", "Old Name", "STUDENT"))).isFalse();
+        assertThat(directory.findById("u-1")).map(UserDirectoryEntry::fullName).contains("New Name");
+    }
+
+    @Test
+    void apply_deleteLeavesTombstoneThatBlocksResurrection() {
+        directory.apply(3, UserDirectory.USER_CREATED, "u-2", new UserDirectoryEntry("u-2", "bob", "Bob", "STUDENT"));
+        directory.apply(4, UserDirectory.USER_DELETED, "u-2", new UserDirectoryEntry("u-2", "bob", "Bob", "STUDENT"));
+
+        // Relay re-sends the create after a crash
+        directory.apply(3, UserDirectory.USER_CREATED, "u-2", new UserDirectoryEntry("u-2", "bob", "Bob", "STUDENT"));
+
+        assertThat(directory.findById("u-2")).isEmpty();
+        assertThat(directory.findByUsername("bob")).isEmpty();
+        assertThat(directory.size()).isEqualTo(1);
+    }
+}
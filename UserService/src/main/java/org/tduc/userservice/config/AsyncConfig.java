@@ -0,0 +1,42 @@
+package org.tduc.userservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Runs roster import jobs in the background so large files can be polled for progress.
+     */
+    @Bean(name = "rosterImportExecutor")
+    public ThreadPoolTaskExecutor rosterImportExecutor(@Value("${app.import.max-concurrent-jobs:2}") int maxJobs) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxJobs);
+        executor.setMaxPoolSize(maxJobs);
+        executor.setQueueCapacity(20);
+        executor.setThreadNamePrefix("RosterImport-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Bounded pool for bcrypt hashing. Caller-runs keeps the submitting job from outrunning the pool.
+     */
+    @Bean(name = "passwordHashExecutor")
+    public ThreadPoolTaskExecutor passwordHashExecutor(@Value("${app.import.hash-threads:0}") int hashThreads) {
+        int threads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(1000);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("PasswordHash-");
+        executor.initialize();
+        return executor;
+    }
+}
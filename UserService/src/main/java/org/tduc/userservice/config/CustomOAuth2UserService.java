@@ -7,8 +7,13 @@ import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserServ
 import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.tduc.userservice.model.User;
+import org.tduc.userservice.model.UserEventType;
 import org.tduc.userservice.repository.UserRepository;
+import org.tduc.userservice.service.UserAvailabilityService;
+import org.tduc.userservice.service.UserEventOutbox;
 
 import java.util.UUID;
 
@@ -16,10 +21,17 @@ import java.util.UUID;
 public class CustomOAuth2UserService extends DefaultOAuth2UserService {
 
     private final UserRepository userRepository;
+    private final UserAvailabilityService userAvailabilityService;
+    private final UserEventOutbox userEventOutbox;
+    private final TransactionTemplate transactionTemplate;
     private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
-    public CustomOAuth2UserService(UserRepository userRepository) {
+    public CustomOAuth2UserService(UserRepository userRepository, UserAvailabilityService userAvailabilityService,
+                                   UserEventOutbox userEventOutbox, PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
+        this.userAvailabilityService = userAvailabilityService;
+        this.userEventOutbox = userEventOutbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
@@ -43,7 +55,14 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
                     .role(null)  // Explicitly set to null so user can choose their role
                     .passwordHash(hashed)
                     .build();
-            return userRepository.save(user);
+            // Insert and its outbox event commit together
+            User saved = transactionTemplate.execute(status -> {
+                User created = userRepository.save(user);
+                userEventOutbox.append(UserEventType.USER_CREATED, created);
+                return created;
+            });
+            userAvailabilityService.recordUser(saved);
+            return saved;
         });
 
         return oAuth2User;
@@ -95,6 +95,7 @@ public class SecurityConfig {
 						       "/api/users/auth/admin-login",
 						       "/api/users/auth/register",
 						       "/api/users/register",
+						       "/api/users/availability",
 						       "/api/users/choose-role",
 						       "/oauth2/**"
 					       ).permitAll()
@@ -0,0 +1,103 @@
+package org.tduc.userservice.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.tduc.userservice.dto.request.ApiResponse;
+import org.tduc.userservice.dto.response.BloomFilterStatsResponse;
+import org.tduc.userservice.dto.response.LoginThrottleStatusResponse;
+import org.tduc.userservice.dto.response.SearchIndexStatsResponse;
+import org.tduc.userservice.dto.response.UserEventRelayStatsResponse;
+import org.tduc.userservice.service.LoginThrottleService;
+import org.tduc.userservice.service.UserAvailabilityService;
+import org.tduc.userservice.service.UserEventRelay;
+import org.tduc.userservice.service.UserSearchService;
+
+/**
+ * Admin view over the in-memory caches/filters kept by UserService.
+ */
+@RestController
+@RequestMapping("/api/users/cache")
+@PreAuthorize("hasAuthority('ADMIN')")
+public class CacheManagementController {
+
+    @Autowired
+    private UserAvailabilityService userAvailabilityService;
+
+    @Autowired
+    private LoginThrottleService loginThrottleService;
+
+    @Autowired
+    private UserEventRelay userEventRelay;
+
+    @Autowired
+    private UserSearchService userSearchService;
+
+    @GetMapping("/availability-filter")
+    public ApiResponse<BloomFilterStatsResponse> getAvailabilityFilterStats() {
+        ApiResponse<BloomFilterStatsResponse> response = new ApiResponse<>();
+        response.setCode(HttpStatus.OK.value());
+        response.setResult(userAvailabilityService.getStats());
+        return response;
+    }
+
+    @PostMapping("/availability-filter/rebuild")
+    public ApiResponse<BloomFilterStatsResponse> rebuildAvailabilityFilter() {
+        userAvailabilityService.rebuild();
+        ApiResponse<BloomFilterStatsResponse> response = new ApiResponse<>();
+        response.setCode(HttpStatus.OK.value());
+        response.setResult(userAvailabilityService.getStats());
+        return response;
+    }
+
+    /**
+     * Login throttle counters; pass username and/or ip to see that key's sliding-window count and block TTL.
+     */
+    @GetMapping("/login-throttle")
+    public ApiResponse<LoginThrottleStatusResponse> getLoginThrottleStatus(@RequestParam(required = false) String username,
+                                                                           @RequestParam(required = false) String ip) {
+        ApiResponse<LoginThrottleStatusResponse> response = new ApiResponse<>();
+        response.setCode(HttpStatus.OK.value());
+        response.setResult(loginThrottleService.getStatus(username, ip));
+        return response;
+    }
+
+    @DeleteMapping("/login-throttle")
+    public ApiResponse<LoginThrottleStatusResponse> resetLoginThrottle(@RequestParam(required = false) String username,
+                                                                       @RequestParam(required = false) String ip) {
+        loginThrottleService.reset(username, ip);
+        ApiResponse<LoginThrottleStatusResponse> response = new ApiResponse<>();
+        response.setCode(HttpStatus.OK.value());
+        response.setResult(loginThrottleService.getStatus(username, ip));
+        return response;
+    }
+
+    /**
+     * Outbox backlog and relay counters for the user event stream.
+     */
+    @GetMapping("/user-events")
+    public ApiResponse<UserEventRelayStatsResponse> getUserEventRelayStats() {
+        ApiResponse<UserEventRelayStatsResponse> response = new ApiResponse<>();
+        response.setCode(HttpStatus.OK.value());
+        response.setResult(userEventRelay.getStats());
+        return response;
+    }
+
+    @GetMapping("/search-index")
+    public ApiResponse<SearchIndexStatsResponse> getSearchIndexStats() {
+        ApiResponse<SearchIndexStatsResponse> response = new ApiResponse<>();
+        response.setCode(HttpStatus.OK.value());
+        response.setResult(userSearchService.getStats());
+        return response;
+    }
+
+    @PostMapping("/search-index/rebuild")
+    public ApiResponse<SearchIndexStatsResponse> rebuildSearchIndex() {
+        userSearchService.rebuild();
+        ApiResponse<SearchIndexStatsResponse> response = new ApiResponse<>();
+        response.setCode(HttpStatus.OK.value());
+        response.setResult(userSearchService.getStats());
+        return response;
+    }
+}
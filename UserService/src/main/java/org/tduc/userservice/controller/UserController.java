@@ -9,11 +9,16 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.tduc.userservice.dto.request.*;
 import org.tduc.userservice.dto.response.AuthResponse;
+import org.tduc.userservice.dto.response.AvailabilityResponse;
 import org.tduc.userservice.dto.response.IntrospectResponse;
 import org.tduc.userservice.dto.response.UserResponse;
+import org.tduc.userservice.dto.response.UserSearchResult;
 import org.tduc.userservice.exception.AppException;
 import org.tduc.userservice.exception.ErrorCode;
 import org.tduc.userservice.model.User;
+import org.tduc.userservice.service.LoginThrottleService;
+import org.tduc.userservice.service.UserAvailabilityService;
+import org.tduc.userservice.service.UserSearchService;
 import org.tduc.userservice.service.UserService;
 
 import java.util.List;
@@ -33,6 +38,15 @@ public class UserController {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private UserAvailabilityService userAvailabilityService;
+
+    @Autowired
+    private LoginThrottleService loginThrottleService;
+
+    @Autowired
+    private UserSearchService userSearchService;
+
     private static final Logger log = LoggerFactory.getLogger(UserController.class);
 
     @PostMapping("/users")
@@ -50,8 +64,7 @@ public class UserController {
     public ApiResponse<UserResponse> getUser(@PathVariable String username, HttpServletResponse httpServletResponse) {
         ApiResponse<UserResponse> response = new ApiResponse<>();
         response.setCode(HttpStatus.OK.value());
-        User user = userService.findByUsername(username);
-        response.setResult(userMapper.toUserResponse(user));
+        response.setResult(userService.getProfile(username));
         return response;
     }
 
@@ -76,21 +89,26 @@ public class UserController {
      */
     @GetMapping("/public/{userId}")
     @PermitAll
-    public ApiResponse<Map<String, Object>> getPublicProfile(@PathVariable("userId") String userId) {
-        ApiResponse<Map<String, Object>> response = new ApiResponse<>();
+    public ApiResponse<Object> getPublicProfile(@PathVariable("userId") String userId) {
+        ApiResponse<Object> response = new ApiResponse<>();
         response.setCode(HttpStatus.OK.value());
-        try {
-            UserResponse user = userService.getUser(userId);
-            java.util.Map<String, Object> out = new java.util.HashMap<>();
-            out.put("id", user.getId());
-            out.put("username", user.getUsername());
-            out.put("fullName", user.getFullName());
-            out.put("email", user.getEmail());
-            response.setResult(out);
-        } catch (Exception ex) {
-            // If user not found, return empty result (404 would be fine too but keep simple)
-            response.setResult(java.util.Map.of());
-        }
+        // If user not found, return empty result (404 would be fine too but keep simple)
+        response.setResult(userService.getPublicProfile(userId).<Object>map(profile -> profile).orElse(Map.of()));
+        return response;
+    }
+
+    /**
+     * Typeahead for the admin user list and the teacher collaborator picker.
+     * Served from the in-memory prefix/trigram index; optional role filter and result limit.
+     */
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'TEACHER')")
+    public ApiResponse<List<UserSearchResult>> searchUsers(@RequestParam("q") String query,
+                                                           @RequestParam(required = false) String role,
+                                                           @RequestParam(required = false) Integer limit) {
+        ApiResponse<List<UserSearchResult>> response = new ApiResponse<>();
+        response.setCode(HttpStatus.OK.value());
+        response.setResult(userSearchService.search(query, role, limit));
         return response;
     }
 
@@ -110,8 +128,9 @@ public class UserController {
     }
 
     @PostMapping("/auth/login")
-    public ApiResponse<AuthResponse> authenticate(@RequestBody AuthRequest authRequest) {
-        AuthResponse result = userService.authenticate(authRequest);
+    public ApiResponse<AuthResponse> authenticate(@RequestBody AuthRequest authRequest,
+                                                  jakarta.servlet.http.HttpServletRequest request) {
+        AuthResponse result = userService.authenticate(authRequest, loginThrottleService.resolveClientIp(request));
         ApiResponse<AuthResponse> response = new ApiResponse<>();
         response.setResult(result);
         return response;
@@ -132,6 +151,31 @@ public class UserController {
         return response;
     }
 
+    /**
+     * Lightweight availability check for registration forms (called on every keystroke).
+     * Answers from the in-memory Bloom filter when it can and only queries the DB on possible hits.
+     */
+    @GetMapping("/availability")
+    @PermitAll
+    public ApiResponse<AvailabilityResponse> checkAvailability(@RequestParam(required = false) String username,
+                                                               @RequestParam(required = false) String email) {
+        boolean hasUsername = username != null && !username.isBlank();
+        boolean hasEmail = email != null && !email.isBlank();
+        if (!hasUsername && !hasEmail) {
+            throw new AppException(ErrorCode.INVALID_REQUEST);
+        }
+        AvailabilityResponse result = AvailabilityResponse.builder()
+                .username(hasUsername ? username : null)
+                .usernameAvailable(hasUsername ? userAvailabilityService.isUsernameAvailable(username) : null)
+                .email(hasEmail ? email : null)
+                .emailAvailable(hasEmail ? userAvailabilityService.isEmailAvailable(email) : null)
+                .build();
+        ApiResponse<AvailabilityResponse> response = new ApiResponse<>();
+        response.setCode(HttpStatus.OK.value());
+        response.setResult(result);
+        return response;
+    }
+
     @PostMapping("/introspect")
     public ApiResponse<IntrospectResponse> introspect(@RequestBody IntrospectRequest introspectRequest) {
         var result = userService.introspect(introspectRequest);
@@ -217,10 +261,10 @@ public class UserController {
     public ApiResponse<AuthResponse> adminLogin(@RequestBody AuthRequest authRequest,
                                                 jakarta.servlet.http.HttpServletRequest request) {
         String username = authRequest.getUsername();
-        String clientIp = request.getRemoteAddr();
+        String clientIp = loginThrottleService.resolveClientIp(request);
         log.info("adminLogin attempt user={} ip={}", username, clientIp);
         try {
-            AuthResponse result = userService.adminLogin(authRequest);
+            AuthResponse result = userService.adminLogin(authRequest, clientIp);
             ApiResponse<AuthResponse> response = new ApiResponse<>();
             response.setCode(HttpStatus.OK.value());
             response.setResult(result);
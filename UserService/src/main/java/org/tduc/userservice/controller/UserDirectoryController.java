@@ -0,0 +1,31 @@
+package org.tduc.userservice.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.tduc.userservice.dto.request.ApiResponse;
+import org.tduc.userservice.dto.response.DirectorySnapshotResponse;
+import org.tduc.userservice.service.UserDirectoryService;
+
+/**
+ * Bootstrap endpoint for services replicating the user directory from the user event stream.
+ */
+@RestController
+@RequestMapping("/api/users/directory")
+public class UserDirectoryController {
+
+    @Autowired
+    private UserDirectoryService userDirectoryService;
+
+    @GetMapping("/snapshot")
+    @PreAuthorize("hasAnyAuthority('SERVICE','ADMIN')") // every user's profile: replicating services and admins only
+    public ApiResponse<DirectorySnapshotResponse> getSnapshot() {
+        ApiResponse<DirectorySnapshotResponse> response = new ApiResponse<>();
+        response.setCode(HttpStatus.OK.value());
+        response.setResult(userDirectoryService.snapshot());
+        return response;
+    }
+}
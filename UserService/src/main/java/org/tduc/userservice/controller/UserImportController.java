@@ -0,0 +1,48 @@
+package org.tduc.userservice.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.tduc.userservice.dto.request.ApiResponse;
+import org.tduc.userservice.dto.response.ImportJobResponse;
+import org.tduc.userservice.service.UserImportService;
+
+/**
+ * Bulk roster import for onboarding a whole school at once.
+ * Upload a CSV (header: username,password,email,fullName,firstName,lastName,role) or NDJSON file,
+ * then poll the returned job id for progress and the per-row report.
+ */
+@RestController
+@RequestMapping("/api/users/import")
+@PreAuthorize("hasAuthority('ADMIN')")
+public class UserImportController {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportController.class);
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ApiResponse<ImportJobResponse> startImport(@RequestParam("file") MultipartFile file,
+                                                      @RequestParam(value = "format", required = false) String format) {
+        log.info("Roster import requested: file={}, size={}", file.getOriginalFilename(), file.getSize());
+        ApiResponse<ImportJobResponse> response = new ApiResponse<>();
+        response.setCode(HttpStatus.ACCEPTED.value());
+        response.setResult(userImportService.startImport(file, format));
+        return response;
+    }
+
+    @GetMapping("/{jobId}")
+    public ApiResponse<ImportJobResponse> getImport(@PathVariable String jobId,
+                                                    @RequestParam(value = "rows", defaultValue = "true") boolean includeRows) {
+        ApiResponse<ImportJobResponse> response = new ApiResponse<>();
+        response.setCode(HttpStatus.OK.value());
+        response.setResult(userImportService.getJob(jobId, includeRows));
+        return response;
+    }
+}
@@ -0,0 +1,20 @@
+package org.tduc.userservice.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AvailabilityResponse {
+
+    String username;
+    Boolean usernameAvailable;
+    String email;
+    Boolean emailAvailable;
+}
@@ -0,0 +1,30 @@
+package org.tduc.userservice.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BloomFilterStatsResponse {
+
+    boolean ready;
+    Instant lastRebuild;
+    long keys;
+    long bitsPerFilter;
+    int hashFunctions;
+    long memoryBytes;
+    double targetFpp;
+    double usernameExpectedFpp;
+    double emailExpectedFpp;
+    // Runtime counters since startup
+    long filterMisses;
+    long databaseChecks;
+    long falsePositives;
+    double observedFpp;
+}
@@ -0,0 +1,27 @@
+package org.tduc.userservice.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.tduc.userservice.repository.projection.DirectoryEntryView;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Full user directory plus the stream position it is consistent with;
+ * consumers load the entries and then follow the stream from {@code streamOffset}.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class DirectorySnapshotResponse {
+
+    String streamKey;
+    String streamOffset;
+    Instant generatedAt;
+    int size;
+    List<DirectoryEntryView> users;
+}
@@ -0,0 +1,33 @@
+package org.tduc.userservice.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ImportJobResponse {
+
+    String jobId;
+    // QUEUED, RUNNING, COMPLETED or FAILED
+    String status;
+    String format;
+    long processedRows;
+    long created;
+    long duplicates;
+    long invalid;
+    long failed;
+    Instant startedAt;
+    Instant finishedAt;
+    String error;
+    // Per-row report; only included once the job has finished (or when explicitly requested)
+    List<ImportRowResult> rows;
+}
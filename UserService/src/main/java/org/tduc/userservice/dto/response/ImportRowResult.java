@@ -0,0 +1,23 @@
+package org.tduc.userservice.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ImportRowResult {
+
+    // 1-based line/record number in the uploaded file (header excluded)
+    long row;
+    String username;
+    // CREATED, DUPLICATE, INVALID or FAILED
+    String status;
+    String message;
+    String userId;
+}
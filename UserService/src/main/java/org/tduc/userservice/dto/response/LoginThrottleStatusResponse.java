@@ -0,0 +1,34 @@
+package org.tduc.userservice.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class LoginThrottleStatusResponse {
+
+    boolean enabled;
+    long windowSeconds;
+    int userThreshold;
+    int ipThreshold;
+
+    // Per-key view, only filled when a username / ip was asked for
+    String username;
+    Long userFailures;
+    Long userBlockedForSeconds;
+    String ip;
+    Long ipFailures;
+    Long ipBlockedForSeconds;
+
+    // Counters for this instance since startup
+    long rejectedAttempts;
+    long recordedFailures;
+    long blocksIssued;
+    long redisErrors;
+}
@@ -0,0 +1,29 @@
+package org.tduc.userservice.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SearchIndexStatsResponse {
+
+    boolean ready;
+    Instant lastBuild;
+    long lastBuildMillis;
+    int liveDocs;
+    int deadDocs;
+    int tokens;
+    int trigrams;
+    long estimatedBytes;
+    // Query latency since startup
+    long queries;
+    long fallbackQueries;
+    double meanMicros;
+    double maxMicros;
+}
@@ -0,0 +1,26 @@
+package org.tduc.userservice.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class UserEventRelayStatsResponse {
+
+    boolean enabled;
+    String streamKey;
+    long pendingEvents;
+    long streamLength;
+    Long lastPublishedEventId;
+    String lastStreamId;
+    Instant lastRelayAt;
+    // Runtime counters since startup
+    long publishedEvents;
+    long relayErrors;
+}
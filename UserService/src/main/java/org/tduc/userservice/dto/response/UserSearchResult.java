@@ -0,0 +1,20 @@
+package org.tduc.userservice.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class UserSearchResult {
+
+    String id;
+    String username;
+    String fullName;
+    String email;
+    String role;
+    int score;
+}
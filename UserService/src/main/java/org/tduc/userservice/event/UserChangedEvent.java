@@ -0,0 +1,10 @@
+package org.tduc.userservice.event;
+
+import org.tduc.userservice.model.UserEventType;
+
+/**
+ * In-process notification that a user row changed; listeners use
+ * {@code @TransactionalEventListener} so they only see committed changes.
+ */
+public record UserChangedEvent(UserEventType type, String id, String username, String fullName, String email, String role) {
+}
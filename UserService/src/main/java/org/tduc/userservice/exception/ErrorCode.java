@@ -6,7 +6,11 @@ public enum ErrorCode {
     INVALID_ARGUMENTS(99999,"Invalid Arguments"),
     USER_MIN (366,"Username must be longer or equal 3"),
     PASSWORD_MAX(633,"Password must be shorter or equal 8"),
-    USER_NOT_FOUND(444,"User Not Found" ), USERNAME_NOT_EXIST(36,"username not founded" ), UNAUTHENTICATED(4444,"UNAUTHENTICATED" ), INVALID_REQUEST(66667,"invalid request" );
+    USER_NOT_FOUND(444,"User Not Found" ), USERNAME_NOT_EXIST(36,"username not founded" ), UNAUTHENTICATED(4444,"UNAUTHENTICATED" ), INVALID_REQUEST(66667,"invalid request" ),
+    IMPORT_JOB_NOT_FOUND(4404, "Import job not found"),
+    TOO_MANY_IMPORTS(4429, "Too many imports in progress, try again later"),
+    TOO_MANY_LOGIN_ATTEMPTS(4430, "Too many failed login attempts, try again later"),
+    USER_EVENTS_UNAVAILABLE(4503, "User event stream unavailable, try again later");
     private final int code;
     private final String message;
 
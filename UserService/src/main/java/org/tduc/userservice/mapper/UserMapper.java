@@ -7,6 +7,7 @@ import org.tduc.userservice.dto.request.UserCreationRequest;
 import org.tduc.userservice.dto.request.UserEditRequest;
 import org.tduc.userservice.dto.response.UserResponse;
 import org.tduc.userservice.model.User;
+import org.tduc.userservice.repository.projection.UserProfileView;
 @Mapper(componentModel = "spring")
 public interface UserMapper {
 
@@ -16,4 +17,6 @@ public interface UserMapper {
         User toUser(UserCreationRequest request);
         void updateUser (@MappingTarget User user, UserEditRequest request);
         UserResponse toUserResponse(User user);
+        @Mapping(target = "dob", ignore = true)
+        UserResponse toUserResponse(UserProfileView profile);
 }
@@ -0,0 +1,20 @@
+package org.tduc.userservice.model;
+
+/**
+ * Change events published on the user stream; the event name is what consumers see in the "type" field.
+ */
+public enum UserEventType {
+    USER_CREATED("UserCreated"),
+    USER_UPDATED("UserUpdated"),
+    USER_DELETED("UserDeleted");
+
+    private final String eventName;
+
+    UserEventType(String eventName) {
+        this.eventName = eventName;
+    }
+
+    public String getEventName() {
+        return eventName;
+    }
+}
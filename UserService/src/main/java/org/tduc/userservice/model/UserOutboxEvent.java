@@ -0,0 +1,45 @@
+package org.tduc.userservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+
+/**
+ * Transactional outbox row: written in the same transaction as the user change it describes,
+ * then relayed to the Redis stream in id order.
+ */
+@Entity
+@Table(name = "user_outbox", indexes = {
+        @Index(name = "idx_user_outbox_published", columnList = "published_at, id")
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class UserOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 32)
+    UserEventType eventType;
+
+    @Column(name = "user_id", nullable = false, length = 36)
+    String userId;
+
+    // JSON of the directory fields (id, username, fullName, role)
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    String payload;
+
+    @Column(name = "created_at", nullable = false)
+    Instant createdAt;
+
+    @Column(name = "published_at")
+    Instant publishedAt;
+}
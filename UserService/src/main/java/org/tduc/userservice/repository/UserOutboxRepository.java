@@ -0,0 +1,29 @@
+package org.tduc.userservice.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.tduc.userservice.model.UserOutboxEvent;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UserOutboxRepository extends JpaRepository<UserOutboxEvent, Long> {
+
+    List<UserOutboxEvent> findByPublishedAtIsNullOrderByIdAsc(Pageable pageable);
+
+    long countByPublishedAtIsNull();
+
+    @Modifying
+    @Query("UPDATE UserOutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") Instant publishedAt);
+
+    @Modifying
+    @Query("DELETE FROM UserOutboxEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") Instant cutoff);
+}
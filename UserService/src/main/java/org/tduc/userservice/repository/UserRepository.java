@@ -1,15 +1,57 @@
 package org.tduc.userservice.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.tduc.userservice.model.User;
+import org.tduc.userservice.repository.projection.DirectoryEntryView;
+import org.tduc.userservice.repository.projection.PublicProfileView;
+import org.tduc.userservice.repository.projection.UserIdentityView;
+import org.tduc.userservice.repository.projection.UserProfileView;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, String> {
     boolean existsByUsername(String username);
+    boolean existsByEmail(String email);
     Optional<User> findByUsername(String username);
 
     Optional<User> findByEmail(String email);
-}
\ No newline at end of file
+
+    // Read-only projections for profile endpoints
+    @Query("SELECT new org.tduc.userservice.repository.projection.UserProfileView(u.id, u.username, u.fullName, u.email, u.role, u.enabled) FROM User u WHERE u.id = :id")
+    Optional<UserProfileView> findProfileById(@Param("id") String id);
+
+    @Query("SELECT new org.tduc.userservice.repository.projection.UserProfileView(u.id, u.username, u.fullName, u.email, u.role, u.enabled) FROM User u WHERE u.username = :username")
+    Optional<UserProfileView> findProfileByUsername(@Param("username") String username);
+
+    @Query("SELECT new org.tduc.userservice.repository.projection.PublicProfileView(u.id, u.username, u.fullName, u.email) FROM User u WHERE u.id = :id")
+    Optional<PublicProfileView> findPublicProfileById(@Param("id") String id);
+
+    // Set-based duplicate checks used by the roster import
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Forward-only scan of identity columns; must be consumed inside a transaction
+    @Query("SELECT u.username AS username, u.email AS email FROM User u")
+    Stream<UserIdentityView> streamAllIdentities();
+
+    // Directory snapshot for services that replicate the user stream; must be consumed inside a transaction
+    @Query("SELECT new org.tduc.userservice.repository.projection.DirectoryEntryView(u.id, u.username, u.fullName, u.role) FROM User u")
+    Stream<DirectoryEntryView> streamDirectory();
+
+    // Source for the in-memory search index; must be consumed inside a transaction
+    @Query("SELECT new org.tduc.userservice.repository.projection.UserProfileView(u.id, u.username, u.fullName, u.email, u.role, u.enabled) FROM User u")
+    Stream<UserProfileView> streamAllProfiles();
+
+    // Fallback for search while the in-memory index is still being built (uses the username index)
+    List<User> findTop20ByUsernameStartingWithOrderByUsernameAsc(String prefix);
+}
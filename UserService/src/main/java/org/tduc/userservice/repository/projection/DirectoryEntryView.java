@@ -0,0 +1,7 @@
+package org.tduc.userservice.repository.projection;
+
+/**
+ * The user-directory fields replicated to other services.
+ */
+public record DirectoryEntryView(String id, String username, String fullName, String role) {
+}
@@ -0,0 +1,7 @@
+package org.tduc.userservice.repository.projection;
+
+/**
+ * Non-sensitive fields served by the public profile endpoint.
+ */
+public record PublicProfileView(String id, String username, String fullName, String email) {
+}
@@ -0,0 +1,9 @@
+package org.tduc.userservice.repository.projection;
+
+/**
+ * Username/email pair, used to seed the registration availability filter.
+ */
+public interface UserIdentityView {
+    String getUsername();
+    String getEmail();
+}
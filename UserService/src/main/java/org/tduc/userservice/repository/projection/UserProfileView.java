@@ -0,0 +1,7 @@
+package org.tduc.userservice.repository.projection;
+
+/**
+ * Slim read model for profile lookups; avoids hydrating (and dirty-checking) the full User entity.
+ */
+public record UserProfileView(String id, String username, String fullName, String email, String role, boolean enabled) {
+}
@@ -0,0 +1,254 @@
+package org.tduc.userservice.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Service;
+import org.tduc.userservice.dto.response.LoginThrottleStatusResponse;
+import org.tduc.userservice.exception.AppException;
+import org.tduc.userservice.exception.ErrorCode;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sliding-window login throttling kept in Redis, keyed by username and by client IP.
+ * Once a key reaches its threshold inside the window it is blocked with an exponentially growing
+ * backoff, and blocked attempts are rejected before the user lookup and bcrypt check.
+ * If Redis is unreachable the throttle fails open so logins keep working.
+ */
+@Service
+public class LoginThrottleService {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginThrottleService.class);
+
+    private static final String FAIL_PREFIX = "login:fail:";
+    private static final String BLOCK_PREFIX = "login:block:";
+
+    // KEYS[1] = failure window (sorted set scored by time), KEYS[2] = block key
+    // ARGV = now, windowMs, threshold, baseBackoffMs, maxBackoffMs, member
+    private static final DefaultRedisScript<List> RECORD_FAILURE = new DefaultRedisScript<>(
+            "redis.call('ZREMRANGEBYSCORE', KEYS[1], 0, tonumber(ARGV[1]) - tonumber(ARGV[2])) "
+                    + "redis.call('ZADD', KEYS[1], ARGV[1], ARGV[6]) "
+                    + "redis.call('PEXPIRE', KEYS[1], ARGV[2]) "
+                    + "local count = redis.call('ZCARD', KEYS[1]) "
+                    + "local threshold = tonumber(ARGV[3]) "
+                    + "if count >= threshold then "
+                    + "  local backoff = math.floor(math.min(tonumber(ARGV[4]) * 2 ^ (count - threshold), tonumber(ARGV[5]))) "
+                    + "  redis.call('SET', KEYS[2], count, 'PX', backoff) "
+                    + "  return {count, backoff} "
+                    + "end "
+                    + "return {count, 0}",
+            List.class);
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Value("${app.login-throttle.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.login-throttle.window-seconds:900}")
+    private long windowSeconds;
+
+    @Value("${app.login-throttle.user-threshold:5}")
+    private int userThreshold;
+
+    @Value("${app.login-throttle.ip-threshold:30}")
+    private int ipThreshold;
+
+    @Value("${app.login-throttle.base-backoff-seconds:30}")
+    private long baseBackoffSeconds;
+
+    @Value("${app.login-throttle.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    // Proxies in front of the API Gateway (addresses or CIDR ranges) whose X-Forwarded-For entries are skipped
+    @Value("${app.login-throttle.trusted-proxies:}")
+    private List<String> trustedProxies;
+
+    private List<IpAddressMatcher> trustedProxyMatchers = List.of();
+
+    private final AtomicLong rejectedAttempts = new AtomicLong();
+    private final AtomicLong recordedFailures = new AtomicLong();
+    private final AtomicLong blocksIssued = new AtomicLong();
+    private final AtomicLong redisErrors = new AtomicLong();
+
+    /**
+     * Throws TOO_MANY_LOGIN_ATTEMPTS if either the username or the client IP is currently blocked.
+     */
+    public void checkAllowed(String username, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (isBlocked(userKey(username)) || isBlocked(ipKey(clientIp))) {
+                rejectedAttempts.incrementAndGet();
+                log.warn("Login throttled user={} ip={}", username, clientIp);
+                throw new AppException(ErrorCode.TOO_MANY_LOGIN_ATTEMPTS);
+            }
+        } catch (AppException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            redisErrors.incrementAndGet();
+            log.warn("Login throttle check skipped, Redis unavailable: {}", e.getMessage());
+        }
+    }
+
+    public void recordFailure(String username, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        recordedFailures.incrementAndGet();
+        try {
+            record(userKey(username), userThreshold);
+            record(ipKey(clientIp), ipThreshold);
+        } catch (RuntimeException e) {
+            redisErrors.incrementAndGet();
+            log.warn("Login failure not recorded, Redis unavailable: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * A successful login clears the username's history; the IP window is left to expire on its own.
+     */
+    public void recordSuccess(String username) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            String key = userKey(username);
+            redisTemplate.delete(List.of(FAIL_PREFIX + key, BLOCK_PREFIX + key));
+        } catch (RuntimeException e) {
+            redisErrors.incrementAndGet();
+            log.warn("Login throttle reset skipped, Redis unavailable: {}", e.getMessage());
+        }
+    }
+
+    public LoginThrottleStatusResponse getStatus(String username, String clientIp) {
+        LoginThrottleStatusResponse.LoginThrottleStatusResponseBuilder status = LoginThrottleStatusResponse.builder()
+                .enabled(enabled)
+                .windowSeconds(windowSeconds)
+                .userThreshold(userThreshold)
+                .ipThreshold(ipThreshold)
+                .rejectedAttempts(rejectedAttempts.get())
+                .recordedFailures(recordedFailures.get())
+                .blocksIssued(blocksIssued.get())
+                .redisErrors(redisErrors.get());
+        if (username != null && !username.isBlank()) {
+            String key = userKey(username);
+            status.username(username)
+                    .userFailures(windowCount(key))
+                    .userBlockedForSeconds(blockedForSeconds(key));
+        }
+        if (clientIp != null && !clientIp.isBlank()) {
+            String key = ipKey(clientIp);
+            status.ip(clientIp)
+                    .ipFailures(windowCount(key))
+                    .ipBlockedForSeconds(blockedForSeconds(key));
+        }
+        return status.build();
+    }
+
+    public void reset(String username, String clientIp) {
+        if (username != null && !username.isBlank()) {
+            String key = userKey(username);
+            redisTemplate.delete(List.of(FAIL_PREFIX + key, BLOCK_PREFIX + key));
+        }
+        if (clientIp != null && !clientIp.isBlank()) {
+            String key = ipKey(clientIp);
+            redisTemplate.delete(List.of(FAIL_PREFIX + key, BLOCK_PREFIX + key));
+        }
+    }
+
+    @PostConstruct
+    void initTrustedProxies() {
+        trustedProxyMatchers = trustedProxies.stream()
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
+    /**
+     * Client address as seen by the API Gateway, falling back to the socket address.
+     * X-Forwarded-For is read from the right: the gateway appends the address it received the request
+     * from, while everything to the left of it is whatever the client chose to send. Entries of
+     * configured trusted proxies (a load balancer in front of the gateway) are skipped.
+     */
+    public String resolveClientIp(HttpServletRequest request) {
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded != null && !forwarded.isBlank()) {
+            String[] hops = forwarded.split(",");
+            for (int i = hops.length - 1; i >= 0; i--) {
+                String hop = hops[i].trim();
+                if (!hop.isEmpty() && (i == 0 || !isTrustedProxy(hop))) {
+                    return hop;
+                }
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private boolean isTrustedProxy(String address) {
+        for (IpAddressMatcher matcher : trustedProxyMatchers) {
+            try {
+                if (matcher.matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                // Not an IP address: never a proxy of ours
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private void record(String key, int threshold) {
+        long now = System.currentTimeMillis();
+        List<?> result = redisTemplate.execute(RECORD_FAILURE,
+                List.of(FAIL_PREFIX + key, BLOCK_PREFIX + key),
+                String.valueOf(now),
+                String.valueOf(TimeUnit.SECONDS.toMillis(windowSeconds)),
+                String.valueOf(threshold),
+                String.valueOf(TimeUnit.SECONDS.toMillis(baseBackoffSeconds)),
+                String.valueOf(TimeUnit.SECONDS.toMillis(maxBackoffSeconds)),
+                now + ":" + UUID.randomUUID());
+        if (result != null && result.size() == 2 && ((Number) result.get(1)).longValue() > 0) {
+            blocksIssued.incrementAndGet();
+            log.warn("Login blocked key={} failures={} backoffMs={}", key, result.get(0), result.get(1));
+        }
+    }
+
+    private boolean isBlocked(String key) {
+        Long ttl = redisTemplate.getExpire(BLOCK_PREFIX + key, TimeUnit.MILLISECONDS);
+        return ttl != null && ttl > 0;
+    }
+
+    private long windowCount(String key) {
+        long cutoff = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(windowSeconds);
+        Long count = redisTemplate.opsForZSet().count(FAIL_PREFIX + key, cutoff, Double.MAX_VALUE);
+        return count == null ? 0 : count;
+    }
+
+    private long blockedForSeconds(String key) {
+        Long ttl = redisTemplate.getExpire(BLOCK_PREFIX + key, TimeUnit.SECONDS);
+        return ttl == null || ttl < 0 ? 0 : ttl;
+    }
+
+    private static String userKey(String username) {
+        return "user:" + (username == null ? "" : username.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private static String ipKey(String clientIp) {
+        return "ip:" + (clientIp == null ? "unknown" : clientIp);
+    }
+}
@@ -0,0 +1,160 @@
+package org.tduc.userservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.tduc.userservice.dto.response.BloomFilterStatsResponse;
+import org.tduc.userservice.model.User;
+import org.tduc.userservice.repository.UserRepository;
+import org.tduc.userservice.repository.projection.UserIdentityView;
+import org.tduc.userservice.util.BloomFilter;
+
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory pre-check for username/email availability.
+ * A Bloom filter miss means the value is definitely free and the database is skipped;
+ * a possible hit falls through to the exact unique-index query.
+ * The filters are rebuilt periodically so deletes and inserts made by other instances are picked up.
+ */
+@Service
+public class UserAvailabilityService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserAvailabilityService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.availability.bloom.fpp:0.01}")
+    private double targetFpp;
+
+    // Head-room so a filter built now stays near the target fpp until the next rebuild
+    @Value("${app.availability.bloom.growth-factor:1.5}")
+    private double growthFactor;
+
+    private volatile Filters current;
+    // Filters being rebuilt; inserts made while the scan runs are mirrored here
+    private volatile Filters building;
+    private volatile Instant lastRebuild;
+
+    private final AtomicLong filterMisses = new AtomicLong();
+    private final AtomicLong databaseChecks = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+
+    private record Filters(BloomFilter usernames, BloomFilter emails) {
+    }
+
+    public boolean isUsernameAvailable(String username) {
+        String key = normalize(username);
+        Filters filters = current;
+        if (filters != null && !filters.usernames().mightContain(key)) {
+            filterMisses.incrementAndGet();
+            return true;
+        }
+        databaseChecks.incrementAndGet();
+        boolean exists = userRepository.existsByUsername(username);
+        if (!exists && filters != null) {
+            falsePositives.incrementAndGet();
+        }
+        return !exists;
+    }
+
+    public boolean isEmailAvailable(String email) {
+        String key = normalize(email);
+        Filters filters = current;
+        if (filters != null && !filters.emails().mightContain(key)) {
+            filterMisses.incrementAndGet();
+            return true;
+        }
+        databaseChecks.incrementAndGet();
+        boolean exists = userRepository.existsByEmail(email);
+        if (!exists && filters != null) {
+            falsePositives.incrementAndGet();
+        }
+        return !exists;
+    }
+
+    /**
+     * Must be called after every insert (and after username/email edits) so the filter never
+     * reports a taken value as free.
+     */
+    public void recordUser(User user) {
+        if (user == null) {
+            return;
+        }
+        record(current, user.getUsername(), user.getEmail());
+        record(building, user.getUsername(), user.getEmail());
+    }
+
+    @Scheduled(initialDelayString = "${app.availability.bloom.initial-delay-ms:0}",
+            fixedDelayString = "${app.availability.bloom.rebuild-interval-ms:600000}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        long expected = (long) Math.ceil(Math.max(userRepository.count(), 1000) * growthFactor);
+        Filters next = new Filters(BloomFilter.create(expected, targetFpp), BloomFilter.create(expected, targetFpp));
+        building = next;
+        try (Stream<UserIdentityView> identities = userRepository.streamAllIdentities()) {
+            identities.forEach(identity -> record(next, identity.getUsername(), identity.getEmail()));
+            current = next;
+            lastRebuild = Instant.now();
+        } catch (RuntimeException ex) {
+            // Keep serving from the previous filter (or straight from the DB if there is none)
+            log.error("Availability filter rebuild failed: {}", ex.getMessage(), ex);
+            return;
+        } finally {
+            building = null;
+        }
+        log.info("Availability filter rebuilt: keys={}, bits={}, hashes={}, bytes={}, expectedFpp={}, took={}ms",
+                next.usernames().getInsertions(), next.usernames().getNumBits(), next.usernames().getNumHashes(),
+                next.usernames().sizeInBytes() + next.emails().sizeInBytes(),
+                String.format(Locale.ROOT, "%.5f", next.usernames().expectedFpp()),
+                System.currentTimeMillis() - started);
+    }
+
+    public BloomFilterStatsResponse getStats() {
+        Filters filters = current;
+        long negatives = filterMisses.get() + falsePositives.get();
+        BloomFilterStatsResponse.BloomFilterStatsResponseBuilder stats = BloomFilterStatsResponse.builder()
+                .ready(filters != null)
+                .targetFpp(targetFpp)
+                .lastRebuild(lastRebuild)
+                .filterMisses(filterMisses.get())
+                .databaseChecks(databaseChecks.get())
+                .falsePositives(falsePositives.get())
+                .observedFpp(negatives == 0 ? 0.0 : (double) falsePositives.get() / negatives);
+        if (filters != null) {
+            stats.keys(filters.usernames().getInsertions())
+                    .bitsPerFilter(filters.usernames().getNumBits())
+                    .hashFunctions(filters.usernames().getNumHashes())
+                    .memoryBytes(filters.usernames().sizeInBytes() + filters.emails().sizeInBytes())
+                    .usernameExpectedFpp(filters.usernames().expectedFpp())
+                    .emailExpectedFpp(filters.emails().expectedFpp());
+        }
+        return stats.build();
+    }
+
+    private static void record(Filters filters, String username, String email) {
+        if (filters == null) {
+            return;
+        }
+        if (username != null) {
+            filters.usernames().put(normalize(username));
+        }
+        if (email != null) {
+            filters.emails().put(normalize(email));
+        }
+    }
+
+    // The unique indexes use MySQL's case-insensitive collation, so the filter must too
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,57 @@
+package org.tduc.userservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.tduc.userservice.dto.response.DirectorySnapshotResponse;
+import org.tduc.userservice.exception.AppException;
+import org.tduc.userservice.exception.ErrorCode;
+import org.tduc.userservice.repository.UserRepository;
+import org.tduc.userservice.repository.projection.DirectoryEntryView;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Bootstrap snapshot for services that keep an in-memory replica of the user directory.
+ */
+@Service
+public class UserDirectoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserDirectoryService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserEventRelay userEventRelay;
+
+    /**
+     * The stream offset is read before the table, so replaying the stream from it can only move an
+     * entry forward to a state that was committed later; replicas converge once they catch up.
+     */
+    @Transactional(readOnly = true)
+    public DirectorySnapshotResponse snapshot() {
+        String offset;
+        try {
+            offset = userEventRelay.currentStreamOffset();
+        } catch (RuntimeException e) {
+            log.warn("Directory snapshot refused, Redis unavailable: {}", e.getMessage());
+            throw new AppException(ErrorCode.USER_EVENTS_UNAVAILABLE);
+        }
+        List<DirectoryEntryView> users;
+        try (Stream<DirectoryEntryView> entries = userRepository.streamDirectory()) {
+            users = entries.collect(Collectors.toList());
+        }
+        return DirectorySnapshotResponse.builder()
+                .streamKey(userEventRelay.getStreamKey())
+                .streamOffset(offset)
+                .generatedAt(Instant.now())
+                .size(users.size())
+                .users(users)
+                .build();
+    }
+}
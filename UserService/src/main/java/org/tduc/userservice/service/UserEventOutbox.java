@@ -0,0 +1,62 @@
+package org.tduc.userservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.tduc.userservice.event.UserChangedEvent;
+import org.tduc.userservice.model.User;
+import org.tduc.userservice.model.UserEventType;
+import org.tduc.userservice.model.UserOutboxEvent;
+import org.tduc.userservice.repository.UserOutboxRepository;
+import org.tduc.userservice.repository.projection.DirectoryEntryView;
+
+import java.time.Instant;
+
+/**
+ * Writes user change events to the outbox table.
+ * Callers must already be inside the transaction that changes the user, so the event commits
+ * (or rolls back) together with the change; {@link UserEventRelay} publishes it afterwards.
+ * The same change is also announced in-process as a {@link UserChangedEvent}.
+ * <p>
+ * The user change is flushed before the event row is inserted: its UPDATE or DELETE takes the user's
+ * row lock first, so concurrent changes to one user get outbox ids in the order they hit the row and
+ * directory replicas apply the latest state last.
+ */
+@Service
+public class UserEventOutbox {
+
+    @Autowired
+    private UserOutboxRepository userOutboxRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(UserEventType type, User user) {
+        DirectoryEntryView entry = new DirectoryEntryView(user.getId(), user.getUsername(), user.getFullName(), user.getRole());
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(entry);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize user event for " + user.getId(), e);
+        }
+        // Row lock before the IDENTITY id is taken; see the class comment
+        entityManager.flush();
+        userOutboxRepository.save(UserOutboxEvent.builder()
+                .eventType(type)
+                .userId(user.getId())
+                .payload(payload)
+                .createdAt(Instant.now())
+                .build());
+        eventPublisher.publishEvent(new UserChangedEvent(type, user.getId(), user.getUsername(), user.getFullName(),
+                user.getEmail(), user.getRole()));
+    }
+}
@@ -0,0 +1,205 @@
+package org.tduc.userservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.tduc.userservice.dto.response.UserEventRelayStatsResponse;
+import org.tduc.userservice.model.UserOutboxEvent;
+import org.tduc.userservice.repository.UserOutboxRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Relays committed outbox rows to the user Redis stream.
+ * Only one instance relays at a time (Redis lock) and rows go out in outbox id order; changes to the
+ * same user are serialized by the row lock on {@code users}, so their outbox ids, and therefore
+ * their stream entries, are in commit order. A crash between XADD and marking the row published
+ * re-sends it, so consumers skip events whose eventId they have already applied for that user.
+ */
+@Service
+public class UserEventRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(UserEventRelay.class);
+
+    private static final String LOCK_KEY = "user-events:relay-lock";
+    private static final DefaultRedisScript<Long> RELEASE_LOCK = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0",
+            Long.class);
+
+    @Autowired
+    private UserOutboxRepository userOutboxRepository;
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.user-events.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.user-events.stream-key:user-events}")
+    private String streamKey;
+
+    @Value("${app.user-events.batch-size:200}")
+    private int batchSize;
+
+    // Caps one relay run so it finishes well inside the lock TTL
+    @Value("${app.user-events.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.user-events.lock-ttl-seconds:30}")
+    private long lockTtlSeconds;
+
+    // Approximate MAXLEN; consumers that fall further behind than this re-bootstrap from the snapshot
+    @Value("${app.user-events.stream-max-length:100000}")
+    private long streamMaxLength;
+
+    @Value("${app.user-events.retention-hours:72}")
+    private long retentionHours;
+
+    private final AtomicLong publishedEvents = new AtomicLong();
+    private final AtomicLong relayErrors = new AtomicLong();
+    private volatile Long lastPublishedEventId;
+    private volatile String lastStreamId;
+    private volatile Instant lastRelayAt;
+
+    public String getStreamKey() {
+        return streamKey;
+    }
+
+    @Scheduled(initialDelayString = "${app.user-events.initial-delay-ms:5000}",
+            fixedDelayString = "${app.user-events.relay-interval-ms:500}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, token, Duration.ofSeconds(lockTtlSeconds));
+            if (!Boolean.TRUE.equals(acquired)) {
+                return;
+            }
+        } catch (RuntimeException e) {
+            relayErrors.incrementAndGet();
+            log.warn("User event relay skipped, Redis unavailable: {}", e.getMessage());
+            return;
+        }
+        try {
+            int published = 0;
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                int sent = relayBatch();
+                published += sent;
+                if (sent < batchSize) {
+                    break;
+                }
+            }
+            if (published > 0) {
+                redisTemplate.opsForStream().trim(streamKey, streamMaxLength, true);
+            }
+            lastRelayAt = Instant.now();
+        } catch (RuntimeException e) {
+            relayErrors.incrementAndGet();
+            log.error("User event relay failed: {}", e.getMessage(), e);
+        } finally {
+            try {
+                redisTemplate.execute(RELEASE_LOCK, List.of(LOCK_KEY), token);
+            } catch (RuntimeException e) {
+                // The lock expires on its own
+                log.warn("User event relay lock not released: {}", e.getMessage());
+            }
+        }
+    }
+
+    private int relayBatch() {
+        List<UserOutboxEvent> batch = userOutboxRepository.findByPublishedAtIsNullOrderByIdAsc(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<Long> sent = new ArrayList<>(batch.size());
+        try {
+            for (UserOutboxEvent event : batch) {
+                RecordId recordId = redisTemplate.opsForStream().add(toRecord(event));
+                sent.add(event.getId());
+                lastPublishedEventId = event.getId();
+                lastStreamId = recordId == null ? null : recordId.getValue();
+            }
+        } finally {
+            // Mark whatever made it out, even if the batch stopped part-way, so it is not re-sent needlessly
+            if (!sent.isEmpty()) {
+                Instant now = Instant.now();
+                new TransactionTemplate(transactionManager)
+                        .executeWithoutResult(status -> userOutboxRepository.markPublished(sent, now));
+                publishedEvents.addAndGet(sent.size());
+            }
+        }
+        return sent.size();
+    }
+
+    private MapRecord<String, String, String> toRecord(UserOutboxEvent event) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("eventId", String.valueOf(event.getId()));
+        fields.put("type", event.getEventType().getEventName());
+        fields.put("userId", event.getUserId());
+        fields.put("payload", event.getPayload());
+        fields.put("occurredAt", event.getCreatedAt().toString());
+        return StreamRecords.newRecord().in(streamKey).ofMap(fields);
+    }
+
+    /**
+     * Id of the newest stream entry, or "0-0" for an empty stream.
+     * A snapshot taken after reading this offset already contains every change up to it.
+     */
+    public String currentStreamOffset() {
+        List<MapRecord<String, Object, Object>> last = redisTemplate.opsForStream()
+                .reverseRange(streamKey, Range.unbounded(), Limit.limit().count(1));
+        return last == null || last.isEmpty() ? "0-0" : last.get(0).getId().getValue();
+    }
+
+    @Scheduled(fixedDelayString = "${app.user-events.cleanup-interval-ms:3600000}")
+    public void purgePublished() {
+        Instant cutoff = Instant.now().minus(Duration.ofHours(retentionHours));
+        Integer removed = new TransactionTemplate(transactionManager)
+                .execute(status -> userOutboxRepository.deletePublishedBefore(cutoff));
+        if (removed != null && removed > 0) {
+            log.info("Purged {} published user outbox rows older than {}", removed, cutoff);
+        }
+    }
+
+    public UserEventRelayStatsResponse getStats() {
+        UserEventRelayStatsResponse.UserEventRelayStatsResponseBuilder stats = UserEventRelayStatsResponse.builder()
+                .enabled(enabled)
+                .streamKey(streamKey)
+                .pendingEvents(userOutboxRepository.countByPublishedAtIsNull())
+                .lastPublishedEventId(lastPublishedEventId)
+                .lastStreamId(lastStreamId)
+                .lastRelayAt(lastRelayAt)
+                .publishedEvents(publishedEvents.get())
+                .relayErrors(relayErrors.get());
+        try {
+            Long length = redisTemplate.opsForStream().size(streamKey);
+            stats.streamLength(length == null ? 0 : length);
+        } catch (RuntimeException e) {
+            stats.streamLength(-1);
+        }
+        return stats.build();
+    }
+}
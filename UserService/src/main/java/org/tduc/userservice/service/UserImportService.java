@@ -0,0 +1,484 @@
+package org.tduc.userservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.tduc.userservice.dto.response.ImportJobResponse;
+import org.tduc.userservice.dto.response.ImportRowResult;
+import org.tduc.userservice.event.UserChangedEvent;
+import org.tduc.userservice.exception.AppException;
+import org.tduc.userservice.exception.ErrorCode;
+import org.tduc.userservice.model.User;
+import org.tduc.userservice.model.UserEventType;
+import org.tduc.userservice.repository.UserRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk roster import (CSV with header row, or NDJSON).
+ * Rows are validated in a single streaming pass and written in chunks: duplicates are found with
+ * set-based IN queries, passwords are bcrypt-hashed in parallel on a bounded pool, and inserts go
+ * through a JDBC batch per chunk. Jobs run in the background and can be polled by id.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final String INSERT_SQL = "INSERT INTO users (id, username, password_hash, email, first_name, last_name, full_name, enabled, role) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // Same row the UserEventOutbox writes through JPA, so imported users reach the user event stream
+    private static final String OUTBOX_SQL = "INSERT INTO user_outbox (event_type, user_id, payload, created_at) VALUES (?, ?, ?, ?)";
+    private static final Set<String> ROLES = Set.of("STUDENT", "TEACHER", "ADMIN");
+
+    public enum Format { CSV, NDJSON }
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserAvailabilityService userAvailabilityService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    @Qualifier("rosterImportExecutor")
+    private TaskExecutor importExecutor;
+    @Autowired
+    @Qualifier("passwordHashExecutor")
+    private Executor passwordHashExecutor;
+
+    @Value("${app.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.import.job-retention-minutes:60}")
+    private long jobRetentionMinutes;
+
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Spool the upload to a temp file (the multipart is gone once the request ends) and queue the job.
+     */
+    public ImportJobResponse startImport(MultipartFile file, String format) {
+        if (file == null || file.isEmpty()) {
+            throw new AppException(ErrorCode.INVALID_REQUEST);
+        }
+        Format resolved = resolveFormat(file.getOriginalFilename(), format);
+        Path spool;
+        try {
+            spool = Files.createTempFile("roster-import-", resolved == Format.CSV ? ".csv" : ".ndjson");
+            file.transferTo(spool);
+        } catch (IOException e) {
+            log.error("Roster import: failed to spool upload: {}", e.getMessage(), e);
+            throw new AppException(ErrorCode.INVALID_REQUEST);
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), resolved);
+        jobs.put(job.id, job);
+        try {
+            importExecutor.execute(() -> run(job, spool));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            deleteQuietly(spool);
+            throw new AppException(ErrorCode.TOO_MANY_IMPORTS);
+        }
+        log.info("Roster import {} queued: file={}, format={}, bytes={}", job.id, file.getOriginalFilename(), resolved, file.getSize());
+        return job.snapshot(false);
+    }
+
+    public ImportJobResponse getJob(String jobId, boolean includeRows) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new AppException(ErrorCode.IMPORT_JOB_NOT_FOUND);
+        }
+        return job.snapshot(includeRows);
+    }
+
+    @Scheduled(fixedDelay = 300000)
+    public void evictFinishedJobs() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(jobRetentionMinutes));
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private void run(ImportJob job, Path spool) {
+        job.status = "RUNNING";
+        job.startedAt = Instant.now();
+        try (BufferedReader reader = Files.newBufferedReader(spool, StandardCharsets.UTF_8)) {
+            Set<String> seenUsernames = new HashSet<>();
+            Set<String> seenEmails = new HashSet<>();
+            List<RosterRow> chunk = new ArrayList<>(chunkSize);
+            Map<String, Integer> header = null;
+            long rowNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (job.format == Format.CSV && header == null) {
+                    header = parseHeader(line);
+                    continue;
+                }
+                rowNumber++;
+                RosterRow row;
+                try {
+                    row = job.format == Format.CSV ? fromCsv(rowNumber, line, header) : fromJson(rowNumber, line);
+                } catch (Exception e) {
+                    job.record(ImportRowResult.builder().row(rowNumber).status("INVALID").message("Unparseable row").build());
+                    continue;
+                }
+
+                String problem = validate(row);
+                if (problem != null) {
+                    job.record(ImportRowResult.builder().row(rowNumber).username(row.username()).status("INVALID").message(problem).build());
+                    continue;
+                }
+                // Only accepted rows claim their username and email, so a rejected row blocks neither
+                String username = normalize(row.username());
+                String email = normalize(row.email());
+                if (seenUsernames.contains(username) || seenEmails.contains(email)) {
+                    job.record(ImportRowResult.builder().row(rowNumber).username(row.username()).status("DUPLICATE").message("Duplicate within file").build());
+                    continue;
+                }
+                seenUsernames.add(username);
+                seenEmails.add(email);
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(job, chunk);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(job, chunk);
+            }
+            job.status = "COMPLETED";
+        } catch (Exception e) {
+            log.error("Roster import {} failed: {}", job.id, e.getMessage(), e);
+            job.status = "FAILED";
+            job.error = e.getMessage();
+        } finally {
+            job.finishedAt = Instant.now();
+            deleteQuietly(spool);
+            log.info("Roster import {} {}: processed={}, created={}, duplicates={}, invalid={}, failed={}, took={}ms",
+                    job.id, job.status, job.processed.get(), job.created.get(), job.duplicates.get(), job.invalid.get(),
+                    job.failed.get(), Duration.between(job.startedAt, job.finishedAt).toMillis());
+        }
+    }
+
+    private void writeChunk(ImportJob job, List<RosterRow> chunk) {
+        // Set-based duplicate check against existing users (the IN comparison uses the column collation)
+        Set<String> existingUsernames = lowerCaseSet(userRepository.findExistingUsernames(
+                chunk.stream().map(RosterRow::username).collect(Collectors.toList())));
+        Set<String> existingEmails = lowerCaseSet(userRepository.findExistingEmails(
+                chunk.stream().map(RosterRow::email).collect(Collectors.toList())));
+
+        List<RosterRow> fresh = new ArrayList<>(chunk.size());
+        for (RosterRow row : chunk) {
+            if (existingUsernames.contains(normalize(row.username())) || existingEmails.contains(normalize(row.email()))) {
+                job.record(ImportRowResult.builder().row(row.row()).username(row.username()).status("DUPLICATE").message("User already exists").build());
+            } else {
+                fresh.add(row);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        // bcrypt dominates the cost of an import, so fan it out over the bounded hash pool
+        List<CompletableFuture<String>> hashes = fresh.stream()
+                .map(row -> CompletableFuture.supplyAsync(() -> passwordEncoder.encode(row.password()), passwordHashExecutor))
+                .collect(Collectors.toList());
+
+        List<Object[]> params = new ArrayList<>(fresh.size());
+        List<Object[]> events = new ArrayList<>(fresh.size());
+        for (int i = 0; i < fresh.size(); i++) {
+            RosterRow row = fresh.get(i);
+            String userId = UUID.randomUUID().toString();
+            params.add(new Object[]{userId, row.username(), hashes.get(i).join(), row.email(),
+                    row.firstName(), row.lastName(), row.fullName(), true, row.role()});
+            events.add(createdEvent(userId, row));
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            transaction.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, params);
+                jdbcTemplate.batchUpdate(OUTBOX_SQL, events);
+            });
+            for (int i = 0; i < fresh.size(); i++) {
+                markCreated(job, fresh.get(i), (String) params.get(i)[0]);
+            }
+        } catch (DataAccessException batchError) {
+            // The batch was rolled back as a whole (e.g. a concurrent insert took a username); retry row by row
+            log.warn("Roster import {}: batch of {} failed ({}), retrying row by row", job.id, fresh.size(), batchError.getMessage());
+            for (int i = 0; i < fresh.size(); i++) {
+                RosterRow row = fresh.get(i);
+                Object[] rowParams = params.get(i);
+                Object[] rowEvent = events.get(i);
+                try {
+                    transaction.executeWithoutResult(status -> {
+                        jdbcTemplate.update(INSERT_SQL, rowParams);
+                        jdbcTemplate.update(OUTBOX_SQL, rowEvent);
+                    });
+                    markCreated(job, row, (String) params.get(i)[0]);
+                } catch (DuplicateKeyException e) {
+                    job.record(ImportRowResult.builder().row(row.row()).username(row.username()).status("DUPLICATE").message("User already exists").build());
+                } catch (DataAccessException e) {
+                    job.record(ImportRowResult.builder().row(row.row()).username(row.username()).status("FAILED").message(e.getMostSpecificCause().getMessage()).build());
+                }
+            }
+        }
+    }
+
+    private Object[] createdEvent(String userId, RosterRow row) {
+        Map<String, String> payload = new LinkedHashMap<>();
+        payload.put("id", userId);
+        payload.put("username", row.username());
+        payload.put("fullName", row.fullName());
+        payload.put("role", row.role());
+        try {
+            return new Object[]{UserEventType.USER_CREATED.name(), userId, objectMapper.writeValueAsString(payload),
+                    Timestamp.from(Instant.now())};
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize user event for " + userId, e);
+        }
+    }
+
+    private void markCreated(ImportJob job, RosterRow row, String userId) {
+        userAvailabilityService.recordUser(User.builder().username(row.username()).email(row.email()).build());
+        // Already committed, so in-process listeners run straight away
+        eventPublisher.publishEvent(new UserChangedEvent(UserEventType.USER_CREATED, userId, row.username(),
+                row.fullName(), row.email(), row.role()));
+        job.record(ImportRowResult.builder().row(row.row()).username(row.username()).status("CREATED").userId(userId).build());
+    }
+
+    // Same rules as UserCreationRequest, plus the NOT NULL/unique columns the insert needs
+    private String validate(RosterRow row) {
+        if (row.username() == null || row.username().length() < 3) {
+            return ErrorCode.USER_MIN.getMessage();
+        }
+        if (row.password() == null || row.password().length() < 8) {
+            return ErrorCode.PASSWORD_MAX.getMessage();
+        }
+        if (row.email() == null || !row.email().contains("@")) {
+            return "Email is required";
+        }
+        if (row.role() != null && !ROLES.contains(row.role())) {
+            return "Unknown role " + row.role();
+        }
+        return null;
+    }
+
+    private Format resolveFormat(String filename, String format) {
+        if (format != null && !format.isBlank()) {
+            try {
+                return Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new AppException(ErrorCode.INVALID_REQUEST);
+            }
+        }
+        String name = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return Format.NDJSON;
+        }
+        return Format.CSV;
+    }
+
+    private Map<String, Integer> parseHeader(String line) {
+        List<String> columns = splitCsv(line);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            header.put(columns.get(i).trim().toLowerCase(Locale.ROOT).replace("_", ""), i);
+        }
+        return header;
+    }
+
+    private RosterRow fromCsv(long rowNumber, String line, Map<String, Integer> header) {
+        List<String> cells = splitCsv(line);
+        return new RosterRow(rowNumber,
+                cell(cells, header, "username"),
+                cell(cells, header, "password"),
+                cell(cells, header, "email"),
+                cell(cells, header, "firstname"),
+                cell(cells, header, "lastname"),
+                cell(cells, header, "fullname"),
+                role(cell(cells, header, "role")));
+    }
+
+    private RosterRow fromJson(long rowNumber, String line) throws IOException {
+        JsonNode node = objectMapper.readTree(line);
+        return new RosterRow(rowNumber,
+                text(node, "username"),
+                text(node, "password"),
+                text(node, "email"),
+                text(node, "firstName"),
+                text(node, "lastName"),
+                text(node, "fullName"),
+                role(text(node, "role")));
+    }
+
+    private static String cell(List<String> cells, Map<String, Integer> header, String column) {
+        Integer index = header.get(column);
+        if (index == null || index >= cells.size()) {
+            return null;
+        }
+        String value = cells.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        String text = value.asText().trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    private static String role(String value) {
+        return value == null ? "STUDENT" : value.toUpperCase(Locale.ROOT);
+    }
+
+    // RFC 4180 subset: quoted fields with "" escapes, no embedded line breaks
+    private static List<String> splitCsv(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        cells.add(current.toString());
+        return cells;
+    }
+
+    private static Set<String> lowerCaseSet(Collection<String> values) {
+        Set<String> out = new HashSet<>(values.size() * 2);
+        for (String value : values) {
+            out.add(normalize(value));
+        }
+        return out;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete import spool file {}", path);
+        }
+    }
+
+    private record RosterRow(long row, String username, String password, String email,
+                             String firstName, String lastName, String fullName, String role) {
+    }
+
+    private static final class ImportJob {
+        final String id;
+        final Format format;
+        volatile String status = "QUEUED";
+        volatile Instant startedAt;
+        volatile Instant finishedAt;
+        volatile String error;
+        final AtomicLong processed = new AtomicLong();
+        final AtomicLong created = new AtomicLong();
+        final AtomicLong duplicates = new AtomicLong();
+        final AtomicLong invalid = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final List<ImportRowResult> results = Collections.synchronizedList(new ArrayList<>());
+
+        ImportJob(String id, Format format) {
+            this.id = id;
+            this.format = format;
+        }
+
+        void record(ImportRowResult result) {
+            results.add(result);
+            switch (result.getStatus()) {
+                case "CREATED" -> created.incrementAndGet();
+                case "DUPLICATE" -> duplicates.incrementAndGet();
+                case "INVALID" -> invalid.incrementAndGet();
+                default -> failed.incrementAndGet();
+            }
+            processed.incrementAndGet();
+        }
+
+        ImportJobResponse snapshot(boolean includeRows) {
+            List<ImportRowResult> rows = null;
+            if (includeRows) {
+                synchronized (results) {
+                    rows = new ArrayList<>(results);
+                }
+                rows.sort(Comparator.comparingLong(ImportRowResult::getRow));
+            }
+            return ImportJobResponse.builder()
+                    .jobId(id)
+                    .status(status)
+                    .format(format.name())
+                    .processedRows(processed.get())
+                    .created(created.get())
+                    .duplicates(duplicates.get())
+                    .invalid(invalid.get())
+                    .failed(failed.get())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .rows(rows)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package org.tduc.userservice.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.tduc.userservice.dto.response.SearchIndexStatsResponse;
+import org.tduc.userservice.dto.response.UserSearchResult;
+import org.tduc.userservice.event.UserChangedEvent;
+import org.tduc.userservice.model.UserEventType;
+import org.tduc.userservice.repository.UserRepository;
+import org.tduc.userservice.repository.projection.UserProfileView;
+import org.tduc.userservice.util.TypeaheadIndex;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Typeahead search over users for the admin and teacher pickers, served from an in-memory
+ * {@link TypeaheadIndex}. The index is built from a streaming scan at startup, kept current from
+ * committed {@link UserChangedEvent}s, and rebuilt when too many of its docs are dead.
+ * <p>
+ * Those events only cover changes made through this instance, so the index is also rebuilt every
+ * app.search.rebuild-interval-ms to pick up users created, renamed or deleted through other replicas.
+ */
+@Service
+public class UserSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.search.default-limit:10}")
+    private int defaultLimit;
+
+    @Value("${app.search.max-limit:50}")
+    private int maxLimit;
+
+    // Upper bound on docs scored per query, keeps one-letter queries cheap
+    @Value("${app.search.max-candidates:2000}")
+    private int maxCandidates;
+
+    @Value("${app.search.compact-dead-ratio:0.25}")
+    private double compactDeadRatio;
+
+    // Full rebuild period; bounds how long other replicas' changes stay invisible here
+    @Value("${app.search.rebuild-interval-ms:300000}")
+    private long rebuildIntervalMillis;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Guarded by lock
+    private TypeaheadIndex index;
+    // Changes seen while a rebuild scan runs, replayed onto the new index before it is swapped in; guarded by lock
+    private List<UserChangedEvent> pending;
+
+    private volatile Instant lastBuild;
+    private volatile long lastBuildMillis;
+    private final AtomicLong fallbackQueries = new AtomicLong();
+    private Timer queryTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        queryTimer = Timer.builder("users.search.latency")
+                .description("In-memory user search latency")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("users.search.index.docs", this, s -> s.read(TypeaheadIndex::liveDocs))
+                .register(meterRegistry);
+        Gauge.builder("users.search.index.dead.docs", this, s -> s.read(TypeaheadIndex::deadDocs))
+                .register(meterRegistry);
+        Gauge.builder("users.search.index.memory", this, s -> s.read(TypeaheadIndex::estimateBytes))
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public List<UserSearchResult> search(String query, String role, Integer limit) {
+        int size = Math.min(limit == null || limit <= 0 ? defaultLimit : limit, maxLimit);
+        String roleFilter = role == null || role.isBlank() ? null : role.trim();
+        long started = System.nanoTime();
+        List<TypeaheadIndex.Match> matches = null;
+        lock.readLock().lock();
+        try {
+            if (index != null) {
+                matches = index.search(query, size, roleFilter, maxCandidates);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (matches == null) {
+            return fallbackSearch(query, roleFilter, size);
+        }
+        queryTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return matches.stream()
+                .map(match -> UserSearchResult.builder()
+                        .id(match.doc().id())
+                        .username(match.doc().username())
+                        .fullName(match.doc().fullName())
+                        .email(match.doc().email())
+                        .role(match.doc().role())
+                        .score(match.score())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (index != null) {
+                apply(index, event);
+            }
+            if (pending != null) {
+                pending.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Builds the index at startup, compacts it once dead docs pass the configured share and rebuilds
+     * it once it is older than the rebuild interval.
+     */
+    @Scheduled(initialDelayString = "${app.search.initial-delay-ms:0}",
+            fixedDelayString = "${app.search.check-interval-ms:60000}")
+    @Transactional(readOnly = true)
+    public void maintain() {
+        boolean needsBuild;
+        lock.readLock().lock();
+        try {
+            needsBuild = index == null || index.deadDocs() > index.liveDocs() * compactDeadRatio
+                    || lastBuild.isBefore(Instant.now().minusMillis(rebuildIntervalMillis));
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (needsBuild) {
+            rebuild();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                return; // already rebuilding
+            }
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        TypeaheadIndex next = new TypeaheadIndex();
+        try (Stream<UserProfileView> profiles = userRepository.streamAllProfiles()) {
+            profiles.forEach(p -> next.upsert(p.id(), p.username(), p.fullName(), p.email(), p.role()));
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("User search index build failed: {}", ex.getMessage(), ex);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (UserChangedEvent event : pending) {
+                apply(next, event);
+            }
+            pending = null;
+            index = next;
+            lastBuild = Instant.now();
+            lastBuildMillis = System.currentTimeMillis() - started;
+            log.info("User search index built: docs={}, tokens={}, trigrams={}, ~{} KB, took={}ms",
+                    next.liveDocs(), next.tokenCount(), next.gramCount(), next.estimateBytes() / 1024, lastBuildMillis);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public SearchIndexStatsResponse getStats() {
+        SearchIndexStatsResponse.SearchIndexStatsResponseBuilder stats = SearchIndexStatsResponse.builder()
+                .lastBuild(lastBuild)
+                .lastBuildMillis(lastBuildMillis)
+                .queries(queryTimer.count())
+                .fallbackQueries(fallbackQueries.get())
+                .meanMicros(queryTimer.mean(TimeUnit.MICROSECONDS))
+                .maxMicros(queryTimer.max(TimeUnit.MICROSECONDS));
+        lock.readLock().lock();
+        try {
+            if (index != null) {
+                stats.ready(true)
+                        .liveDocs(index.liveDocs())
+                        .deadDocs(index.deadDocs())
+                        .tokens(index.tokenCount())
+                        .trigrams(index.gramCount())
+                        .estimatedBytes(index.estimateBytes());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return stats.build();
+    }
+
+    private static void apply(TypeaheadIndex target, UserChangedEvent event) {
+        if (event.type() == UserEventType.USER_DELETED) {
+            target.remove(event.id());
+        } else {
+            target.upsert(event.id(), event.username(), event.fullName(), event.email(), event.role());
+        }
+    }
+
+    private double read(ToLongFunction<TypeaheadIndex> metric) {
+        lock.readLock().lock();
+        try {
+            return index == null ? 0 : metric.applyAsLong(index);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Only until the first build finishes: username prefix through the unique index
+    private List<UserSearchResult> fallbackSearch(String query, String role, int size) {
+        fallbackQueries.incrementAndGet();
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        return userRepository.findTop20ByUsernameStartingWithOrderByUsernameAsc(query.trim()).stream()
+                .filter(u -> role == null || role.equalsIgnoreCase(u.getRole()))
+                .limit(size)
+                .map(u -> UserSearchResult.builder()
+                        .id(u.getId())
+                        .username(u.getUsername())
+                        .fullName(u.getFullName())
+                        .email(u.getEmail())
+                        .role(u.getRole())
+                        .build())
+                .collect(Collectors.toList());
+    }
+}
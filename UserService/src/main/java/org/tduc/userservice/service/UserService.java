@@ -7,10 +7,12 @@ import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.tduc.userservice.dto.request.AuthRequest;
 import org.tduc.userservice.dto.request.IntrospectRequest;
 import org.tduc.userservice.dto.request.UserCreationRequest;
@@ -22,12 +24,17 @@ import org.tduc.userservice.exception.AppException;
 import org.tduc.userservice.exception.ErrorCode;
 import org.tduc.userservice.mapper.UserMapper;
 import org.tduc.userservice.repository.UserRepository;
+import org.tduc.userservice.repository.projection.PublicProfileView;
 import org.tduc.userservice.model.User;
+import org.tduc.userservice.model.UserEventType;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 // Added imports for bean registration and registry post-processor
@@ -48,6 +55,14 @@ public class UserService {
     private UserRepository userRepository;
     @Autowired
     private UserMapper userMapper;
+    @Autowired
+    private UserAvailabilityService userAvailabilityService;
+    @Autowired
+    private LoginThrottleService loginThrottleService;
+    @Autowired
+    private UserEventOutbox userEventOutbox;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     // add logger used throughout the class
     private static final Logger log = LoggerFactory.getLogger(UserService.class);
@@ -57,17 +72,25 @@ public class UserService {
     @org.springframework.beans.factory.annotation.Value("${JWT_SECRET:${jwt.secret:mysupersecretrandomstringwith32chars!}}")
     private String jwtSecret;
 
-    public AuthResponse authenticate(AuthRequest authRequest) {
-        var user = userRepository.findByUsername(authRequest.getUsername())
-                .orElseThrow(() -> new AppException(ErrorCode.USERNAME_NOT_EXIST));
+    public AuthResponse authenticate(AuthRequest authRequest, String clientIp) {
+        // Reject throttled callers before spending any bcrypt CPU on them
+        loginThrottleService.checkAllowed(authRequest.getUsername(), clientIp);
+
+        var user = userRepository.findByUsername(authRequest.getUsername()).orElse(null);
+        if (user == null) {
+            loginThrottleService.recordFailure(authRequest.getUsername(), clientIp);
+            throw new AppException(ErrorCode.USERNAME_NOT_EXIST);
+        }
 
         PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
         boolean passmatch = passwordEncoder.matches(authRequest.getPassword(), user.getPasswordHash());
 
         if (!passmatch) {
+            loginThrottleService.recordFailure(authRequest.getUsername(), clientIp);
             throw new AppException(ErrorCode.UNAUTHENTICATED);
         }
 
+        loginThrottleService.recordSuccess(authRequest.getUsername());
         var token = generateToken(user.getUsername());
         return AuthResponse.builder().token(token).authenticated(true).build();
     }
@@ -90,7 +113,14 @@ public class UserService {
                                 .role(null)  // Explicitly set to null so user can choose role
                                 .passwordHash(encoder.encode(UUID.randomUUID().toString()))
                                 .build();
-                        return userRepository.save(newUser);
+                        // Explicit transaction: this is also reached through self-invocation from authenticate()
+                        User saved = new TransactionTemplate(transactionManager).execute(status -> {
+                            User created = userRepository.save(newUser);
+                            userEventOutbox.append(UserEventType.USER_CREATED, created);
+                            return created;
+                        });
+                        userAvailabilityService.recordUser(saved);
+                        return saved;
                     });
 
         JWTClaimsSet jwtClaimsSet = new JWTClaimsSet.Builder()
@@ -134,8 +164,10 @@ public class UserService {
         return  userRepository.findByUsername(username).orElseThrow(() -> new AppException(ErrorCode.USERNAME_NOT_EXIST));
     }
     //
+    @Transactional
     public User createRequest(@Valid UserCreationRequest request) {
-        if (userRepository.existsByUsername(request.getUsername())) {
+        // Bloom-filter pre-check; only possible hits reach the unique index
+        if (!userAvailabilityService.isUsernameAvailable(request.getUsername())) {
             throw new AppException(ErrorCode.USER_EXISTED);
         }
 
@@ -149,35 +181,63 @@ public class UserService {
         user.setPasswordHash(passwordEncoder.encode(user.getPassword()));
         // Clear transient password for safety
         user.setPassword(null);
-        return userRepository.save(user);
+        User saved;
+        try {
+            // Flush here so a unique-index violation surfaces inside this try rather than at commit
+            saved = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            // Filter can lag behind inserts made by another instance; the unique index is the final word
+            throw new AppException(ErrorCode.USER_EXISTED);
+        }
+        userEventOutbox.append(UserEventType.USER_CREATED, saved);
+        userAvailabilityService.recordUser(saved);
+        return saved;
     }
 
     public List<User> getUsers() {
         return userRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public UserResponse getUser(String id) {
-        User user = userRepository.findById(id)
+        return userRepository.findProfileById(id)
+                .map(userMapper::toUserResponse)
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
-        return userMapper.toUserResponse(userRepository.save(user));
     }
 
+    @Transactional(readOnly = true)
+    public UserResponse getProfile(String username) {
+        return userRepository.findProfileByUsername(username)
+                .map(userMapper::toUserResponse)
+                .orElseThrow(() -> new AppException(ErrorCode.USERNAME_NOT_EXIST));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<PublicProfileView> getPublicProfile(String id) {
+        return userRepository.findPublicProfileById(id);
+    }
+
+    @Transactional
     public UserResponse editUser(String userId, @Valid UserEditRequest request) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
         userMapper.updateUser(user, request);
         User savedUser = userRepository.save(user);
+        userEventOutbox.append(UserEventType.USER_UPDATED, savedUser);
+        userAvailabilityService.recordUser(savedUser);
         return userMapper.toUserResponse(savedUser);
     }
 
+    @Transactional
     public void deleteUser(String id) {
-        if (!userRepository.existsById(id)) {
-            throw new AppException(ErrorCode.USER_NOT_FOUND);
-        }
-        userRepository.deleteById(id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
+        userRepository.delete(user);
+        userEventOutbox.append(UserEventType.USER_DELETED, user);
     }
     //
 
+    @Transactional
     public UserResponse updateRole(String token, String role) {
         try {
             SignedJWT signedJWT = SignedJWT.parse(token);
@@ -186,12 +246,14 @@ public class UserService {
                     .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
             user.setRole(role);
             User savedUser = userRepository.save(user);
+            userEventOutbox.append(UserEventType.USER_UPDATED, savedUser);
             return userMapper.toUserResponse(savedUser);
         } catch (Exception e) {
             throw new AppException(ErrorCode.UNAUTHENTICATED);
         }
     }
 
+    @Transactional
     public UserResponse updateProfile(String token,@Valid UserEditRequest request) {
         try {
             SignedJWT signedJWT = SignedJWT.parse(token);
@@ -200,6 +262,8 @@ public class UserService {
                     .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
             userMapper.updateUser(user, request); // Update user fields
             User savedUser = userRepository.save(user);
+            userEventOutbox.append(UserEventType.USER_UPDATED, savedUser);
+            userAvailabilityService.recordUser(savedUser);
             return userMapper.toUserResponse(savedUser);
         } catch (Exception e) {
             throw new AppException(ErrorCode.UNAUTHENTICATED);
@@ -234,6 +298,7 @@ public class UserService {
      * Allow a user to choose/update their role.
      * The role must be one of the allowed values (STUDENT, TEACHER, ADMIN).
      */
+    @Transactional
     public UserResponse chooseRole(String token, String role) {
         try {
             SignedJWT signedJWT = SignedJWT.parse(token);
@@ -258,6 +323,7 @@ public class UserService {
 
             user.setRole(normalized);
             User saved = userRepository.save(user);
+            userEventOutbox.append(UserEventType.USER_UPDATED, saved);
             log.info("chooseRole: Success - user {} assigned role {}", username, normalized);
             return userMapper.toUserResponse(saved);
         } catch (java.text.ParseException e) {
@@ -270,15 +336,23 @@ public class UserService {
      * Admin-only login endpoint.
      * Authenticates user and verifies they have ADMIN role.
      */
-    public AuthResponse adminLogin(AuthRequest authRequest) {
+    public AuthResponse adminLogin(AuthRequest authRequest, String clientIp) {
+        // Reject throttled callers before spending any bcrypt CPU on them
+        loginThrottleService.checkAllowed(authRequest.getUsername(), clientIp);
+
         // Accept both username and email for admin login input
         var user = userRepository.findByUsername(authRequest.getUsername())
                 .or(() -> userRepository.findByEmail(authRequest.getUsername()))
-                .orElseThrow(() -> new AppException(ErrorCode.USERNAME_NOT_EXIST));
+                .orElse(null);
+        if (user == null) {
+            loginThrottleService.recordFailure(authRequest.getUsername(), clientIp);
+            throw new AppException(ErrorCode.USERNAME_NOT_EXIST);
+        }
 
         // Check if user has ADMIN role
         if (user.getRole() == null || !user.getRole().equalsIgnoreCase("ADMIN")) {
             log.warn("adminLogin: Non-admin user {} attempted login", authRequest.getUsername());
+            loginThrottleService.recordFailure(authRequest.getUsername(), clientIp);
             throw new AppException(ErrorCode.UNAUTHENTICATED);
         }
 
@@ -287,9 +361,12 @@ public class UserService {
 
         if (!passmatch) {
             log.warn("adminLogin: Invalid password for admin user {}", authRequest.getUsername());
+            loginThrottleService.recordFailure(authRequest.getUsername(), clientIp);
             throw new AppException(ErrorCode.UNAUTHENTICATED);
         }
 
+        loginThrottleService.recordSuccess(authRequest.getUsername());
+
         var token = generateToken(user.getUsername());
         log.info("adminLogin: Admin user {} logged in successfully", authRequest.getUsername());
         return AuthResponse.builder().token(token).authenticated(true).build();
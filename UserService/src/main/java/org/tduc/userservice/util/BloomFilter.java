@@ -0,0 +1,125 @@
+package org.tduc.userservice.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings.
+ * Safe for concurrent put/mightContain; bits are only ever set, never cleared,
+ * so a new filter has to be built to drop removed keys.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long numBits;
+    private final int numHashes;
+    private final AtomicLong insertions = new AtomicLong();
+
+    private BloomFilter(long numBits, int numHashes) {
+        this.numBits = numBits;
+        this.numHashes = numHashes;
+        this.words = new AtomicLongArray((int) ((numBits + 63) >>> 6));
+    }
+
+    /**
+     * Size a filter for the expected number of keys at the target false-positive probability.
+     */
+    public static BloomFilter create(long expectedInsertions, double fpp) {
+        if (fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("fpp must be in (0, 1)");
+        }
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        m = Math.max(64, m);
+        int k = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+        return new BloomFilter(m, k);
+    }
+
+    public void put(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1);
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            setBit(bit);
+        }
+        insertions.incrementAndGet();
+    }
+
+    /**
+     * @return false if the key was definitely never added, true if it may have been
+     */
+    public boolean mightContain(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1);
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Current false-positive probability, estimated from the fraction of bits set.
+     */
+    public double expectedFpp() {
+        return Math.pow((double) bitCount() / numBits, numHashes);
+    }
+
+    public long bitCount() {
+        long count = 0;
+        for (int i = 0; i < words.length(); i++) {
+            count += Long.bitCount(words.get(i));
+        }
+        return count;
+    }
+
+    public long sizeInBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    public long getNumBits() {
+        return numBits;
+    }
+
+    public int getNumHashes() {
+        return numHashes;
+    }
+
+    public long getInsertions() {
+        return insertions.get();
+    }
+
+    private void setBit(long bit) {
+        int index = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long current;
+        do {
+            current = words.get(index);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!words.compareAndSet(index, current, current | mask));
+    }
+
+    // 64-bit FNV-1a over UTF-16 code units
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // MurmurHash3 fmix64, used as the second hash for double hashing
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h | 1L;
+    }
+}
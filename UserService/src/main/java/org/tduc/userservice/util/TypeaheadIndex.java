@@ -0,0 +1,299 @@
+package org.tduc.userservice.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory typeahead index over username, full name and email.
+ * Whole values and full-name words go into a sorted token map for prefix lookups; every value is also
+ * split into trigrams so infix queries of three or more characters are answered by intersecting
+ * posting lists instead of scanning. Matching is case- and accent-insensitive ("nguyen" finds "Nguyễn").
+ * <p>
+ * Doc ids only ever grow, so posting lists stay sorted by appending. Updates and removals mark the
+ * old doc dead rather than editing postings; rebuild the index once the dead share gets large.
+ * Not thread-safe: callers guard it with a read/write lock.
+ */
+public final class TypeaheadIndex {
+
+    public record Doc(String id, String username, String fullName, String email, String role,
+                      String usernameKey, String fullNameKey, String emailKey) {
+    }
+
+    public record Match(Doc doc, int score) {
+    }
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final int GRAM = 3;
+
+    private final List<Doc> docs = new ArrayList<>();
+    private final Map<String, Integer> docIdByUserId = new HashMap<>();
+    private final TreeMap<String, IntList> tokens = new TreeMap<>();
+    private final Map<String, IntList> grams = new HashMap<>();
+    private int deadDocs;
+
+    public void upsert(String id, String username, String fullName, String email, String role) {
+        remove(id);
+        Doc doc = new Doc(id, username, fullName, email, role, normalize(username), normalize(fullName), normalize(email));
+        int docId = docs.size();
+        docs.add(doc);
+        docIdByUserId.put(id, docId);
+
+        addToken(doc.usernameKey(), docId);
+        addToken(doc.emailKey(), docId);
+        int at = doc.emailKey().indexOf('@');
+        if (at > 0) {
+            addToken(doc.emailKey().substring(0, at), docId);
+        }
+        addToken(doc.fullNameKey(), docId);
+        for (String word : doc.fullNameKey().split(" ")) {
+            addToken(word, docId);
+        }
+
+        Set<String> docGrams = new LinkedHashSet<>();
+        collectGrams(doc.usernameKey(), docGrams);
+        collectGrams(doc.fullNameKey(), docGrams);
+        collectGrams(doc.emailKey(), docGrams);
+        for (String gram : docGrams) {
+            grams.computeIfAbsent(gram, g -> new IntList()).add(docId);
+        }
+    }
+
+    public void remove(String id) {
+        Integer docId = docIdByUserId.remove(id);
+        if (docId != null) {
+            docs.set(docId, null);
+            deadDocs++;
+        }
+    }
+
+    /**
+     * Top matches, best first. Candidates come from token prefixes and, for queries of three or more
+     * characters, from the trigram intersection; at most {@code maxCandidates} docs are scored.
+     */
+    public List<Match> search(String query, int limit, String role, int maxCandidates) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // Worst match at the head so it is the one evicted
+        PriorityQueue<Match> top = new PriorityQueue<>(limit + 1, BEST_FIRST.reversed());
+        BitSet seen = new BitSet(docs.size());
+        int scored = 0;
+
+        NavigableMap<String, IntList> prefixed = tokens.subMap(q, true, q + Character.MAX_VALUE, false);
+        outer:
+        for (IntList postings : prefixed.values()) {
+            for (int i = 0; i < postings.size; i++) {
+                if (scored >= maxCandidates) {
+                    break outer;
+                }
+                if (consider(postings.values[i], q, role, seen, top, limit)) {
+                    scored++;
+                }
+            }
+        }
+
+        if (q.length() >= GRAM && scored < maxCandidates) {
+            IntList candidates = intersectGrams(q);
+            for (int i = 0; candidates != null && i < candidates.size && scored < maxCandidates; i++) {
+                if (consider(candidates.values[i], q, role, seen, top, limit)) {
+                    scored++;
+                }
+            }
+        }
+
+        List<Match> result = new ArrayList<>(top);
+        result.sort(BEST_FIRST);
+        return result;
+    }
+
+    public int liveDocs() {
+        return docIdByUserId.size();
+    }
+
+    public int deadDocs() {
+        return deadDocs;
+    }
+
+    public int tokenCount() {
+        return tokens.size();
+    }
+
+    public int gramCount() {
+        return grams.size();
+    }
+
+    /**
+     * Rough heap footprint: object headers, string payloads, map entries and posting arrays.
+     */
+    public long estimateBytes() {
+        long bytes = 0;
+        for (Doc doc : docs) {
+            bytes += 8;
+            if (doc != null) {
+                bytes += 48 + stringBytes(doc.id()) + stringBytes(doc.username()) + stringBytes(doc.fullName())
+                        + stringBytes(doc.email()) + stringBytes(doc.usernameKey()) + stringBytes(doc.fullNameKey())
+                        + stringBytes(doc.emailKey());
+            }
+        }
+        bytes += (long) docIdByUserId.size() * (48 + 16);
+        for (Map.Entry<String, IntList> entry : tokens.entrySet()) {
+            bytes += 40 + stringBytes(entry.getKey()) + entry.getValue().bytes();
+        }
+        for (Map.Entry<String, IntList> entry : grams.entrySet()) {
+            bytes += 40 + stringBytes(entry.getKey()) + entry.getValue().bytes();
+        }
+        return bytes;
+    }
+
+    // NFD strips combining accents; the Vietnamese d-with-stroke has no decomposition and is mapped by hand
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return folded.replace('\u0111', 'd').replace('\u0110', 'D').toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+    }
+
+    private static final Comparator<Match> BEST_FIRST = Comparator.comparingInt(Match::score).reversed()
+            .thenComparing(m -> m.doc().usernameKey());
+
+    private boolean consider(int docId, String q, String role, BitSet seen, PriorityQueue<Match> top, int limit) {
+        if (seen.get(docId)) {
+            return false;
+        }
+        seen.set(docId);
+        Doc doc = docs.get(docId);
+        if (doc == null || (role != null && !role.equalsIgnoreCase(doc.role()))) {
+            return false;
+        }
+        int score = score(doc, q);
+        if (score > 0) {
+            top.offer(new Match(doc, score));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        return true;
+    }
+
+    // Exact and leading matches on username beat name matches, which beat email; infix matches rank last
+    private static int score(Doc doc, String q) {
+        String username = doc.usernameKey();
+        String name = doc.fullNameKey();
+        String email = doc.emailKey();
+        int score;
+        if (username.equals(q)) {
+            score = 1000;
+        } else if (username.startsWith(q)) {
+            score = 800;
+        } else if (name.startsWith(q)) {
+            score = 700;
+        } else if (name.contains(" " + q)) {
+            score = 600;
+        } else if (email.startsWith(q)) {
+            score = 500;
+        } else if (username.contains(q)) {
+            score = 300;
+        } else if (name.contains(q)) {
+            score = 200;
+        } else if (email.contains(q)) {
+            score = 100;
+        } else {
+            return 0;
+        }
+        // Prefer the closest-length username among equal matches
+        return score - Math.min(username.length() - Math.min(q.length(), username.length()), 50);
+    }
+
+    private IntList intersectGrams(String q) {
+        Set<String> queryGrams = new LinkedHashSet<>();
+        collectGrams(q, queryGrams);
+        List<IntList> lists = new ArrayList<>(queryGrams.size());
+        for (String gram : queryGrams) {
+            IntList postings = grams.get(gram);
+            if (postings == null) {
+                return null;
+            }
+            lists.add(postings);
+        }
+        lists.sort(Comparator.comparingInt(l -> l.size));
+        IntList result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.size > 0; i++) {
+            result = result.intersect(lists.get(i));
+        }
+        return result;
+    }
+
+    private void addToken(String token, int docId) {
+        if (!token.isEmpty()) {
+            tokens.computeIfAbsent(token, t -> new IntList()).add(docId);
+        }
+    }
+
+    private static void collectGrams(String value, Set<String> out) {
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            out.add(value.substring(i, i + GRAM));
+        }
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40 + value.length();
+    }
+
+    /**
+     * Growable sorted int array; doc ids are appended in increasing order.
+     */
+    private static final class IntList {
+        int[] values = new int[2];
+        int size;
+
+        void add(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        IntList intersect(IntList other) {
+            IntList out = new IntList();
+            out.values = new int[Math.max(2, Math.min(size, other.size))];
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                int a = values[i];
+                int b = other.values[j];
+                if (a == b) {
+                    out.values[out.size++] = a;
+                    i++;
+                    j++;
+                } else if (a < b) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return out;
+        }
+
+        long bytes() {
+            return 32 + 4L * values.length;
+        }
+    }
+}
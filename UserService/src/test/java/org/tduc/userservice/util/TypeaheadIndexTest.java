@@ -0,0 +1,88 @@
+package org.tduc.userservice.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TypeaheadIndexTest {
+
+    private TypeaheadIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TypeaheadIndex();
+        index.upsert("1", "nguyenvana", "Nguyễn Văn A", "vana@school.edu", "STUDENT");
+        index.upsert("2", "tranthib", "Trần Thị B", "thib@school.edu", "STUDENT");
+        index.upsert("3", "dangminh", "Đặng Minh", "minh.dang@school.edu", "TEACHER");
+    }
+
+    @Test
+    void search_usernamePrefix_ranksExactAboveLongerUsernames() {
+        index.upsert("4", "nguyen", "Nguyễn Hoa", "hoa@school.edu", "STUDENT");
+
+        List<TypeaheadIndex.Match> matches = index.search("nguyen", 10, null, 100);
+
+        assertThat(ids(matches)).containsExactly("4", "1");
+        assertThat(matches.get(0).score()).isEqualTo(1000);
+    }
+
+    @Test
+    void search_fullNameWord_matchesByPrefix() {
+        assertThat(ids(index.search("minh", 10, null, 100))).containsExactly("3");
+        assertThat(ids(index.search("th", 10, null, 100))).containsExactly("2");
+    }
+
+    @Test
+    void search_infix_usesTrigrams() {
+        // "uye" is neither a token nor a token prefix, only a trigram of "nguyen..."
+        assertThat(ids(index.search("uye", 10, null, 100))).containsExactly("1");
+        assertThat(ids(index.search("school", 10, null, 100))).containsExactlyInAnyOrder("1", "2", "3");
+        assertThat(index.search("xyz", 10, null, 100)).isEmpty();
+    }
+
+    @Test
+    void search_ignoresCaseAndAccents() {
+        assertThat(ids(index.search("TRẦN", 10, null, 100))).containsExactly("2");
+        assertThat(ids(index.search("dang", 10, null, 100))).containsExactly("3");
+        assertThat(TypeaheadIndex.normalize("  Đặng   Minh ")).isEqualTo("dang minh");
+    }
+
+    @Test
+    void search_roleFilter_dropsOtherRoles() {
+        assertThat(ids(index.search("school", 10, "teacher", 100))).containsExactly("3");
+    }
+
+    @Test
+    void search_limit_keepsBestMatches() {
+        assertThat(ids(index.search("school", 1, null, 100))).hasSize(1);
+        assertThat(index.search("school", 0, null, 100)).isEmpty();
+    }
+
+    @Test
+    void remove_leavesTombstoneAndHidesDoc() {
+        index.remove("2");
+        index.remove("2");
+
+        assertThat(index.search("tran", 10, null, 100)).isEmpty();
+        assertThat(index.search("hib", 10, null, 100)).isEmpty();
+        assertThat(index.liveDocs()).isEqualTo(2);
+        assertThat(index.deadDocs()).isEqualTo(1);
+    }
+
+    @Test
+    void upsert_existingUser_replacesOldValues() {
+        index.upsert("1", "lethic", "Lê Thị C", "thic@school.edu", "STUDENT");
+
+        assertThat(index.search("nguyen", 10, null, 100)).isEmpty();
+        assertThat(ids(index.search("lethi", 10, null, 100))).containsExactly("1");
+        assertThat(index.liveDocs()).isEqualTo(3);
+        assertThat(index.deadDocs()).isEqualTo(1);
+    }
+
+    private static List<String> ids(List<TypeaheadIndex.Match> matches) {
+        return matches.stream().map(m -> m.doc().id()).toList();
+    }
+}